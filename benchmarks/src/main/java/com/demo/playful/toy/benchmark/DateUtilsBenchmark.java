@@ -0,0 +1,63 @@
+package com.demo.playful.toy.benchmark;
+
+import com.demo.playful.toy.utils.DateUtils;
+import com.demo.playful.toy.utils.TimestampParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Calendar;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DateUtilsBenchmark
+ * 日期解析与公历转农历
+ * 公历转农历按早、中、晚三个年份分别测量, 原实现的耗时随年份增长
+ *
+ * @author 张涵林
+ * @date 2020/6/22
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DateUtilsBenchmark {
+
+    @Param({"1901", "2000", "2090"})
+    private int year;
+
+    private String birth;
+    private Calendar birthCal;
+    private int epochDay;
+
+    @Setup
+    public void setup() {
+        birth = year + "-06-15 10";
+        birthCal = DateUtils.parseCalendar(birth, "yyyy-MM-dd HH");
+        epochDay = DateUtils.toEpochDay(birthCal);
+    }
+
+    @Benchmark
+    public Calendar parseCalendar() {
+        return DateUtils.parseCalendar(birth, "yyyy-MM-dd HH");
+    }
+
+    @Benchmark
+    public long timestampParser() {
+        return TimestampParser.parse(birth);
+    }
+
+    @Benchmark
+    public Calendar solarToLunarCalendar() {
+        return DateUtils.LunarDate.solarToLunar(birthCal);
+    }
+
+    @Benchmark
+    public int solarToLunarEpochDay() {
+        return DateUtils.LunarDate.solarToLunar(epochDay);
+    }
+}
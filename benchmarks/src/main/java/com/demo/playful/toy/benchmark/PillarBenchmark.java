@@ -0,0 +1,78 @@
+package com.demo.playful.toy.benchmark;
+
+import com.demo.playful.toy.CalculationEightCharacters;
+import com.demo.playful.toy.domain.EightCharactersDto;
+import com.demo.playful.toy.enums.Earthly;
+import com.demo.playful.toy.enums.HeavenlyStem;
+import com.demo.playful.toy.enums.SexagenaryCycle;
+import com.demo.playful.toy.utils.DateUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Calendar;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PillarBenchmark
+ * 日柱计算与生辰八字端到端计算
+ *
+ * @author 张涵林
+ * @date 2020/6/22
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PillarBenchmark {
+
+    private Calendar birthCal;
+    private int year;
+    private int month;
+    private int day;
+    private int hour;
+    private int epochDay;
+
+    @Setup
+    public void setup() {
+        birthCal = DateUtils.parseCalendar("1990-12-26 07", "yyyy-MM-dd HH");
+        year = birthCal.get(Calendar.YEAR);
+        month = birthCal.get(Calendar.MONTH);
+        day = birthCal.get(Calendar.DAY_OF_MONTH);
+        hour = birthCal.get(Calendar.HOUR_OF_DAY);
+        epochDay = DateUtils.toEpochDay(year, month + 1, day);
+    }
+
+    @Benchmark
+    public HeavenlyStem dayHeavenlyStem() {
+        return HeavenlyStem.getDayHeavenlyStem(year, month, day);
+    }
+
+    @Benchmark
+    public Earthly dayEarthly() {
+        return Earthly.getDayEarthly(year, month, day);
+    }
+
+    @Benchmark
+    public SexagenaryCycle dayPillar() {
+        return SexagenaryCycle.getDayPillar(epochDay);
+    }
+
+    @Benchmark
+    public SexagenaryCycle hourPillar() {
+        return SexagenaryCycle.getHourPillar(SexagenaryCycle.getDayPillar(epochDay), hour);
+    }
+
+    @Benchmark
+    public EightCharactersDto calculationEightCharacters() {
+        return CalculationEightCharacters.calculationEightCharacters(birthCal);
+    }
+
+    @Benchmark
+    public long calculationEightCharactersCode() {
+        return CalculationEightCharacters.calculationEightCharactersCode(year, month + 1, day, hour);
+    }
+}
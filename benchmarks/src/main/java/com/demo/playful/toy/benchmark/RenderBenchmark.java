@@ -0,0 +1,47 @@
+package com.demo.playful.toy.benchmark;
+
+import com.demo.playful.toy.CalculationEightCharacters;
+import com.demo.playful.toy.domain.EightCharactersDto;
+import com.demo.playful.toy.utils.DateUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Calendar;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RenderBenchmark
+ * 农历日期与八字的字符串输出
+ *
+ * @author 张涵林
+ * @date 2020/6/22
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RenderBenchmark {
+
+    private EightCharactersDto eightCharacters;
+    private Calendar lunarDate;
+
+    @Setup
+    public void setup() {
+        eightCharacters = CalculationEightCharacters.calculationEightCharacters(1990, 12, 26, 7);
+        lunarDate = eightCharacters.getLunarDate();
+    }
+
+    @Benchmark
+    public String lunarDateToString() {
+        return DateUtils.LunarDate.lunarDateToString(lunarDate);
+    }
+
+    @Benchmark
+    public String heavenlyStemEarthlyNameToString() {
+        return eightCharacters.heavenlyStemEarthlyNameToString();
+    }
+}
@@ -0,0 +1,364 @@
+package com.demo.playful.toy;
+
+import com.demo.playful.toy.domain.EightCharactersCode;
+import com.demo.playful.toy.enums.DateEnum;
+import com.demo.playful.toy.enums.PillarMode;
+import com.demo.playful.toy.enums.SexagenaryCycle;
+import com.demo.playful.toy.enums.ZiHourMode;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AuspiciousDateSearch
+ * 择日搜索: 在一段时间内按时间顺序找出满足ChartPredicate的时辰或日期, 最多返回前limit个
+ * <p>
+ * 按条件给出的各柱掩码提前跳过: 年月柱不满足时直接跳到下一个农历月(按节气划分时为下一个节),
+ * 日柱按六十甲子每天前进一位, 直接跳到下一个允许的日柱, 时柱只检查地支允许的时辰, 剩下的才计算完整编码并调用test
+ * 区间按块拆分到fork/join线程池并行, 按时间顺序的前若干块已凑够limit个结果后, 之后的块不再计算
+ * 每个时辰的编码与CalculationEightCharacters.calculationEightCharactersCode(int, int, int, int, int, PillarMode, ZiHourMode)(分钟为0)一致
+ *
+ * @author 张涵林
+ * @date 2020/7/3
+ */
+public class AuspiciousDateSearch implements AutoCloseable {
+    /**
+     * 默认每块的天数
+     */
+    public static final int DEFAULT_CHUNK_DAYS = 64;
+    /**
+     * 不限制结果数量
+     */
+    public static final int NO_LIMIT = Integer.MAX_VALUE;
+    private static final int HOURS_PER_DAY = PillarCursor.HOURS_PER_DAY;
+    private static final int EARTHLY_SIZE = 12;
+    private static final int[] HOUR_EARTHLY = new int[HOURS_PER_DAY];
+
+    static {
+        for (int hour = 0; hour < HOURS_PER_DAY; hour++) {
+            HOUR_EARTHLY[hour] = SexagenaryCycle.hourEarthly(hour);
+        }
+    }
+
+    /**
+     * 线程池
+     */
+    private final ForkJoinPool pool;
+    /**
+     * 每块的天数
+     */
+    private final int chunkDays;
+
+    /**
+     * 使用全部CPU核数和默认块大小
+     */
+    public AuspiciousDateSearch() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_DAYS);
+    }
+
+    /**
+     * @param parallelism 并行度
+     * @param chunkDays   每块的天数
+     */
+    public AuspiciousDateSearch(int parallelism, int chunkDays) {
+        if (parallelism < 1 || chunkDays < 1) {
+            throw new IllegalArgumentException("parallelism and chunkDays must be positive , parallelism:" + parallelism + ",chunkDays:" + chunkDays);
+        }
+        this.pool = new ForkJoinPool(parallelism);
+        this.chunkDays = chunkDays;
+    }
+
+    /**
+     * 按时辰搜索, 23点为晚子时
+     *
+     * @param fromEpochHour 起始epoch-hour(包含)
+     * @param toEpochHour   结束epoch-hour(不包含)
+     * @param predicate     条件
+     * @param mode          年柱、月柱的划分方式
+     * @param limit         最多返回的数量, 不限制传NO_LIMIT
+     * @return 满足条件的epoch-hour, 升序
+     */
+    public long[] searchHours(long fromEpochHour, long toEpochHour, ChartPredicate predicate, PillarMode mode, int limit) {
+        return searchHours(fromEpochHour, toEpochHour, predicate, mode, ZiHourMode.LATE_ZI, limit);
+    }
+
+    /**
+     * 按时辰搜索
+     *
+     * @param fromEpochHour 起始epoch-hour(包含)
+     * @param toEpochHour   结束epoch-hour(不包含)
+     * @param predicate     条件
+     * @param mode          年柱、月柱的划分方式
+     * @param ziHourMode    子时的处理方式
+     * @param limit         最多返回的数量, 不限制传NO_LIMIT
+     * @return 满足条件的epoch-hour, 升序
+     */
+    public long[] searchHours(long fromEpochHour, long toEpochHour, ChartPredicate predicate, PillarMode mode, ZiHourMode ziHourMode,
+                              int limit) {
+        return search(fromEpochHour, toEpochHour, predicate, mode, ziHourMode, limit, false);
+    }
+
+    /**
+     * 按日期搜索, 条件作用在当天的年月日三柱上, 五行只统计三柱
+     * 编码的时柱为EightCharactersCode.NO_PILLAR, getSexagenaryIndex返回-1: 限制时柱的条件(pillar/heavenlyStem/earthly)
+     * 一律不满足, 取反后一律满足, 因此掩码限制时柱时直接拒绝; 自定义条件不要对时柱调用getHeavenlyStem/getEarthly
+     *
+     * @param fromEpochDay 起始epoch-day(包含)
+     * @param toEpochDay   结束epoch-day(不包含)
+     * @param predicate    条件
+     * @param mode         年柱、月柱的划分方式
+     * @param limit        最多返回的数量, 不限制传NO_LIMIT
+     * @return 满足条件的epoch-day, 升序
+     */
+    public int[] searchDays(int fromEpochDay, int toEpochDay, ChartPredicate predicate, PillarMode mode, int limit) {
+        if (predicate.allowed(DateEnum.HOUR) != ChartPredicate.ALL) {
+            throw new IllegalArgumentException("searchDays predicate must not restrict hour pillar");
+        }
+        long[] epochHours = search((long) fromEpochDay * HOURS_PER_DAY, (long) toEpochDay * HOURS_PER_DAY, predicate, mode,
+                ZiHourMode.LATE_ZI, limit, true);
+        int[] epochDays = new int[epochHours.length];
+        for (int i = 0; i < epochHours.length; i++) {
+            epochDays[i] = (int) (epochHours[i] / HOURS_PER_DAY);
+        }
+        return epochDays;
+    }
+
+    private long[] search(long from, long to, ChartPredicate predicate, PillarMode mode, ZiHourMode ziHourMode, int limit, boolean days) {
+        if (from > to || limit < 0 || null == predicate || null == mode || null == ziHourMode) {
+            throw new IllegalArgumentException("invalid search , from:" + from + ",to:" + to + ",limit:" + limit + ",mode:" + mode
+                    + ",ziHourMode:" + ziHourMode);
+        }
+        if (from == to || limit == 0) {
+            return new long[0];
+        }
+        Query query = new Query(from, to, (long) chunkDays * HOURS_PER_DAY, predicate, mode, ziHourMode, limit, days);
+        pool.invoke(new SearchTask(query, 0, query.chunks));
+        return query.collect();
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+        try {
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 一次搜索的条件与各块结果
+     */
+    private static final class Query {
+        private final long from;
+        private final long to;
+        private final long chunkHours;
+        private final int chunks;
+        private final ChartPredicate predicate;
+        private final PillarMode mode;
+        private final ZiHourMode ziHourMode;
+        /**
+         * 子时换日时23点的日柱属于次日, 按日柱跳过时把时间后移1小时
+         */
+        private final int dayShift;
+        private final int limit;
+        private final boolean days;
+        private final long yearMask;
+        private final long monthMask;
+        private final long hourMask;
+        /**
+         * 时柱允许的地支, 第i位表示ordinal为i的地支
+         */
+        private final int hourEarthlyMask;
+        /**
+         * 下标为日柱序号, 值为到下一个允许的日柱的天数, 0表示当天允许
+         */
+        private final int[] daySkip = new int[SexagenaryCycle.SIZE];
+
+        private final long[][] results;
+        private final int[] counts;
+        private final boolean[] done;
+        /**
+         * 从第0块起连续完成的块数及其结果总数
+         */
+        private int frontier;
+        private long frontierCount;
+        /**
+         * 该块之后的块不再需要计算
+         */
+        private volatile int lastNeededChunk = Integer.MAX_VALUE;
+
+        private Query(long from, long to, long chunkHours, ChartPredicate predicate, PillarMode mode, ZiHourMode ziHourMode, int limit,
+                      boolean days) {
+            this.from = from;
+            this.to = to;
+            this.chunkHours = chunkHours;
+            this.chunks = (int) ((to - from + chunkHours - 1) / chunkHours);
+            this.predicate = predicate;
+            this.mode = mode;
+            this.ziHourMode = ziHourMode;
+            this.dayShift = !days && ziHourMode == ZiHourMode.ROLLOVER ? 1 : 0;
+            this.limit = limit;
+            this.days = days;
+            this.yearMask = predicate.allowed(DateEnum.YEAR);
+            this.monthMask = predicate.allowed(DateEnum.MONTH);
+            long dayMask = predicate.allowed(DateEnum.DAY);
+            this.hourMask = predicate.allowed(DateEnum.HOUR);
+            int earthlyMask = 0;
+            for (int index = 0; index < SexagenaryCycle.SIZE; index++) {
+                if ((hourMask >>> index & 1L) != 0) {
+                    earthlyMask |= 1 << index % EARTHLY_SIZE;
+                }
+            }
+            this.hourEarthlyMask = earthlyMask;
+            for (int index = 0; index < SexagenaryCycle.SIZE; index++) {
+                int skip = 0;
+                while (skip < SexagenaryCycle.SIZE && (dayMask >>> (index + skip) % SexagenaryCycle.SIZE & 1L) == 0) {
+                    skip++;
+                }
+                daySkip[index] = skip;
+            }
+            this.results = new long[chunks][];
+            this.counts = new int[chunks];
+            this.done = new boolean[chunks];
+        }
+
+        /**
+         * 搜索一块, 结果数达到limit或之前的块已凑够时提前结束
+         */
+        private void run(int chunk) {
+            if (chunk > lastNeededChunk) {
+                complete(chunk, new long[0], 0);
+                return;
+            }
+            long start = from + chunk * chunkHours;
+            long end = Math.min(start + chunkHours, to);
+            long[] found = new long[16];
+            int count = 0;
+            PillarCursor cursor = new PillarCursor(mode, ziHourMode);
+            long epochHour = start;
+            while (epochHour < end && count < limit && chunk <= lastNeededChunk) {
+                long yearMonthCode = cursor.yearMonthCode(epochHour);
+                long yearMonthEnd = Math.min(cursor.yearMonthEnd(), end);
+                if (yearMonthCode == EightCharactersCode.INVALID || !ChartPredicates.allows(yearMask, yearMonthCode, DateEnum.YEAR)
+                        || !ChartPredicates.allows(monthMask, yearMonthCode, DateEnum.MONTH)) {
+                    epochHour = days ? nextDay(yearMonthEnd - 1) : yearMonthEnd;
+                    continue;
+                }
+                while (epochHour < yearMonthEnd && count < limit) {
+                    long pillarDay = Math.floorDiv(epochHour + dayShift, HOURS_PER_DAY);
+                    int skip = daySkip[SexagenaryCycle.dayIndex((int) pillarDay)];
+                    if (skip > 0) {
+                        // 日柱每天前进一位, 直接跳到下一个允许的日柱, 不超过本月
+                        epochHour = Math.min((pillarDay + skip) * HOURS_PER_DAY - dayShift, days ? nextDay(yearMonthEnd - 1) : yearMonthEnd);
+                        continue;
+                    }
+                    long dayEnd = days ? nextDay(epochHour) : Math.min(nextDay(epochHour), yearMonthEnd);
+                    long dayCode = cursor.dayCode(epochHour);
+                    if (dayCode != EightCharactersCode.INVALID) {
+                        if (days) {
+                            if (predicate.test(dayCode)) {
+                                found = append(found, count++, epochHour);
+                            }
+                        } else {
+                            for (long hourOfDay = epochHour; hourOfDay < dayEnd && count < limit; hourOfDay++) {
+                                long code = hourCode(cursor, hourOfDay);
+                                if (code != EightCharactersCode.INVALID && predicate.test(code)) {
+                                    found = append(found, count++, hourOfDay);
+                                }
+                            }
+                        }
+                    }
+                    epochHour = dayEnd;
+                }
+            }
+            complete(chunk, found, count);
+        }
+
+        /**
+         * 完整编码, 地支不允许的时辰直接跳过
+         */
+        private long hourCode(PillarCursor cursor, long epochHour) {
+            if ((hourEarthlyMask >>> HOUR_EARTHLY[(int) Math.floorMod(epochHour, HOURS_PER_DAY)] & 1) == 0) {
+                return EightCharactersCode.INVALID;
+            }
+            long code = cursor.code(epochHour);
+            return code != EightCharactersCode.INVALID && ChartPredicates.allows(hourMask, code, DateEnum.HOUR) ? code : EightCharactersCode.INVALID;
+        }
+
+        /**
+         * 记录一块的结果, 并推进连续完成的前缀
+         */
+        private synchronized void complete(int chunk, long[] found, int count) {
+            results[chunk] = found;
+            counts[chunk] = count;
+            done[chunk] = true;
+            while (frontier < chunks && done[frontier]) {
+                frontierCount += counts[frontier];
+                if (frontierCount >= limit && frontier < lastNeededChunk) {
+                    lastNeededChunk = frontier;
+                }
+                frontier++;
+            }
+        }
+
+        private long[] collect() {
+            int total = 0;
+            for (int chunk = 0; chunk < chunks && total < limit; chunk++) {
+                total += Math.min(counts[chunk], limit - total);
+            }
+            long[] all = new long[total];
+            int offset = 0;
+            for (int chunk = 0; chunk < chunks && offset < total; chunk++) {
+                int length = Math.min(counts[chunk], total - offset);
+                System.arraycopy(results[chunk], 0, all, offset, length);
+                offset += length;
+            }
+            return all;
+        }
+
+        private static long nextDay(long epochHour) {
+            return (Math.floorDiv(epochHour, HOURS_PER_DAY) + 1) * HOURS_PER_DAY;
+        }
+
+        private static long[] append(long[] found, int index, long value) {
+            if (index == found.length) {
+                found = Arrays.copyOf(found, found.length << 1);
+            }
+            found[index] = value;
+            return found;
+        }
+    }
+
+    /**
+     * 按块下标二分, 先算前半段以便尽早凑够结果
+     */
+    private static final class SearchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Query query;
+        private final int from;
+        private final int to;
+
+        private SearchTask(Query query, int from, int to) {
+            this.query = query;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                query.run(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            SearchTask right = new SearchTask(query, mid, to);
+            right.fork();
+            new SearchTask(query, from, mid).compute();
+            right.join();
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.demo.playful.toy;
+
+import com.demo.playful.toy.domain.EightCharactersCode;
+import com.demo.playful.toy.enums.DateEnum;
+import com.demo.playful.toy.enums.Earthly;
+import com.demo.playful.toy.enums.FiveElements;
+import com.demo.playful.toy.enums.HeavenlyStem;
+import com.demo.playful.toy.enums.Stage;
+import com.demo.playful.toy.utils.Instrumentation;
+import com.demo.playful.toy.utils.TimestampParser;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * BatchCalculationEightCharacters
+ * 批量处理生日文件: 按行读取公历生日(纯文本, 或CSV中的某一列, 格式见TimestampParser),
+ * 逐行计算四柱与五行数量并写入结果文件
+ * <p>
+ * 输入按固定大小的窗口内存映射读取, 输出经固定大小的缓冲区写入, 内存占用与文件大小无关
+ * 输出与输入逐行对应, 每行原样输出(去掉行尾的\r)后追加结果列: ,四柱,金,木,水,火,土 ; 无法解析或计算的行追加 ,ERROR
+ * 空行输出为空行, 表头追加结果列的列名, 输出的第n行总是对应输入的第n行
+ *
+ * @author 张涵林
+ * @date 2020/6/17
+ */
+@Slf4j
+public class BatchCalculationEightCharacters {
+    /**
+     * 每次映射的输入窗口大小
+     */
+    private static final int MAP_WINDOW_SIZE = 64 * 1024 * 1024;
+    /**
+     * 输出缓冲区大小
+     */
+    private static final int OUTPUT_BUFFER_SIZE = 1024 * 1024;
+    /**
+     * 单行最大长度, 输出缓冲区至少要能容纳一行结果
+     */
+    private static final int MAX_LINE_LENGTH = 4096;
+    /**
+     * 追加在原始行之后的结果列的最大长度: 四柱27字节, 五行10字节, 加上逗号和换行不超过40字节, 表头的列名更短
+     */
+    private static final int MAX_SUFFIX_LENGTH = 64;
+
+    private static final byte[][] HEAVENLY_STEM_NAMES = new byte[HeavenlyStem.values().length][];
+    private static final byte[][] EARTHLY_NAMES = new byte[Earthly.values().length][];
+    private static final byte[] ERROR = ",ERROR\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] HEADER_SUFFIX = ",八字,金,木,水,火,土\n".getBytes(StandardCharsets.UTF_8);
+    private static final FiveElements[] FIVE_ELEMENTS = FiveElements.values();
+    private static final DateEnum[] POSITIONS = {DateEnum.YEAR, DateEnum.MONTH, DateEnum.DAY, DateEnum.HOUR};
+
+    static {
+        for (HeavenlyStem heavenlyStem : HeavenlyStem.values()) {
+            HEAVENLY_STEM_NAMES[heavenlyStem.ordinal()] = heavenlyStem.getName().getBytes(StandardCharsets.UTF_8);
+        }
+        for (Earthly earthly : Earthly.values()) {
+            EARTHLY_NAMES[earthly.ordinal()] = earthly.getName().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * 生日所在列, 从0开始, 小于0表示整行都是生日
+     */
+    private final int column;
+    /**
+     * CSV分隔符
+     */
+    private final byte delimiter;
+    /**
+     * 首行是否是表头, 表头不计算, 只追加结果列的列名
+     */
+    private final boolean skipHeader;
+
+    /**
+     * @param column     生日所在列, 从0开始, 小于0表示整行都是生日
+     * @param delimiter  CSV分隔符
+     * @param skipHeader 首行是否是表头
+     */
+    public BatchCalculationEightCharacters(int column, char delimiter, boolean skipHeader) {
+        this.column = column;
+        this.delimiter = (byte) delimiter;
+        this.skipHeader = skipHeader;
+    }
+
+    /**
+     * main函数
+     *
+     * @param args 输入文件 输出文件 [生日所在列(从0开始)] [分隔符] [是否跳过表头]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            log.error("usage : BatchCalculationEightCharacters <input> <output> [column] [delimiter] [skipHeader]");
+            return;
+        }
+        int column = args.length > 2 ? Integer.parseInt(args[2]) : -1;
+        char delimiter = args.length > 3 ? args[3].charAt(0) : ',';
+        boolean skipHeader = args.length > 4 && Boolean.parseBoolean(args[4]);
+        BatchCalculationEightCharacters batch = new BatchCalculationEightCharacters(column, delimiter, skipHeader);
+        long start = System.nanoTime();
+        long records = batch.process(Paths.get(args[0]), Paths.get(args[1]));
+        double seconds = (System.nanoTime() - start) / 1e9;
+        log.info("处理记录 : {} , 耗时 : {}s , 速度 : {} records/s", records, String.format("%.3f", seconds), (long) (records / seconds));
+    }
+
+    /**
+     * 处理整个文件
+     *
+     * @param input  输入文件
+     * @param output 输出文件
+     * @return 处理的记录数, 不含表头和空行
+     * @throws IOException 读写失败
+     */
+    public long process(Path input, Path output) throws IOException {
+        long records = 0;
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer outBuffer = ByteBuffer.allocateDirect(OUTPUT_BUFFER_SIZE);
+            long size = in.size();
+            long position = 0;
+            boolean header = skipHeader;
+            while (position < size) {
+                long length = Math.min(MAP_WINDOW_SIZE, size - position);
+                MappedByteBuffer window = in.map(FileChannel.MapMode.READ_ONLY, position, length);
+                boolean last = position + length == size;
+                int lineStart = 0;
+                int limit = (int) length;
+                for (int i = 0; i < limit; i++) {
+                    if (window.get(i) != '\n') {
+                        continue;
+                    }
+                    if (header) {
+                        header = false;
+                        processHeader(window, lineStart, i, outBuffer, out);
+                    } else if (processLine(window, lineStart, i, outBuffer, out)) {
+                        records++;
+                    }
+                    lineStart = i + 1;
+                }
+                if (last) {
+                    // 最后一行没有换行符
+                    if (lineStart < limit) {
+                        if (header) {
+                            processHeader(window, lineStart, limit, outBuffer, out);
+                        } else if (processLine(window, lineStart, limit, outBuffer, out)) {
+                            records++;
+                        }
+                    }
+                    position = size;
+                } else {
+                    // 窗口末尾不完整的行留给下一个窗口
+                    if (lineStart == 0) {
+                        throw new IOException("line too long at offset " + position);
+                    }
+                    position += lineStart;
+                }
+            }
+            flush(outBuffer, out);
+        }
+        return records;
+    }
+
+    /**
+     * 表头原样输出, 追加结果列的列名
+     */
+    private void processHeader(ByteBuffer window, int lineStart, int lineEnd, ByteBuffer outBuffer, FileChannel out) throws IOException {
+        lineEnd = echoLine(window, lineStart, lineEnd, outBuffer, out);
+        if (lineEnd == lineStart) {
+            outBuffer.put((byte) '\n');
+            return;
+        }
+        outBuffer.put(HEADER_SUFFIX);
+    }
+
+    /**
+     * 原样输出一行(不含行尾的\r和换行符), 之前保证缓冲区能容纳整行和结果列
+     *
+     * @return 去掉\r后的行尾
+     */
+    private static int echoLine(ByteBuffer window, int lineStart, int lineEnd, ByteBuffer outBuffer, FileChannel out) throws IOException {
+        if (lineEnd > lineStart && window.get(lineEnd - 1) == '\r') {
+            lineEnd--;
+        }
+        if (lineEnd - lineStart > MAX_LINE_LENGTH) {
+            throw new IOException("line too long : " + (lineEnd - lineStart));
+        }
+        if (outBuffer.remaining() < MAX_LINE_LENGTH + MAX_SUFFIX_LENGTH) {
+            flush(outBuffer, out);
+        }
+        for (int i = lineStart; i < lineEnd; i++) {
+            outBuffer.put(window.get(i));
+        }
+        return lineEnd;
+    }
+
+    /**
+     * 处理一行, 空行输出为空行
+     *
+     * @return 是否是有效记录(非空行)
+     */
+    private boolean processLine(ByteBuffer window, int lineStart, int lineEnd, ByteBuffer outBuffer, FileChannel out) throws IOException {
+        lineEnd = echoLine(window, lineStart, lineEnd, outBuffer, out);
+        if (lineEnd == lineStart) {
+            outBuffer.put((byte) '\n');
+            return false;
+        }
+        int fieldStart = lineStart;
+        int fieldEnd = lineEnd;
+        if (column >= 0) {
+            fieldStart = -1;
+            int current = 0;
+            int start = lineStart;
+            for (int i = lineStart; i <= lineEnd; i++) {
+                if (i == lineEnd || window.get(i) == delimiter) {
+                    if (current == column) {
+                        fieldStart = start;
+                        fieldEnd = i;
+                        break;
+                    }
+                    current++;
+                    start = i + 1;
+                }
+            }
+        }
+        long code = fieldStart < 0 ? EightCharactersCode.INVALID : calculate(window, fieldStart, fieldEnd);
+        if (code == EightCharactersCode.INVALID) {
+            outBuffer.put(ERROR);
+            return true;
+        }
+        long start = Instrumentation.start();
+        outBuffer.put((byte) ',');
+        for (int i = 0; i < POSITIONS.length; i++) {
+            if (i > 0) {
+                outBuffer.put((byte) ' ');
+            }
+            outBuffer.put(HEAVENLY_STEM_NAMES[EightCharactersCode.getHeavenlyStem(code, POSITIONS[i]).ordinal()]);
+            outBuffer.put(EARTHLY_NAMES[EightCharactersCode.getEarthly(code, POSITIONS[i]).ordinal()]);
+        }
+        for (FiveElements fiveElements : FIVE_ELEMENTS) {
+            outBuffer.put((byte) ',').put((byte) ('0' + EightCharactersCode.getFiveElementsCount(code, fiveElements)));
+        }
+        outBuffer.put((byte) '\n');
+        Instrumentation.record(Stage.RENDER, start);
+        return true;
+    }
+
+    /**
+     * 解析并计算, 格式不对或计算失败都返回INVALID
+     */
+    private static long calculate(ByteBuffer buffer, int start, int end) {
+        long parsed = TimestampParser.parse(buffer, start, end);
+        if (!TimestampParser.isValid(parsed)) {
+            return EightCharactersCode.INVALID;
+        }
+        try {
+            return CalculationEightCharacters.calculationEightCharactersCode(TimestampParser.getYear(parsed),
+                    TimestampParser.getMonth(parsed), TimestampParser.getDay(parsed), TimestampParser.getHour(parsed));
+        } catch (RuntimeException e) {
+            return EightCharactersCode.INVALID;
+        }
+    }
+
+    private static void flush(ByteBuffer outBuffer, FileChannel out) throws IOException {
+        outBuffer.flip();
+        while (outBuffer.hasRemaining()) {
+            out.write(outBuffer);
+        }
+        outBuffer.clear();
+    }
+}
@@ -0,0 +1,168 @@
+package com.demo.playful.toy;
+
+import com.demo.playful.toy.domain.EightCharactersCode;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BulkCalculationEightCharacters
+ * 批量计算生辰八字, 输入输出都是调用方提供的基本类型数组, 按块拆分到fork/join线程池并行计算
+ * 每一项的结果与CalculationEightCharacters.calculationEightCharactersCode(long)完全一致,
+ * 单项计算失败时写入EightCharactersCode.INVALID, 不影响其他项
+ *
+ * @author 张涵林
+ * @date 2020/6/16
+ */
+public class BulkCalculationEightCharacters implements AutoCloseable {
+    /**
+     * 默认每块的数量
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 4096;
+
+    /**
+     * 线程池
+     */
+    private final ForkJoinPool pool;
+    /**
+     * 每块的数量, 小于等于该数量时不再拆分
+     */
+    private final int chunkSize;
+
+    /**
+     * 使用全部CPU核数和默认块大小
+     */
+    public BulkCalculationEightCharacters() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param parallelism 并行度
+     * @param chunkSize   每块的数量
+     */
+    public BulkCalculationEightCharacters(int parallelism, int chunkSize) {
+        if (parallelism < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("parallelism and chunkSize must be positive , parallelism:" + parallelism + ",chunkSize:" + chunkSize);
+        }
+        this.pool = new ForkJoinPool(parallelism);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 批量计算, 结果为完整的八字编码
+     *
+     * @param epochHours 公历时间的epoch-hour
+     * @param codes      输出的八字编码, 长度不小于epochHours
+     */
+    public void calculate(long[] epochHours, long[] codes) {
+        calculate(epochHours, 0, epochHours.length, codes, null, null);
+    }
+
+    /**
+     * 批量计算, 四柱编码与五行数量编码分别输出
+     *
+     * @param epochHours         公历时间的epoch-hour
+     * @param pillars            输出的四柱编码, 长度不小于epochHours
+     * @param fiveElementsCounts 输出的五行数量编码, 长度不小于epochHours
+     */
+    public void calculate(long[] epochHours, int[] pillars, int[] fiveElementsCounts) {
+        calculate(epochHours, 0, epochHours.length, null, pillars, fiveElementsCounts);
+    }
+
+    /**
+     * 批量计算数组中的一段, 输出数组与输入数组下标一一对应, 不需要的输出传null
+     *
+     * @param epochHours         公历时间的epoch-hour
+     * @param from               起始下标(包含)
+     * @param to                 结束下标(不包含)
+     * @param codes              输出的八字编码
+     * @param pillars            输出的四柱编码
+     * @param fiveElementsCounts 输出的五行数量编码
+     */
+    public void calculate(long[] epochHours, int from, int to, long[] codes, int[] pillars, int[] fiveElementsCounts) {
+        if (from < 0 || to > epochHours.length || from > to) {
+            throw new IndexOutOfBoundsException("from:" + from + ",to:" + to + ",length:" + epochHours.length);
+        }
+        checkOutput(codes == null ? -1 : codes.length, to);
+        checkOutput(pillars == null ? -1 : pillars.length, to);
+        checkOutput(fiveElementsCounts == null ? -1 : fiveElementsCounts.length, to);
+        if (from == to) {
+            return;
+        }
+        pool.invoke(new CalculationTask(epochHours, from, to, codes, pillars, fiveElementsCounts));
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+        try {
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void checkOutput(int length, int to) {
+        if (length >= 0 && length < to) {
+            throw new IndexOutOfBoundsException("output length:" + length + " < " + to);
+        }
+    }
+
+    /**
+     * 顺序计算一段
+     */
+    private static void calculateRange(long[] epochHours, int from, int to, long[] codes, int[] pillars, int[] fiveElementsCounts) {
+        for (int i = from; i < to; i++) {
+            long code;
+            try {
+                code = CalculationEightCharacters.calculationEightCharactersCode(epochHours[i]);
+            } catch (RuntimeException e) {
+                code = EightCharactersCode.INVALID;
+            }
+            if (null != codes) {
+                codes[i] = code;
+            }
+            if (null != pillars) {
+                pillars[i] = EightCharactersCode.getPillars(code);
+            }
+            if (null != fiveElementsCounts) {
+                fiveElementsCounts[i] = EightCharactersCode.getFiveElementsCounts(code);
+            }
+        }
+    }
+
+    /**
+     * 二分拆分任务, 直到不超过chunkSize
+     */
+    private class CalculationTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final long[] epochHours;
+        private final int from;
+        private final int to;
+        private final long[] codes;
+        private final int[] pillars;
+        private final int[] fiveElementsCounts;
+
+        CalculationTask(long[] epochHours, int from, int to, long[] codes, int[] pillars, int[] fiveElementsCounts) {
+            this.epochHours = epochHours;
+            this.from = from;
+            this.to = to;
+            this.codes = codes;
+            this.pillars = pillars;
+            this.fiveElementsCounts = fiveElementsCounts;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                calculateRange(epochHours, from, to, codes, pillars, fiveElementsCounts);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new CalculationTask(epochHours, from, mid, codes, pillars, fiveElementsCounts),
+                    new CalculationTask(epochHours, mid, to, codes, pillars, fiveElementsCounts));
+        }
+    }
+}
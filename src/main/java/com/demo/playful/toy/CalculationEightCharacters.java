@@ -1,29 +1,38 @@
 package com.demo.playful.toy;
 
+import com.demo.playful.toy.domain.EightCharactersCode;
 import com.demo.playful.toy.domain.EightCharactersDto;
+import com.demo.playful.toy.enums.DateEnum;
 import com.demo.playful.toy.enums.Earthly;
 import com.demo.playful.toy.enums.FiveElements;
 import com.demo.playful.toy.enums.HeavenlyStem;
+import com.demo.playful.toy.enums.PillarMode;
+import com.demo.playful.toy.enums.SexagenaryCycle;
+import com.demo.playful.toy.enums.Stage;
+import com.demo.playful.toy.enums.ZiHourMode;
 import com.demo.playful.toy.utils.DateUtils;
-import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
+import com.demo.playful.toy.utils.Instrumentation;
+import com.demo.playful.toy.utils.SolarTermTable;
+import com.demo.playful.toy.utils.TimestampParser;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.time.DateFormatUtils;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.List;
-import java.util.Map;
 
 /**
  * CalculationEightCharacters
  * 计算生辰八字
+ * 公历年月日、时分超出范围(例如2月30日、13月、24时)时抛出IllegalArgumentException, 不会进位到其他日期
  *
  * @author 张涵林
  * @date 2020/6/9
  */
 @Slf4j
 public class CalculationEightCharacters {
+    private static final DateEnum[] POSITIONS = {DateEnum.YEAR, DateEnum.MONTH, DateEnum.DAY, DateEnum.HOUR};
 
     /**
      * main函数
@@ -33,10 +42,11 @@ public class CalculationEightCharacters {
     public static void main(String[] args) {
         List<String> paramList = Arrays.asList("1990-12-26 07", "1992-01-20 11", "2017-04-14 11", "2020-06-23 14");
         for (String birth : paramList) {
-            Calendar birthCal = DateUtils.parseCalendar(birth, "yyyy-MM-dd HH");
-            EightCharactersDto eightCharacters = calculationEightCharacters(birthCal);
+            long parsed = TimestampParser.parse(birth);
+            EightCharactersDto eightCharacters = calculationEightCharacters(TimestampParser.getYear(parsed),
+                    TimestampParser.getMonth(parsed), TimestampParser.getDay(parsed), TimestampParser.getHour(parsed));
             log.info("公历生日 : {}", DateFormatUtils.format(eightCharacters.getDate(), "yyyy年MM月dd日 HH时"));
-            log.info("农历生日 : {}", DateUtils.LunarDate.lunarDateToString(eightCharacters.getLunarDate()));
+            log.info("农历生日 : {}", eightCharacters.lunarDateToString());
             log.info("生辰八字 : {}", eightCharacters.heavenlyStemEarthlyNameToString());
             log.info("八字编码 : {}", eightCharacters.heavenlyStemEarthlyCodeToString());
             log.info("八字五行 : {}", eightCharacters.fiveElementsCountToString());
@@ -45,53 +55,350 @@ public class CalculationEightCharacters {
     }
 
     /**
-     * 计算生辰八字
+     * 计算生辰八字, 仅供仍在使用Calendar的调用方
+     * 结果只取Calendar的年月日时字段, 与时区无关
      *
      * @param birthCal 公历生日对象
+     * @return 生辰八字对象
      */
-    private static EightCharactersDto calculationEightCharacters(Calendar birthCal) {
-        Calendar lunarCal = DateUtils.LunarDate.solarToLunar(birthCal);
-        // 公历年
+    public static EightCharactersDto calculationEightCharacters(Calendar birthCal) {
         int year = birthCal.get(Calendar.YEAR);
-        // 公历月
-        int month = birthCal.get(Calendar.MONTH);
-        // 公历日
+        int month = birthCal.get(Calendar.MONTH) + 1;
         int day = birthCal.get(Calendar.DAY_OF_MONTH);
-        // 小时
         int hour = birthCal.get(Calendar.HOUR_OF_DAY);
-        // 农历年
-        int lunarYear = lunarCal.get(Calendar.YEAR);
-        // 公历月
-        int lunarMonth = lunarCal.get(Calendar.MONTH);
-        EightCharactersDto.HeavenlyStemEarthlyDto yearHeavenlyStemEarthly = EightCharactersDto.HeavenlyStemEarthlyDto.builder().
-                heavenlyStem(HeavenlyStem.getYearHeavenlyStem(lunarYear)).
-                earthly(Earthly.getYearEarthly(lunarYear)).build();
-        EightCharactersDto.HeavenlyStemEarthlyDto monthHeavenlyStemEarthly = EightCharactersDto.HeavenlyStemEarthlyDto.builder().
-                heavenlyStem(HeavenlyStem.getMonthHeavenlyStem(lunarMonth, yearHeavenlyStemEarthly.getHeavenlyStem())).
-                earthly(Earthly.getMonthEarthly(lunarMonth)).build();
-        EightCharactersDto.HeavenlyStemEarthlyDto dayHeavenlyStemEarthly = EightCharactersDto.HeavenlyStemEarthlyDto.builder().
-                heavenlyStem(HeavenlyStem.getDayHeavenlyStem(year, month, day)).
-                earthly(Earthly.getDayEarthly(year, month, day)).build();
-        EightCharactersDto.HeavenlyStemEarthlyDto hourHeavenlyStemEarthly = EightCharactersDto.HeavenlyStemEarthlyDto.builder().
-                heavenlyStem(HeavenlyStem.getHourHeavenlyStem(dayHeavenlyStemEarthly.getHeavenlyStem())).
-                earthly(Earthly.getHourEarthly(hour)).build();
-        List<EightCharactersDto.HeavenlyStemEarthlyDto> heavenlyStemEarthlyList =
-                Lists.newArrayList(yearHeavenlyStemEarthly, monthHeavenlyStemEarthly, dayHeavenlyStemEarthly, hourHeavenlyStemEarthly);
-        Map<FiveElements, Integer> fiveCountMap = Maps.newTreeMap();
-        for (EightCharactersDto.HeavenlyStemEarthlyDto heavenlyStemEarthlyDto : heavenlyStemEarthlyList) {
-            FiveElements fiveElementsH = FiveElements.getFiveElementsByHeavenlyStem(heavenlyStemEarthlyDto.getHeavenlyStem());
-            FiveElements fiveElementsE = FiveElements.getFiveElementsByEarthly(heavenlyStemEarthlyDto.getEarthly());
-            fiveCountMap.put(fiveElementsH, fiveCountMap.containsKey(fiveElementsH) ? fiveCountMap.get(fiveElementsH) + 1 : 1);
-            fiveCountMap.put(fiveElementsE, fiveCountMap.containsKey(fiveElementsE) ? fiveCountMap.get(fiveElementsE) + 1 : 1);
+        int epochDay = DateUtils.toEpochDay(year, month, day);
+        long code = calculate(epochDay, hour);
+        return new EightCharactersDto(code, birthCal, DateUtils.LunarDate.solarToLunar(birthCal));
+    }
+
+    /**
+     * 计算生辰八字
+     *
+     * @param year  公历年
+     * @param month 公历月(1-12)
+     * @param day   公历日
+     * @param hour  小时
+     * @return 生辰八字对象
+     */
+    public static EightCharactersDto calculationEightCharacters(int year, int month, int day, int hour) {
+        return calculationEightCharacters(year, month, day, hour, 0, PillarMode.LUNAR);
+    }
+
+    /**
+     * 计算生辰八字, 可选年柱、月柱的划分方式
+     *
+     * @param year   公历年
+     * @param month  公历月(1-12)
+     * @param day    公历日
+     * @param hour   小时
+     * @param minute 分钟, 仅按节气划分时用于判断是否已过节气时刻
+     * @param mode   年柱、月柱的划分方式
+     * @return 生辰八字对象
+     */
+    public static EightCharactersDto calculationEightCharacters(int year, int month, int day, int hour, int minute, PillarMode mode) {
+        return calculationEightCharacters(year, month, day, hour, minute, mode, ZiHourMode.LATE_ZI);
+    }
+
+    /**
+     * 计算生辰八字, 可选年柱、月柱的划分方式和子时的处理方式
+     *
+     * @param year       公历年
+     * @param month      公历月(1-12)
+     * @param day        公历日
+     * @param hour       小时
+     * @param minute     分钟, 仅按节气划分时用于判断是否已过节气时刻
+     * @param mode       年柱、月柱的划分方式
+     * @param ziHourMode 子时的处理方式
+     * @return 生辰八字对象
+     */
+    public static EightCharactersDto calculationEightCharacters(int year, int month, int day, int hour, int minute, PillarMode mode,
+                                                                ZiHourMode ziHourMode) {
+        int epochDay = toEpochDay(year, month, day);
+        return new EightCharactersDto(calculate(epochDay, hour, minute, mode, ziHourMode), epochDay * 24L + hour,
+                DateUtils.LunarDate.solarToLunar(epochDay));
+    }
+
+    /**
+     * 计算生辰八字
+     *
+     * @param birth 公历生日
+     * @return 生辰八字对象
+     */
+    public static EightCharactersDto calculationEightCharacters(LocalDateTime birth) {
+        return calculationEightCharacters(birth.getYear(), birth.getMonthValue(), birth.getDayOfMonth(), birth.getHour());
+    }
+
+    /**
+     * 计算生辰八字, 结果编码为long, 整个过程不创建对象
+     *
+     * @param epochHour 公历时间的epoch-hour(epoch-day * 24 + 小时)
+     * @return 八字编码, 见EightCharactersCode
+     */
+    public static long calculationEightCharactersCode(long epochHour) {
+        return calculationEightCharactersCode((int) Math.floorDiv(epochHour, 24L), (int) Math.floorMod(epochHour, 24L));
+    }
+
+    /**
+     * 计算生辰八字, 结果编码为long, 整个过程不创建对象
+     *
+     * @param epochDay 公历日期的epoch-day
+     * @param hour     小时
+     * @return 八字编码, 见EightCharactersCode
+     */
+    public static long calculationEightCharactersCode(int epochDay, int hour) {
+        return calculate(epochDay, hour);
+    }
+
+    /**
+     * 计算生辰八字, 结果编码为long, 整个过程不创建对象
+     *
+     * @param year  公历年
+     * @param month 公历月(1-12)
+     * @param day   公历日
+     * @param hour  小时
+     * @return 八字编码, 见EightCharactersCode
+     */
+    public static long calculationEightCharactersCode(int year, int month, int day, int hour) {
+        return calculate(toEpochDay(year, month, day), hour);
+    }
+
+    /**
+     * 计算生辰八字, 可选年柱、月柱的划分方式, 结果编码为long, 整个过程不创建对象
+     *
+     * @param year   公历年
+     * @param month  公历月(1-12)
+     * @param day    公历日
+     * @param hour   小时
+     * @param minute 分钟, 仅按节气划分时用于判断是否已过节气时刻
+     * @param mode   年柱、月柱的划分方式
+     * @return 八字编码, 见EightCharactersCode
+     */
+    public static long calculationEightCharactersCode(int year, int month, int day, int hour, int minute, PillarMode mode) {
+        return calculate(toEpochDay(year, month, day), hour, minute, mode, ZiHourMode.LATE_ZI);
+    }
+
+    /**
+     * 计算生辰八字, 可选年柱、月柱的划分方式和子时的处理方式, 结果编码为long, 整个过程不创建对象
+     *
+     * @param year       公历年
+     * @param month      公历月(1-12)
+     * @param day        公历日
+     * @param hour       小时
+     * @param minute     分钟, 仅按节气划分时用于判断是否已过节气时刻
+     * @param mode       年柱、月柱的划分方式
+     * @param ziHourMode 子时的处理方式, 只影响23点的日柱
+     * @return 八字编码, 见EightCharactersCode
+     */
+    public static long calculationEightCharactersCode(int year, int month, int day, int hour, int minute, PillarMode mode,
+                                                      ZiHourMode ziHourMode) {
+        return calculate(toEpochDay(year, month, day), hour, minute, mode, ziHourMode);
+    }
+
+    /**
+     * 按农历生日计算生辰八字, 结果编码为long, 整个过程不创建对象
+     *
+     * @param lunarYear  农历年
+     * @param lunarMonth 农历月(1-12)
+     * @param isLeap     是否是闰月
+     * @param lunarDay   农历日
+     * @param hour       小时
+     * @return 八字编码, 农历日期不存在时为EightCharactersCode.INVALID
+     */
+    public static long calculationEightCharactersCodeByLunar(int lunarYear, int lunarMonth, boolean isLeap, int lunarDay, int hour) {
+        long epochHour = DateUtils.LunarDate.lunarToSolar(lunarYear, lunarMonth, isLeap, lunarDay, hour);
+        if (!DateUtils.LunarDate.isValidEpochHour(epochHour)) {
+            return EightCharactersCode.INVALID;
         }
-        EightCharactersDto eightCharactersDto = new EightCharactersDto();
-        eightCharactersDto.setDate(birthCal);
-        eightCharactersDto.setLunarDate(lunarCal);
-        eightCharactersDto.setYearHeavenlyStemEarthly(yearHeavenlyStemEarthly);
-        eightCharactersDto.setMonthHeavenlyStemEarthly(monthHeavenlyStemEarthly);
-        eightCharactersDto.setDayHeavenlyStemEarthly(dayHeavenlyStemEarthly);
-        eightCharactersDto.setHourHeavenlyStemEarthly(hourHeavenlyStemEarthly);
-        eightCharactersDto.setFiveElementsCountMap(fiveCountMap);
-        return eightCharactersDto;
-    }
-}
\ No newline at end of file
+        return calculationEightCharactersCode(epochHour);
+    }
+
+    /**
+     * 计算生辰八字, 结果编码为long
+     *
+     * @param birth 公历生日
+     * @return 八字编码, 见EightCharactersCode
+     */
+    public static long calculationEightCharactersCode(LocalDateTime birth) {
+        return calculationEightCharactersCode(birth.getYear(), birth.getMonthValue(), birth.getDayOfMonth(), birth.getHour());
+    }
+
+    /**
+     * 计算生辰八字, 年柱、月柱按农历划分, 23点为晚子时
+     *
+     * @param epochDay 公历日期的epoch-day
+     * @param hour     小时
+     * @return 八字编码
+     */
+    private static long calculate(int epochDay, int hour) {
+        return calculate(epochDay, hour, 0, PillarMode.LUNAR, ZiHourMode.LATE_ZI);
+    }
+
+    /**
+     * 计算生辰八字
+     *
+     * @param epochDay   公历日期的epoch-day
+     * @param hour       小时
+     * @param minute     分钟
+     * @param mode       年柱、月柱的划分方式
+     * @param ziHourMode 子时的处理方式
+     * @return 八字编码
+     */
+    private static long calculate(int epochDay, int hour, int minute, PillarMode mode, ZiHourMode ziHourMode) {
+        checkTime(hour, minute);
+        long start = Instrumentation.start();
+        // 年柱、月柱的年份和月份(0表示正月/寅月)
+        int pillarYear;
+        int pillarMonth;
+        if (mode == PillarMode.SOLAR_TERM) {
+            long epochMinute = SolarTermTable.toEpochMinute(epochDay, hour, minute);
+            pillarYear = SolarTermTable.getSolarTermYear(epochMinute);
+            pillarMonth = SolarTermTable.getSolarTermMonth(epochMinute);
+        } else {
+            int lunarDate = DateUtils.LunarDate.solarToLunar(epochDay);
+            pillarYear = DateUtils.LunarDate.getLunarYear(lunarDate);
+            pillarMonth = DateUtils.LunarDate.getLunarMonth(lunarDate);
+        }
+        start = Instrumentation.record(Stage.SOLAR_TO_LUNAR, start);
+        long code = setYear(0L, pillarYear);
+        start = Instrumentation.record(Stage.YEAR_PILLAR, start);
+        code = setMonth(code, pillarMonth);
+        start = Instrumentation.record(Stage.MONTH_PILLAR, start);
+        SexagenaryCycle dayPillar = SexagenaryCycle.getDayPillar(epochDay);
+        code = setDay(code, dayPillar.plus(ziHourMode.dayOffset(hour)));
+        start = Instrumentation.record(Stage.DAY_PILLAR, start);
+        code = setHour(code, SexagenaryCycle.getHourPillar(dayPillar, hour));
+        start = Instrumentation.record(Stage.HOUR_PILLAR, start);
+        code = tallyFiveElements(code);
+        Instrumentation.record(Stage.FIVE_ELEMENTS, start);
+        return code;
+    }
+
+    /**
+     * 校验公历日期并转换为epoch-day, 不校验时2月30日、13月等会按进位变成其他日期
+     *
+     * @param year  公历年
+     * @param month 公历月(1-12)
+     * @param day   公历日
+     * @return epoch-day
+     */
+    static int toEpochDay(int year, int month, int day) {
+        if (month < 1 || month > 12 || day < 1 || day > DateUtils.lengthOfMonth(year, month)) {
+            throw new IllegalArgumentException("date out of range , year:" + year + ",month:" + month + ",day:" + day);
+        }
+        return DateUtils.toEpochDay(year, month, day);
+    }
+
+    /**
+     * 校验时间
+     *
+     * @param hour   小时(0-23)
+     * @param minute 分钟(0-59)
+     */
+    static void checkTime(int hour, int minute) {
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            throw new IllegalArgumentException("time out of range , hour:" + hour + ",minute:" + minute);
+        }
+    }
+
+    /**
+     * 写入年柱, 并累加五行数量
+     *
+     * @param code       八字编码
+     * @param pillarYear 年柱的年份(农历年或以立春为界的年)
+     * @return 新的八字编码
+     */
+    static long appendYear(long code, int pillarYear) {
+        return tallyPillar(setYear(code, pillarYear), DateEnum.YEAR);
+    }
+
+    /**
+     * 写入月柱, 并累加五行数量, 月干由编码中已写入的年干推出
+     *
+     * @param code        已写入年柱的八字编码
+     * @param pillarMonth 月柱的月份(0表示正月/寅月)
+     * @return 新的八字编码
+     */
+    static long appendMonth(long code, int pillarMonth) {
+        return tallyPillar(setMonth(code, pillarMonth), DateEnum.MONTH);
+    }
+
+    /**
+     * 写入日柱, 并累加五行数量
+     *
+     * @param code      八字编码
+     * @param dayPillar 日柱, 见SexagenaryCycle.getDayPillar
+     * @return 新的八字编码
+     */
+    static long appendDay(long code, SexagenaryCycle dayPillar) {
+        return tallyPillar(setDay(code, dayPillar), DateEnum.DAY);
+    }
+
+    /**
+     * 写入时柱, 并累加五行数量
+     *
+     * @param code       八字编码
+     * @param hourPillar 时柱, 见SexagenaryCycle.getHourPillar
+     * @return 新的八字编码
+     */
+    static long appendHour(long code, SexagenaryCycle hourPillar) {
+        return tallyPillar(setHour(code, hourPillar), DateEnum.HOUR);
+    }
+
+    /**
+     * 按已写入的四柱统计八个字的五行数量
+     *
+     * @param code 已写入四柱、五行数量为0的八字编码
+     * @return 新的八字编码
+     */
+    static long tallyFiveElements(long code) {
+        for (DateEnum position : POSITIONS) {
+            code = tallyPillar(code, position);
+        }
+        return code;
+    }
+
+    private static long setYear(long code, int pillarYear) {
+        return setPillar(code, DateEnum.YEAR, HeavenlyStem.getYearHeavenlyStem(pillarYear), Earthly.getYearEarthly(pillarYear));
+    }
+
+    private static long setMonth(long code, int pillarMonth) {
+        HeavenlyStem yearHeavenlyStem = EightCharactersCode.getHeavenlyStem(code, DateEnum.YEAR);
+        return setPillar(code, DateEnum.MONTH, HeavenlyStem.getMonthHeavenlyStem(pillarMonth, yearHeavenlyStem),
+                Earthly.getMonthEarthly(pillarMonth));
+    }
+
+    private static long setDay(long code, SexagenaryCycle dayPillar) {
+        return setPillar(code, DateEnum.DAY, dayPillar.getHeavenlyStem(), dayPillar.getEarthly());
+    }
+
+    private static long setHour(long code, SexagenaryCycle hourPillar) {
+        return setPillar(code, DateEnum.HOUR, hourPillar.getHeavenlyStem(), hourPillar.getEarthly());
+    }
+
+    /**
+     * 只写入一柱, 不统计五行
+     *
+     * @param code         八字编码
+     * @param position     年/月/日/时
+     * @param heavenlyStem 天干
+     * @param earthly      地支
+     * @return 新的八字编码
+     */
+    private static long setPillar(long code, DateEnum position, HeavenlyStem heavenlyStem, Earthly earthly) {
+        return EightCharactersCode.withPillar(code, position, EightCharactersCode.pillar(heavenlyStem, earthly));
+    }
+
+    /**
+     * 累加一柱天干地支的五行数量
+     *
+     * @param code     已写入该柱的八字编码
+     * @param position 年/月/日/时
+     * @return 新的八字编码
+     */
+    private static long tallyPillar(long code, DateEnum position) {
+        code = EightCharactersCode.incrementFiveElements(code,
+                FiveElements.getFiveElementsByHeavenlyStem(EightCharactersCode.getHeavenlyStem(code, position)));
+        return EightCharactersCode.incrementFiveElements(code,
+                FiveElements.getFiveElementsByEarthly(EightCharactersCode.getEarthly(code, position)));
+    }
+}
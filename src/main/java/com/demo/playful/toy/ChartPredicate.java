@@ -0,0 +1,67 @@
+package com.demo.playful.toy;
+
+import com.demo.playful.toy.enums.DateEnum;
+import com.demo.playful.toy.enums.SexagenaryCycle;
+
+/**
+ * ChartPredicate
+ * 择日条件, 作用在八字编码上, 可用ChartPredicates组合
+ * 除test外还给出每一柱允许出现的六十甲子, 搜索时据此整月、整天、整时辰跳过, 不限制的柱返回ALL
+ *
+ * @author 张涵林
+ * @date 2020/7/3
+ */
+@FunctionalInterface
+public interface ChartPredicate {
+    /**
+     * 六十甲子全部允许, 第i位表示序号为i的干支
+     */
+    long ALL = (1L << SexagenaryCycle.SIZE) - 1;
+
+    /**
+     * 是否满足条件
+     *
+     * @param code 八字编码
+     * @return 是否满足
+     */
+    boolean test(long code);
+
+    /**
+     * 一柱允许出现的六十甲子, 只用于提前跳过, 可以比实际条件宽松, 但不能更严格
+     *
+     * @param position 年/月/日/时
+     * @return 60位掩码
+     */
+    default long allowed(DateEnum position) {
+        return ALL;
+    }
+
+    /**
+     * 与另一个条件同时满足
+     *
+     * @param other 另一个条件
+     * @return 组合后的条件
+     */
+    default ChartPredicate and(ChartPredicate other) {
+        return ChartPredicates.and(this, other);
+    }
+
+    /**
+     * 满足任一条件
+     *
+     * @param other 另一个条件
+     * @return 组合后的条件
+     */
+    default ChartPredicate or(ChartPredicate other) {
+        return ChartPredicates.or(this, other);
+    }
+
+    /**
+     * 取反
+     *
+     * @return 取反后的条件
+     */
+    default ChartPredicate negate() {
+        return ChartPredicates.not(this);
+    }
+}
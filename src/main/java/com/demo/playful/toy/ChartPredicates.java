@@ -0,0 +1,226 @@
+package com.demo.playful.toy;
+
+import com.demo.playful.toy.domain.EightCharactersCode;
+import com.demo.playful.toy.enums.DateEnum;
+import com.demo.playful.toy.enums.Earthly;
+import com.demo.playful.toy.enums.FiveElements;
+import com.demo.playful.toy.enums.HeavenlyStem;
+import com.demo.playful.toy.enums.SexagenaryCycle;
+
+/**
+ * ChartPredicates
+ * 常用的择日条件: 某一柱的干支/天干/地支, 五行数量, 以及与、或、非组合
+ * 与组合的各柱掩码取交集, 或组合取并集, 非组合不做限制
+ * 例如日柱为甲子或己卯且水至少两个:
+ * ChartPredicates.pillar(DateEnum.DAY, SexagenaryCycle.JIA_ZI, SexagenaryCycle.JI_MOU)
+ * .and(ChartPredicates.fiveElementsAtLeast(FiveElements.SHUI, 2))
+ *
+ * @author 张涵林
+ * @date 2020/7/3
+ */
+public class ChartPredicates {
+    private static final DateEnum[] POSITIONS = DateEnum.values();
+
+    private ChartPredicates() {
+    }
+
+    /**
+     * 一柱为指定干支之一
+     *
+     * @param position 年/月/日/时
+     * @param cycles   干支
+     * @return 条件
+     */
+    public static ChartPredicate pillar(DateEnum position, SexagenaryCycle... cycles) {
+        long mask = 0L;
+        for (SexagenaryCycle cycle : cycles) {
+            mask |= 1L << cycle.ordinal();
+        }
+        return new PillarPredicate(position, mask);
+    }
+
+    /**
+     * 一柱的天干为指定天干之一
+     *
+     * @param position      年/月/日/时
+     * @param heavenlyStems 天干
+     * @return 条件
+     */
+    public static ChartPredicate heavenlyStem(DateEnum position, HeavenlyStem... heavenlyStems) {
+        long mask = 0L;
+        for (HeavenlyStem heavenlyStem : heavenlyStems) {
+            for (int index = heavenlyStem.ordinal(); index < SexagenaryCycle.SIZE; index += 10) {
+                mask |= 1L << index;
+            }
+        }
+        return new PillarPredicate(position, mask);
+    }
+
+    /**
+     * 一柱的地支为指定地支之一
+     *
+     * @param position  年/月/日/时
+     * @param earthlies 地支
+     * @return 条件
+     */
+    public static ChartPredicate earthly(DateEnum position, Earthly... earthlies) {
+        long mask = 0L;
+        for (Earthly earthly : earthlies) {
+            for (int index = earthly.ordinal(); index < SexagenaryCycle.SIZE; index += 12) {
+                mask |= 1L << index;
+            }
+        }
+        return new PillarPredicate(position, mask);
+    }
+
+    /**
+     * 五行数量不少于count
+     *
+     * @param fiveElements 五行
+     * @param count        数量
+     * @return 条件
+     */
+    public static ChartPredicate fiveElementsAtLeast(FiveElements fiveElements, int count) {
+        return code -> EightCharactersCode.getFiveElementsCount(code, fiveElements) >= count;
+    }
+
+    /**
+     * 五行数量不多于count, count为0即五行缺该行
+     *
+     * @param fiveElements 五行
+     * @param count        数量
+     * @return 条件
+     */
+    public static ChartPredicate fiveElementsAtMost(FiveElements fiveElements, int count) {
+        return code -> EightCharactersCode.getFiveElementsCount(code, fiveElements) <= count;
+    }
+
+    /**
+     * 全部满足
+     *
+     * @param predicates 条件
+     * @return 组合后的条件
+     */
+    public static ChartPredicate and(ChartPredicate... predicates) {
+        return new AndPredicate(predicates.clone());
+    }
+
+    /**
+     * 满足任一
+     *
+     * @param predicates 条件
+     * @return 组合后的条件
+     */
+    public static ChartPredicate or(ChartPredicate... predicates) {
+        return new OrPredicate(predicates.clone());
+    }
+
+    /**
+     * 取反, 不再限制各柱
+     *
+     * @param predicate 条件
+     * @return 取反后的条件
+     */
+    public static ChartPredicate not(ChartPredicate predicate) {
+        return code -> !predicate.test(code);
+    }
+
+    /**
+     * 编码中一柱是否在掩码内
+     *
+     * @param mask     60位掩码
+     * @param code     八字编码
+     * @param position 年/月/日/时
+     * @return 是否允许
+     */
+    static boolean allows(long mask, long code, DateEnum position) {
+        if (mask == ChartPredicate.ALL) {
+            return true;
+        }
+        int index = EightCharactersCode.getSexagenaryIndex(code, position);
+        return index >= 0 && (mask >>> index & 1L) != 0;
+    }
+
+    private static final class PillarPredicate implements ChartPredicate {
+        private final DateEnum position;
+        private final long mask;
+
+        private PillarPredicate(DateEnum position, long mask) {
+            this.position = position;
+            this.mask = mask;
+        }
+
+        @Override
+        public boolean test(long code) {
+            int index = EightCharactersCode.getSexagenaryIndex(code, position);
+            return index >= 0 && (mask >>> index & 1L) != 0;
+        }
+
+        @Override
+        public long allowed(DateEnum position) {
+            return position == this.position ? mask : ALL;
+        }
+    }
+
+    private static final class AndPredicate implements ChartPredicate {
+        private final ChartPredicate[] predicates;
+        private final long[] masks = new long[POSITIONS.length];
+
+        private AndPredicate(ChartPredicate[] predicates) {
+            this.predicates = predicates;
+            for (DateEnum position : POSITIONS) {
+                long mask = ALL;
+                for (ChartPredicate predicate : predicates) {
+                    mask &= predicate.allowed(position);
+                }
+                masks[position.ordinal()] = mask;
+            }
+        }
+
+        @Override
+        public boolean test(long code) {
+            for (ChartPredicate predicate : predicates) {
+                if (!predicate.test(code)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public long allowed(DateEnum position) {
+            return masks[position.ordinal()];
+        }
+    }
+
+    private static final class OrPredicate implements ChartPredicate {
+        private final ChartPredicate[] predicates;
+        private final long[] masks = new long[POSITIONS.length];
+
+        private OrPredicate(ChartPredicate[] predicates) {
+            this.predicates = predicates;
+            for (DateEnum position : POSITIONS) {
+                long mask = 0L;
+                for (ChartPredicate predicate : predicates) {
+                    mask |= predicate.allowed(position);
+                }
+                masks[position.ordinal()] = mask;
+            }
+        }
+
+        @Override
+        public boolean test(long code) {
+            for (ChartPredicate predicate : predicates) {
+                if (predicate.test(code)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public long allowed(DateEnum position) {
+            return masks[position.ordinal()];
+        }
+    }
+}
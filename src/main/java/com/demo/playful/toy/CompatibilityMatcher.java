@@ -0,0 +1,556 @@
+package com.demo.playful.toy;
+
+import com.demo.playful.toy.domain.EightCharactersCode;
+import com.demo.playful.toy.enums.DateEnum;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CompatibilityMatcher
+ * 合婚匹配: 在一批八字中为指定八字找出得分最高的K个对象, 或者为每个八字各找K个
+ * <p>
+ * 得分规则(双方对称):
+ * 日干五合(甲己、乙庚、丙辛、丁壬、戊癸) +8, 日干相冲(甲庚、乙辛、丙壬、丁癸) -8
+ * 日支(配偶宫)六合 +6, 六冲 -6; 年支(生肖)六合 +4, 六冲 -4
+ * 五行互补: 一方缺而另一方有 +2, 另一方该五行不少于3个再 +1
+ * 四柱天干: 一方的每个天干在另一方有五合对象 +1, 有相冲对象 -1
+ * 四柱地支: 一方的每个地支在另一方有六合对象 +2, 有六冲对象 -2
+ * <p>
+ * 构建时把每个八字压缩成一个long特征: 天干集合、地支集合、缺失与偏旺的五行集合、日干、日支、年支,
+ * 打分只做查表和bitCount, 没有条件分支
+ * 候选按(日干, 日支, 年支)分桶, 同一桶内日干、日支、年支的得分相同, 再加上其余各项的上界仍达不到门槛的桶整桶跳过;
+ * 求前K个时门槛随结果堆的第K名提高
+ * 单个查询按桶拆分到fork/join线程池并行, 全量查询按查询对象拆分
+ *
+ * @author 张涵林
+ * @date 2020/7/1
+ */
+public class CompatibilityMatcher implements AutoCloseable {
+    /**
+     * 不设门槛
+     */
+    public static final int NO_THRESHOLD = Integer.MIN_VALUE;
+
+    private static final int DAY_STEM_WEIGHT = 8;
+    private static final int DAY_BRANCH_WEIGHT = 6;
+    private static final int YEAR_BRANCH_WEIGHT = 4;
+    private static final int ELEMENT_FILL_WEIGHT = 2;
+    private static final int ELEMENT_STRONG_WEIGHT = 1;
+    private static final int STEM_WEIGHT = 1;
+    private static final int BRANCH_WEIGHT = 2;
+
+    private static final int STEMS = 10;
+    private static final int BRANCHES = 12;
+    private static final int ELEMENTS = 5;
+    private static final int BUCKETS = STEMS * BRANCHES * BRANCHES;
+    /**
+     * 单个查询时每个任务至少处理的候选数
+     */
+    private static final int MIN_TASK_SIZE = 4096;
+    /**
+     * 全量查询时每个任务至少处理的查询数
+     */
+    private static final int MIN_QUERIES_PER_TASK = 16;
+
+    /**
+     * 特征各部分的位置
+     */
+    private static final int STEM_MASK_SHIFT = 0;
+    private static final int BRANCH_MASK_SHIFT = 10;
+    private static final int MISSING_SHIFT = 22;
+    private static final int STRONG_SHIFT = 27;
+    private static final int DAY_STEM_SHIFT = 32;
+    private static final int DAY_BRANCH_SHIFT = 36;
+    private static final int YEAR_BRANCH_SHIFT = 40;
+
+    /**
+     * 天干集合 -> 与其五合、相冲的天干集合
+     */
+    private static final short[] STEM_COMBINE = new short[1 << STEMS];
+    private static final short[] STEM_CLASH = new short[1 << STEMS];
+    /**
+     * 地支集合 -> 与其六合、六冲的地支集合
+     */
+    private static final short[] BRANCH_HARMONY = new short[1 << BRANCHES];
+    private static final short[] BRANCH_CLASH = new short[1 << BRANCHES];
+    /**
+     * 日干、日支、年支两两的得分, 下标为 a * 种类数 + b
+     */
+    private static final int[] DAY_STEM_SCORE = new int[STEMS * STEMS];
+    private static final int[] DAY_BRANCH_SCORE = new int[BRANCHES * BRANCHES];
+    private static final int[] YEAR_BRANCH_SCORE = new int[BRANCHES * BRANCHES];
+
+    static {
+        int[] stemCombine = new int[STEMS];
+        int[] stemClash = new int[STEMS];
+        Arrays.fill(stemClash, -1);
+        for (int stem = 0; stem < STEMS; stem++) {
+            stemCombine[stem] = (stem + 5) % STEMS;
+        }
+        // 戊己居中, 不与其他天干相冲
+        for (int stem = 0; stem < 4; stem++) {
+            stemClash[stem] = stem + 6;
+            stemClash[stem + 6] = stem;
+        }
+        for (int mask = 0; mask < STEM_COMBINE.length; mask++) {
+            int combine = 0;
+            int clash = 0;
+            for (int stem = 0; stem < STEMS; stem++) {
+                if ((mask & 1 << stem) != 0) {
+                    combine |= 1 << stemCombine[stem];
+                    clash |= stemClash[stem] < 0 ? 0 : 1 << stemClash[stem];
+                }
+            }
+            STEM_COMBINE[mask] = (short) combine;
+            STEM_CLASH[mask] = (short) clash;
+        }
+        for (int mask = 0; mask < BRANCH_HARMONY.length; mask++) {
+            int harmony = 0;
+            int clash = 0;
+            for (int branch = 0; branch < BRANCHES; branch++) {
+                if ((mask & 1 << branch) != 0) {
+                    harmony |= 1 << harmonyOf(branch);
+                    clash |= 1 << clashOf(branch);
+                }
+            }
+            BRANCH_HARMONY[mask] = (short) harmony;
+            BRANCH_CLASH[mask] = (short) clash;
+        }
+        for (int a = 0; a < STEMS; a++) {
+            for (int b = 0; b < STEMS; b++) {
+                DAY_STEM_SCORE[a * STEMS + b] = stemCombine[a] == b ? DAY_STEM_WEIGHT : stemClash[a] == b ? -DAY_STEM_WEIGHT : 0;
+            }
+        }
+        for (int a = 0; a < BRANCHES; a++) {
+            for (int b = 0; b < BRANCHES; b++) {
+                int relation = harmonyOf(a) == b ? 1 : clashOf(a) == b ? -1 : 0;
+                DAY_BRANCH_SCORE[a * BRANCHES + b] = relation * DAY_BRANCH_WEIGHT;
+                YEAR_BRANCH_SCORE[a * BRANCHES + b] = relation * YEAR_BRANCH_WEIGHT;
+            }
+        }
+    }
+
+    private final ForkJoinPool pool;
+    /**
+     * 候选的原始下标, 按桶排序
+     */
+    private final int[] order;
+    /**
+     * 候选的特征, 与order一一对应
+     */
+    private final long[] features;
+    /**
+     * 每个桶在order中的起始下标
+     */
+    private final int[] bucketOffsets = new int[BUCKETS + 1];
+    /**
+     * 非空的桶
+     */
+    private final int[] buckets;
+
+    /**
+     * 使用全部CPU核数
+     *
+     * @param codes 候选的八字编码, 结果中的下标即该数组的下标, INVALID不参与匹配
+     */
+    public CompatibilityMatcher(long[] codes) {
+        this(codes, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param codes       候选的八字编码, 结果中的下标即该数组的下标, INVALID不参与匹配
+     * @param parallelism 并行度
+     */
+    public CompatibilityMatcher(long[] codes, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive , parallelism:" + parallelism);
+        }
+        this.pool = new ForkJoinPool(parallelism);
+        // 按桶计数排序, 桶内保持原始顺序
+        int count = 0;
+        for (long code : codes) {
+            if (code != EightCharactersCode.INVALID) {
+                bucketOffsets[bucketOf(features(code)) + 1]++;
+                count++;
+            }
+        }
+        int nonEmpty = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            nonEmpty += bucketOffsets[bucket + 1] > 0 ? 1 : 0;
+            bucketOffsets[bucket + 1] += bucketOffsets[bucket];
+        }
+        this.order = new int[count];
+        this.features = new long[count];
+        int[] cursors = Arrays.copyOf(bucketOffsets, BUCKETS);
+        for (int i = 0; i < codes.length; i++) {
+            if (codes[i] != EightCharactersCode.INVALID) {
+                long feature = features(codes[i]);
+                int position = cursors[bucketOf(feature)]++;
+                order[position] = i;
+                features[position] = feature;
+            }
+        }
+        this.buckets = new int[nonEmpty];
+        for (int bucket = 0, n = 0; bucket < BUCKETS; bucket++) {
+            if (bucketOffsets[bucket + 1] > bucketOffsets[bucket]) {
+                buckets[n++] = bucket;
+            }
+        }
+    }
+
+    /**
+     * 两个八字的合婚得分
+     *
+     * @param codeA 八字编码
+     * @param codeB 八字编码
+     * @return 得分
+     */
+    public static int score(long codeA, long codeB) {
+        if (codeA == EightCharactersCode.INVALID || codeB == EightCharactersCode.INVALID) {
+            throw new RuntimeException("code is invalid , codeA:" + codeA + ",codeB:" + codeB);
+        }
+        long a = features(codeA);
+        long b = features(codeB);
+        return bucketScore(a, bucketOf(b)) + variableScore(a, b);
+    }
+
+    /**
+     * 在全部候选中找出与指定八字得分最高的K个
+     *
+     * @param code     八字编码
+     * @param k        数量
+     * @param minScore 最低得分(包含), NO_THRESHOLD表示不限
+     * @return 按得分从高到低排列的结果, 得分相同时下标小的在前, 用scoreOf、indexOf解析
+     */
+    public long[] topK(long code, int k, int minScore) {
+        if (code == EightCharactersCode.INVALID) {
+            throw new RuntimeException("code is invalid , code:" + code);
+        }
+        if (k <= 0 || buckets.length == 0) {
+            return new long[0];
+        }
+        return sorted(pool.invoke(new QueryTask(features(code), -1, k, minScore, 0, buckets.length)));
+    }
+
+    /**
+     * 为每个候选在其余候选中找出得分最高的K个
+     *
+     * @param codes    构建时传入的八字编码
+     * @param k        数量
+     * @param minScore 最低得分(包含), NO_THRESHOLD表示不限
+     * @return 下标与codes一致, 每项按得分从高到低排列, 用scoreOf、indexOf解析; INVALID对应空数组
+     */
+    public long[][] topKAll(long[] codes, int k, int minScore) {
+        long[][] results = new long[codes.length][];
+        pool.invoke(new AllTask(codes, k, minScore, results, 0, codes.length));
+        return results;
+    }
+
+    /**
+     * 参与匹配的候选数量
+     *
+     * @return 数量
+     */
+    public int size() {
+        return order.length;
+    }
+
+    /**
+     * 结果中的得分
+     *
+     * @param result topK结果的一项
+     * @return 得分
+     */
+    public static int scoreOf(long result) {
+        return (int) (result >> 32);
+    }
+
+    /**
+     * 结果中的候选下标
+     *
+     * @param result topK结果的一项
+     * @return 构建时传入数组的下标
+     */
+    public static int indexOf(long result) {
+        return Integer.MAX_VALUE - (int) result;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+        try {
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 顺序处理一段非空桶, 结果放入小顶堆
+     *
+     * @param query   查询的特征
+     * @param exclude 跳过的原始下标, -1表示不跳过
+     */
+    private void search(long query, int exclude, int minScore, int fromBucket, int toBucket, TopK top) {
+        int restMax = restMax(query);
+        for (int b = fromBucket; b < toBucket; b++) {
+            int bucket = buckets[b];
+            int base = bucketScore(query, bucket);
+            int threshold = Math.max(minScore, top.threshold());
+            if (base + restMax < threshold) {
+                continue;
+            }
+            for (int i = bucketOffsets[bucket], end = bucketOffsets[bucket + 1]; i < end; i++) {
+                int score = base + variableScore(query, features[i]);
+                if (score >= minScore && order[i] != exclude) {
+                    top.offer(score, order[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * 提取八字特征
+     */
+    private static long features(long code) {
+        long feature = 0;
+        for (DateEnum position : DateEnum.values()) {
+            int pillar = EightCharactersCode.getPillar(code, position);
+            feature |= 1L << (STEM_MASK_SHIFT + (pillar & 0xF));
+            feature |= 1L << (BRANCH_MASK_SHIFT + (pillar >>> 4));
+        }
+        int counts = EightCharactersCode.getFiveElementsCounts(code);
+        for (int element = 0; element < ELEMENTS; element++) {
+            int count = counts >>> (element << 2) & 0xF;
+            feature |= (count == 0 ? 1L : 0L) << (MISSING_SHIFT + element);
+            feature |= (count >= 3 ? 1L : 0L) << (STRONG_SHIFT + element);
+        }
+        int dayPillar = EightCharactersCode.getPillar(code, DateEnum.DAY);
+        int yearPillar = EightCharactersCode.getPillar(code, DateEnum.YEAR);
+        feature |= (long) (dayPillar & 0xF) << DAY_STEM_SHIFT;
+        feature |= (long) (dayPillar >>> 4) << DAY_BRANCH_SHIFT;
+        feature |= (long) (yearPillar >>> 4) << YEAR_BRANCH_SHIFT;
+        return feature;
+    }
+
+    private static int bucketOf(long feature) {
+        int dayStem = (int) (feature >>> DAY_STEM_SHIFT) & 0xF;
+        int dayBranch = (int) (feature >>> DAY_BRANCH_SHIFT) & 0xF;
+        int yearBranch = (int) (feature >>> YEAR_BRANCH_SHIFT) & 0xF;
+        return (dayStem * BRANCHES + dayBranch) * BRANCHES + yearBranch;
+    }
+
+    /**
+     * 日干、日支、年支的得分, 同一桶内相同
+     */
+    private static int bucketScore(long query, int bucket) {
+        int dayStem = bucket / (BRANCHES * BRANCHES);
+        int dayBranch = bucket / BRANCHES % BRANCHES;
+        int yearBranch = bucket % BRANCHES;
+        return DAY_STEM_SCORE[((int) (query >>> DAY_STEM_SHIFT) & 0xF) * STEMS + dayStem]
+                + DAY_BRANCH_SCORE[((int) (query >>> DAY_BRANCH_SHIFT) & 0xF) * BRANCHES + dayBranch]
+                + YEAR_BRANCH_SCORE[((int) (query >>> YEAR_BRANCH_SHIFT) & 0xF) * BRANCHES + yearBranch];
+    }
+
+    /**
+     * 五行互补、四柱天干、四柱地支的得分
+     */
+    private static int variableScore(long a, long b) {
+        int stemA = (int) (a >>> STEM_MASK_SHIFT) & 0x3FF;
+        int stemB = (int) (b >>> STEM_MASK_SHIFT) & 0x3FF;
+        int branchA = (int) (a >>> BRANCH_MASK_SHIFT) & 0xFFF;
+        int branchB = (int) (b >>> BRANCH_MASK_SHIFT) & 0xFFF;
+        int missingA = (int) (a >>> MISSING_SHIFT) & 0x1F;
+        int missingB = (int) (b >>> MISSING_SHIFT) & 0x1F;
+        int strongA = (int) (a >>> STRONG_SHIFT) & 0x1F;
+        int strongB = (int) (b >>> STRONG_SHIFT) & 0x1F;
+        return ELEMENT_FILL_WEIGHT * (Integer.bitCount(missingA & ~missingB) + Integer.bitCount(missingB & ~missingA))
+                + ELEMENT_STRONG_WEIGHT * (Integer.bitCount(missingA & strongB) + Integer.bitCount(missingB & strongA))
+                + STEM_WEIGHT * (Integer.bitCount(stemA & STEM_COMBINE[stemB]) - Integer.bitCount(stemA & STEM_CLASH[stemB]))
+                + BRANCH_WEIGHT * (Integer.bitCount(branchA & BRANCH_HARMONY[branchB]) - Integer.bitCount(branchA & BRANCH_CLASH[branchB]));
+    }
+
+    /**
+     * variableScore对任意候选的上界: 每个天干、地支至多有一个五合/六合对象,
+     * 查询缺的五行至多各得2+1, 查询有的五行至多各得2, 偏旺的再各得1
+     */
+    private static int restMax(long query) {
+        int missing = (int) (query >>> MISSING_SHIFT) & 0x1F;
+        int strong = (int) (query >>> STRONG_SHIFT) & 0x1F;
+        return (ELEMENT_FILL_WEIGHT + ELEMENT_STRONG_WEIGHT) * Integer.bitCount(missing)
+                + ELEMENT_FILL_WEIGHT * (ELEMENTS - Integer.bitCount(missing))
+                + ELEMENT_STRONG_WEIGHT * Integer.bitCount(strong)
+                + STEM_WEIGHT * Integer.bitCount((int) (query >>> STEM_MASK_SHIFT) & 0x3FF)
+                + BRANCH_WEIGHT * Integer.bitCount((int) (query >>> BRANCH_MASK_SHIFT) & 0xFFF);
+    }
+
+    private static int harmonyOf(int branch) {
+        return (13 - branch) % BRANCHES;
+    }
+
+    private static int clashOf(int branch) {
+        return (branch + 6) % BRANCHES;
+    }
+
+    private static long[] sorted(TopK top) {
+        long[] result = Arrays.copyOf(top.heap, top.size);
+        Arrays.sort(result);
+        for (int i = 0, j = result.length - 1; i < j; i++, j--) {
+            long swap = result[i];
+            result[i] = result[j];
+            result[j] = swap;
+        }
+        return result;
+    }
+
+    /**
+     * 定长小顶堆, 元素为 得分 << 32 | (Integer.MAX_VALUE - 下标), 越大越好
+     */
+    private static final class TopK {
+        private final long[] heap;
+        private int size;
+
+        private TopK(int k) {
+            this.heap = new long[k];
+        }
+
+        /**
+         * 堆满后新元素需要达到的得分
+         */
+        private int threshold() {
+            return size < heap.length ? NO_THRESHOLD : scoreOf(heap[0]);
+        }
+
+        private void offer(int score, int index) {
+            long key = (long) score << 32 | (Integer.MAX_VALUE - index);
+            if (size < heap.length) {
+                heap[size] = key;
+                siftUp(size++);
+            } else if (key > heap[0]) {
+                heap[0] = key;
+                siftDown(0);
+            }
+        }
+
+        private void merge(TopK other) {
+            for (int i = 0; i < other.size; i++) {
+                long key = other.heap[i];
+                offer(scoreOf(key), indexOf(key));
+            }
+        }
+
+        private void siftUp(int i) {
+            long key = heap[i];
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] <= key) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = key;
+        }
+
+        private void siftDown(int i) {
+            long key = heap[i];
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (key <= heap[child]) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = key;
+        }
+    }
+
+    /**
+     * 单个查询, 按非空桶二分拆分, 各自求前K个后合并
+     */
+    private class QueryTask extends RecursiveTask<TopK> {
+        private static final long serialVersionUID = 1L;
+
+        private final long query;
+        private final int exclude;
+        private final int k;
+        private final int minScore;
+        private final int from;
+        private final int to;
+
+        QueryTask(long query, int exclude, int k, int minScore, int from, int to) {
+            this.query = query;
+            this.exclude = exclude;
+            this.k = k;
+            this.minScore = minScore;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected TopK compute() {
+            int candidates = bucketOffsets[buckets[to - 1] + 1] - bucketOffsets[buckets[from]];
+            if (to - from <= 1 || candidates <= MIN_TASK_SIZE) {
+                TopK top = new TopK(k);
+                search(query, exclude, minScore, from, to, top);
+                return top;
+            }
+            int mid = (from + to) >>> 1;
+            QueryTask right = new QueryTask(query, exclude, k, minScore, mid, to);
+            right.fork();
+            TopK top = new QueryTask(query, exclude, k, minScore, from, mid).compute();
+            top.merge(right.join());
+            return top;
+        }
+    }
+
+    /**
+     * 全量查询, 按查询对象二分拆分, 每个查询顺序执行
+     */
+    private class AllTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final long[] codes;
+        private final int k;
+        private final int minScore;
+        private final long[][] results;
+        private final int from;
+        private final int to;
+
+        AllTask(long[] codes, int k, int minScore, long[][] results, int from, int to) {
+            this.codes = codes;
+            this.k = k;
+            this.minScore = minScore;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= MIN_QUERIES_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    if (codes[i] == EightCharactersCode.INVALID || k <= 0) {
+                        results[i] = new long[0];
+                        continue;
+                    }
+                    TopK top = new TopK(k);
+                    search(features(codes[i]), i, minScore, 0, buckets.length, top);
+                    results[i] = sorted(top);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new AllTask(codes, k, minScore, results, from, mid), new AllTask(codes, k, minScore, results, mid, to));
+        }
+    }
+}
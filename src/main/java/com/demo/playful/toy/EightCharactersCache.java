@@ -0,0 +1,449 @@
+package com.demo.playful.toy;
+
+import com.demo.playful.toy.domain.EightCharactersCode;
+import com.demo.playful.toy.domain.EightCharactersDto;
+import com.demo.playful.toy.enums.EvictionPolicy;
+import com.demo.playful.toy.utils.DateUtils;
+import com.google.common.cache.CacheStats;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * EightCharactersCache
+ * 八字计算结果缓存, 以epoch-hour为键, 缓存八字编码, 键值都是long, 查询过程不装箱、不创建对象
+ * <p>
+ * 按键的哈希分段, 每段是固定容量的开放寻址表(线性探测, 装载因子不超过0.5), 由一把StampedLock保护:
+ * 读先走乐观读, 校验失败才退化为读锁, 读之间互不阻塞; 写入和淘汰持写锁, 只影响所在的段
+ * 淘汰策略见EvictionPolicy, 容量上限按段平均分配
+ * 未命中时在锁外计算, 并发未命中同一个键时可能重复计算, 结果相同, 只写入一次
+ * 计算失败的键缓存为EightCharactersCode.INVALID, 避免反复抛异常
+ *
+ * @author 张涵林
+ * @date 2020/6/24
+ */
+public class EightCharactersCache {
+    /**
+     * 默认分段数
+     */
+    public static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+    /**
+     * 空槽位标记, 不是合法的epoch-hour
+     */
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final EvictionPolicy policy;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder loadSuccessCount = new LongAdder();
+    private final LongAdder loadExceptionCount = new LongAdder();
+    private final LongAdder totalLoadTime = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param maximumSize 最多缓存的数量
+     * @param policy      淘汰策略
+     */
+    public EightCharactersCache(int maximumSize, EvictionPolicy policy) {
+        this(maximumSize, policy, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * @param maximumSize      最多缓存的数量
+     * @param policy           淘汰策略
+     * @param concurrencyLevel 分段数, 向上取2的幂
+     */
+    public EightCharactersCache(int maximumSize, EvictionPolicy policy, int concurrencyLevel) {
+        if (maximumSize < 1 || concurrencyLevel < 1 || null == policy) {
+            throw new IllegalArgumentException("invalid cache config , maximumSize:" + maximumSize
+                    + ",concurrencyLevel:" + concurrencyLevel + ",policy:" + policy);
+        }
+        int segmentCount = tableSizeFor(Math.min(concurrencyLevel, maximumSize));
+        this.segments = new Segment[segmentCount];
+        this.segmentMask = segmentCount - 1;
+        this.policy = policy;
+        int segmentSize = (maximumSize + segmentCount - 1) / segmentCount;
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(segmentSize, policy == EvictionPolicy.TINY_LFU);
+        }
+    }
+
+    /**
+     * 查询八字编码, 未命中时计算并写入缓存
+     *
+     * @param epochHour 公历时间的epoch-hour
+     * @return 八字编码, 无法计算时为EightCharactersCode.INVALID
+     */
+    public long getCode(long epochHour) {
+        if (epochHour == EMPTY) {
+            return EightCharactersCode.INVALID;
+        }
+        long hash = spread(epochHour);
+        Segment segment = segments[(int) (hash >>> 32) & segmentMask];
+        long stamp = segment.tryOptimisticRead();
+        int index = segment.indexOf(epochHour, hash);
+        long code = index >= 0 ? segment.values[index] : 0L;
+        if (!segment.validate(stamp)) {
+            stamp = segment.readLock();
+            try {
+                index = segment.indexOf(epochHour, hash);
+                code = index >= 0 ? segment.values[index] : 0L;
+            } finally {
+                segment.unlockRead(stamp);
+            }
+        }
+        if (null != segment.sketch) {
+            segment.sketch.increment(hash);
+        }
+        if (index >= 0) {
+            // 访问位只是淘汰的参考, 不加锁, 偶尔写到被移动的槽位上也无妨
+            segment.referenced[index] = 1;
+            hitCount.increment();
+            return code;
+        }
+        missCount.increment();
+        code = load(epochHour);
+        put(segment, epochHour, hash, code);
+        return code;
+    }
+
+    /**
+     * 查询八字编码, 未命中时计算并写入缓存
+     *
+     * @param year  公历年
+     * @param month 公历月(1-12)
+     * @param day   公历日
+     * @param hour  小时
+     * @return 八字编码, 无法计算时为EightCharactersCode.INVALID
+     * @throws IllegalArgumentException 日期时间各字段超出范围
+     */
+    public long getCode(int year, int month, int day, int hour) {
+        CalculationEightCharacters.checkTime(hour, 0);
+        return getCode(CalculationEightCharacters.toEpochDay(year, month, day) * 24L + hour);
+    }
+
+    /**
+     * 计算生辰八字, 八字编码走缓存, 与CalculationEightCharacters.calculationEightCharacters结果一致
+     *
+     * @param year  公历年
+     * @param month 公历月(1-12)
+     * @param day   公历日
+     * @param hour  小时
+     * @return 生辰八字对象
+     */
+    public EightCharactersDto calculationEightCharacters(int year, int month, int day, int hour) {
+        CalculationEightCharacters.checkTime(hour, 0);
+        int epochDay = CalculationEightCharacters.toEpochDay(year, month, day);
+        long epochHour = epochDay * 24L + hour;
+        long code = getCode(epochHour);
+        if (code == EightCharactersCode.INVALID) {
+            throw new RuntimeException("eightCharacters is invalid , epochHour:" + epochHour);
+        }
+        return new EightCharactersDto(code, epochHour, DateUtils.LunarDate.solarToLunar(epochDay));
+    }
+
+    /**
+     * 当前缓存的数量
+     *
+     * @return 数量
+     */
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            long stamp = segment.readLock();
+            try {
+                size += segment.size;
+            } finally {
+                segment.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 清空缓存, 统计数据保留
+     */
+    public void invalidateAll() {
+        for (Segment segment : segments) {
+            long stamp = segment.writeLock();
+            try {
+                segment.clear();
+            } finally {
+                segment.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * 统计数据快照: 命中率、淘汰数量、平均计算耗时(averageLoadPenalty, 纳秒)等
+     * 计算失败也会缓存, 计入loadExceptionCount
+     *
+     * @return 统计数据
+     */
+    public CacheStats stats() {
+        return new CacheStats(hitCount.sum(), missCount.sum(), loadSuccessCount.sum(), loadExceptionCount.sum(),
+                totalLoadTime.sum(), evictionCount.sum());
+    }
+
+    /**
+     * 淘汰策略
+     *
+     * @return 淘汰策略
+     */
+    public EvictionPolicy getPolicy() {
+        return policy;
+    }
+
+    private long load(long epochHour) {
+        long start = System.nanoTime();
+        long code;
+        try {
+            code = CalculationEightCharacters.calculationEightCharactersCode(epochHour);
+            loadSuccessCount.increment();
+        } catch (RuntimeException e) {
+            code = EightCharactersCode.INVALID;
+            loadExceptionCount.increment();
+        }
+        totalLoadTime.add(System.nanoTime() - start);
+        return code;
+    }
+
+    private void put(Segment segment, long key, long hash, long code) {
+        long stamp = segment.writeLock();
+        try {
+            if (segment.indexOf(key, hash) >= 0) {
+                return;
+            }
+            if (segment.size >= segment.maximumSize) {
+                int victim = segment.nextVictim();
+                // 频率准入: 新项不比被淘汰项更常用时放弃写入
+                if (null != segment.sketch && segment.sketch.frequency(hash) <= segment.sketch.frequency(spread(segment.keys[victim]))) {
+                    return;
+                }
+                segment.removeAt(victim);
+                evictionCount.increment();
+            }
+            segment.insert(key, hash, code);
+        } finally {
+            segment.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Murmur3的64位混合函数, 高32位选段, 低位选槽位
+     */
+    private static long spread(long key) {
+        key ^= key >>> 33;
+        key *= 0xFF51AFD7ED558CCDL;
+        key ^= key >>> 33;
+        key *= 0xC4CEB9FE1A85EC53L;
+        return key ^ key >>> 33;
+    }
+
+    private static int tableSizeFor(int n) {
+        return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+
+    /**
+     * 一个分段: 固定容量的开放寻址表, 槽位数是容量的2倍以上, 永远有空槽, 探测一定会结束
+     */
+    private static final class Segment extends StampedLock {
+        private static final long serialVersionUID = 1L;
+
+        private final long[] keys;
+        private final long[] values;
+        /**
+         * CLOCK访问位
+         */
+        private final byte[] referenced;
+        private final int mask;
+        private final int maximumSize;
+        private final FrequencySketch sketch;
+        private int size;
+        /**
+         * CLOCK指针
+         */
+        private int hand;
+
+        private Segment(int maximumSize, boolean admission) {
+            int capacity = tableSizeFor(Math.max(4, maximumSize * 2));
+            this.keys = new long[capacity];
+            this.values = new long[capacity];
+            this.referenced = new byte[capacity];
+            this.mask = capacity - 1;
+            this.maximumSize = maximumSize;
+            this.sketch = admission ? new FrequencySketch(maximumSize) : null;
+            Arrays.fill(keys, EMPTY);
+        }
+
+        /**
+         * 查找键所在的槽位, 不存在返回-1
+         * 乐观读时数组可能正在被修改, 探测次数以槽位数为上限, 结果由调用方校验
+         */
+        private int indexOf(long key, long hash) {
+            int index = (int) hash & mask;
+            for (int probe = 0; probe <= mask; probe++) {
+                long current = keys[index];
+                if (current == key) {
+                    return index;
+                }
+                if (current == EMPTY) {
+                    return -1;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        private void insert(long key, long hash, long value) {
+            int index = (int) hash & mask;
+            while (keys[index] != EMPTY) {
+                index = (index + 1) & mask;
+            }
+            values[index] = value;
+            referenced[index] = 0;
+            keys[index] = key;
+            size++;
+        }
+
+        /**
+         * CLOCK: 从指针处开始, 跳过并清除访问位为1的项, 返回第一个访问位为0的项
+         */
+        private int nextVictim() {
+            while (true) {
+                int index = hand;
+                hand = (hand + 1) & mask;
+                if (keys[index] == EMPTY) {
+                    continue;
+                }
+                if (referenced[index] != 0) {
+                    referenced[index] = 0;
+                    continue;
+                }
+                return index;
+            }
+        }
+
+        /**
+         * 删除槽位, 后续同一探测链上的项前移补位, 不留删除标记
+         */
+        private void removeAt(int index) {
+            int next = index;
+            while (true) {
+                next = (next + 1) & mask;
+                long key = keys[next];
+                if (key == EMPTY) {
+                    break;
+                }
+                int home = (int) spread(key) & mask;
+                // home在(index, next]之间的项不能前移
+                boolean stay = index <= next ? index < home && home <= next : index < home || home <= next;
+                if (stay) {
+                    continue;
+                }
+                keys[index] = key;
+                values[index] = values[next];
+                referenced[index] = referenced[next];
+                index = next;
+            }
+            keys[index] = EMPTY;
+            referenced[index] = 0;
+            size--;
+        }
+
+        private void clear() {
+            Arrays.fill(keys, EMPTY);
+            Arrays.fill(referenced, (byte) 0);
+            size = 0;
+            hand = 0;
+        }
+    }
+
+    /**
+     * 访问频率的Count-Min估计, 4行4位计数器, 累计次数达到容量的10倍时全部减半, 让频率随时间衰减
+     * 计数在锁外进行, 每个long的加一和减半都用CAS完成, 计数器到15后不再增加, 不会进位到相邻的计数器
+     */
+    private static final class FrequencySketch {
+        private static final long[] SEEDS = {0x97CB3127L, 0xE2C8A9B1L, 0x5DF2E7A3L, 0xCB3A4D67L};
+        private static final int DEPTH = SEEDS.length;
+        private static final int MAX_FREQUENCY = 15;
+
+        /**
+         * 每个long放16个4位计数器
+         */
+        private final AtomicLongArray table;
+        private final int rowMask;
+        private final int sampleSize;
+        private final AtomicInteger additions = new AtomicInteger();
+
+        private FrequencySketch(int maximumSize) {
+            int width = tableSizeFor(Math.max(16, maximumSize));
+            this.table = new AtomicLongArray(width * DEPTH / 16);
+            this.rowMask = width - 1;
+            this.sampleSize = 10 * Math.max(16, maximumSize);
+        }
+
+        private int counterIndex(long hash, int row) {
+            long mixed = (hash + SEEDS[row]) * SEEDS[row];
+            return row * (rowMask + 1) + ((int) (mixed >>> 32) & rowMask);
+        }
+
+        private int get(int counter) {
+            return (int) (table.get(counter >>> 4) >>> ((counter & 15) << 2)) & 0xF;
+        }
+
+        private void increment(long hash) {
+            boolean added = false;
+            for (int row = 0; row < DEPTH; row++) {
+                added |= tryIncrement(counterIndex(hash, row));
+            }
+            // 只有恰好达到sampleSize的线程执行减半, 减半期间其他线程的计数照常进行
+            if (added && additions.incrementAndGet() == sampleSize) {
+                reset();
+            }
+        }
+
+        /**
+         * 计数器加一, 已到上限时返回false
+         */
+        private boolean tryIncrement(int counter) {
+            int i = counter >>> 4;
+            int shift = (counter & 15) << 2;
+            long value;
+            do {
+                value = table.get(i);
+                if ((value >>> shift & 0xF) == MAX_FREQUENCY) {
+                    return false;
+                }
+            } while (!table.compareAndSet(i, value, value + (1L << shift)));
+            return true;
+        }
+
+        private int frequency(long hash) {
+            int frequency = MAX_FREQUENCY;
+            for (int row = 0; row < DEPTH; row++) {
+                frequency = Math.min(frequency, get(counterIndex(hash, row)));
+            }
+            return frequency;
+        }
+
+        /**
+         * 所有计数器减半
+         */
+        private void reset() {
+            for (int i = 0; i < table.length(); i++) {
+                long value;
+                do {
+                    value = table.get(i);
+                } while (!table.compareAndSet(i, value, (value >>> 1) & 0x7777777777777777L));
+            }
+            additions.addAndGet(-(sampleSize >>> 1));
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.demo.playful.toy;
+
+import com.demo.playful.toy.domain.EightCharactersCode;
+import com.demo.playful.toy.enums.EvictionPolicy;
+import com.demo.playful.toy.utils.DateUtils;
+import com.demo.playful.toy.utils.EightCharactersJsonWriter;
+import com.demo.playful.toy.utils.TimestampParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EightCharactersHttpServer
+ * 基于JDK内置HttpServer的八字计算服务, 不依赖外部容器
+ * <p>
+ * GET  /eight-characters?birth=1990-12-26%2007 : 单个计算, 返回一个JSON对象
+ * POST /eight-characters/batch : 请求体每行一个生日, 返回JSON数组, 边读边算边写(chunked), 内存占用与批量大小无关
+ * 生日格式见TimestampParser; 连接默认keep-alive, 同一连接上的请求依次处理
+ * 结果由EightCharactersJsonWriter直接写为UTF-8字节
+ *
+ * @author 张涵林
+ * @date 2020/6/25
+ */
+@Slf4j
+public class EightCharactersHttpServer implements AutoCloseable {
+    /**
+     * 单个计算路径
+     */
+    public static final String SINGLE_PATH = "/eight-characters";
+    /**
+     * 批量计算路径
+     */
+    public static final String BATCH_PATH = "/eight-characters/batch";
+    private static final String CONTENT_TYPE = "application/json; charset=UTF-8";
+    private static final int WRITE_BUFFER_SIZE = 16 * 1024;
+    private static final int SINGLE_BUFFER_SIZE = 512;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    /**
+     * 结果缓存, 为null时直接计算
+     */
+    private final EightCharactersCache cache;
+
+    /**
+     * @param port      端口
+     * @param threads   工作线程数
+     * @param cacheSize 缓存数量, 0表示不缓存
+     * @throws IOException 端口绑定失败
+     */
+    public EightCharactersHttpServer(int port, int threads, int cacheSize) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.cache = cacheSize > 0 ? new EightCharactersCache(cacheSize, EvictionPolicy.TINY_LFU) : null;
+        server.setExecutor(executor);
+        server.createContext(SINGLE_PATH, this::handleSingle);
+        server.createContext(BATCH_PATH, this::handleBatch);
+    }
+
+    /**
+     * main函数
+     *
+     * @param args [端口] [工作线程数] [缓存数量]
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int cacheSize = args.length > 2 ? Integer.parseInt(args[2]) : 100000;
+        EightCharactersHttpServer httpServer = new EightCharactersHttpServer(port, threads, cacheSize);
+        httpServer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(httpServer::close));
+    }
+
+    /**
+     * 启动服务
+     */
+    public void start() {
+        server.start();
+        log.info("八字计算服务启动 , 端口 : {}", getPort());
+    }
+
+    /**
+     * 实际监听的端口, 构造时传0则由系统分配
+     *
+     * @return 端口
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * 结果缓存
+     *
+     * @return 缓存, 未启用时为null
+     */
+    public EightCharactersCache getCache() {
+        return cache;
+    }
+
+    /**
+     * 停止服务, 最多等待1秒处理中的请求
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handleSingle(HttpExchange exchange) throws IOException {
+        try {
+            if (!SINGLE_PATH.equals(exchange.getRequestURI().getPath())) {
+                sendError(exchange, 404, "not found");
+                return;
+            }
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                sendError(exchange, 405, "method not allowed");
+                return;
+            }
+            String birth;
+            try {
+                birth = queryParameter(exchange.getRequestURI().getRawQuery(), "birth");
+            } catch (IllegalArgumentException e) {
+                // 非法的百分号转义, 如%zz
+                sendError(exchange, 400, "bad format");
+                return;
+            }
+            if (null == birth) {
+                sendError(exchange, 400, "birth is required");
+                return;
+            }
+            ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+            EightCharactersJsonWriter writer = new EightCharactersJsonWriter(body, SINGLE_BUFFER_SIZE);
+            boolean success = writeResult(writer, birth);
+            writer.flush();
+            sendJson(exchange, success ? 200 : 400, body.toByteArray());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleBatch(HttpExchange exchange) throws IOException {
+        try {
+            if (!BATCH_PATH.equals(exchange.getRequestURI().getPath())) {
+                sendError(exchange, 404, "not found");
+                return;
+            }
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                sendError(exchange, 405, "method not allowed");
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            // 长度0表示chunked, 结果边算边写
+            exchange.sendResponseHeaders(200, 0);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8));
+            EightCharactersJsonWriter writer = new EightCharactersJsonWriter(exchange.getResponseBody(), WRITE_BUFFER_SIZE);
+            writer.beginArray();
+            String line;
+            while (null != (line = reader.readLine())) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                writeResult(writer, line);
+            }
+            writer.endArray();
+            writer.flush();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * 计算一个生日并写入JSON对象
+     *
+     * @return 是否计算成功, 失败时写入的是错误对象
+     */
+    private boolean writeResult(EightCharactersJsonWriter writer, String birth) {
+        long parsed = TimestampParser.parse(birth);
+        String trimmed = birth.trim();
+        if (!TimestampParser.isValid(parsed)) {
+            writer.writeError(trimmed, parsed == TimestampParser.ERROR_RANGE ? "out of range" : "bad format");
+            return false;
+        }
+        long epochHour = TimestampParser.toEpochHour(parsed);
+        long code = calculate(epochHour);
+        if (code == EightCharactersCode.INVALID) {
+            writer.writeError(trimmed, "calculation failed");
+            return false;
+        }
+        writer.writeResult(trimmed, code, epochHour, DateUtils.LunarDate.solarToLunar((int) Math.floorDiv(epochHour, 24L)));
+        return true;
+    }
+
+    private long calculate(long epochHour) {
+        if (null != cache) {
+            return cache.getCode(epochHour);
+        }
+        try {
+            return CalculationEightCharacters.calculationEightCharactersCode(epochHour);
+        } catch (RuntimeException e) {
+            return EightCharactersCode.INVALID;
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(64);
+        EightCharactersJsonWriter writer = new EightCharactersJsonWriter(body, SINGLE_BUFFER_SIZE);
+        writer.writeError(null, message);
+        writer.flush();
+        sendJson(exchange, status, body.toByteArray());
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * 从原始查询串中取参数值
+     *
+     * @throws IllegalArgumentException 参数值的百分号转义不合法
+     */
+    static String queryParameter(String rawQuery, String name) throws UnsupportedEncodingException {
+        if (null == rawQuery) {
+            return null;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0 && name.equals(pair.substring(0, equals))) {
+                return URLDecoder.decode(pair.substring(equals + 1), "UTF-8");
+            }
+        }
+        return null;
+    }
+}
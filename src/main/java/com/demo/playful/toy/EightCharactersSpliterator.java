@@ -0,0 +1,186 @@
+package com.demo.playful.toy;
+
+import com.demo.playful.toy.enums.PillarMode;
+import com.demo.playful.toy.enums.ZiHourMode;
+
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * EightCharactersSpliterator
+ * 按小时逐个输出[起始epoch-hour, 结束epoch-hour)区间内的八字编码, 第i个结果对应起始epoch-hour + i
+ * <p>
+ * 迭代时通过PillarCursor保存当前的年月柱和日柱: 年月柱只在跨过农历月(按节气划分时为节)的边界时重新计算,
+ * 日柱每跨一天计算一次, 每小时只追加时柱
+ * 每一项的结果与CalculationEightCharacters.calculationEightCharactersCode(int, int, int, int, int, PillarMode, ZiHourMode)
+ * (分钟为0)完全一致, 无法计算时为EightCharactersCode.INVALID
+ * 拆分时按整天对齐, 可用于并行流
+ *
+ * @author 张涵林
+ * @date 2020/7/2
+ */
+public class EightCharactersSpliterator implements Spliterator.OfLong {
+    /**
+     * 年柱、月柱的划分方式
+     */
+    private final PillarMode mode;
+    /**
+     * 子时的处理方式
+     */
+    private final ZiHourMode ziHourMode;
+    /**
+     * 下一个要输出的epoch-hour
+     */
+    private long next;
+    /**
+     * 结束epoch-hour(不包含)
+     */
+    private long end;
+    /**
+     * 年月柱、日柱的缓存
+     */
+    private final PillarCursor cursor;
+
+    /**
+     * 年柱、月柱按农历划分
+     *
+     * @param fromEpochHour 起始epoch-hour(包含)
+     * @param toEpochHour   结束epoch-hour(不包含)
+     */
+    public EightCharactersSpliterator(long fromEpochHour, long toEpochHour) {
+        this(fromEpochHour, toEpochHour, PillarMode.LUNAR);
+    }
+
+    /**
+     * @param fromEpochHour 起始epoch-hour(包含)
+     * @param toEpochHour   结束epoch-hour(不包含)
+     * @param mode          年柱、月柱的划分方式
+     */
+    public EightCharactersSpliterator(long fromEpochHour, long toEpochHour, PillarMode mode) {
+        this(fromEpochHour, toEpochHour, mode, ZiHourMode.LATE_ZI);
+    }
+
+    /**
+     * @param fromEpochHour 起始epoch-hour(包含)
+     * @param toEpochHour   结束epoch-hour(不包含)
+     * @param mode          年柱、月柱的划分方式
+     * @param ziHourMode    子时的处理方式
+     */
+    public EightCharactersSpliterator(long fromEpochHour, long toEpochHour, PillarMode mode, ZiHourMode ziHourMode) {
+        if (fromEpochHour > toEpochHour || null == mode || null == ziHourMode) {
+            throw new IllegalArgumentException("invalid range , from:" + fromEpochHour + ",to:" + toEpochHour + ",mode:" + mode
+                    + ",ziHourMode:" + ziHourMode);
+        }
+        this.next = fromEpochHour;
+        this.end = toEpochHour;
+        this.mode = mode;
+        this.ziHourMode = ziHourMode;
+        this.cursor = new PillarCursor(mode, ziHourMode);
+    }
+
+    /**
+     * 区间内逐小时的八字编码流
+     *
+     * @param fromEpochHour 起始epoch-hour(包含)
+     * @param toEpochHour   结束epoch-hour(不包含)
+     * @param mode          年柱、月柱的划分方式
+     * @param parallel      是否并行
+     * @return 八字编码流, 第i个元素对应fromEpochHour + i
+     */
+    public static LongStream stream(long fromEpochHour, long toEpochHour, PillarMode mode, boolean parallel) {
+        return stream(fromEpochHour, toEpochHour, mode, ZiHourMode.LATE_ZI, parallel);
+    }
+
+    /**
+     * 区间内逐小时的八字编码流
+     *
+     * @param fromEpochHour 起始epoch-hour(包含)
+     * @param toEpochHour   结束epoch-hour(不包含)
+     * @param mode          年柱、月柱的划分方式
+     * @param ziHourMode    子时的处理方式
+     * @param parallel      是否并行
+     * @return 八字编码流, 第i个元素对应fromEpochHour + i
+     */
+    public static LongStream stream(long fromEpochHour, long toEpochHour, PillarMode mode, ZiHourMode ziHourMode, boolean parallel) {
+        return StreamSupport.longStream(new EightCharactersSpliterator(fromEpochHour, toEpochHour, mode, ziHourMode), parallel);
+    }
+
+    /**
+     * 区间内逐小时的八字编码流, 年柱、月柱按农历划分
+     *
+     * @param fromEpochHour 起始epoch-hour(包含)
+     * @param toEpochHour   结束epoch-hour(不包含)
+     * @return 八字编码流, 第i个元素对应fromEpochHour + i
+     */
+    public static LongStream stream(long fromEpochHour, long toEpochHour) {
+        return stream(fromEpochHour, toEpochHour, PillarMode.LUNAR, false);
+    }
+
+    /**
+     * 下一个要输出的epoch-hour
+     *
+     * @return epoch-hour
+     */
+    public long getNextEpochHour() {
+        return next;
+    }
+
+    /**
+     * 连续写入数组, 最多写满length个
+     *
+     * @param codes  输出的八字编码
+     * @param offset 起始下标
+     * @param length 最多写入的数量
+     * @return 实际写入的数量, 0表示已经结束
+     */
+    public int fill(long[] codes, int offset, int length) {
+        int count = (int) Math.min(length, end - next);
+        for (int i = 0; i < count; i++) {
+            codes[offset + i] = cursor.code(next++);
+        }
+        return count;
+    }
+
+    @Override
+    public boolean tryAdvance(LongConsumer action) {
+        if (next >= end) {
+            return false;
+        }
+        action.accept(cursor.code(next++));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(LongConsumer action) {
+        long to = end;
+        while (next < to) {
+            action.accept(cursor.code(next++));
+        }
+    }
+
+    /**
+     * 拆出前半段, 拆分点对齐到整天, 不足两天时不再拆分
+     */
+    @Override
+    public Spliterator.OfLong trySplit() {
+        long mid = Math.floorDiv(next + (end - next) / 2, PillarCursor.HOURS_PER_DAY) * PillarCursor.HOURS_PER_DAY;
+        if (mid <= next || mid >= end) {
+            return null;
+        }
+        EightCharactersSpliterator prefix = new EightCharactersSpliterator(next, mid, mode, ziHourMode);
+        next = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return end - next;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+    }
+}
@@ -0,0 +1,203 @@
+package com.demo.playful.toy;
+
+import com.demo.playful.toy.domain.EightCharactersCode;
+import com.demo.playful.toy.enums.DateEnum;
+import com.demo.playful.toy.enums.FiveElements;
+
+import java.util.Arrays;
+
+/**
+ * FiveElementsAggregator
+ * 五行数量与四柱出现次数的区间统计, 区间为[fromEpochHour, toEpochHour), 以小时为单位
+ * <p>
+ * 五行按天预计算前缀和: 每个五行的数量合计, 以及数量为0-8的小时数; 查询时整天部分直接相减,
+ * 首尾不满一天的部分(最多46小时)逐小时查表, 耗时与区间长度无关
+ * 四柱出现次数由PillarIndex的有序列表二分得到
+ * 无法计算的小时不计入任何统计
+ *
+ * @author 张涵林
+ * @date 2020/6/21
+ */
+public class FiveElementsAggregator {
+    /**
+     * 单个五行在八字中的最大数量
+     */
+    public static final int MAX_COUNT = 8;
+    private static final FiveElements[] FIVE_ELEMENTS = FiveElements.values();
+
+    private final PillarTable table;
+    private final PillarIndex index;
+    private final int firstEpochDay;
+    private final int days;
+    /**
+     * totalPrefix[五行][天]: 之前各天该五行数量合计
+     */
+    private final int[][] totalPrefix = new int[FIVE_ELEMENTS.length][];
+    /**
+     * histogramPrefix[五行 * 9 + 数量][天]: 之前各天该五行恰为该数量的小时数
+     */
+    private final int[][] histogramPrefix = new int[FIVE_ELEMENTS.length * (MAX_COUNT + 1)][];
+    /**
+     * validPrefix[天]: 之前各天可计算的小时数
+     */
+    private final int[] validPrefix;
+
+    /**
+     * @param table 预计算表
+     * @param index 四柱倒排索引, 由同一张表构建
+     */
+    public FiveElementsAggregator(PillarTable table, PillarIndex index) {
+        this.table = table;
+        this.index = index;
+        this.firstEpochDay = table.getFirstEpochDay();
+        this.days = table.getEndEpochDay() - firstEpochDay;
+        for (int e = 0; e < totalPrefix.length; e++) {
+            totalPrefix[e] = new int[days + 1];
+        }
+        for (int k = 0; k < histogramPrefix.length; k++) {
+            histogramPrefix[k] = new int[days + 1];
+        }
+        validPrefix = new int[days + 1];
+        int[] dayTotal = new int[FIVE_ELEMENTS.length];
+        int[] dayHistogram = new int[histogramPrefix.length];
+        for (int d = 0; d < days; d++) {
+            Arrays.fill(dayTotal, 0);
+            Arrays.fill(dayHistogram, 0);
+            int valid = 0;
+            for (int hour = 0; hour < 24; hour++) {
+                long code = table.getCode(firstEpochDay + d, hour);
+                if (code == EightCharactersCode.INVALID) {
+                    continue;
+                }
+                valid++;
+                for (int e = 0; e < FIVE_ELEMENTS.length; e++) {
+                    int count = EightCharactersCode.getFiveElementsCount(code, FIVE_ELEMENTS[e]);
+                    dayTotal[e] += count;
+                    dayHistogram[e * (MAX_COUNT + 1) + count]++;
+                }
+            }
+            validPrefix[d + 1] = validPrefix[d] + valid;
+            for (int e = 0; e < FIVE_ELEMENTS.length; e++) {
+                totalPrefix[e][d + 1] = totalPrefix[e][d] + dayTotal[e];
+            }
+            for (int k = 0; k < histogramPrefix.length; k++) {
+                histogramPrefix[k][d + 1] = histogramPrefix[k][d] + dayHistogram[k];
+            }
+        }
+    }
+
+    /**
+     * 区间内某个五行的数量合计
+     *
+     * @param fiveElements  五行
+     * @param fromEpochHour 起始epoch-hour(包含)
+     * @param toEpochHour   结束epoch-hour(不包含)
+     * @return 数量合计
+     */
+    public long total(FiveElements fiveElements, long fromEpochHour, long toEpochHour) {
+        return aggregate(totalPrefix[fiveElements.ordinal()], fiveElements, -1, fromEpochHour, toEpochHour);
+    }
+
+    /**
+     * 区间内某个五行数量在[minCount, maxCount]之间的小时数, 例如minCount = maxCount = 0表示缺该五行
+     *
+     * @param fiveElements  五行
+     * @param minCount      最小数量(包含)
+     * @param maxCount      最大数量(包含)
+     * @param fromEpochHour 起始epoch-hour(包含)
+     * @param toEpochHour   结束epoch-hour(不包含)
+     * @return 小时数
+     */
+    public long countHours(FiveElements fiveElements, int minCount, int maxCount, long fromEpochHour, long toEpochHour) {
+        long sum = 0;
+        for (int count = Math.max(0, minCount); count <= Math.min(MAX_COUNT, maxCount); count++) {
+            sum += aggregate(histogramPrefix[fiveElements.ordinal() * (MAX_COUNT + 1) + count], fiveElements, count, fromEpochHour, toEpochHour);
+        }
+        return sum;
+    }
+
+    /**
+     * 区间内某个五行数量的分布
+     *
+     * @param fiveElements  五行
+     * @param fromEpochHour 起始epoch-hour(包含)
+     * @param toEpochHour   结束epoch-hour(不包含)
+     * @return 下标为数量(0-8), 值为小时数
+     */
+    public long[] histogram(FiveElements fiveElements, long fromEpochHour, long toEpochHour) {
+        long[] histogram = new long[MAX_COUNT + 1];
+        for (int count = 0; count <= MAX_COUNT; count++) {
+            histogram[count] = countHours(fiveElements, count, count, fromEpochHour, toEpochHour);
+        }
+        return histogram;
+    }
+
+    /**
+     * 区间内可计算的小时数
+     *
+     * @param fromEpochHour 起始epoch-hour(包含)
+     * @param toEpochHour   结束epoch-hour(不包含)
+     * @return 小时数
+     */
+    public long validHours(long fromEpochHour, long toEpochHour) {
+        return aggregate(validPrefix, null, -1, fromEpochHour, toEpochHour);
+    }
+
+    /**
+     * 区间内某个位置为指定柱的小时数
+     *
+     * @param position      年/月/日/时
+     * @param pillar        柱在六十甲子中的序号
+     * @param fromEpochHour 起始epoch-hour(包含)
+     * @param toEpochHour   结束epoch-hour(不包含)
+     * @return 小时数
+     */
+    public long countPillar(DateEnum position, int pillar, long fromEpochHour, long toEpochHour) {
+        return index.count(position, pillar, fromEpochHour, toEpochHour);
+    }
+
+    /**
+     * 整天部分用前缀和, 首尾零散小时逐个查表
+     *
+     * @param prefix       前缀和
+     * @param fiveElements 逐小时统计的五行, null表示只统计可计算的小时数
+     * @param count        逐小时统计时要求的数量, 小于0表示累加数量
+     */
+    private long aggregate(int[] prefix, FiveElements fiveElements, int count, long fromEpochHour, long toEpochHour) {
+        long first = firstEpochDay * 24L;
+        long from = Math.max(first, fromEpochHour);
+        long to = Math.min(first + days * 24L, toEpochHour);
+        if (from >= to) {
+            return 0;
+        }
+        int fromDay = (int) ((from - first + 23) / 24);
+        int toDay = (int) ((to - first) / 24);
+        if (fromDay >= toDay) {
+            return partial(fiveElements, count, from, to);
+        }
+        return prefix[toDay] - prefix[fromDay]
+                + partial(fiveElements, count, from, first + fromDay * 24L)
+                + partial(fiveElements, count, first + toDay * 24L, to);
+    }
+
+    private long partial(FiveElements fiveElements, int count, long from, long to) {
+        long sum = 0;
+        for (long epochHour = from; epochHour < to; epochHour++) {
+            long code = table.getCode(epochHour);
+            if (code == EightCharactersCode.INVALID) {
+                continue;
+            }
+            if (null == fiveElements) {
+                sum++;
+                continue;
+            }
+            int value = EightCharactersCode.getFiveElementsCount(code, fiveElements);
+            if (count < 0) {
+                sum += value;
+            } else if (value == count) {
+                sum++;
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,337 @@
+package com.demo.playful.toy;
+
+import com.demo.playful.toy.domain.EightCharactersCode;
+import com.demo.playful.toy.enums.DateEnum;
+import com.demo.playful.toy.enums.Gender;
+import com.demo.playful.toy.enums.SexagenaryCycle;
+import com.demo.playful.toy.enums.SolarTerm;
+import com.demo.playful.toy.utils.SolarTermTable;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LuckPillarGenerator
+ * 生成大运、流年时间线
+ * <p>
+ * 阳年生男、阴年生女顺排, 反之逆排; 顺排从出生时刻数到下一个节, 逆排数到上一个节, 三天折一年得到起运年龄
+ * 大运从月柱起每十年顺推或逆推一位, 流年从年柱起每年顺推一位, 都只是六十甲子序号的加减
+ * 年柱、月柱按节气划分(见PillarMode.SOLAR_TERM)
+ * <p>
+ * 批量生成时输入输出都是调用方提供的基本类型数组, 按块拆分到fork/join线程池并行计算,
+ * 单项失败时起运年龄写入INVALID、干支写入-1, 不影响其他项
+ *
+ * @author 张涵林
+ * @date 2020/7/5
+ */
+public class LuckPillarGenerator implements AutoCloseable {
+    /**
+     * 默认大运步数
+     */
+    public static final int DEFAULT_LUCK_COUNT = 10;
+    /**
+     * 默认流年数量
+     */
+    public static final int DEFAULT_YEAR_COUNT = 100;
+    /**
+     * 默认每块的数量
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 4096;
+    /**
+     * 无法计算时的起运年龄
+     */
+    public static final int INVALID = -1;
+    /**
+     * 每步大运的月数
+     */
+    public static final int MONTHS_PER_LUCK_PILLAR = 120;
+    /**
+     * 起运年龄中一个月对应的出生时刻与节的间隔(分钟), 三天折一年
+     */
+    private static final int MINUTES_PER_MONTH = 360;
+    /**
+     * 节气表下标为0的小寒所在月柱(1899年丑月丁丑)的六十甲子序号, 之后每过一个节月柱顺推一位
+     */
+    private static final int FIRST_MONTH_INDEX = 13;
+    /**
+     * 每年的节气数量
+     */
+    private static final int TERMS_PER_YEAR = 24;
+
+    /**
+     * 线程池
+     */
+    private final ForkJoinPool pool;
+    /**
+     * 每块的数量, 小于等于该数量时不再拆分
+     */
+    private final int chunkSize;
+    /**
+     * 每人的大运步数
+     */
+    private final int luckCount;
+    /**
+     * 每人的流年数量
+     */
+    private final int yearCount;
+
+    /**
+     * 使用全部CPU核数、默认块大小, 每人10步大运、100个流年
+     */
+    public LuckPillarGenerator() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE, DEFAULT_LUCK_COUNT, DEFAULT_YEAR_COUNT);
+    }
+
+    /**
+     * @param parallelism 并行度
+     * @param chunkSize   每块的数量
+     * @param luckCount   每人的大运步数
+     * @param yearCount   每人的流年数量
+     */
+    public LuckPillarGenerator(int parallelism, int chunkSize, int luckCount, int yearCount) {
+        if (parallelism < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("parallelism and chunkSize must be positive , parallelism:" + parallelism + ",chunkSize:" + chunkSize);
+        }
+        if (luckCount < 0 || yearCount < 0) {
+            throw new IllegalArgumentException("luckCount and yearCount must not be negative , luckCount:" + luckCount
+                    + ",yearCount:" + yearCount);
+        }
+        this.pool = new ForkJoinPool(parallelism);
+        this.chunkSize = chunkSize;
+        this.luckCount = luckCount;
+        this.yearCount = yearCount;
+    }
+
+    /**
+     * 每人的大运步数, 即批量输出中luckPillars的步长
+     *
+     * @return 步数
+     */
+    public int getLuckCount() {
+        return luckCount;
+    }
+
+    /**
+     * 每人的流年数量, 即批量输出中annualPillars的步长
+     *
+     * @return 数量
+     */
+    public int getYearCount() {
+        return yearCount;
+    }
+
+    /**
+     * 大运是否顺排
+     *
+     * @param code   八字编码, 年柱应按节气划分(以立春为界)
+     * @param gender 性别
+     * @return 阳年生男、阴年生女为true
+     */
+    public static boolean isForward(long code, Gender gender) {
+        return isForward(yearIndex(code), gender);
+    }
+
+    /**
+     * 由出生时刻生成时间线, 年柱、月柱按节气划分
+     *
+     * @param birthEpochMinute 出生时刻的epoch-minute, 见SolarTermTable.toEpochMinute
+     * @param gender           性别
+     * @param timeline         输出的时间线
+     * @throws RuntimeException 出生时刻不在节气表范围内, 见SolarTermTable.contains
+     */
+    public static void generate(long birthEpochMinute, Gender gender, LuckPillarTimeline timeline) {
+        int termIndex = SolarTermTable.getTermIndex(birthEpochMinute);
+        generate(termYearIndex(termIndex), termMonthIndex(termIndex), birthEpochMinute, termIndex, gender, timeline);
+    }
+
+    /**
+     * 批量生成, 第i个人的第k步大运写入luckPillars[i * luckCount + k], 第y个流年写入annualPillars[i * yearCount + y]
+     *
+     * @param birthEpochMinutes 出生时刻的epoch-minute
+     * @param genders           性别
+     * @param startAgeMonths    输出的起运年龄(月), 长度不小于birthEpochMinutes
+     * @param luckPillars       输出的大运六十甲子序号
+     * @param annualPillars     输出的流年六十甲子序号, 不需要时传null
+     */
+    public void generate(long[] birthEpochMinutes, Gender[] genders, int[] startAgeMonths, byte[] luckPillars, byte[] annualPillars) {
+        generate(birthEpochMinutes, genders, 0, birthEpochMinutes.length, startAgeMonths, luckPillars, annualPillars);
+    }
+
+    /**
+     * 批量生成数组中的一段, 输出数组与输入数组下标对应, 见generate(long[], Gender[], int[], byte[], byte[])
+     *
+     * @param birthEpochMinutes 出生时刻的epoch-minute
+     * @param genders           性别
+     * @param from              起始下标(包含)
+     * @param to                结束下标(不包含)
+     * @param startAgeMonths    输出的起运年龄(月)
+     * @param luckPillars       输出的大运六十甲子序号
+     * @param annualPillars     输出的流年六十甲子序号, 不需要时传null
+     */
+    public void generate(long[] birthEpochMinutes, Gender[] genders, int from, int to, int[] startAgeMonths, byte[] luckPillars,
+                         byte[] annualPillars) {
+        if (from < 0 || to > birthEpochMinutes.length || to > genders.length || from > to) {
+            throw new IndexOutOfBoundsException("from:" + from + ",to:" + to + ",length:" + birthEpochMinutes.length);
+        }
+        checkOutput(startAgeMonths.length, to, 1);
+        checkOutput(luckPillars.length, to, luckCount);
+        checkOutput(annualPillars == null ? -1 : annualPillars.length, to, yearCount);
+        if (from == to) {
+            return;
+        }
+        pool.invoke(new GenerationTask(birthEpochMinutes, genders, from, to, startAgeMonths, luckPillars, annualPillars));
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+        try {
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void checkOutput(int length, int to, int stride) {
+        if (length >= 0 && length < (long) to * stride) {
+            throw new IndexOutOfBoundsException("output length:" + length + " < " + (long) to * stride);
+        }
+    }
+
+    private static void generate(int yearIndex, int monthIndex, long birthEpochMinute, int termIndex, Gender gender,
+                                 LuckPillarTimeline timeline) {
+        boolean forward = isForward(yearIndex, gender);
+        timeline.startAgeMonths = fill(yearIndex, monthIndex, birthEpochMinute, termIndex, forward,
+                timeline.luckPillars, 0, timeline.luckPillars.length, timeline.annualPillars, 0, timeline.annualPillars.length);
+        timeline.forward = forward;
+    }
+
+    /**
+     * 写入一个人的大运和流年
+     *
+     * @return 起运年龄(月)
+     */
+    private static int fill(int yearIndex, int monthIndex, long birthEpochMinute, int termIndex, boolean forward,
+                            byte[] luckPillars, int luckOffset, int luckCount, byte[] annualPillars, int annualOffset, int yearCount) {
+        if (!SolarTermTable.contains(birthEpochMinute)) {
+            throw new RuntimeException("birth out of range , epochMinute:" + birthEpochMinute);
+        }
+        // 节的下标为偶数, termIndex所在区间以jie为起点
+        int jie = termIndex & ~1;
+        long minutes = forward
+                ? SolarTermTable.getTermEpochMinute(jie + 2) - birthEpochMinute
+                : birthEpochMinute - SolarTermTable.getTermEpochMinute(jie);
+        int step = forward ? 1 : SexagenaryCycle.SIZE - 1;
+        int index = monthIndex;
+        for (int k = 0; k < luckCount; k++) {
+            index = (index + step) % SexagenaryCycle.SIZE;
+            luckPillars[luckOffset + k] = (byte) index;
+        }
+        index = yearIndex;
+        for (int y = 0; y < yearCount; y++) {
+            annualPillars[annualOffset + y] = (byte) index;
+            index = index == SexagenaryCycle.SIZE - 1 ? 0 : index + 1;
+        }
+        return (int) (minutes / MINUTES_PER_MONTH);
+    }
+
+    private static boolean isForward(int yearIndex, Gender gender) {
+        if (null == gender) {
+            throw new RuntimeException("gender is null , field:" + gender);
+        }
+        // 六十甲子序号为偶数即阳年
+        return ((yearIndex & 1) == 0) == (gender == Gender.MALE);
+    }
+
+    private static int yearIndex(long code) {
+        int yearIndex = code == EightCharactersCode.INVALID ? -1 : EightCharactersCode.getSexagenaryIndex(code, DateEnum.YEAR);
+        if (yearIndex < 0) {
+            throw new RuntimeException("year pillar is invalid , code:" + code);
+        }
+        return yearIndex;
+    }
+
+    /**
+     * 节气区间所在年柱(以立春为界)的六十甲子序号
+     */
+    private static int termYearIndex(int termIndex) {
+        int year = SolarTermTable.MIN_YEAR + termIndex / TERMS_PER_YEAR;
+        if (termIndex % TERMS_PER_YEAR < SolarTerm.LI_CHUN.ordinal()) {
+            year--;
+        }
+        // 公元4年为甲子年
+        return Math.floorMod(year - 4, SexagenaryCycle.SIZE);
+    }
+
+    /**
+     * 节气区间所在月柱的六十甲子序号, 月柱每过一个节顺推一位
+     */
+    private static int termMonthIndex(int termIndex) {
+        return (termIndex / 2 + FIRST_MONTH_INDEX) % SexagenaryCycle.SIZE;
+    }
+
+    /**
+     * 顺序生成一段
+     */
+    private void generateRange(long[] birthEpochMinutes, Gender[] genders, int from, int to, int[] startAgeMonths, byte[] luckPillars,
+                               byte[] annualPillars) {
+        for (int i = from; i < to; i++) {
+            int luckOffset = i * luckCount;
+            int annualOffset = i * yearCount;
+            int startAge;
+            try {
+                long birthEpochMinute = birthEpochMinutes[i];
+                int termIndex = SolarTermTable.getTermIndex(birthEpochMinute);
+                int yearIndex = termYearIndex(termIndex);
+                startAge = fill(yearIndex, termMonthIndex(termIndex), birthEpochMinute, termIndex, isForward(yearIndex, genders[i]),
+                        luckPillars, luckOffset, luckCount, annualPillars, annualOffset, annualPillars == null ? 0 : yearCount);
+            } catch (RuntimeException e) {
+                startAge = INVALID;
+                Arrays.fill(luckPillars, luckOffset, luckOffset + luckCount, (byte) -1);
+                if (null != annualPillars) {
+                    Arrays.fill(annualPillars, annualOffset, annualOffset + yearCount, (byte) -1);
+                }
+            }
+            startAgeMonths[i] = startAge;
+        }
+    }
+
+    /**
+     * 二分拆分任务, 直到不超过chunkSize
+     */
+    private class GenerationTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final long[] birthEpochMinutes;
+        private final Gender[] genders;
+        private final int from;
+        private final int to;
+        private final int[] startAgeMonths;
+        private final byte[] luckPillars;
+        private final byte[] annualPillars;
+
+        GenerationTask(long[] birthEpochMinutes, Gender[] genders, int from, int to, int[] startAgeMonths, byte[] luckPillars,
+                       byte[] annualPillars) {
+            this.birthEpochMinutes = birthEpochMinutes;
+            this.genders = genders;
+            this.from = from;
+            this.to = to;
+            this.startAgeMonths = startAgeMonths;
+            this.luckPillars = luckPillars;
+            this.annualPillars = annualPillars;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                generateRange(birthEpochMinutes, genders, from, to, startAgeMonths, luckPillars, annualPillars);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new GenerationTask(birthEpochMinutes, genders, from, mid, startAgeMonths, luckPillars, annualPillars),
+                    new GenerationTask(birthEpochMinutes, genders, mid, to, startAgeMonths, luckPillars, annualPillars));
+        }
+    }
+}
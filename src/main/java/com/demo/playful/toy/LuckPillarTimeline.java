@@ -0,0 +1,130 @@
+package com.demo.playful.toy;
+
+import com.demo.playful.toy.enums.SexagenaryCycle;
+
+/**
+ * LuckPillarTimeline
+ * 一个人的大运、流年时间线, 由LuckPillarGenerator写入, 可反复复用, 生成过程不创建对象
+ * <p>
+ * 干支以六十甲子序号存放在byte数组中: 第k步大运从起运年龄 + 10k岁开始, 第y个流年为出生年(以立春为界)之后的第y年
+ *
+ * @author 张涵林
+ * @date 2020/7/5
+ */
+public class LuckPillarTimeline {
+    /**
+     * 各步大运的六十甲子序号
+     */
+    final byte[] luckPillars;
+    /**
+     * 各年流年的六十甲子序号
+     */
+    final byte[] annualPillars;
+    /**
+     * 起运年龄(月)
+     */
+    int startAgeMonths;
+    /**
+     * 是否顺排
+     */
+    boolean forward;
+
+    /**
+     * @param luckCount 大运步数
+     * @param yearCount 流年数量
+     */
+    public LuckPillarTimeline(int luckCount, int yearCount) {
+        if (luckCount < 0 || yearCount < 0) {
+            throw new IllegalArgumentException("luckCount and yearCount must not be negative , luckCount:" + luckCount
+                    + ",yearCount:" + yearCount);
+        }
+        this.luckPillars = new byte[luckCount];
+        this.annualPillars = new byte[yearCount];
+    }
+
+    /**
+     * 大运步数
+     *
+     * @return 步数
+     */
+    public int getLuckCount() {
+        return luckPillars.length;
+    }
+
+    /**
+     * 流年数量
+     *
+     * @return 数量
+     */
+    public int getYearCount() {
+        return annualPillars.length;
+    }
+
+    /**
+     * 起运年龄, 按三天折一年、一天折四个月、一个时辰折十天计算, 不足一个月的部分舍去
+     *
+     * @return 月数
+     */
+    public int getStartAgeMonths() {
+        return startAgeMonths;
+    }
+
+    /**
+     * 是否顺排: 阳年生男、阴年生女顺排, 反之逆排
+     *
+     * @return 是否顺排
+     */
+    public boolean isForward() {
+        return forward;
+    }
+
+    /**
+     * 第k步大运开始的年龄
+     *
+     * @param k 第几步(从0开始)
+     * @return 月数
+     */
+    public int getLuckStartAgeMonths(int k) {
+        return startAgeMonths + k * LuckPillarGenerator.MONTHS_PER_LUCK_PILLAR;
+    }
+
+    /**
+     * 第k步大运的六十甲子序号
+     *
+     * @param k 第几步(从0开始)
+     * @return 0-59
+     */
+    public int getLuckPillarIndex(int k) {
+        return luckPillars[k];
+    }
+
+    /**
+     * 第k步大运
+     *
+     * @param k 第几步(从0开始)
+     * @return 六十甲子
+     */
+    public SexagenaryCycle getLuckPillar(int k) {
+        return SexagenaryCycle.getByIndex(luckPillars[k]);
+    }
+
+    /**
+     * 第y个流年的六十甲子序号
+     *
+     * @param y 出生年之后的第几年(出生年为0)
+     * @return 0-59
+     */
+    public int getAnnualPillarIndex(int y) {
+        return annualPillars[y];
+    }
+
+    /**
+     * 第y个流年
+     *
+     * @param y 出生年之后的第几年(出生年为0)
+     * @return 六十甲子
+     */
+    public SexagenaryCycle getAnnualPillar(int y) {
+        return SexagenaryCycle.getByIndex(annualPillars[y]);
+    }
+}
@@ -0,0 +1,141 @@
+package com.demo.playful.toy;
+
+import com.demo.playful.toy.utils.DateUtils;
+import com.demo.playful.toy.utils.LunarDataSegment;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * LunarDataGenerator
+ * 农历分段数据的生成工具, 文本格式每行一年: 农历年,正月初一公历日期(yyyy-MM-dd),闰哪个月(0表示无),按出现顺序各月天数(空格分隔)
+ * 例如 1900,1900-01-31,8,29 30 29 29 30 29 30 30 29 30 30 29 30
+ * <p>
+ * export 文件 [起始年] [结束年] : 把当前可用的数据导出为文本, 默认导出内置范围
+ * pack 文件 目录 : 把文本按世纪打包成ClasspathLunarDataProvider使用的分段文件, 例如 lunar-1800.bin
+ *
+ * @author 张涵林
+ * @date 2020/6/28
+ */
+public class LunarDataGenerator {
+
+    /**
+     * main函数
+     *
+     * @param args export 文件 [起始年] [结束年] | pack 文件 目录
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 2 && "export".equals(args[0])) {
+            int fromYear = args.length > 2 ? Integer.parseInt(args[2]) : DateUtils.LunarDate.MIN_YEAR;
+            int toYear = args.length > 3 ? Integer.parseInt(args[3]) : DateUtils.LunarDate.MAX_YEAR;
+            export(Paths.get(args[1]), fromYear, toYear);
+        } else if (args.length >= 3 && "pack".equals(args[0])) {
+            pack(Paths.get(args[1]), Paths.get(args[2]));
+        } else {
+            System.out.println("usage: export <file> [fromYear] [toYear] | pack <file> <dir>");
+        }
+    }
+
+    /**
+     * 导出为文本
+     *
+     * @param file     文本文件
+     * @param fromYear 起始农历年
+     * @param toYear   结束农历年(包含)
+     * @throws IOException 写入失败
+     */
+    public static void export(Path file, int fromYear, int toYear) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int year = fromYear; year <= toYear; year++) {
+                writer.write(exportYear(year));
+                writer.write('\n');
+            }
+        }
+    }
+
+    /**
+     * 按世纪打包文本
+     *
+     * @param file 文本文件
+     * @param dir  输出目录
+     * @throws IOException 读写失败
+     */
+    public static void pack(Path file, Path dir) throws IOException {
+        Map<Integer, TreeMap<Integer, Integer>> centuries = new TreeMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while (null != (line = reader.readLine())) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                if (fields.length != 4) {
+                    throw new RuntimeException("lunar data line invalid , line:" + line);
+                }
+                int year = Integer.parseInt(fields[0].trim());
+                String[] newYear = fields[1].trim().split("-");
+                String[] days = fields[3].trim().split("\\s+");
+                int[] monthDays = new int[days.length];
+                for (int i = 0; i < days.length; i++) {
+                    monthDays[i] = Integer.parseInt(days[i]);
+                }
+                int info = LunarDataSegment.pack(Integer.parseInt(fields[2].trim()), monthDays,
+                        Integer.parseInt(newYear[1]), Integer.parseInt(newYear[2]));
+                centuries.computeIfAbsent(Math.floorDiv(year, 100) * 100, k -> new TreeMap<>()).put(year, info);
+            }
+        }
+        Files.createDirectories(dir);
+        for (Map.Entry<Integer, TreeMap<Integer, Integer>> century : centuries.entrySet()) {
+            TreeMap<Integer, Integer> years = century.getValue();
+            int firstYear = years.firstKey();
+            if (years.lastKey() - firstYear + 1 != years.size()) {
+                throw new RuntimeException("lunar data years not continuous , century:" + century.getKey());
+            }
+            int[] infos = new int[years.size()];
+            for (Map.Entry<Integer, Integer> year : years.entrySet()) {
+                infos[year.getKey() - firstYear] = year.getValue();
+            }
+            try (OutputStream out = Files.newOutputStream(dir.resolve("lunar-" + century.getKey() + ".bin"))) {
+                new LunarDataSegment(firstYear, infos).write(out);
+            }
+        }
+    }
+
+    /**
+     * 通过公开的农历转公历接口还原一年的数据
+     */
+    private static String exportYear(int year) {
+        long newYear = DateUtils.LunarDate.lunarToSolar(year, 1, false, 1, 0);
+        if (!DateUtils.LunarDate.isValidEpochHour(newYear)) {
+            throw new RuntimeException("lunar year not available , year:" + year);
+        }
+        int solarDate = DateUtils.ofEpochDay((int) (newYear / 24));
+        StringBuilder line = new StringBuilder(64);
+        line.append(year).append(',').append(DateUtils.getSolarYear(solarDate)).append('-')
+                .append(String.format("%02d-%02d", DateUtils.getSolarMonth(solarDate), DateUtils.getSolarDay(solarDate)))
+                .append(',');
+        int leapMonth = 0;
+        StringBuilder days = new StringBuilder(40);
+        for (int month = 1; month <= 12; month++) {
+            days.append(days.length() == 0 ? "" : " ").append(monthDays(year, month, false));
+            if (DateUtils.LunarDate.lunarToSolar(year, month, true, 1, 0) != DateUtils.LunarDate.ERROR_LEAP_MONTH) {
+                leapMonth = month;
+                days.append(' ').append(monthDays(year, month, true));
+            }
+        }
+        return line.append(leapMonth).append(',').append(days).toString();
+    }
+
+    private static int monthDays(int year, int month, boolean isLeap) {
+        return DateUtils.LunarDate.isValidEpochHour(DateUtils.LunarDate.lunarToSolar(year, month, isLeap, 30, 0)) ? 30 : 29;
+    }
+}
@@ -0,0 +1,189 @@
+package com.demo.playful.toy;
+
+import com.demo.playful.toy.domain.EightCharactersCode;
+import com.demo.playful.toy.enums.DateEnum;
+import com.demo.playful.toy.enums.PillarMode;
+import com.demo.playful.toy.enums.SexagenaryCycle;
+import com.demo.playful.toy.enums.ZiHourMode;
+import com.demo.playful.toy.utils.DateUtils;
+import com.demo.playful.toy.utils.SolarTermTable;
+
+/**
+ * PillarCursor
+ * 按时间顺序前进的四柱计算状态, 保存当前的年月柱及其有效区间和当前日期的年月日柱
+ * 年月柱只在跨过农历月(按节气划分时为节)的边界时重新计算, 日柱每跨一天计算一次,
+ * 日柱对相邻的下一天直接前进一位, 三部分的编码按位互不重叠, 每小时只需追加时柱(子时换日时23点另换日柱)
+ * 结果与CalculationEightCharacters.calculationEightCharactersCode(int, int, int, int, int, PillarMode, ZiHourMode)(分钟为0)一致,
+ * 无法计算时为EightCharactersCode.INVALID; 非线程安全
+ *
+ * @author 张涵林
+ * @date 2020/7/3
+ */
+final class PillarCursor {
+    static final int HOURS_PER_DAY = 24;
+    private static final int MINUTES_PER_HOUR = 60;
+
+    /**
+     * 年柱、月柱的划分方式
+     */
+    private final PillarMode mode;
+    /**
+     * 子时的处理方式
+     */
+    private final ZiHourMode ziHourMode;
+    /**
+     * 年月柱编码, 在[yearMonthFrom, yearMonthTo)内有效, 单位为epoch-hour
+     */
+    private long yearMonthCode;
+    private long yearMonthFrom = Long.MAX_VALUE;
+    private long yearMonthTo = Long.MIN_VALUE;
+    /**
+     * 当前日期的epoch-day及年月日柱编码
+     */
+    private long currentDay = Long.MIN_VALUE;
+    private long dayCode;
+    /**
+     * 最近一次计算的日柱及其epoch-day, 跨月重算年月柱时保留, 相邻的下一天直接前进一位
+     */
+    private SexagenaryCycle dayPillar;
+    private long dayPillarEpochDay;
+
+    PillarCursor(PillarMode mode, ZiHourMode ziHourMode) {
+        this.mode = mode;
+        this.ziHourMode = ziHourMode;
+    }
+
+    /**
+     * 完整的八字编码
+     *
+     * @param epochHour epoch-hour
+     * @return 八字编码
+     */
+    long code(long epochHour) {
+        long code = dayCode(epochHour);
+        if (code == EightCharactersCode.INVALID) {
+            return EightCharactersCode.INVALID;
+        }
+        int hour = (int) Math.floorMod(epochHour, HOURS_PER_DAY);
+        if (ziHourMode.dayOffset(hour) != 0) {
+            // 子时换日, 23点的日柱为次日
+            code = CalculationEightCharacters.appendDay(yearMonthCode, dayPillar.plus(1));
+        }
+        return CalculationEightCharacters.appendHour(code, SexagenaryCycle.getHourPillar(dayPillar, hour));
+    }
+
+    /**
+     * 只含年月日三柱的编码, 日柱为公历日期当天的日柱
+     *
+     * @param epochHour epoch-hour
+     * @return 八字编码, 时柱为EightCharactersCode.NO_PILLAR, 五行只统计三柱
+     */
+    long dayCode(long epochHour) {
+        long epochDay = Math.floorDiv(epochHour, HOURS_PER_DAY);
+        if (epochHour < yearMonthFrom || epochHour >= yearMonthTo) {
+            updateYearMonth(epochHour, epochDay);
+            currentDay = Long.MIN_VALUE;
+        }
+        if (epochDay != currentDay) {
+            updateDay(epochDay);
+        }
+        return dayCode;
+    }
+
+    /**
+     * 只含年月两柱的编码
+     *
+     * @param epochHour epoch-hour
+     * @return 八字编码, 日柱、时柱为0
+     */
+    long yearMonthCode(long epochHour) {
+        if (epochHour < yearMonthFrom || epochHour >= yearMonthTo) {
+            updateYearMonth(epochHour, Math.floorDiv(epochHour, HOURS_PER_DAY));
+            currentDay = Long.MIN_VALUE;
+        }
+        return yearMonthCode;
+    }
+
+    /**
+     * 当前年月柱有效区间的结束epoch-hour(不包含), 大于最近一次查询的时刻
+     *
+     * @return epoch-hour
+     */
+    long yearMonthEnd() {
+        return yearMonthTo;
+    }
+
+    /**
+     * 重新计算年月柱及其有效区间, 计算失败时只在当前小时内有效
+     */
+    private void updateYearMonth(long epochHour, long epochDay) {
+        yearMonthFrom = epochHour;
+        yearMonthTo = epochHour + 1;
+        try {
+            int pillarYear;
+            int pillarMonth;
+            long to;
+            if (mode == PillarMode.SOLAR_TERM) {
+                long epochMinute = epochHour * MINUTES_PER_HOUR;
+                int index = SolarTermTable.getTermIndex(epochMinute);
+                pillarYear = SolarTermTable.getSolarTermYear(epochMinute);
+                pillarMonth = SolarTermTable.getSolarTermMonth(epochMinute);
+                to = nextJieEpochHour(index);
+            } else {
+                int lunarDate = DateUtils.LunarDate.solarToLunar(toIntDay(epochDay));
+                pillarYear = DateUtils.LunarDate.getLunarYear(lunarDate);
+                pillarMonth = DateUtils.LunarDate.getLunarMonth(lunarDate);
+                to = nextLunarMonthEpochDay(epochDay - DateUtils.LunarDate.getLunarDay(lunarDate) + 1, epochDay) * HOURS_PER_DAY;
+            }
+            yearMonthCode = CalculationEightCharacters.appendMonth(CalculationEightCharacters.appendYear(0L, pillarYear), pillarMonth);
+            yearMonthTo = Math.max(to, epochHour + 1);
+        } catch (RuntimeException e) {
+            yearMonthCode = EightCharactersCode.INVALID;
+        }
+    }
+
+    /**
+     * 同一天沿用日柱, 相邻的下一天前进一位, 否则重新计算, 再与年月柱合并
+     */
+    private void updateDay(long epochDay) {
+        if (null == dayPillar || epochDay != dayPillarEpochDay) {
+            dayPillar = null != dayPillar && epochDay == dayPillarEpochDay + 1 ? dayPillar.plus(1)
+                    : SexagenaryCycle.getDayPillar(toIntDay(epochDay));
+        }
+        dayPillarEpochDay = epochDay;
+        currentDay = epochDay;
+        dayCode = yearMonthCode == EightCharactersCode.INVALID ? EightCharactersCode.INVALID
+                : EightCharactersCode.withPillar(CalculationEightCharacters.appendDay(yearMonthCode, dayPillar), DateEnum.HOUR,
+                EightCharactersCode.NO_PILLAR);
+    }
+
+    /**
+     * 下一个节(月柱的边界)所在的epoch-hour, 该小时的0分已过节; 最后一个区间的边界是节气表的结束时刻, 之后的小时无法计算
+     */
+    private static long nextJieEpochHour(int termIndex) {
+        // 节的下标为偶数
+        int next = termIndex + (termIndex % 2 == 0 ? 2 : 1);
+        long epochMinute = SolarTermTable.getTermEpochMinute(next);
+        return Math.floorDiv(epochMinute + MINUTES_PER_HOUR - 1, MINUTES_PER_HOUR);
+    }
+
+    /**
+     * 下一个农历月初一的epoch-day, 大小月由本月第30天是否仍是本月判断
+     */
+    private static long nextLunarMonthEpochDay(long monthStart, long epochDay) {
+        try {
+            int lastDay = DateUtils.LunarDate.solarToLunar(toIntDay(monthStart + 29));
+            return DateUtils.LunarDate.getLunarDay(lastDay) == 30 ? monthStart + 30 : monthStart + 29;
+        } catch (RuntimeException e) {
+            // 数据末尾无法确定月长, 逐日重新计算
+            return epochDay + 1;
+        }
+    }
+
+    private static int toIntDay(long epochDay) {
+        if (epochDay < Integer.MIN_VALUE || epochDay > Integer.MAX_VALUE) {
+            throw new RuntimeException("epochDay out of range , epochDay:" + epochDay);
+        }
+        return (int) epochDay;
+    }
+}
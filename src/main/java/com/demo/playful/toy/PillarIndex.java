@@ -0,0 +1,260 @@
+package com.demo.playful.toy;
+
+import com.demo.playful.toy.domain.EightCharactersCode;
+import com.demo.playful.toy.enums.DateEnum;
+import com.demo.playful.toy.enums.SexagenaryCycle;
+
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+/**
+ * PillarIndex
+ * 四柱倒排索引: 按位置(年/月/日/时)和柱, 记录支持范围内所有匹配的小时
+ * <p>
+ * 每个位置一份CSR结构: offsets[序号]到offsets[序号 + 1]之间是升序的小时偏移(相对第一天0点),
+ * 序号为柱在六十甲子中的序号(甲子为0), 只有60个取值, 不按编码字节的256个取值开辟
+ * 查询时取各个指定位置的列表求交集, 未指定的位置不参与
+ *
+ * @author 张涵林
+ * @date 2020/6/20
+ */
+public class PillarIndex {
+    /**
+     * 不限制该位置
+     */
+    public static final int ANY = -1;
+    /**
+     * 柱的取值个数(六十甲子)
+     */
+    private static final int PILLAR_KEYS = SexagenaryCycle.SIZE;
+    private static final DateEnum[] POSITIONS = {DateEnum.YEAR, DateEnum.MONTH, DateEnum.DAY, DateEnum.HOUR};
+
+    /**
+     * 第一天0点的epoch-hour
+     */
+    private final long firstEpochHour;
+    /**
+     * 小时总数
+     */
+    private final int hours;
+    /**
+     * 每个位置的列表起始下标
+     */
+    private final int[][] offsets = new int[POSITIONS.length][];
+    /**
+     * 每个位置的小时偏移列表
+     */
+    private final int[][] postings = new int[POSITIONS.length][];
+
+    /**
+     * 从预计算表构建
+     *
+     * @param table 预计算表
+     */
+    public PillarIndex(PillarTable table) {
+        this.firstEpochHour = table.getFirstEpochDay() * 24L;
+        this.hours = (table.getEndEpochDay() - table.getFirstEpochDay()) * 24;
+        for (int p = 0; p < POSITIONS.length; p++) {
+            offsets[p] = new int[PILLAR_KEYS + 1];
+        }
+        // 第一遍计数
+        for (int i = 0; i < hours; i++) {
+            long code = codeAt(table, i);
+            if (code == EightCharactersCode.INVALID) {
+                continue;
+            }
+            for (int p = 0; p < POSITIONS.length; p++) {
+                offsets[p][EightCharactersCode.getSexagenaryIndex(code, POSITIONS[p]) + 1]++;
+            }
+        }
+        int[][] cursors = new int[POSITIONS.length][];
+        for (int p = 0; p < POSITIONS.length; p++) {
+            for (int key = 0; key < PILLAR_KEYS; key++) {
+                offsets[p][key + 1] += offsets[p][key];
+            }
+            postings[p] = new int[offsets[p][PILLAR_KEYS]];
+            cursors[p] = Arrays.copyOf(offsets[p], PILLAR_KEYS);
+        }
+        // 第二遍按小时顺序填充, 列表天然有序
+        for (int i = 0; i < hours; i++) {
+            long code = codeAt(table, i);
+            if (code == EightCharactersCode.INVALID) {
+                continue;
+            }
+            for (int p = 0; p < POSITIONS.length; p++) {
+                postings[p][cursors[p][EightCharactersCode.getSexagenaryIndex(code, POSITIONS[p])]++] = i;
+            }
+        }
+    }
+
+    private long codeAt(PillarTable table, int hourOffset) {
+        return table.getCode(firstEpochHour + hourOffset);
+    }
+
+    /**
+     * 查询四柱都匹配的小时
+     *
+     * @param code 八字编码
+     * @return 升序的epoch-hour
+     */
+    public LongStream find(long code) {
+        return find(EightCharactersCode.getSexagenaryIndex(code, DateEnum.YEAR), EightCharactersCode.getSexagenaryIndex(code, DateEnum.MONTH),
+                EightCharactersCode.getSexagenaryIndex(code, DateEnum.DAY), EightCharactersCode.getSexagenaryIndex(code, DateEnum.HOUR));
+    }
+
+    /**
+     * 按六十甲子序号查询, ANY表示该位置不限
+     *
+     * @param yearPillar  年柱序号
+     * @param monthPillar 月柱序号
+     * @param dayPillar   日柱序号
+     * @param hourPillar  时柱序号
+     * @return 升序的epoch-hour
+     */
+    public LongStream find(int yearPillar, int monthPillar, int dayPillar, int hourPillar) {
+        return find(yearPillar, monthPillar, dayPillar, hourPillar, firstEpochHour, firstEpochHour + hours);
+    }
+
+    /**
+     * 在[fromEpochHour, toEpochHour)范围内按六十甲子序号查询, ANY表示该位置不限
+     *
+     * @param yearPillar    年柱序号
+     * @param monthPillar   月柱序号
+     * @param dayPillar     日柱序号
+     * @param hourPillar    时柱序号
+     * @param fromEpochHour 起始epoch-hour(包含)
+     * @param toEpochHour   结束epoch-hour(不包含)
+     * @return 升序的epoch-hour
+     */
+    public LongStream find(int yearPillar, int monthPillar, int dayPillar, int hourPillar, long fromEpochHour, long toEpochHour) {
+        int from = clamp(fromEpochHour);
+        int to = clamp(toEpochHour);
+        if (from >= to) {
+            return LongStream.empty();
+        }
+        int[] pillars = {yearPillar, monthPillar, dayPillar, hourPillar};
+        // 取各个位置的列表片段, 从最短的开始求交集
+        int[][] lists = new int[POSITIONS.length][];
+        int[] starts = new int[POSITIONS.length];
+        int[] ends = new int[POSITIONS.length];
+        int count = 0;
+        for (int p = 0; p < POSITIONS.length; p++) {
+            if (pillars[p] == ANY) {
+                continue;
+            }
+            if (pillars[p] < 0 || pillars[p] >= PILLAR_KEYS) {
+                return LongStream.empty();
+            }
+            lists[count] = postings[p];
+            starts[count] = lowerBound(postings[p], offsets[p][pillars[p]], offsets[p][pillars[p] + 1], from);
+            ends[count] = lowerBound(postings[p], starts[count], offsets[p][pillars[p] + 1], to);
+            count++;
+        }
+        if (count == 0) {
+            return LongStream.range(firstEpochHour + from, firstEpochHour + to);
+        }
+        int shortest = 0;
+        for (int i = 1; i < count; i++) {
+            if (ends[i] - starts[i] < ends[shortest] - starts[shortest]) {
+                shortest = i;
+            }
+        }
+        int[] result = new int[ends[shortest] - starts[shortest]];
+        int size = 0;
+        for (int k = starts[shortest]; k < ends[shortest]; k++) {
+            int hour = lists[shortest][k];
+            boolean matched = true;
+            for (int i = 0; i < count && matched; i++) {
+                if (i == shortest) {
+                    continue;
+                }
+                // 各列表都有序, 游标只前进, 用倍增查找跳过不匹配的部分
+                starts[i] = gallop(lists[i], starts[i], ends[i], hour);
+                matched = starts[i] < ends[i] && lists[i][starts[i]] == hour;
+            }
+            if (matched) {
+                result[size++] = hour;
+            }
+        }
+        final long base = firstEpochHour;
+        return Arrays.stream(result, 0, size).asLongStream().map(offset -> base + offset);
+    }
+
+    /**
+     * 统计[fromEpochHour, toEpochHour)内某个位置为指定柱的小时数, O(log n)
+     *
+     * @param position      年/月/日/时
+     * @param pillar        柱在六十甲子中的序号
+     * @param fromEpochHour 起始epoch-hour(包含)
+     * @param toEpochHour   结束epoch-hour(不包含)
+     * @return 小时数
+     */
+    public int count(DateEnum position, int pillar, long fromEpochHour, long toEpochHour) {
+        int from = clamp(fromEpochHour);
+        int to = clamp(toEpochHour);
+        if (from >= to || pillar < 0 || pillar >= PILLAR_KEYS) {
+            return 0;
+        }
+        int p = position.ordinal();
+        int start = offsets[p][pillar];
+        int end = offsets[p][pillar + 1];
+        return lowerBound(postings[p], start, end, to) - lowerBound(postings[p], start, end, from);
+    }
+
+    /**
+     * 第一天0点的epoch-hour
+     *
+     * @return epoch-hour
+     */
+    public long getFirstEpochHour() {
+        return firstEpochHour;
+    }
+
+    /**
+     * 最后一天结束时的epoch-hour
+     *
+     * @return epoch-hour
+     */
+    public long getEndEpochHour() {
+        return firstEpochHour + hours;
+    }
+
+    private int clamp(long epochHour) {
+        return (int) Math.max(0L, Math.min(hours, epochHour - firstEpochHour));
+    }
+
+    /**
+     * [from, to)内第一个不小于key的下标
+     */
+    private static int lowerBound(int[] list, int from, int to, int key) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (list[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 从from开始倍增步长, 再在最后一段内二分, 返回第一个不小于key的下标
+     */
+    private static int gallop(int[] list, int from, int to, int key) {
+        if (from >= to || list[from] >= key) {
+            return from;
+        }
+        int step = 1;
+        int low = from;
+        int high = from + 1;
+        while (high < to && list[high] < key) {
+            low = high;
+            step <<= 1;
+            high = from + step;
+        }
+        return lowerBound(list, low + 1, Math.min(high, to), key);
+    }
+}
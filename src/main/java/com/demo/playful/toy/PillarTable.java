@@ -0,0 +1,263 @@
+package com.demo.playful.toy;
+
+import com.demo.playful.toy.domain.EightCharactersCode;
+import com.demo.playful.toy.enums.Earthly;
+import com.demo.playful.toy.utils.DateUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * PillarTable
+ * 全量预计算表: 支持范围内每一天的农历日期, 以及每个时辰的八字编码
+ * <p>
+ * 文件格式(小端):
+ * 头部32字节: 魔数, 版本, 第一天的epoch-day, 天数, 每天时辰数, 保留
+ * 农历段: int[天数], 打包后的农历日期
+ * 八字段: long[天数 * 13], 每天12个时辰加23点的晚子时, 八字编码, 无法计算的时辰为EightCharactersCode.INVALID
+ * <p>
+ * load得到的表直接映射文件, 查询只做下标运算, 同一台机器上的多个JVM通过操作系统页缓存共享同一份数据
+ *
+ * @author 张涵林
+ * @date 2020/6/19
+ */
+@Slf4j
+public class PillarTable {
+    /**
+     * 魔数 "EC8T"
+     */
+    private static final int MAGIC = 0x45433854;
+    /**
+     * 文件版本
+     */
+    private static final int VERSION = 2;
+    /**
+     * 头部长度
+     */
+    private static final int HEADER_SIZE = 32;
+    /**
+     * 每天的时辰数, 23点的晚子时时干与当天0点的子时不同, 单独占最后一个
+     */
+    public static final int SLOTS_PER_DAY = 13;
+    /**
+     * 晚子时的时辰下标
+     */
+    public static final int LATE_ZI_SLOT = 12;
+
+    /**
+     * 数据, 堆内或映射的文件
+     */
+    private final ByteBuffer buffer;
+    /**
+     * 第一天的epoch-day
+     */
+    private final int firstEpochDay;
+    /**
+     * 天数
+     */
+    private final int days;
+    /**
+     * 八字段起始位置
+     */
+    private final int codeOffset;
+
+    private PillarTable(ByteBuffer buffer) {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (this.buffer.getInt(0) != MAGIC || this.buffer.getInt(4) != VERSION || this.buffer.getInt(16) != SLOTS_PER_DAY) {
+            throw new RuntimeException("pillar table header mismatch");
+        }
+        this.firstEpochDay = this.buffer.getInt(8);
+        this.days = this.buffer.getInt(12);
+        this.codeOffset = HEADER_SIZE + days * 4;
+        if (this.buffer.capacity() < codeOffset + (long) days * SLOTS_PER_DAY * 8) {
+            throw new RuntimeException("pillar table truncated , capacity:" + this.buffer.capacity());
+        }
+    }
+
+    /**
+     * main函数, 生成表文件
+     *
+     * @param args 输出文件 [起始农历年] [结束农历年], 年份默认为内置范围
+     */
+    public static void main(String[] args) throws IOException {
+        Path path = Paths.get(args.length > 0 ? args[0] : "pillar-table.bin");
+        int fromYear = args.length > 1 ? Integer.parseInt(args[1]) : DateUtils.LunarDate.MIN_YEAR;
+        int toYear = args.length > 2 ? Integer.parseInt(args[2]) : DateUtils.LunarDate.MAX_YEAR;
+        long start = System.nanoTime();
+        PillarTable table = generate(fromYear, toYear);
+        table.write(path);
+        log.info("生成 : {} , 天数 : {} , 耗时 : {}ms", path, table.days, (System.nanoTime() - start) / 1000000);
+    }
+
+    /**
+     * 在堆内计算内置范围(1900-2099农历年)的整张表, 与之前加载过哪些农历分段无关
+     *
+     * @return 表
+     */
+    public static PillarTable generate() {
+        return generate(DateUtils.LunarDate.MIN_YEAR, DateUtils.LunarDate.MAX_YEAR);
+    }
+
+    /**
+     * 在堆内计算农历年份区间的整张表, 范围外的年份需要时先从农历数据来源加载
+     *
+     * @param fromYear 起始农历年
+     * @param toYear   结束农历年(包含)
+     * @return 表
+     */
+    public static PillarTable generate(int fromYear, int toYear) {
+        int[] range = DateUtils.LunarDate.getEpochDayRange(fromYear, toYear);
+        int first = range[0];
+        int days = range[1] - first;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + days * 4 + days * SLOTS_PER_DAY * 8).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, first).putInt(12, days).putInt(16, SLOTS_PER_DAY);
+        int codeOffset = HEADER_SIZE + days * 4;
+        for (int i = 0; i < days; i++) {
+            int epochDay = first + i;
+            buffer.putInt(HEADER_SIZE + i * 4, DateUtils.LunarDate.solarToLunar(epochDay));
+            for (int slot = 0; slot < SLOTS_PER_DAY; slot++) {
+                long code;
+                try {
+                    code = CalculationEightCharacters.calculationEightCharactersCode(epochDay, slotToHour(slot));
+                } catch (RuntimeException e) {
+                    code = EightCharactersCode.INVALID;
+                }
+                buffer.putLong(codeOffset + (i * SLOTS_PER_DAY + slot) * 8, code);
+            }
+        }
+        return new PillarTable(buffer);
+    }
+
+    /**
+     * 映射表文件, 只读
+     *
+     * @param path 表文件
+     * @return 表
+     * @throws IOException 读取失败
+     */
+    public static PillarTable load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new PillarTable(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * 写出表文件
+     *
+     * @param path 表文件
+     * @throws IOException 写入失败
+     */
+    public void write(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer data = buffer.duplicate();
+            data.clear();
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+        }
+    }
+
+    /**
+     * 小时对应的时辰下标, 即时辰地支的ordinal, 23点为LATE_ZI_SLOT
+     *
+     * @param hour 小时
+     * @return 时辰下标
+     */
+    public static int hourToSlot(int hour) {
+        return hour == 23 ? LATE_ZI_SLOT : Earthly.getHourEarthly(hour).ordinal();
+    }
+
+    /**
+     * 时辰下标对应的起始小时, 子时取0点, 晚子时取23点
+     *
+     * @param slot 时辰下标
+     * @return 小时
+     */
+    public static int slotToHour(int slot) {
+        return slot == 0 ? 0 : slot == LATE_ZI_SLOT ? 23 : slot * 2 - 1;
+    }
+
+    /**
+     * 是否在表的范围内
+     *
+     * @param epochDay 公历日期的epoch-day
+     * @return 是否在范围内
+     */
+    public boolean contains(int epochDay) {
+        return epochDay >= firstEpochDay && epochDay - firstEpochDay < days;
+    }
+
+    /**
+     * 第一天的epoch-day
+     *
+     * @return epoch-day
+     */
+    public int getFirstEpochDay() {
+        return firstEpochDay;
+    }
+
+    /**
+     * 最后一天的下一天的epoch-day
+     *
+     * @return epoch-day
+     */
+    public int getEndEpochDay() {
+        return firstEpochDay + days;
+    }
+
+    /**
+     * 查询八字编码
+     *
+     * @param epochDay 公历日期的epoch-day
+     * @param hour     小时
+     * @return 八字编码, 无法计算时为EightCharactersCode.INVALID
+     */
+    public long getCode(int epochDay, int hour) {
+        return getSlotCode(epochDay, hourToSlot(hour));
+    }
+
+    /**
+     * 查询八字编码
+     *
+     * @param epochHour 公历时间的epoch-hour
+     * @return 八字编码, 无法计算时为EightCharactersCode.INVALID
+     */
+    public long getCode(long epochHour) {
+        return getCode((int) Math.floorDiv(epochHour, 24L), (int) Math.floorMod(epochHour, 24L));
+    }
+
+    /**
+     * 按时辰下标查询八字编码
+     *
+     * @param epochDay 公历日期的epoch-day
+     * @param slot     时辰下标
+     * @return 八字编码, 无法计算时为EightCharactersCode.INVALID
+     */
+    public long getSlotCode(int epochDay, int slot) {
+        checkRange(epochDay);
+        return buffer.getLong(codeOffset + ((epochDay - firstEpochDay) * SLOTS_PER_DAY + slot) * 8);
+    }
+
+    /**
+     * 查询农历日期
+     *
+     * @param epochDay 公历日期的epoch-day
+     * @return 打包后的农历日期
+     */
+    public int getLunarDate(int epochDay) {
+        checkRange(epochDay);
+        return buffer.getInt(HEADER_SIZE + (epochDay - firstEpochDay) * 4);
+    }
+
+    private void checkRange(int epochDay) {
+        if (!contains(epochDay)) {
+            throw new RuntimeException("pillar table out of range , epochDay:" + epochDay);
+        }
+    }
+}
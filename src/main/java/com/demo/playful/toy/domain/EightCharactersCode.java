@@ -0,0 +1,169 @@
+package com.demo.playful.toy.domain;
+
+import com.demo.playful.toy.enums.DateEnum;
+import com.demo.playful.toy.enums.Earthly;
+import com.demo.playful.toy.enums.FiveElements;
+import com.demo.playful.toy.enums.HeavenlyStem;
+import com.demo.playful.toy.enums.SexagenaryCycle;
+
+/**
+ * EightCharactersCode
+ * 生辰八字的紧凑编码, 整个结果存放在一个long中, 计算与解码都不创建对象
+ * <p>
+ * 0-31位: 年、月、日、时四柱, 每柱一个字节(按DateEnum顺序), 低4位天干ordinal, 高4位地支ordinal
+ * 32-51位: 五行数量, 每个五行4位(按FiveElements顺序)
+ *
+ * @author 张涵林
+ * @date 2020/6/15
+ */
+public class EightCharactersCode {
+    /**
+     * 无法计算时的占位编码, 地支位超出范围, 不会与合法编码冲突
+     */
+    public static final long INVALID = -1L;
+    /**
+     * 空缺的一柱, 天干地支位都超出范围, getSexagenaryIndex返回-1, 用于只含年月日三柱的编码
+     */
+    public static final int NO_PILLAR = 0xFF;
+    /**
+     * 五行数量起始位
+     */
+    private static final int FIVE_ELEMENTS_SHIFT = 32;
+    /**
+     * 天干、地支、五行数量的位掩码
+     */
+    private static final int NIBBLE_MASK = 0xF;
+
+    private static final HeavenlyStem[] HEAVENLY_STEMS = HeavenlyStem.values();
+    private static final Earthly[] EARTHLIES = Earthly.values();
+
+    private EightCharactersCode() {
+    }
+
+    /**
+     * 天干地支编码为一柱
+     *
+     * @param heavenlyStem 天干
+     * @param earthly      地支
+     * @return 一柱的编码
+     */
+    public static int pillar(HeavenlyStem heavenlyStem, Earthly earthly) {
+        return earthly.ordinal() << 4 | heavenlyStem.ordinal();
+    }
+
+    /**
+     * 把一柱写入编码
+     *
+     * @param code     编码
+     * @param position 年/月/日/时
+     * @param pillar   一柱的编码
+     * @return 新的编码
+     */
+    public static long withPillar(long code, DateEnum position, int pillar) {
+        int shift = position.ordinal() << 3;
+        return code & ~(0xFFL << shift) | (long) (pillar & 0xFF) << shift;
+    }
+
+    /**
+     * 对应五行数量加一
+     *
+     * @param code         编码
+     * @param fiveElements 五行
+     * @return 新的编码
+     */
+    public static long incrementFiveElements(long code, FiveElements fiveElements) {
+        return code + (1L << (FIVE_ELEMENTS_SHIFT + (fiveElements.ordinal() << 2)));
+    }
+
+    /**
+     * 四柱部分(低32位)
+     *
+     * @param code 编码
+     * @return 四柱编码
+     */
+    public static int getPillars(long code) {
+        return (int) code;
+    }
+
+    /**
+     * 五行数量部分
+     *
+     * @param code 编码
+     * @return 五行数量编码
+     */
+    public static int getFiveElementsCounts(long code) {
+        return (int) (code >>> FIVE_ELEMENTS_SHIFT);
+    }
+
+    /**
+     * 由四柱编码和五行数量编码还原完整编码
+     *
+     * @param pillars            四柱编码
+     * @param fiveElementsCounts 五行数量编码
+     * @return 编码
+     */
+    public static long of(int pillars, int fiveElementsCounts) {
+        return (long) fiveElementsCounts << FIVE_ELEMENTS_SHIFT | (pillars & 0xFFFFFFFFL);
+    }
+
+    /**
+     * 取一柱
+     *
+     * @param code     编码
+     * @param position 年/月/日/时
+     * @return 一柱的编码
+     */
+    public static int getPillar(long code, DateEnum position) {
+        return (int) (code >>> (position.ordinal() << 3)) & 0xFF;
+    }
+
+    /**
+     * 取一柱的天干
+     *
+     * @param code     编码
+     * @param position 年/月/日/时
+     * @return 天干
+     */
+    public static HeavenlyStem getHeavenlyStem(long code, DateEnum position) {
+        return HEAVENLY_STEMS[getPillar(code, position) & NIBBLE_MASK];
+    }
+
+    /**
+     * 取一柱的地支
+     *
+     * @param code     编码
+     * @param position 年/月/日/时
+     * @return 地支
+     */
+    public static Earthly getEarthly(long code, DateEnum position) {
+        return EARTHLIES[getPillar(code, position) >>> 4];
+    }
+
+    /**
+     * 取一柱在六十甲子中的序号(甲子为0)
+     *
+     * @param code     编码
+     * @param position 年/月/日/时
+     * @return 0-59, 天干地支阴阳不一致或超出范围(如NO_PILLAR)时返回-1
+     */
+    public static int getSexagenaryIndex(long code, DateEnum position) {
+        int pillar = getPillar(code, position);
+        int heavenlyStem = pillar & NIBBLE_MASK;
+        int earthly = pillar >>> 4;
+        if (heavenlyStem >= HEAVENLY_STEMS.length || earthly >= EARTHLIES.length) {
+            return -1;
+        }
+        return SexagenaryCycle.indexOf(heavenlyStem, earthly);
+    }
+
+    /**
+     * 取五行数量
+     *
+     * @param code         编码
+     * @param fiveElements 五行
+     * @return 数量
+     */
+    public static int getFiveElementsCount(long code, FiveElements fiveElements) {
+        return (int) (code >>> (FIVE_ELEMENTS_SHIFT + (fiveElements.ordinal() << 2))) & NIBBLE_MASK;
+    }
+}
@@ -1,63 +1,228 @@
 package com.demo.playful.toy.domain;
 
+import com.demo.playful.toy.enums.DateEnum;
 import com.demo.playful.toy.enums.Earthly;
 import com.demo.playful.toy.enums.FiveElements;
 import com.demo.playful.toy.enums.HeavenlyStem;
+import com.demo.playful.toy.enums.Stage;
+import com.demo.playful.toy.utils.DateUtils;
+import com.demo.playful.toy.utils.EightCharactersRenderer;
+import com.demo.playful.toy.utils.Instrumentation;
+import com.google.common.collect.Maps;
 import lombok.Builder;
-import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.Value;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Map;
 
 /**
  * EightCharacters
  * 生辰八字对象
+ * 由EightCharactersCode构建时, 四柱、五行数量以及公历、农历的Calendar在首次访问时才创建
+ * <p>
+ * 不可变, 可在线程间共享: 延迟创建的字段都是不可变对象, 用volatile发布, 并发首次访问时至多重复创建;
+ * Calendar本身可变, 每次返回副本
  *
  * @author zhanghanlin6
  * @date 2020/6/12
  */
-@Data
+@Getter
+@ToString(of = {"code", "epochHour", "lunarDateCode"})
+@EqualsAndHashCode(of = {"code", "epochHour", "lunarDateCode"})
 public class EightCharactersDto {
+    /**
+     * 八字编码, 见EightCharactersCode
+     */
+    private final long code;
+    /**
+     * 公历时间的epoch-hour
+     */
+    private final long epochHour;
+    /**
+     * 打包后的农历日期, 见DateUtils.LunarDate.solarToLunar(int)
+     */
+    private final int lunarDateCode;
     /**
      * 公历-日期
      */
-    private Calendar date;
+    private volatile Calendar date;
     /**
      * 农历-日期
      */
-    private Calendar lunarDate;
+    private volatile Calendar lunarDate;
     /**
      * 年-天干地支
      */
-    private HeavenlyStemEarthlyDto yearHeavenlyStemEarthly;
+    private volatile HeavenlyStemEarthlyDto yearHeavenlyStemEarthly;
     /**
      * 月-天干地支
      */
-    private HeavenlyStemEarthlyDto monthHeavenlyStemEarthly;
+    private volatile HeavenlyStemEarthlyDto monthHeavenlyStemEarthly;
     /**
      * 日-天干地支
      */
-    private HeavenlyStemEarthlyDto dayHeavenlyStemEarthly;
+    private volatile HeavenlyStemEarthlyDto dayHeavenlyStemEarthly;
     /**
      * 时-天干地支
      */
-    private HeavenlyStemEarthlyDto hourHeavenlyStemEarthly;
+    private volatile HeavenlyStemEarthlyDto hourHeavenlyStemEarthly;
+    /**
+     * 五行数量, 不可修改
+     */
+    private volatile Map<FiveElements, Integer> fiveElementsCountMap;
+
+    /**
+     * 以八字编码构建
+     *
+     * @param code      八字编码
+     * @param date      公历-日期
+     * @param lunarDate 农历-日期
+     */
+    public EightCharactersDto(long code, Calendar date, Calendar lunarDate) {
+        this.code = code;
+        this.date = (Calendar) date.clone();
+        this.lunarDate = (Calendar) lunarDate.clone();
+        this.epochHour = DateUtils.toEpochDay(date) * 24L + date.get(Calendar.HOUR_OF_DAY);
+        this.lunarDateCode = DateUtils.LunarDate.solarToLunar(DateUtils.toEpochDay(date));
+    }
+
     /**
-     * 五行数量
+     * 以八字编码构建, 公历、农历的Calendar在首次访问时才创建
+     *
+     * @param code          八字编码
+     * @param epochHour     公历时间的epoch-hour
+     * @param lunarDateCode 打包后的农历日期
      */
-    private Map<FiveElements, Integer> fiveElementsCountMap;
+    public EightCharactersDto(long code, long epochHour, int lunarDateCode) {
+        this.code = code;
+        this.epochHour = epochHour;
+        this.lunarDateCode = lunarDateCode;
+    }
 
-    @Data
+    /**
+     * 公历-日期
+     *
+     * @return 副本
+     */
+    public Calendar getDate() {
+        Calendar date = this.date;
+        if (null == date) {
+            int solarDate = DateUtils.ofEpochDay((int) Math.floorDiv(epochHour, 24L));
+            Calendar calendar = Calendar.getInstance();
+            calendar.clear();
+            calendar.set(DateUtils.getSolarYear(solarDate), DateUtils.getSolarMonth(solarDate) - 1, DateUtils.getSolarDay(solarDate),
+                    (int) Math.floorMod(epochHour, 24L), 0, 0);
+            date = calendar;
+            this.date = date;
+        }
+        return (Calendar) date.clone();
+    }
+
+    /**
+     * 农历-日期
+     *
+     * @return 副本
+     */
+    public Calendar getLunarDate() {
+        Calendar lunarDate = this.lunarDate;
+        if (null == lunarDate) {
+            lunarDate = DateUtils.LunarDate.toLunarCalendar(lunarDateCode, (int) Math.floorMod(epochHour, 24L));
+            this.lunarDate = lunarDate;
+        }
+        return (Calendar) lunarDate.clone();
+    }
+
+    /**
+     * 公历时间
+     *
+     * @return 公历时间
+     */
+    public LocalDateTime getLocalDateTime() {
+        return LocalDateTime.of(LocalDate.ofEpochDay(Math.floorDiv(epochHour, 24L)), LocalTime.of((int) Math.floorMod(epochHour, 24L), 0));
+    }
+
+    public HeavenlyStemEarthlyDto getYearHeavenlyStemEarthly() {
+        HeavenlyStemEarthlyDto pillar = yearHeavenlyStemEarthly;
+        if (null == pillar) {
+            pillar = decodeHeavenlyStemEarthly(DateEnum.YEAR);
+            yearHeavenlyStemEarthly = pillar;
+        }
+        return pillar;
+    }
+
+    public HeavenlyStemEarthlyDto getMonthHeavenlyStemEarthly() {
+        HeavenlyStemEarthlyDto pillar = monthHeavenlyStemEarthly;
+        if (null == pillar) {
+            pillar = decodeHeavenlyStemEarthly(DateEnum.MONTH);
+            monthHeavenlyStemEarthly = pillar;
+        }
+        return pillar;
+    }
+
+    public HeavenlyStemEarthlyDto getDayHeavenlyStemEarthly() {
+        HeavenlyStemEarthlyDto pillar = dayHeavenlyStemEarthly;
+        if (null == pillar) {
+            pillar = decodeHeavenlyStemEarthly(DateEnum.DAY);
+            dayHeavenlyStemEarthly = pillar;
+        }
+        return pillar;
+    }
+
+    public HeavenlyStemEarthlyDto getHourHeavenlyStemEarthly() {
+        HeavenlyStemEarthlyDto pillar = hourHeavenlyStemEarthly;
+        if (null == pillar) {
+            pillar = decodeHeavenlyStemEarthly(DateEnum.HOUR);
+            hourHeavenlyStemEarthly = pillar;
+        }
+        return pillar;
+    }
+
+    public Map<FiveElements, Integer> getFiveElementsCountMap() {
+        Map<FiveElements, Integer> countMap = fiveElementsCountMap;
+        if (null == countMap) {
+            Map<FiveElements, Integer> fiveCountMap = Maps.newTreeMap();
+            for (FiveElements fiveElements : FiveElements.values()) {
+                int count = EightCharactersCode.getFiveElementsCount(code, fiveElements);
+                if (count > 0) {
+                    fiveCountMap.put(fiveElements, count);
+                }
+            }
+            countMap = Collections.unmodifiableMap(fiveCountMap);
+            fiveElementsCountMap = countMap;
+        }
+        return countMap;
+    }
+
+    /**
+     * 从编码解码一柱
+     *
+     * @param position 年/月/日/时
+     * @return 天干地支
+     */
+    private HeavenlyStemEarthlyDto decodeHeavenlyStemEarthly(DateEnum position) {
+        return HeavenlyStemEarthlyDto.builder().
+                heavenlyStem(EightCharactersCode.getHeavenlyStem(code, position)).
+                earthly(EightCharactersCode.getEarthly(code, position)).build();
+    }
+
+    @Value
     @Builder
     public static class HeavenlyStemEarthlyDto {
         /**
          * 天干
          */
-        private HeavenlyStem heavenlyStem;
+        HeavenlyStem heavenlyStem;
         /**
          * 地支
          */
-        private Earthly earthly;
+        Earthly earthly;
     }
 
     /**
@@ -66,10 +231,10 @@ public class EightCharactersDto {
      * @return 天干地支toString
      */
     public String heavenlyStemEarthlyNameToString() {
-        return yearHeavenlyStemEarthly.getHeavenlyStem().getName() + yearHeavenlyStemEarthly.getEarthly().getName() + " " +
-                monthHeavenlyStemEarthly.getHeavenlyStem().getName() + monthHeavenlyStemEarthly.getEarthly().getName() + " " +
-                dayHeavenlyStemEarthly.getHeavenlyStem().getName() + dayHeavenlyStemEarthly.getEarthly().getName() + " " +
-                hourHeavenlyStemEarthly.getHeavenlyStem().getName() + hourHeavenlyStemEarthly.getEarthly().getName();
+        long start = Instrumentation.start();
+        String text = EightCharactersRenderer.appendPillarNames(new StringBuilder(16), code).toString();
+        Instrumentation.record(Stage.RENDER, start);
+        return text;
     }
 
 
@@ -79,10 +244,10 @@ public class EightCharactersDto {
      * @return 天干地支toString
      */
     public String heavenlyStemEarthlyCodeToString() {
-        return yearHeavenlyStemEarthly.getHeavenlyStem().getCode() + "|" + yearHeavenlyStemEarthly.getEarthly().getCode() + " " +
-                monthHeavenlyStemEarthly.getHeavenlyStem().getCode() + "|" + monthHeavenlyStemEarthly.getEarthly().getCode() + " " +
-                dayHeavenlyStemEarthly.getHeavenlyStem().getCode() + "|" + dayHeavenlyStemEarthly.getEarthly().getCode() + " " +
-                hourHeavenlyStemEarthly.getHeavenlyStem().getCode() + "|" + hourHeavenlyStemEarthly.getEarthly().getCode();
+        long start = Instrumentation.start();
+        String text = EightCharactersRenderer.appendPillarCodes(new StringBuilder(24), code).toString();
+        Instrumentation.record(Stage.RENDER, start);
+        return text;
     }
 
 
@@ -92,10 +257,18 @@ public class EightCharactersDto {
      * @return 五行数量toString
      */
     public String fiveElementsCountToString() {
-        StringBuilder builder = new StringBuilder();
-        for (Map.Entry<FiveElements, Integer> entry : fiveElementsCountMap.entrySet()) {
-            builder.append(entry.getKey().getName()).append(entry.getValue()).append(" ");
-        }
-        return builder.toString();
+        long start = Instrumentation.start();
+        String text = EightCharactersRenderer.appendFiveElementsCount(new StringBuilder(20), code).toString();
+        Instrumentation.record(Stage.RENDER, start);
+        return text;
+    }
+
+    /**
+     * 农历日期toString, 直接使用打包后的农历日期
+     *
+     * @return 农历日期toString
+     */
+    public String lunarDateToString() {
+        return DateUtils.LunarDate.lunarDateToString(lunarDateCode, (int) Math.floorMod(epochHour, 24L));
     }
 }
@@ -1,6 +1,6 @@
 package com.demo.playful.toy.enums;
 
-import com.google.common.collect.ImmutableMap;
+import com.demo.playful.toy.utils.DateUtils;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
@@ -73,24 +73,9 @@ public enum Earthly {
     private final String name;
 
     /**
-     * 时辰对应表
-     * key - 小时数字
-     * value - 小时对应的时间地支
-     */
-    private static final ImmutableMap<Integer, Earthly> HOUR_EARTHLY_MAPPING = ImmutableMap.<Integer, Earthly>builder().
-            put(23, Earthly.ZI).put(0, Earthly.ZI).
-            put(1, Earthly.CHOU).put(2, Earthly.CHOU).
-            put(3, Earthly.YIN).put(4, Earthly.YIN).
-            put(5, Earthly.MOU).put(6, Earthly.MOU).
-            put(7, Earthly.CHEN).put(8, Earthly.CHEN).
-            put(9, Earthly.SI).put(10, Earthly.SI).
-            put(11, Earthly.WU).put(12, Earthly.WU).
-            put(13, Earthly.WEI).put(14, Earthly.WEI).
-            put(15, Earthly.SHEN).put(16, Earthly.SHEN).
-            put(17, Earthly.YOU).put(18, Earthly.YOU).
-            put(19, Earthly.XU).put(20, Earthly.XU).
-            put(21, Earthly.HAI).put(22, Earthly.HAI).
-            build();
+     * values()每次调用都会复制数组, 缓存一份供按ordinal查找
+     */
+    private static final Earthly[] VALUES = values();
 
     /**
      * 根据ordinal得到地支对象
@@ -99,12 +84,10 @@ public enum Earthly {
      * @return 地支对象
      */
     public static Earthly getEarthlyByOrdinal(int ordinal) {
-        for (Earthly earthly : Earthly.values()) {
-            if (ordinal == earthly.ordinal() + 1) {
-                return earthly;
-            }
+        if (ordinal < 1 || ordinal > VALUES.length) {
+            return null;
         }
-        return null;
+        return VALUES[ordinal - 1];
     }
 
     /**
@@ -129,7 +112,7 @@ public enum Earthly {
      * @return 月地支
      */
     public static Earthly getMonthEarthly(int lunarMonth) {
-        Earthly earthly = getEarthlyByOrdinal((lunarMonth + 3) % 12);
+        Earthly earthly = getEarthlyByOrdinal((lunarMonth + 2) % 12 + 1);
         if (null == earthly) {
             throw new RuntimeException("monthEarthly is null , lunarMonth:" + lunarMonth);
         }
@@ -137,24 +120,15 @@ public enum Earthly {
     }
 
     /**
-     * 获取日-地支
+     * 获取日-地支, 委托SexagenaryCycle.dayIndex
      *
      * @param year  公历年
-     * @param month 公历月
+     * @param month 公历月(0-11, 与Calendar.MONTH一致)
      * @param day   公历日
      * @return 日地支
      */
     public static Earthly getDayEarthly(int year, int month, int day) {
-        year = month < 3 ? year - 1 : year;
-        int c = year > 2000 ? 20 : 19;
-        int y = year % 100;
-        int m = month < 2 ? month + 13 : month + 1;
-        int dayHeavenlyStemBaseCode = 8 * c + c / 4 + 5 * y + y / 4 + 3 * (m + 1) / 5 + day + 7 + (m % 2 == 0 ? 6 : 0);
-        Earthly earthly = getEarthlyByOrdinal(dayHeavenlyStemBaseCode % 12);
-        if (null == earthly) {
-            throw new RuntimeException("dayEarthly is null , year:" + year + ",month:" + month + ",day:" + day);
-        }
-        return earthly;
+        return VALUES[SexagenaryCycle.dayIndex(DateUtils.toEpochDay(year, month + 1, day)) % 12];
     }
 
     /**
@@ -164,10 +138,9 @@ public enum Earthly {
      * @return 时辰地支
      */
     public static Earthly getHourEarthly(int hour) {
-        Earthly earthly = HOUR_EARTHLY_MAPPING.get(hour);
-        if (null == earthly) {
+        if (hour < 0 || hour >= 24) {
             throw new RuntimeException("timeEarthly is null , hour:" + hour);
         }
-        return earthly;
+        return VALUES[SexagenaryCycle.hourEarthly(hour)];
     }
 }
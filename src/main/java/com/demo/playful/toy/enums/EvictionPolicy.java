@@ -0,0 +1,34 @@
+package com.demo.playful.toy.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * EvictionPolicy
+ * 缓存淘汰策略
+ *
+ * @author 张涵林
+ * @date 2020/6/24
+ */
+@Getter
+@AllArgsConstructor
+public enum EvictionPolicy {
+    /**
+     * 最近最少使用, 用CLOCK(二次机会)近似: 命中时只置访问位, 淘汰时跳过访问位为1的项
+     */
+    LRU("LRU", "最近最少使用"),
+    /**
+     * 在LRU的基础上按访问频率准入: 新项的频率不高于被淘汰项时不写入缓存, 适合访问高度集中的场景
+     */
+    TINY_LFU("TINY_LFU", "频率准入"),
+    ;
+
+    /**
+     * 编码
+     */
+    private final String code;
+    /**
+     * 名称
+     */
+    private final String name;
+}
@@ -43,6 +43,11 @@ public enum FiveElements {
      */
     private final String name;
 
+    /**
+     * values()每次调用都会复制数组, 缓存一份供按ordinal查找
+     */
+    private static final FiveElements[] VALUES = values();
+
     /**
      * 根据天干对象得到对应五行
      *
@@ -50,16 +55,7 @@ public enum FiveElements {
      * @return 五行对象
      */
     public static FiveElements getFiveElementsByHeavenlyStem(HeavenlyStem heavenlyStem) {
-        if (heavenlyStem.equals(HeavenlyStem.JIA) || heavenlyStem.equals(HeavenlyStem.YI)) {
-            return FiveElements.MU;
-        } else if (heavenlyStem.equals(HeavenlyStem.BING) || heavenlyStem.equals(HeavenlyStem.DING)) {
-            return FiveElements.HUO;
-        } else if (heavenlyStem.equals(HeavenlyStem.WU) || heavenlyStem.equals(HeavenlyStem.JI)) {
-            return FiveElements.TU;
-        } else if (heavenlyStem.equals(HeavenlyStem.GENG) || heavenlyStem.equals(HeavenlyStem.XIN)) {
-            return FiveElements.JIN;
-        }
-        return FiveElements.SHUI;
+        return VALUES[SexagenaryCycle.heavenlyStemFiveElements(heavenlyStem.ordinal())];
     }
 
     /**
@@ -69,17 +65,6 @@ public enum FiveElements {
      * @return 五行对象
      */
     public static FiveElements getFiveElementsByEarthly(Earthly earthly) {
-        if (earthly.equals(Earthly.YIN) || earthly.equals(Earthly.MOU)) {
-            return FiveElements.MU;
-        } else if (earthly.equals(Earthly.SI) || earthly.equals(Earthly.WU)) {
-            return FiveElements.HUO;
-        } else if (earthly.equals(Earthly.CHEN) || earthly.equals(Earthly.CHOU)) {
-            return FiveElements.TU;
-        } else if (earthly.equals(Earthly.XU) || earthly.equals(Earthly.WEI)) {
-            return FiveElements.TU;
-        } else if (earthly.equals(Earthly.SHEN) || earthly.equals(Earthly.YOU)) {
-            return FiveElements.JIN;
-        }
-        return FiveElements.SHUI;
+        return VALUES[SexagenaryCycle.earthlyFiveElements(earthly.ordinal())];
     }
 }
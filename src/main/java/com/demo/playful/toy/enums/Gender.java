@@ -0,0 +1,34 @@
+package com.demo.playful.toy.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Gender
+ * 性别, 与年干阴阳一起决定大运顺排还是逆排
+ *
+ * @author 张涵林
+ * @date 2020/7/5
+ */
+@Getter
+@AllArgsConstructor
+public enum Gender {
+    /**
+     * 男
+     */
+    MALE("M", "男"),
+    /**
+     * 女
+     */
+    FEMALE("F", "女"),
+    ;
+
+    /**
+     * 编码
+     */
+    private final String code;
+    /**
+     * 名称
+     */
+    private final String name;
+}
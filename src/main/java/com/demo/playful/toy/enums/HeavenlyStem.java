@@ -1,6 +1,6 @@
 package com.demo.playful.toy.enums;
 
-import com.google.common.collect.ImmutableMap;
+import com.demo.playful.toy.utils.DateUtils;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
@@ -65,22 +65,9 @@ public enum HeavenlyStem {
     private final String name;
 
     /**
-     * 年-月天干对应表
-     * key-年天干码
-     * value-月天干对应的索引,数组索引表示农历月(下表从0开始,即0表示1月)
-     */
-    private static final ImmutableMap<Integer, Integer[]> YEAR_MONTH_HEAVENLY_STEM_MAPPING = ImmutableMap.<Integer, Integer[]>builder().
-            put(1, new Integer[]{7, 8, 9, 10, 1, 2, 3, 4, 5, 6, 7, 8}).
-            put(6, new Integer[]{7, 8, 9, 10, 1, 2, 3, 4, 5, 6, 7, 8}).
-            put(2, new Integer[]{9, 10, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10}).
-            put(7, new Integer[]{9, 10, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10}).
-            put(3, new Integer[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 1, 2}).
-            put(8, new Integer[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 1, 2}).
-            put(4, new Integer[]{3, 4, 5, 6, 7, 8, 9, 10, 1, 2, 3, 4}).
-            put(9, new Integer[]{3, 4, 5, 6, 7, 8, 9, 10, 1, 2, 3, 4}).
-            put(0, new Integer[]{5, 6, 7, 8, 9, 10, 1, 2, 3, 4, 5, 6}).
-            put(5, new Integer[]{5, 6, 7, 8, 9, 10, 1, 2, 3, 4, 5, 6}).
-            build();
+     * values()每次调用都会复制数组, 缓存一份供按ordinal查找
+     */
+    private static final HeavenlyStem[] VALUES = values();
 
     /**
      * 根据ordinal得到天干对象
@@ -89,12 +76,10 @@ public enum HeavenlyStem {
      * @return 天干对象
      */
     public static HeavenlyStem getHeavenlyStemByOrdinal(int ordinal) {
-        for (HeavenlyStem heavenlyStem : HeavenlyStem.values()) {
-            if (ordinal == heavenlyStem.ordinal() + 1) {
-                return heavenlyStem;
-            }
+        if (ordinal < 1 || ordinal > VALUES.length) {
+            return HeavenlyStem.JIA;
         }
-        return HeavenlyStem.JIA;
+        return VALUES[ordinal - 1];
     }
 
     /**
@@ -120,45 +105,44 @@ public enum HeavenlyStem {
      * @return 月天干
      */
     public static HeavenlyStem getMonthHeavenlyStem(int lunarMonth, HeavenlyStem yearHeavenlyStem) {
-        HeavenlyStem heavenlyStem = getHeavenlyStemByOrdinal(YEAR_MONTH_HEAVENLY_STEM_MAPPING.get(yearHeavenlyStem.getCode())[lunarMonth]);
-        if (null == heavenlyStem) {
+        if (lunarMonth < 0 || lunarMonth >= 12) {
             throw new RuntimeException("monthHeavenlyStem is null , lunarMonth:" + lunarMonth + ",yearHeavenlyStem:" + yearHeavenlyStem);
         }
-        return heavenlyStem;
+        return VALUES[SexagenaryCycle.monthHeavenlyStem(yearHeavenlyStem.ordinal(), lunarMonth)];
     }
 
     /**
-     * 获取日-天干
+     * 获取日-天干, 委托SexagenaryCycle.dayIndex
      *
      * @param year  公历年
-     * @param month 公历月
+     * @param month 公历月(0-11, 与Calendar.MONTH一致)
      * @param day   公历日
      * @return 日天干
      */
     public static HeavenlyStem getDayHeavenlyStem(int year, int month, int day) {
-        year = month < 3 ? year - 1 : year;
-        int c = year / 100;
-        int y = year % 100;
-        int m = month < 2 ? month + 13 : month + 1;
-        int dayHeavenlyStemBaseCode = 4 * c + c / 4 + 5 * y + y / 4 + 3 * (m + 1) / 5 + day - 3;
-        HeavenlyStem heavenlyStem = getHeavenlyStemByOrdinal(dayHeavenlyStemBaseCode % 10);
-        if (null == heavenlyStem) {
-            throw new RuntimeException("dayHeavenlyStem is null , year:" + year + ",month:" + month + ",day:" + day);
-        }
-        return heavenlyStem;
+        return VALUES[SexagenaryCycle.dayIndex(DateUtils.toEpochDay(year, month + 1, day)) % 10];
     }
 
     /**
-     * 获取时辰-天干
+     * 获取时辰-天干, 五鼠遁查表
      *
      * @param dayHeavenlyStem 日天干
+     * @param hourEarthly     时辰地支
      * @return 时辰天干
      */
+    public static HeavenlyStem getHourHeavenlyStem(HeavenlyStem dayHeavenlyStem, Earthly hourEarthly) {
+        return VALUES[SexagenaryCycle.hourHeavenlyStem(dayHeavenlyStem.ordinal(), hourEarthly.ordinal())];
+    }
+
+    /**
+     * 获取子时-天干, 其余时辰的时干与时辰地支有关, 见getHourHeavenlyStem(HeavenlyStem, Earthly)
+     *
+     * @param dayHeavenlyStem 日天干
+     * @return 子时天干
+     * @deprecated 只有日干无法确定时干, 改用getHourHeavenlyStem(HeavenlyStem, Earthly)
+     */
+    @Deprecated
     public static HeavenlyStem getHourHeavenlyStem(HeavenlyStem dayHeavenlyStem) {
-        HeavenlyStem heavenlyStem = getHeavenlyStemByOrdinal(dayHeavenlyStem.getCode() * 2 - 1);
-        if (null == heavenlyStem) {
-            throw new RuntimeException("timeHeavenlyStem is null , dayHeavenlyStem:" + dayHeavenlyStem);
-        }
-        return heavenlyStem;
+        return getHourHeavenlyStem(dayHeavenlyStem, Earthly.ZI);
     }
 }
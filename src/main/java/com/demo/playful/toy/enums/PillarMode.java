@@ -0,0 +1,34 @@
+package com.demo.playful.toy.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * PillarMode
+ * 年柱、月柱的划分方式
+ *
+ * @author 张涵林
+ * @date 2020/6/23
+ */
+@Getter
+@AllArgsConstructor
+public enum PillarMode {
+    /**
+     * 按农历年、农历月划分
+     */
+    LUNAR("L", "农历"),
+    /**
+     * 按节气划分: 年柱以立春为界, 月柱以各节为界
+     */
+    SOLAR_TERM("S", "节气"),
+    ;
+
+    /**
+     * 编码
+     */
+    private final String code;
+    /**
+     * 名称
+     */
+    private final String name;
+}
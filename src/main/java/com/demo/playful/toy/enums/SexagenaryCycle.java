@@ -0,0 +1,575 @@
+package com.demo.playful.toy.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * SexagenaryCycle
+ * 六十甲子, ordinal即在六十甲子中的序号(甲子为0), 序号 % 10为天干ordinal, 序号 % 12为地支ordinal
+ * <p>
+ * 天干地支的五行、阴阳, 纳音, 生肖, 月天干、时辰地支等查找都是按ordinal下标的静态基本类型数组,
+ * 计算过程中不装箱、不分支, HeavenlyStem、Earthly、FiveElements的对应方法都委托到这里
+ *
+ * @author 张涵林
+ * @date 2020/6/27
+ */
+@Getter
+@AllArgsConstructor
+public enum SexagenaryCycle {
+    /**
+     * 甲子
+     */
+    JIA_ZI(1, "甲子"),
+    /**
+     * 乙丑
+     */
+    YI_CHOU(2, "乙丑"),
+    /**
+     * 丙寅
+     */
+    BING_YIN(3, "丙寅"),
+    /**
+     * 丁卯
+     */
+    DING_MOU(4, "丁卯"),
+    /**
+     * 戊辰
+     */
+    WU_CHEN(5, "戊辰"),
+    /**
+     * 己巳
+     */
+    JI_SI(6, "己巳"),
+    /**
+     * 庚午
+     */
+    GENG_WU(7, "庚午"),
+    /**
+     * 辛未
+     */
+    XIN_WEI(8, "辛未"),
+    /**
+     * 壬申
+     */
+    REN_SHEN(9, "壬申"),
+    /**
+     * 癸酉
+     */
+    GUI_YOU(10, "癸酉"),
+    /**
+     * 甲戌
+     */
+    JIA_XU(11, "甲戌"),
+    /**
+     * 乙亥
+     */
+    YI_HAI(12, "乙亥"),
+    /**
+     * 丙子
+     */
+    BING_ZI(13, "丙子"),
+    /**
+     * 丁丑
+     */
+    DING_CHOU(14, "丁丑"),
+    /**
+     * 戊寅
+     */
+    WU_YIN(15, "戊寅"),
+    /**
+     * 己卯
+     */
+    JI_MOU(16, "己卯"),
+    /**
+     * 庚辰
+     */
+    GENG_CHEN(17, "庚辰"),
+    /**
+     * 辛巳
+     */
+    XIN_SI(18, "辛巳"),
+    /**
+     * 壬午
+     */
+    REN_WU(19, "壬午"),
+    /**
+     * 癸未
+     */
+    GUI_WEI(20, "癸未"),
+    /**
+     * 甲申
+     */
+    JIA_SHEN(21, "甲申"),
+    /**
+     * 乙酉
+     */
+    YI_YOU(22, "乙酉"),
+    /**
+     * 丙戌
+     */
+    BING_XU(23, "丙戌"),
+    /**
+     * 丁亥
+     */
+    DING_HAI(24, "丁亥"),
+    /**
+     * 戊子
+     */
+    WU_ZI(25, "戊子"),
+    /**
+     * 己丑
+     */
+    JI_CHOU(26, "己丑"),
+    /**
+     * 庚寅
+     */
+    GENG_YIN(27, "庚寅"),
+    /**
+     * 辛卯
+     */
+    XIN_MOU(28, "辛卯"),
+    /**
+     * 壬辰
+     */
+    REN_CHEN(29, "壬辰"),
+    /**
+     * 癸巳
+     */
+    GUI_SI(30, "癸巳"),
+    /**
+     * 甲午
+     */
+    JIA_WU(31, "甲午"),
+    /**
+     * 乙未
+     */
+    YI_WEI(32, "乙未"),
+    /**
+     * 丙申
+     */
+    BING_SHEN(33, "丙申"),
+    /**
+     * 丁酉
+     */
+    DING_YOU(34, "丁酉"),
+    /**
+     * 戊戌
+     */
+    WU_XU(35, "戊戌"),
+    /**
+     * 己亥
+     */
+    JI_HAI(36, "己亥"),
+    /**
+     * 庚子
+     */
+    GENG_ZI(37, "庚子"),
+    /**
+     * 辛丑
+     */
+    XIN_CHOU(38, "辛丑"),
+    /**
+     * 壬寅
+     */
+    REN_YIN(39, "壬寅"),
+    /**
+     * 癸卯
+     */
+    GUI_MOU(40, "癸卯"),
+    /**
+     * 甲辰
+     */
+    JIA_CHEN(41, "甲辰"),
+    /**
+     * 乙巳
+     */
+    YI_SI(42, "乙巳"),
+    /**
+     * 丙午
+     */
+    BING_WU(43, "丙午"),
+    /**
+     * 丁未
+     */
+    DING_WEI(44, "丁未"),
+    /**
+     * 戊申
+     */
+    WU_SHEN(45, "戊申"),
+    /**
+     * 己酉
+     */
+    JI_YOU(46, "己酉"),
+    /**
+     * 庚戌
+     */
+    GENG_XU(47, "庚戌"),
+    /**
+     * 辛亥
+     */
+    XIN_HAI(48, "辛亥"),
+    /**
+     * 壬子
+     */
+    REN_ZI(49, "壬子"),
+    /**
+     * 癸丑
+     */
+    GUI_CHOU(50, "癸丑"),
+    /**
+     * 甲寅
+     */
+    JIA_YIN(51, "甲寅"),
+    /**
+     * 乙卯
+     */
+    YI_MOU(52, "乙卯"),
+    /**
+     * 丙辰
+     */
+    BING_CHEN(53, "丙辰"),
+    /**
+     * 丁巳
+     */
+    DING_SI(54, "丁巳"),
+    /**
+     * 戊午
+     */
+    WU_WU(55, "戊午"),
+    /**
+     * 己未
+     */
+    JI_WEI(56, "己未"),
+    /**
+     * 庚申
+     */
+    GENG_SHEN(57, "庚申"),
+    /**
+     * 辛酉
+     */
+    XIN_YOU(58, "辛酉"),
+    /**
+     * 壬戌
+     */
+    REN_XU(59, "壬戌"),
+    /**
+     * 癸亥
+     */
+    GUI_HAI(60, "癸亥"),
+    ;
+    /**
+     * 编码
+     */
+    private final int code;
+    /**
+     * 名称
+     */
+    private final String name;
+
+    /**
+     * 六十甲子的个数
+     */
+    public static final int SIZE = 60;
+
+    private static final SexagenaryCycle[] VALUES = values();
+    private static final HeavenlyStem[] HEAVENLY_STEMS = HeavenlyStem.values();
+    private static final Earthly[] EARTHLIES = Earthly.values();
+    private static final FiveElements[] FIVE_ELEMENTS = FiveElements.values();
+
+    /**
+     * 天干的五行ordinal, 下标为天干ordinal: 甲乙木, 丙丁火, 戊己土, 庚辛金, 壬癸水
+     */
+    private static final byte[] HEAVENLY_STEM_FIVE_ELEMENTS = {1, 1, 3, 3, 4, 4, 0, 0, 2, 2};
+    /**
+     * 地支的五行ordinal, 下标为地支ordinal: 寅卯木, 巳午火, 辰戌丑未土, 申酉金, 亥子水
+     */
+    private static final byte[] EARTHLY_FIVE_ELEMENTS = {2, 4, 1, 1, 4, 3, 3, 4, 0, 0, 4, 2};
+    /**
+     * 纳音名称, 下标为序号 / 2
+     */
+    private static final String[] NA_YIN_NAMES = {
+            "海中金", "炉中火", "大林木", "路旁土", "剑锋金", "山头火", "涧下水", "城头土", "白蜡金", "杨柳木",
+            "泉中水", "屋上土", "霹雳火", "松柏木", "长流水", "砂中金", "山下火", "平地木", "壁上土", "金箔金",
+            "覆灯火", "天河水", "大驿土", "钗钏金", "桑柘木", "大溪水", "沙中土", "天上火", "石榴木", "大海水"
+    };
+    /**
+     * 纳音五行ordinal, 下标为序号 / 2
+     */
+    private static final byte[] NA_YIN_FIVE_ELEMENTS = {
+            0, 3, 1, 4, 0, 3, 2, 4, 0, 1,
+            2, 4, 3, 1, 2, 0, 3, 1, 4, 0,
+            3, 2, 4, 0, 1, 2, 4, 3, 1, 2
+    };
+    /**
+     * 生肖, 下标为地支ordinal
+     */
+    private static final String[] ZODIACS = {"鼠", "牛", "虎", "兔", "龙", "蛇", "马", "羊", "猴", "鸡", "狗", "猪"};
+    /**
+     * 1970-01-01(epoch-day为0)的日柱序号, 即辛巳
+     */
+    private static final int EPOCH_DAY_INDEX = 17;
+    /**
+     * 1970-01-01的儒略日数
+     */
+    public static final long EPOCH_JULIAN_DAY = 2440588L;
+    /**
+     * 小时对应的时辰地支ordinal, 23点和0点都是子时
+     */
+    private static final byte[] HOUR_EARTHLY = new byte[24];
+
+    /**
+     * 五鼠遁: 下标为日干ordinal * 12 + 时辰地支ordinal, 值为时柱序号
+     * 甲己还加甲, 乙庚丙作初, 丙辛从戊起, 丁壬庚子居, 戊癸何方发, 壬子是真途
+     */
+    private static final byte[] HOUR_PILLAR = new byte[10 * 12];
+
+    static {
+        for (int hour = 0; hour < HOUR_EARTHLY.length; hour++) {
+            HOUR_EARTHLY[hour] = (byte) ((hour + 1) / 2 % 12);
+        }
+        for (int heavenlyStem = 0; heavenlyStem < 10; heavenlyStem++) {
+            for (int earthly = 0; earthly < 12; earthly++) {
+                // 序号 % 12为地支, 序号 % 10为 (日干 % 5 * 2 + 地支) % 10
+                HOUR_PILLAR[heavenlyStem * 12 + earthly] = (byte) (heavenlyStem % 5 * 12 + earthly);
+            }
+        }
+    }
+
+    /**
+     * 按序号取, 序号按60取模, 可以为负数
+     *
+     * @param index 序号
+     * @return 六十甲子
+     */
+    public static SexagenaryCycle getByIndex(int index) {
+        return VALUES[Math.floorMod(index, SIZE)];
+    }
+
+    /**
+     * 天干地支组合在六十甲子中的序号
+     *
+     * @param heavenlyStemOrdinal 天干ordinal
+     * @param earthlyOrdinal      地支ordinal
+     * @return 0-59, 天干地支阴阳不一致(不构成六十甲子)时返回-1
+     */
+    public static int indexOf(int heavenlyStemOrdinal, int earthlyOrdinal) {
+        if (((heavenlyStemOrdinal ^ earthlyOrdinal) & 1) != 0) {
+            return -1;
+        }
+        // 满足 index % 10 == stem 且 index % 12 == branch
+        return (6 * heavenlyStemOrdinal - 5 * earthlyOrdinal + SIZE) % SIZE;
+    }
+
+    /**
+     * 天干地支组合
+     *
+     * @param heavenlyStem 天干
+     * @param earthly      地支
+     * @return 六十甲子, 阴阳不一致时为null
+     */
+    public static SexagenaryCycle of(HeavenlyStem heavenlyStem, Earthly earthly) {
+        int index = indexOf(heavenlyStem.ordinal(), earthly.ordinal());
+        return index < 0 ? null : VALUES[index];
+    }
+
+    /**
+     * 天干的五行ordinal
+     *
+     * @param heavenlyStemOrdinal 天干ordinal
+     * @return 五行ordinal
+     */
+    public static int heavenlyStemFiveElements(int heavenlyStemOrdinal) {
+        return HEAVENLY_STEM_FIVE_ELEMENTS[heavenlyStemOrdinal];
+    }
+
+    /**
+     * 地支的五行ordinal
+     *
+     * @param earthlyOrdinal 地支ordinal
+     * @return 五行ordinal
+     */
+    public static int earthlyFiveElements(int earthlyOrdinal) {
+        return EARTHLY_FIVE_ELEMENTS[earthlyOrdinal];
+    }
+
+    /**
+     * 五虎遁: 由年天干推月天干, 甲己之年丙作首, 乙庚之岁戊为头...
+     *
+     * @param yearHeavenlyStemOrdinal 年天干ordinal
+     * @param month                   月份, 0表示正月(寅月)
+     * @return 月天干ordinal
+     */
+    public static int monthHeavenlyStem(int yearHeavenlyStemOrdinal, int month) {
+        return (yearHeavenlyStemOrdinal % 5 * 2 + 2 + month) % 10;
+    }
+
+    /**
+     * 小时对应的时辰地支
+     *
+     * @param hour 小时(0-23)
+     * @return 时辰地支ordinal
+     */
+    public static int hourEarthly(int hour) {
+        return HOUR_EARTHLY[hour];
+    }
+
+    /**
+     * 五鼠遁: 由日干和时辰地支推时干
+     *
+     * @param dayHeavenlyStemOrdinal 日干ordinal
+     * @param earthlyOrdinal         时辰地支ordinal
+     * @return 时干ordinal
+     */
+    public static int hourHeavenlyStem(int dayHeavenlyStemOrdinal, int earthlyOrdinal) {
+        return HOUR_PILLAR[dayHeavenlyStemOrdinal * 12 + earthlyOrdinal] % 10;
+    }
+
+    /**
+     * 时柱序号, 天干地支一并得出
+     * 23点属于次日的子时, 时干按次日日干起; 日柱是否随之换日见ZiHourMode
+     *
+     * @param dayIndex 当天(公历日期)的日柱序号
+     * @param hour     小时(0-23)
+     * @return 时柱在六十甲子中的序号
+     */
+    public static int hourIndex(int dayIndex, int hour) {
+        if (hour < 0 || hour >= HOUR_EARTHLY.length) {
+            throw new RuntimeException("hourPillar is null , hour:" + hour);
+        }
+        int dayHeavenlyStem = (hour == 23 ? dayIndex + 1 : dayIndex) % 10;
+        return HOUR_PILLAR[dayHeavenlyStem * 12 + HOUR_EARTHLY[hour]];
+    }
+
+    /**
+     * 时柱
+     *
+     * @param dayPillar 当天(公历日期)的日柱
+     * @param hour      小时(0-23)
+     * @return 时柱
+     */
+    public static SexagenaryCycle getHourPillar(SexagenaryCycle dayPillar, int hour) {
+        return VALUES[hourIndex(dayPillar.ordinal(), hour)];
+    }
+
+    /**
+     * 日柱序号, 日柱每天前进一位, 按60取一次模即可, 对任意公历日期成立
+     *
+     * @param epochDay 公历日期的epoch-day
+     * @return 日柱在六十甲子中的序号
+     */
+    public static int dayIndex(int epochDay) {
+        return Math.floorMod(epochDay + EPOCH_DAY_INDEX, SIZE);
+    }
+
+    /**
+     * 由儒略日数求日柱序号
+     *
+     * @param julianDay 儒略日数
+     * @return 日柱在六十甲子中的序号
+     */
+    public static int dayIndexOfJulianDay(long julianDay) {
+        return (int) Math.floorMod(julianDay - EPOCH_JULIAN_DAY + EPOCH_DAY_INDEX, SIZE);
+    }
+
+    /**
+     * 日柱, 天干地支一并返回
+     *
+     * @param epochDay 公历日期的epoch-day
+     * @return 日柱
+     */
+    public static SexagenaryCycle getDayPillar(int epochDay) {
+        return VALUES[dayIndex(epochDay)];
+    }
+
+    /**
+     * 向后推n个(n为负数时向前)
+     *
+     * @param n 偏移
+     * @return 六十甲子
+     */
+    public SexagenaryCycle plus(int n) {
+        return getByIndex(ordinal() + n);
+    }
+
+    /**
+     * 与另一个的距离, 即other.plus(n) == this时的n, 0-59
+     *
+     * @param other 另一个六十甲子
+     * @return 距离
+     */
+    public int minus(SexagenaryCycle other) {
+        return Math.floorMod(ordinal() - other.ordinal(), SIZE);
+    }
+
+    /**
+     * 天干
+     *
+     * @return 天干
+     */
+    public HeavenlyStem getHeavenlyStem() {
+        return HEAVENLY_STEMS[ordinal() % 10];
+    }
+
+    /**
+     * 地支
+     *
+     * @return 地支
+     */
+    public Earthly getEarthly() {
+        return EARTHLIES[ordinal() % 12];
+    }
+
+    /**
+     * 天干五行
+     *
+     * @return 五行
+     */
+    public FiveElements getHeavenlyStemFiveElements() {
+        return FIVE_ELEMENTS[HEAVENLY_STEM_FIVE_ELEMENTS[ordinal() % 10]];
+    }
+
+    /**
+     * 地支五行
+     *
+     * @return 五行
+     */
+    public FiveElements getEarthlyFiveElements() {
+        return FIVE_ELEMENTS[EARTHLY_FIVE_ELEMENTS[ordinal() % 12]];
+    }
+
+    /**
+     * 阴阳, 天干地支同阴同阳
+     *
+     * @return 是否为阳
+     */
+    public boolean isYang() {
+        return (ordinal() & 1) == 0;
+    }
+
+    /**
+     * 纳音, 如甲子、乙丑为海中金
+     *
+     * @return 纳音名称
+     */
+    public String getNaYin() {
+        return NA_YIN_NAMES[ordinal() >> 1];
+    }
+
+    /**
+     * 纳音五行
+     *
+     * @return 五行
+     */
+    public FiveElements getNaYinFiveElements() {
+        return FIVE_ELEMENTS[NA_YIN_FIVE_ELEMENTS[ordinal() >> 1]];
+    }
+
+    /**
+     * 生肖, 由地支决定
+     *
+     * @return 生肖
+     */
+    public String getZodiac() {
+        return ZODIACS[ordinal() % 12];
+    }
+}
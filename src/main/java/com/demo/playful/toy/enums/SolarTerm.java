@@ -0,0 +1,130 @@
+package com.demo.playful.toy.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * SolarTerm
+ * 24节气, 按公历年内的先后顺序, 从小寒开始
+ *
+ * @author 张涵林
+ * @date 2020/6/23
+ */
+@Getter
+@AllArgsConstructor
+public enum SolarTerm {
+    /**
+     * 小寒
+     */
+    XIAO_HAN(1, "小寒"),
+    /**
+     * 大寒
+     */
+    DA_HAN(2, "大寒"),
+    /**
+     * 立春
+     */
+    LI_CHUN(3, "立春"),
+    /**
+     * 雨水
+     */
+    YU_SHUI(4, "雨水"),
+    /**
+     * 惊蛰
+     */
+    JING_ZHE(5, "惊蛰"),
+    /**
+     * 春分
+     */
+    CHUN_FEN(6, "春分"),
+    /**
+     * 清明
+     */
+    QING_MING(7, "清明"),
+    /**
+     * 谷雨
+     */
+    GU_YU(8, "谷雨"),
+    /**
+     * 立夏
+     */
+    LI_XIA(9, "立夏"),
+    /**
+     * 小满
+     */
+    XIAO_MAN(10, "小满"),
+    /**
+     * 芒种
+     */
+    MANG_ZHONG(11, "芒种"),
+    /**
+     * 夏至
+     */
+    XIA_ZHI(12, "夏至"),
+    /**
+     * 小暑
+     */
+    XIAO_SHU(13, "小暑"),
+    /**
+     * 大暑
+     */
+    DA_SHU(14, "大暑"),
+    /**
+     * 立秋
+     */
+    LI_QIU(15, "立秋"),
+    /**
+     * 处暑
+     */
+    CHU_SHU(16, "处暑"),
+    /**
+     * 白露
+     */
+    BAI_LU(17, "白露"),
+    /**
+     * 秋分
+     */
+    QIU_FEN(18, "秋分"),
+    /**
+     * 寒露
+     */
+    HAN_LU(19, "寒露"),
+    /**
+     * 霜降
+     */
+    SHUANG_JIANG(20, "霜降"),
+    /**
+     * 立冬
+     */
+    LI_DONG(21, "立冬"),
+    /**
+     * 小雪
+     */
+    XIAO_XUE(22, "小雪"),
+    /**
+     * 大雪
+     */
+    DA_XUE(23, "大雪"),
+    /**
+     * 冬至
+     */
+    DONG_ZHI(24, "冬至"),
+    ;
+    /**
+     * 编码
+     */
+    private final int code;
+    /**
+     * 名称
+     */
+    private final String name;
+
+    /**
+     * 是否是"节"(小寒、立春、惊蛰...大雪), 节是月柱的分界; 其余为"气"
+     *
+     * @return 是否是节
+     */
+    public boolean isJie() {
+        return (ordinal() & 1) == 0;
+    }
+}
@@ -0,0 +1,58 @@
+package com.demo.playful.toy.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Stage
+ * 计算过程中的阶段, 用于耗时统计
+ *
+ * @author 张涵林
+ * @date 2020/6/26
+ */
+@Getter
+@AllArgsConstructor
+public enum Stage {
+    /**
+     * 解析公历时间
+     */
+    PARSE("PARSE", "解析"),
+    /**
+     * 公历转农历, 节气模式下为节气查找
+     */
+    SOLAR_TO_LUNAR("SOLAR_TO_LUNAR", "公历转农历"),
+    /**
+     * 年柱, 以下各柱只写入编码, 五行数量在FIVE_ELEMENTS阶段统一统计
+     */
+    YEAR_PILLAR("YEAR_PILLAR", "年柱"),
+    /**
+     * 月柱
+     */
+    MONTH_PILLAR("MONTH_PILLAR", "月柱"),
+    /**
+     * 日柱
+     */
+    DAY_PILLAR("DAY_PILLAR", "日柱"),
+    /**
+     * 时柱
+     */
+    HOUR_PILLAR("HOUR_PILLAR", "时柱"),
+    /**
+     * 统计八个字的五行数量
+     */
+    FIVE_ELEMENTS("FIVE_ELEMENTS", "五行统计"),
+    /**
+     * 结果输出为文本
+     */
+    RENDER("RENDER", "输出"),
+    ;
+
+    /**
+     * 编码
+     */
+    private final String code;
+    /**
+     * 名称
+     */
+    private final String name;
+}
@@ -0,0 +1,45 @@
+package com.demo.playful.toy.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * ZiHourMode
+ * 子时(23点-1点)跨日的处理方式
+ * 两种方式下23点的时柱都是子时, 时干按次日日干起(五鼠遁), 区别只在日柱
+ *
+ * @author 张涵林
+ * @date 2020/7/4
+ */
+@Getter
+@AllArgsConstructor
+public enum ZiHourMode {
+    /**
+     * 区分早晚子时: 23点为晚子时, 日柱仍用当天; 0点为早子时
+     */
+    LATE_ZI("L", "晚子时"),
+    /**
+     * 23点换日: 23点起日柱即为次日
+     */
+    ROLLOVER("R", "子时换日"),
+    ;
+
+    /**
+     * 编码
+     */
+    private final String code;
+    /**
+     * 名称
+     */
+    private final String name;
+
+    /**
+     * 日柱相对公历日期前进的天数
+     *
+     * @param hour 小时(0-23)
+     * @return 0或1
+     */
+    public int dayOffset(int hour) {
+        return this == ROLLOVER && hour == 23 ? 1 : 0;
+    }
+}
@@ -0,0 +1,61 @@
+package com.demo.playful.toy.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * ClasspathLunarDataProvider
+ * 从classpath按世纪加载农历分段, 资源名为 前缀 + 世纪起始年份 + ".bin", 例如 /lunar/lunar-1800.bin 覆盖1800-1899年
+ *
+ * @author 张涵林
+ * @date 2020/6/28
+ */
+public class ClasspathLunarDataProvider implements LunarDataProvider {
+    /**
+     * 默认资源前缀
+     */
+    public static final String DEFAULT_PREFIX = "/lunar/lunar-";
+
+    private final String prefix;
+
+    /**
+     * 使用默认资源前缀
+     */
+    public ClasspathLunarDataProvider() {
+        this(DEFAULT_PREFIX);
+    }
+
+    /**
+     * @param prefix 资源前缀
+     */
+    public ClasspathLunarDataProvider(String prefix) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * 资源名
+     *
+     * @param year 农历年
+     * @return 所在世纪的资源名
+     */
+    public String resourceName(int year) {
+        return prefix + Math.floorDiv(year, 100) * 100 + ".bin";
+    }
+
+    @Override
+    public LunarDataSegment load(int year) {
+        try (InputStream in = ClasspathLunarDataProvider.class.getResourceAsStream(resourceName(year))) {
+            if (null == in) {
+                return null;
+            }
+            LunarDataSegment segment = LunarDataSegment.read(in);
+            if (year < segment.getFirstYear() || year > segment.getLastYear()) {
+                throw new RuntimeException("lunar segment not cover year , year:" + year + ",resource:" + resourceName(year));
+            }
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,12 +1,12 @@
 package com.demo.playful.toy.utils;
 
-import com.demo.playful.toy.enums.Earthly;
-import com.demo.playful.toy.enums.HeavenlyStem;
-import com.google.common.collect.ImmutableMap;
+import com.demo.playful.toy.enums.SexagenaryCycle;
+import com.demo.playful.toy.enums.Stage;
+import com.google.common.collect.ImmutableSet;
 
 import java.text.ParseException;
+import java.util.Arrays;
 import java.util.Calendar;
-import java.util.GregorianCalendar;
 
 /**
  * DateUtils
@@ -17,8 +17,15 @@ import java.util.GregorianCalendar;
  */
 public class DateUtils extends org.apache.commons.lang3.time.DateUtils {
 
+    /**
+     * 由TimestampParser直接解析的格式
+     */
+    private static final ImmutableSet<String> TIMESTAMP_FORMATS = ImmutableSet.of("yyyy-MM-dd HH", "yyyyMMddHH");
+
     /**
      * 字符串日期转换为Calendar
+     * yyyy-MM-dd HH、yyyyMMddHH两种格式由TimestampParser解析, 且必须与format的写法一致, 其余格式使用commons-lang
+     * 解析失败抛出RuntimeException, 不再返回当前时间
      *
      * @param dateStr 日期字符串
      * @param format  日期格式
@@ -26,45 +33,162 @@ public class DateUtils extends org.apache.commons.lang3.time.DateUtils {
      */
     public static Calendar parseCalendar(String dateStr, String format) {
         Calendar calendar = Calendar.getInstance();
+        if (TIMESTAMP_FORMATS.contains(format)) {
+            long parsed = TimestampParser.parse(dateStr);
+            if (!TimestampParser.isValid(parsed)) {
+                throw new RuntimeException("parseCalendar error , dateStr:" + dateStr + ",format:" + format + ",status:" + parsed);
+            }
+            if (!matchesLayout(dateStr, format)) {
+                throw new RuntimeException("parseCalendar error , dateStr:" + dateStr + ",format:" + format);
+            }
+            calendar.clear();
+            calendar.set(TimestampParser.getYear(parsed), TimestampParser.getMonth(parsed) - 1, TimestampParser.getDay(parsed),
+                    TimestampParser.getHour(parsed), 0, 0);
+            return calendar;
+        }
         try {
             calendar.setTime(DateUtils.parseDate(dateStr, format));
         } catch (ParseException e) {
-            e.printStackTrace();
+            throw new RuntimeException("parseCalendar error , dateStr:" + dateStr + ",format:" + format, e);
         }
         return calendar;
     }
 
+    /**
+     * 去掉首尾空格后长度与format相同, 且format中的分隔符(非字母)原样出现
+     * TimestampParser同时接受多种写法, 这里限定为调用方指定的一种
+     *
+     * @param dateStr 日期字符串
+     * @param format  日期格式
+     * @return 是否一致
+     */
+    private static boolean matchesLayout(String dateStr, String format) {
+        String text = dateStr.trim();
+        if (text.length() != format.length()) {
+            return false;
+        }
+        for (int i = 0; i < format.length(); i++) {
+            char c = format.charAt(i);
+            if (!Character.isLetter(c) && text.charAt(i) != c) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 公历year年month月的天数
+     *
+     * @param year  公历年
+     * @param month 公历月(1-12)
+     * @return 天数
+     */
+    public static int lengthOfMonth(int year, int month) {
+        if (month == 2) {
+            return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0 ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    /**
+     * 1970-01-01之前每400年的天数
+     */
+    private static final int DAYS_PER_400_YEARS = 146097;
+    /**
+     * 0000-03-01到1970-01-01的天数
+     */
+    private static final int DAYS_0000_TO_1970 = 719468;
+
+    /**
+     * 公历日期转换为epoch-day(自1970-01-01起的天数), 与时区无关
+     *
+     * @param year  公历年
+     * @param month 公历月(1-12)
+     * @param day   公历日
+     * @return epoch-day
+     */
+    public static int toEpochDay(int year, int month, int day) {
+        // 以3月为年首, 1、2月归入上一年, 闰日落在年末
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_400_YEARS + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * epoch-day转换为公历日期, 与时区无关
+     * 返回值按位打包: 9-31位公历年, 5-8位公历月(1-12), 0-4位公历日
+     *
+     * @param epochDay epoch-day
+     * @return 打包后的公历日期
+     */
+    public static int ofEpochDay(int epochDay) {
+        int shifted = epochDay + DAYS_0000_TO_1970;
+        int era = Math.floorDiv(shifted, DAYS_PER_400_YEARS);
+        int dayOfEra = shifted - era * DAYS_PER_400_YEARS;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int mp = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year << 9 | month << 5 | day;
+    }
+
+    /**
+     * 打包公历日期中的公历年
+     *
+     * @param solarDate 打包后的公历日期
+     * @return 公历年
+     */
+    public static int getSolarYear(int solarDate) {
+        return solarDate >> 9;
+    }
+
+    /**
+     * 打包公历日期中的公历月
+     *
+     * @param solarDate 打包后的公历日期
+     * @return 公历月(1-12)
+     */
+    public static int getSolarMonth(int solarDate) {
+        return (solarDate >>> 5) & 0xF;
+    }
+
+    /**
+     * 打包公历日期中的公历日
+     *
+     * @param solarDate 打包后的公历日期
+     * @return 公历日
+     */
+    public static int getSolarDay(int solarDate) {
+        return solarDate & 0x1F;
+    }
+
+    /**
+     * Calendar日期转换为epoch-day, 只取年月日字段
+     *
+     * @param calendar 日期对象
+     * @return epoch-day
+     */
+    public static int toEpochDay(Calendar calendar) {
+        return toEpochDay(calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH) + 1, calendar.get(Calendar.DAY_OF_MONTH));
+    }
+
     /**
      * 公历日期服务
      */
     public static class LunarDate {
         /**
-         * 支持转换的最小农历年份
+         * 内置数据的最小农历年份, 更早的年份通过LunarDataProvider加载
          */
         public static final int MIN_YEAR = 1900;
         /**
-         * 支持转换的最大农历年份
+         * 内置数据的最大农历年份, 更晚的年份通过LunarDataProvider加载
          */
         public static final int MAX_YEAR = 2099;
-        /**
-         * 农历月对应表
-         * key - 农历月数字
-         * value - 农历月名称
-         */
-        private static final ImmutableMap<Integer, String> LUNAR_MONTH_MAPPING = ImmutableMap.<Integer, String>builder().
-                put(0, "正").put(1, "二").put(2, "三").put(3, "四").put(4, "五").put(5, "六").
-                put(6, "七").put(7, "八").put(8, "九").put(9, "十").put(10, "冬").put(11, "腊").
-                build();
-
-        /**
-         * 日期数字对应表
-         * key - 数字
-         * value - 名称
-         */
-        private static final ImmutableMap<Integer, String> DAY_NUM_MAPPING = ImmutableMap.<Integer, String>builder().
-                put(1, "一").put(2, "二").put(3, "三").put(4, "四").put(5, "五").put(6, "六").
-                put(7, "七").put(8, "八").put(9, "九").put(10, "十").put(0, "十").build();
-
         /**
          * 用来表示1900年到2099年间农历年份的相关信息，共24位bit的16进制表示，其中：
          * 前4位表示该年闰哪个月；
@@ -119,6 +243,146 @@ public class DateUtils extends org.apache.commons.lang3.time.DateUtils {
                 0x0D5252, 0x0DAA47, 0x66B53B, 0x056D4F, 0x04AE45, 0x4A4EB9, 0x0A4D4C, 0x0D1541, 0x2D92B5
         };
 
+        /**
+         * lunarToSolar状态码: 年、月或小时超出范围
+         */
+        public static final long ERROR_RANGE = Long.MIN_VALUE;
+        /**
+         * lunarToSolar状态码: 该年没有这个闰月
+         */
+        public static final long ERROR_LEAP_MONTH = Long.MIN_VALUE + 1;
+        /**
+         * lunarToSolar状态码: 日超出该月天数, 例如小月30日
+         */
+        public static final long ERROR_DAY = Long.MIN_VALUE + 2;
+
+        /**
+         * 每年最多13个农历月(含闰月), 再加一个年末位置
+         */
+        private static final int MONTH_SLOTS = 14;
+
+        /**
+         * 内置范围之外的农历数据来源
+         */
+        private static volatile LunarDataProvider provider = new ClasspathLunarDataProvider();
+
+        /**
+         * 当前已加载的连续年份的查找表, 初始为内置的1900-2099年
+         * 加载新分段时整体替换, 查询只读一次volatile引用, 之后都是数组下标运算
+         */
+        private static volatile LunarTables tables = new LunarTables(MIN_YEAR, LUNAR_INFO, false, false);
+
+        /**
+         * 替换农历数据来源, 已加载的分段丢弃, 恢复为内置范围
+         *
+         * @param lunarDataProvider 数据来源
+         */
+        public static synchronized void setProvider(LunarDataProvider lunarDataProvider) {
+            provider = lunarDataProvider;
+            tables = new LunarTables(MIN_YEAR, LUNAR_INFO, false, false);
+        }
+
+        /**
+         * 当前已加载的最小农历年份
+         *
+         * @return 年份
+         */
+        public static int getMinYear() {
+            return tables.minYear;
+        }
+
+        /**
+         * 当前已加载的最大农历年份
+         *
+         * @return 年份
+         */
+        public static int getMaxYear() {
+            return tables.maxYear();
+        }
+
+        /**
+         * 当前已加载的第一天(最小年份正月初一)的epoch-day
+         *
+         * @return epoch-day
+         */
+        public static int getMinEpochDay() {
+            return tables.newYearEpochDays[0];
+        }
+
+        /**
+         * 当前已加载的最后一天(最大年份除夕)的下一天的epoch-day
+         *
+         * @return epoch-day
+         */
+        public static int getMaxEpochDay() {
+            LunarTables current = tables;
+            return current.newYearEpochDays[current.infos.length];
+        }
+
+        /**
+         * 农历年份区间对应的公历范围, 需要时先加载, 两端从同一份查找表读取
+         *
+         * @param fromYear 起始农历年
+         * @param toYear   结束农历年(包含)
+         * @return {fromYear正月初一的epoch-day, toYear除夕的下一天的epoch-day}
+         * @throws RuntimeException 年份区间不合法或无法加载
+         */
+        public static int[] getEpochDayRange(int fromYear, int toYear) {
+            if (fromYear > toYear || !ensureYear(fromYear) || !ensureYear(toYear)) {
+                throw new RuntimeException("lunar year out of range , fromYear:" + fromYear + ",toYear:" + toYear);
+            }
+            LunarTables current = tables;
+            // 加载之后数据来源被替换时, 已加载的分段会被丢弃
+            if (fromYear < current.minYear || toYear > current.maxYear()) {
+                throw new RuntimeException("lunar year unloaded , fromYear:" + fromYear + ",toYear:" + toYear);
+            }
+            return new int[]{current.newYearEpochDays[fromYear - current.minYear], current.newYearEpochDays[toYear - current.minYear + 1]};
+        }
+
+        /**
+         * 确保农历年份已加载, 需要时从数据来源向两端逐段加载
+         *
+         * @param year 农历年
+         * @return 是否已加载
+         */
+        public static boolean ensureYear(int year) {
+            LunarTables current = tables;
+            if (year >= current.minYear && year <= current.maxYear()) {
+                return true;
+            }
+            // 该方向已经没有数据, 不必再抢锁
+            if (year < current.minYear ? current.lowerExhausted : current.upperExhausted) {
+                return false;
+            }
+            synchronized (LunarDate.class) {
+                current = tables;
+                while (year < current.minYear && !current.lowerExhausted) {
+                    current = current.extend(provider.load(current.minYear - 1), true);
+                    tables = current;
+                }
+                while (year > current.maxYear() && !current.upperExhausted) {
+                    current = current.extend(provider.load(current.maxYear() + 1), false);
+                    tables = current;
+                }
+                return year >= current.minYear && year <= current.maxYear();
+            }
+        }
+
+        /**
+         * 确保公历日期所在的农历年已加载
+         *
+         * @param epochDay 公历日期的epoch-day
+         * @return 是否已加载
+         */
+        private static boolean ensureEpochDay(int epochDay) {
+            // 农历年等于公历年, 或者在正月初一之前时为上一年
+            int solarYear = getSolarYear(ofEpochDay(epochDay));
+            if (ensureYear(solarYear) && epochDay < getMinEpochDay()) {
+                ensureYear(solarYear - 1);
+            }
+            return epochDay >= getMinEpochDay() && epochDay < getMaxEpochDay();
+        }
+
         /**
          * 将公历日期转换为农历日期，且标识是否是闰月
          *
@@ -126,56 +390,196 @@ public class DateUtils extends org.apache.commons.lang3.time.DateUtils {
          * @return 返回公历日期对应的农历日期
          */
         public static Calendar solarToLunar(Calendar birthCal) {
-            Calendar baseCal = new GregorianCalendar(MIN_YEAR, Calendar.JANUARY, 31);
-            int offset = (int) ((birthCal.getTimeInMillis() - baseCal.getTimeInMillis()) / 86400000L);
-            // 用offset减去每农历年的天数计算当天是农历第几天
-            // iYear最终结果是农历的年份, offset是当年的第几天
-            int iYear, daysOfYear = 0;
-            for (iYear = MIN_YEAR; iYear <= MAX_YEAR && offset > 0; iYear++) {
-                daysOfYear = daysInLunarYear(iYear);
-                offset -= daysOfYear;
-            }
-            if (offset < 0) {
-                offset += daysOfYear;
-                iYear--;
-            }
-            int leapMonth = leapMonth(iYear);
-            // 用当年的天数offset,逐个减去每月（农历）的天数，求出当天是本月的第几天
-            int iMonth, daysOfMonth = 0;
-            for (iMonth = 1; iMonth <= 13 && offset > 0; iMonth++) {
-                daysOfMonth = daysInLunarMonth(iYear, iMonth);
-                offset -= daysOfMonth;
-            }
-            // 当前月超过闰月，要校正
-            if (leapMonth != 0 && iMonth > leapMonth) {
-                --iMonth;
-            }
-            // offset小于0时，也要校正
-            if (offset < 0) {
-                offset += daysOfMonth;
-                --iMonth;
-            }
+            return toLunarCalendar(solarToLunar(toEpochDay(birthCal)), birthCal.get(Calendar.HOUR_OF_DAY));
+        }
+
+        /**
+         * 打包后的农历日期转换为Calendar, 年月日字段存放农历的年月日
+         *
+         * @param lunarDate 打包后的农历日期
+         * @param hour      小时
+         * @return 农历日期对象
+         */
+        public static Calendar toLunarCalendar(int lunarDate, int hour) {
             // 农历年份
             Calendar lunarCalendar = Calendar.getInstance();
-            lunarCalendar.set(Calendar.YEAR, iYear);
-            lunarCalendar.set(Calendar.MONTH, iMonth - 1);
-            lunarCalendar.set(Calendar.DAY_OF_MONTH, offset + 1);
-            lunarCalendar.set(Calendar.HOUR_OF_DAY, birthCal.get(Calendar.HOUR_OF_DAY));
+            lunarCalendar.set(Calendar.YEAR, getLunarYear(lunarDate));
+            lunarCalendar.set(Calendar.MONTH, getLunarMonth(lunarDate));
+            lunarCalendar.set(Calendar.DAY_OF_MONTH, getLunarDay(lunarDate));
+            lunarCalendar.set(Calendar.HOUR_OF_DAY, hour);
             return lunarCalendar;
         }
 
         /**
-         * 传回农历 year年的总天数
+         * 将公历日期转换为农历日期, 不创建任何对象
+         * 返回值按位打包: 16-31位农历年, 8-11位农历月(0表示正月, 与Calendar.MONTH一致), 5位闰月标识, 0-4位农历日
+         *
+         * @param epochDay 公历日期的epoch-day
+         * @return 打包后的农历日期
+         */
+        public static int solarToLunar(int epochDay) {
+            LunarTables current = tables;
+            if (epochDay < current.newYearEpochDays[0] || epochDay >= current.newYearEpochDays[current.infos.length]) {
+                if (!ensureEpochDay(epochDay)) {
+                    throw new RuntimeException("solarToLunar out of range , epochDay:" + epochDay);
+                }
+                current = tables;
+            }
+            // 二分查找农历年
+            int index = Arrays.binarySearch(current.newYearEpochDays, epochDay);
+            if (index < 0) {
+                index = -index - 2;
+            }
+            int offset = epochDay - current.newYearEpochDays[index];
+            int base = index * MONTH_SLOTS;
+            // 大小月只有29、30天, 所在月序号不会超过offset / 29, 向前修正至多两次
+            int slot = Math.min(offset / 29, 12);
+            while (current.monthStartOffsets[base + slot] > offset) {
+                slot--;
+            }
+            int day = offset - current.monthStartOffsets[base + slot] + 1;
+            int year = index + current.minYear;
+            int leapMonth = leapMonth(current.infos[index]);
+            // 按出现顺序的月序号(0开始), 闰月及之后的月份序号比月份多1
+            int month = leapMonth != 0 && slot >= leapMonth ? slot - 1 : slot;
+            int leap = leapMonth != 0 && slot == leapMonth ? 1 : 0;
+            return year << 16 | month << 8 | leap << 5 | day;
+        }
+
+        /**
+         * 将农历日期时间转换为公历, 只做几次数组读取, 不抛异常
+         *
+         * @param year   农历年
+         * @param month  农历月(1-12)
+         * @param isLeap 是否是闰月
+         * @param day    农历日
+         * @param hour   小时
+         * @return 公历时间的epoch-hour, 输入不合法时为状态码, 用isValidEpochHour判断
+         */
+        public static long lunarToSolar(int year, int month, boolean isLeap, int day, int hour) {
+            if (month < 1 || month > 12 || hour < 0 || hour > 23) {
+                return ERROR_RANGE;
+            }
+            LunarTables current = tables;
+            if (year < current.minYear || year > current.maxYear()) {
+                if (!ensureYear(year)) {
+                    return ERROR_RANGE;
+                }
+                current = tables;
+            }
+            int index = year - current.minYear;
+            int leapMonth = leapMonth(current.infos[index]);
+            // 按出现顺序的月序号(0开始)
+            int slot;
+            if (isLeap) {
+                if (leapMonth != month) {
+                    return ERROR_LEAP_MONTH;
+                }
+                slot = month;
+            } else {
+                slot = leapMonth != 0 && month > leapMonth ? month : month - 1;
+            }
+            int base = index * MONTH_SLOTS + slot;
+            int monthStart = current.monthStartOffsets[base];
+            if (day < 1 || day > current.monthStartOffsets[base + 1] - monthStart) {
+                return ERROR_DAY;
+            }
+            return (current.newYearEpochDays[index] + monthStart + day - 1) * 24L + hour;
+        }
+
+        /**
+         * 将打包后的农历日期转换为公历
+         *
+         * @param lunarDate 打包后的农历日期, 格式同solarToLunar的返回值
+         * @param hour      小时
+         * @return 公历时间的epoch-hour, 输入不合法时为状态码, 用isValidEpochHour判断
+         */
+        public static long lunarToSolar(int lunarDate, int hour) {
+            return lunarToSolar(getLunarYear(lunarDate), getLunarMonth(lunarDate) + 1, isLeapMonth(lunarDate), getLunarDay(lunarDate), hour);
+        }
+
+        /**
+         * 批量将农历日期转换为公历
+         *
+         * @param lunarDates 打包后的农历日期
+         * @param hours      小时, 与lunarDates下标对应
+         * @param epochHours 输出的epoch-hour或状态码, 长度不小于lunarDates
+         * @return 不合法的数量
+         */
+        public static int lunarToSolar(int[] lunarDates, int[] hours, long[] epochHours) {
+            int invalid = 0;
+            for (int i = 0; i < lunarDates.length; i++) {
+                long epochHour = lunarToSolar(lunarDates[i], hours[i]);
+                epochHours[i] = epochHour;
+                if (!isValidEpochHour(epochHour)) {
+                    invalid++;
+                }
+            }
+            return invalid;
+        }
+
+        /**
+         * lunarToSolar的结果是否合法
+         *
+         * @param epochHour lunarToSolar的结果
+         * @return 是否合法
+         */
+        public static boolean isValidEpochHour(long epochHour) {
+            return epochHour > ERROR_DAY;
+        }
+
+        /**
+         * 打包农历日期中的农历年
+         *
+         * @param lunarDate 打包后的农历日期
+         * @return 农历年
+         */
+        public static int getLunarYear(int lunarDate) {
+            return lunarDate >>> 16;
+        }
+
+        /**
+         * 打包农历日期中的农历月
+         *
+         * @param lunarDate 打包后的农历日期
+         * @return 农历月, 0表示正月
+         */
+        public static int getLunarMonth(int lunarDate) {
+            return (lunarDate >>> 8) & 0xF;
+        }
+
+        /**
+         * 打包农历日期中的农历日
+         *
+         * @param lunarDate 打包后的农历日期
+         * @return 农历日
+         */
+        public static int getLunarDay(int lunarDate) {
+            return lunarDate & 0x1F;
+        }
+
+        /**
+         * 打包农历日期是否闰月
+         *
+         * @param lunarDate 打包后的农历日期
+         * @return 是否闰月
+         */
+        public static boolean isLeapMonth(int lunarDate) {
+            return (lunarDate & 0x20) != 0;
+        }
+
+        /**
+         * 传回农历年的总天数
          *
-         * @param year 将要计算的年份
-         * @return 返回传入年份的总天数
+         * @param info 该年的打包数据
+         * @return 返回该年的总天数
          */
-        private static int daysInLunarYear(int year) {
+        private static int daysInLunarYear(int info) {
             int i, sum = 348;
-            if (leapMonth(year) != 0) {
+            if (leapMonth(info) != 0) {
                 sum = 377;
             }
-            int monthInfo = LUNAR_INFO[year - MIN_YEAR] & 0x0FFF80;
+            int monthInfo = info & 0x0FFF80;
             for (i = 0x80000; i > 0x7; i >>= 1) {
                 if ((monthInfo & i) != 0) {
                     sum += 1;
@@ -185,14 +589,14 @@ public class DateUtils extends org.apache.commons.lang3.time.DateUtils {
         }
 
         /**
-         * 传回农历 year年month月的总天数，总共有13个月包括闰月
+         * 传回农历年第month个月的总天数，总共有13个月包括闰月
          *
-         * @param year  将要计算的年份
-         * @param month 将要计算的月份
-         * @return 传回农历 year年month月的总天数
+         * @param info  该年的打包数据
+         * @param month 按出现顺序的月序号(1开始)
+         * @return 传回该月的总天数
          */
-        private static int daysInLunarMonth(int year, int month) {
-            if ((LUNAR_INFO[year - MIN_YEAR] & (0x100000 >> month)) == 0) {
+        private static int daysInLunarMonth(int info, int month) {
+            if ((info & (0x100000 >> month)) == 0) {
                 return 29;
             } else {
                 return 30;
@@ -200,13 +604,111 @@ public class DateUtils extends org.apache.commons.lang3.time.DateUtils {
         }
 
         /**
-         * 传回农历 year年闰哪个月 1-12 , 没闰传回 0
+         * 传回农历年闰哪个月 1-12 , 没闰传回 0
+         *
+         * @param info 该年的打包数据
+         * @return 传回闰哪个月1-12, 没闰传回 0
+         */
+        private static int leapMonth(int info) {
+            return (info & 0xF00000) >> 20;
+        }
+
+        /**
+         * 打包数据中正月初一的epoch-day
          *
-         * @param year 将要计算的年份
-         * @return 传回农历 year年闰哪个月1-12, 没闰传回 0
+         * @param year 农历年
+         * @param info 该年的打包数据
+         * @return epoch-day
          */
-        private static int leapMonth(int year) {
-            return ((LUNAR_INFO[year - MIN_YEAR] & 0xF00000)) >> 20;
+        private static int newYearEpochDay(int year, int info) {
+            return toEpochDay(year, (info >> 5) & 0x3, info & 0x1F);
+        }
+
+        /**
+         * 一段连续年份的查找表
+         */
+        private static final class LunarTables {
+            /**
+             * 最小农历年份
+             */
+            private final int minYear;
+            /**
+             * 每年的打包数据, 下标为year - minYear
+             */
+            private final int[] infos;
+            /**
+             * 每个农历年正月初一对应的epoch-day, 最后一位是最后一年年末的下一天
+             */
+            private final int[] newYearEpochDays;
+            /**
+             * 每个农历年内各月(按出现顺序,闰月紧随其正月)首日相对正月初一的天数偏移
+             * 每年MONTH_SLOTS位, 不足13个月的年份用年长度补齐
+             */
+            private final short[] monthStartOffsets;
+            /**
+             * 向前、向后是否已经没有更多分段
+             */
+            private final boolean lowerExhausted;
+            private final boolean upperExhausted;
+
+            private LunarTables(int minYear, int[] infos, boolean lowerExhausted, boolean upperExhausted) {
+                this.minYear = minYear;
+                this.infos = infos;
+                this.lowerExhausted = lowerExhausted;
+                this.upperExhausted = upperExhausted;
+                this.newYearEpochDays = new int[infos.length + 1];
+                this.monthStartOffsets = new short[infos.length * MONTH_SLOTS];
+                int epochDay = newYearEpochDay(minYear, infos[0]);
+                for (int index = 0; index < infos.length; index++) {
+                    int info = infos[index];
+                    if (epochDay != newYearEpochDay(minYear + index, info)) {
+                        throw new RuntimeException("lunar data inconsistent , year:" + (minYear + index));
+                    }
+                    newYearEpochDays[index] = epochDay;
+                    int base = index * MONTH_SLOTS;
+                    int daysOfYear = daysInLunarYear(info);
+                    int monthCount = leapMonth(info) == 0 ? 12 : 13;
+                    int offset = 0;
+                    for (int slot = 0; slot < MONTH_SLOTS; slot++) {
+                        monthStartOffsets[base + slot] = (short) Math.min(offset, daysOfYear);
+                        if (slot < monthCount) {
+                            offset += daysInLunarMonth(info, slot + 1);
+                        }
+                    }
+                    epochDay += daysOfYear;
+                }
+                newYearEpochDays[infos.length] = epochDay;
+            }
+
+            private int maxYear() {
+                return minYear + infos.length - 1;
+            }
+
+            /**
+             * 拼接相邻的分段
+             *
+             * @param segment 分段, 为null表示该方向没有更多数据
+             * @param lower   是否向前拼接
+             * @return 新的查找表
+             */
+            private LunarTables extend(LunarDataSegment segment, boolean lower) {
+                if (null == segment) {
+                    return new LunarTables(minYear, infos, lowerExhausted || lower, upperExhausted || !lower);
+                }
+                int from = lower ? segment.getFirstYear() : maxYear() + 1;
+                int to = lower ? minYear - 1 : segment.getLastYear();
+                if (from > to || (lower ? segment.getLastYear() < to : segment.getFirstYear() > from)) {
+                    throw new RuntimeException("lunar segment not adjacent , segment:" + segment.getFirstYear() + "-"
+                            + segment.getLastYear() + ",loaded:" + minYear + "-" + maxYear());
+                }
+                int[] merged = new int[infos.length + to - from + 1];
+                int added = to - from + 1;
+                for (int i = 0; i < added; i++) {
+                    merged[lower ? i : infos.length + i] = segment.getInfo(from + i);
+                }
+                System.arraycopy(infos, 0, merged, lower ? added : 0, infos.length);
+                return new LunarTables(lower ? from : minYear, merged, lowerExhausted, upperExhausted);
+            }
         }
 
         /**
@@ -216,17 +718,26 @@ public class DateUtils extends org.apache.commons.lang3.time.DateUtils {
          * @return toString
          */
         public static String lunarDateToString(Calendar lunarCalendar) {
-            StringBuilder builder = new StringBuilder();
-            HeavenlyStem yearHeavenlyStem = HeavenlyStem.getYearHeavenlyStem(lunarCalendar.get(Calendar.YEAR));
-            Earthly yearEarthly = Earthly.getYearEarthly(lunarCalendar.get(Calendar.YEAR));
-            Earthly hourEarthly = Earthly.getHourEarthly(lunarCalendar.get(Calendar.HOUR_OF_DAY));
-            builder.append(yearHeavenlyStem.getName()).append(yearEarthly.getName()).append("年");
-            builder.append(LUNAR_MONTH_MAPPING.get(lunarCalendar.get(Calendar.MONTH))).append("月");
-            int lunarDay = lunarCalendar.get(Calendar.DAY_OF_MONTH);
-            String tenBit = lunarDay > 10 ? (lunarDay >= 20 ? (lunarDay >= 30 ? "三" : "廿") : "十") : "初";
-            builder.append(tenBit).append(DAY_NUM_MAPPING.get(lunarDay % 10));
-            builder.append(" ").append(hourEarthly.getName()).append("时");
-            return builder.toString();
+            long start = Instrumentation.start();
+            String text = EightCharactersRenderer.appendLunarDate(new StringBuilder(16),
+                    EightCharactersRenderer.lunarYearIndex(lunarCalendar.get(Calendar.YEAR)), lunarCalendar.get(Calendar.MONTH),
+                    lunarCalendar.get(Calendar.DAY_OF_MONTH), SexagenaryCycle.hourEarthly(lunarCalendar.get(Calendar.HOUR_OF_DAY))).toString();
+            Instrumentation.record(Stage.RENDER, start);
+            return text;
+        }
+
+        /**
+         * 打包后的农历日期toString, 不经过Calendar, 农历日不会按公历月的天数进位(例如农历二月三十)
+         *
+         * @param lunarDate 打包后的农历日期
+         * @param hour      小时
+         * @return toString
+         */
+        public static String lunarDateToString(int lunarDate, int hour) {
+            long start = Instrumentation.start();
+            String text = EightCharactersRenderer.appendLunarDate(new StringBuilder(16), lunarDate, hour).toString();
+            Instrumentation.record(Stage.RENDER, start);
+            return text;
         }
     }
 }
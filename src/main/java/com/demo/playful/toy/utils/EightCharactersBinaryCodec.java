@@ -0,0 +1,187 @@
+package com.demo.playful.toy.utils;
+
+import com.demo.playful.toy.domain.EightCharactersCode;
+import com.demo.playful.toy.domain.EightCharactersDto;
+
+import java.nio.ByteBuffer;
+
+/**
+ * EightCharactersBinaryCodec
+ * 八字结果的定长二进制编码, 每条RECORD_SIZE字节, 用于存储和进程间传递, 编解码不创建对象(解码为Dto除外)
+ * <p>
+ * 每条记录(int按缓冲区字节序, 3字节字段固定大端):
+ * 0-3字节: 公历时间的epoch-hour(int)
+ * 4-7字节: 四柱, 同EightCharactersCode的低32位
+ * 8-10字节: 五行数量, 同EightCharactersCode的32-51位, 高4位为0
+ * 11-13字节: 农历日期, 10-21位农历年, 6-9位农历月(0表示正月), 5位闰月标识, 0-4位农历日
+ * 无法计算的结果四柱写为0xFFFFFFFF, 解码时还原为EightCharactersCode.INVALID
+ *
+ * @author 张涵林
+ * @date 2020/6/29
+ */
+public class EightCharactersBinaryCodec {
+    /**
+     * 每条记录的字节数
+     */
+    public static final int RECORD_SIZE = 14;
+    private static final int EPOCH_HOUR_OFFSET = 0;
+    private static final int PILLARS_OFFSET = 4;
+    private static final int FIVE_ELEMENTS_OFFSET = 8;
+    private static final int LUNAR_DATE_OFFSET = 11;
+    /**
+     * 农历年的最大值(12位)
+     */
+    private static final int MAX_LUNAR_YEAR = 0xFFF;
+
+    private EightCharactersBinaryCodec() {
+    }
+
+    /**
+     * 在position处写入一条记录, position前进RECORD_SIZE
+     *
+     * @param buffer    缓冲区
+     * @param code      八字编码
+     * @param epochHour 公历时间的epoch-hour
+     * @param lunarDate 打包后的农历日期, 见DateUtils.LunarDate.solarToLunar(int)
+     */
+    public static void encode(ByteBuffer buffer, long code, long epochHour, int lunarDate) {
+        encode(buffer, buffer.position(), code, epochHour, lunarDate);
+        buffer.position(buffer.position() + RECORD_SIZE);
+    }
+
+    /**
+     * 在指定下标写入一条记录, 不改变position
+     *
+     * @param buffer    缓冲区
+     * @param offset    起始下标
+     * @param code      八字编码
+     * @param epochHour 公历时间的epoch-hour
+     * @param lunarDate 打包后的农历日期
+     */
+    public static void encode(ByteBuffer buffer, int offset, long code, long epochHour, int lunarDate) {
+        if (epochHour < Integer.MIN_VALUE || epochHour > Integer.MAX_VALUE) {
+            throw new RuntimeException("epochHour out of range , epochHour:" + epochHour);
+        }
+        int lunarYear = DateUtils.LunarDate.getLunarYear(lunarDate);
+        if (lunarYear < 0 || lunarYear > MAX_LUNAR_YEAR) {
+            throw new RuntimeException("lunarYear out of range , lunarYear:" + lunarYear);
+        }
+        boolean invalid = code == EightCharactersCode.INVALID;
+        int fiveElements = invalid ? 0 : EightCharactersCode.getFiveElementsCounts(code);
+        int lunar = lunarYear << 10 | DateUtils.LunarDate.getLunarMonth(lunarDate) << 6
+                | (DateUtils.LunarDate.isLeapMonth(lunarDate) ? 1 << 5 : 0) | DateUtils.LunarDate.getLunarDay(lunarDate);
+        buffer.putInt(offset + EPOCH_HOUR_OFFSET, (int) epochHour);
+        buffer.putInt(offset + PILLARS_OFFSET, invalid ? -1 : EightCharactersCode.getPillars(code));
+        putMedium(buffer, offset + FIVE_ELEMENTS_OFFSET, fiveElements);
+        putMedium(buffer, offset + LUNAR_DATE_OFFSET, lunar);
+    }
+
+    /**
+     * 在position处写入一条记录
+     *
+     * @param buffer 缓冲区
+     * @param dto    八字对象
+     */
+    public static void encode(ByteBuffer buffer, EightCharactersDto dto) {
+        encode(buffer, dto.getCode(), dto.getEpochHour(), dto.getLunarDateCode());
+    }
+
+    /**
+     * 批量写入, 从position开始连续存放
+     *
+     * @param buffer     缓冲区, 剩余空间至少length * RECORD_SIZE
+     * @param codes      八字编码
+     * @param epochHours 公历时间的epoch-hour
+     * @param lunarDates 打包后的农历日期
+     * @param length     条数
+     */
+    public static void encode(ByteBuffer buffer, long[] codes, long[] epochHours, int[] lunarDates, int length) {
+        int offset = buffer.position();
+        for (int i = 0; i < length; i++) {
+            encode(buffer, offset + i * RECORD_SIZE, codes[i], epochHours[i], lunarDates[i]);
+        }
+        buffer.position(offset + length * RECORD_SIZE);
+    }
+
+    /**
+     * 读取八字编码
+     *
+     * @param buffer 缓冲区
+     * @param offset 记录起始下标
+     * @return 八字编码
+     */
+    public static long decodeCode(ByteBuffer buffer, int offset) {
+        int pillars = buffer.getInt(offset + PILLARS_OFFSET);
+        if (pillars == -1) {
+            return EightCharactersCode.INVALID;
+        }
+        return EightCharactersCode.of(pillars, getMedium(buffer, offset + FIVE_ELEMENTS_OFFSET));
+    }
+
+    /**
+     * 读取公历时间的epoch-hour
+     *
+     * @param buffer 缓冲区
+     * @param offset 记录起始下标
+     * @return epoch-hour
+     */
+    public static long decodeEpochHour(ByteBuffer buffer, int offset) {
+        return buffer.getInt(offset + EPOCH_HOUR_OFFSET);
+    }
+
+    /**
+     * 读取打包后的农历日期
+     *
+     * @param buffer 缓冲区
+     * @param offset 记录起始下标
+     * @return 打包后的农历日期, 格式同DateUtils.LunarDate.solarToLunar(int)
+     */
+    public static int decodeLunarDate(ByteBuffer buffer, int offset) {
+        int lunar = getMedium(buffer, offset + LUNAR_DATE_OFFSET);
+        return (lunar >>> 10) << 16 | (lunar >>> 6 & 0xF) << 8 | lunar & 0x3F;
+    }
+
+    /**
+     * 从position处读取一条记录, position前进RECORD_SIZE
+     *
+     * @param buffer 缓冲区
+     * @return 八字对象, 四柱、公历、农历在首次访问时才解码
+     */
+    public static EightCharactersDto decode(ByteBuffer buffer) {
+        int offset = buffer.position();
+        EightCharactersDto dto = new EightCharactersDto(decodeCode(buffer, offset), decodeEpochHour(buffer, offset),
+                decodeLunarDate(buffer, offset));
+        buffer.position(offset + RECORD_SIZE);
+        return dto;
+    }
+
+    /**
+     * 批量读取, 从position开始连续读取
+     *
+     * @param buffer     缓冲区
+     * @param codes      八字编码
+     * @param epochHours 公历时间的epoch-hour
+     * @param lunarDates 打包后的农历日期
+     * @param length     条数
+     */
+    public static void decode(ByteBuffer buffer, long[] codes, long[] epochHours, int[] lunarDates, int length) {
+        int offset = buffer.position();
+        for (int i = 0; i < length; i++) {
+            int record = offset + i * RECORD_SIZE;
+            codes[i] = decodeCode(buffer, record);
+            epochHours[i] = decodeEpochHour(buffer, record);
+            lunarDates[i] = decodeLunarDate(buffer, record);
+        }
+        buffer.position(offset + length * RECORD_SIZE);
+    }
+
+    private static void putMedium(ByteBuffer buffer, int offset, int value) {
+        buffer.put(offset, (byte) (value >>> 16));
+        buffer.put(offset + 1, (byte) (value >>> 8));
+        buffer.put(offset + 2, (byte) value);
+    }
+
+    private static int getMedium(ByteBuffer buffer, int offset) {
+        return (buffer.get(offset) & 0xFF) << 16 | (buffer.get(offset + 1) & 0xFF) << 8 | buffer.get(offset + 2) & 0xFF;
+    }
+}
@@ -0,0 +1,367 @@
+package com.demo.playful.toy.utils;
+
+import com.demo.playful.toy.domain.EightCharactersCode;
+import com.demo.playful.toy.domain.EightCharactersDto;
+import com.demo.playful.toy.enums.DateEnum;
+import com.demo.playful.toy.enums.FiveElements;
+import com.demo.playful.toy.enums.SexagenaryCycle;
+import com.demo.playful.toy.enums.Stage;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * EightCharactersJsonWriter
+ * 八字结果的流式JSON输出, 直接写UTF-8字节到OutputStream或ByteBuffer, 不经过反射, 不创建中间字符串
+ * <p>
+ * 四柱、农历日期的名称片段取自EightCharactersRenderer预先编码的UTF-8字节, 输出时只做数组拷贝
+ * 单条结果的格式:
+ * {"birth":"1990-12-26 07","pillars":{"year":"庚午","month":"戊子","day":"乙丑","hour":"庚辰"},"lunarDate":"庚午年冬月初十 辰时","fiveElements":{"金":2,...}}
+ * 没有原始输入时以"date"代替"birth"; 无法计算时为 {"birth":"...","error":"..."}
+ * <p>
+ * 写出的内容先放在内部缓冲区, 满了或flush时才写入目标; 写入ByteBuffer时剩余空间不足抛BufferOverflowException
+ * 非线程安全
+ *
+ * @author 张涵林
+ * @date 2020/6/29
+ */
+public class EightCharactersJsonWriter implements Flushable {
+    /**
+     * 默认缓冲区大小
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+    /**
+     * 最小缓冲区大小, 保证任何一个片段都能放下
+     */
+    private static final int MIN_BUFFER_SIZE = 64;
+    private static final DateEnum[] POSITIONS = {DateEnum.YEAR, DateEnum.MONTH, DateEnum.DAY, DateEnum.HOUR};
+    private static final FiveElements[] FIVE_ELEMENTS = FiveElements.values();
+
+    private static final byte[] BIRTH_KEY = utf8("{\"birth\":");
+    private static final byte[] DATE_KEY = utf8("{\"date\":");
+    private static final byte[] ERROR_KEY = utf8("\"error\":");
+    private static final byte[][] PILLAR_KEYS = {utf8(",\"pillars\":{\"year\":\""), utf8("\",\"month\":\""),
+            utf8("\",\"day\":\""), utf8("\",\"hour\":\"")};
+    private static final byte[] LUNAR_DATE_KEY = utf8("\"},\"lunarDate\":\"");
+    private static final byte[] FIVE_ELEMENTS_KEY = utf8("\",\"fiveElements\":{");
+    private static final byte[] OBJECT_END = utf8("}}");
+    private static final byte[] HEX = utf8("0123456789abcdef");
+    private static final byte[][] FIVE_ELEMENTS_KEYS = new byte[FIVE_ELEMENTS.length][];
+
+    static {
+        for (FiveElements fiveElements : FIVE_ELEMENTS) {
+            FIVE_ELEMENTS_KEYS[fiveElements.ordinal()] = utf8("\"" + fiveElements.getName() + "\":");
+        }
+    }
+
+    /**
+     * 输出流, 与target二选一
+     */
+    private final OutputStream out;
+    /**
+     * 输出缓冲区, 与out二选一
+     */
+    private final ByteBuffer target;
+    private final byte[] buffer;
+    private int position;
+    /**
+     * 数组中下一个元素前是否需要逗号
+     */
+    private boolean comma;
+
+    /**
+     * 写入输出流
+     *
+     * @param out 输出流, 不关闭
+     */
+    public EightCharactersJsonWriter(OutputStream out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * 写入输出流
+     *
+     * @param out        输出流, 不关闭
+     * @param bufferSize 内部缓冲区大小
+     */
+    public EightCharactersJsonWriter(OutputStream out, int bufferSize) {
+        this.out = out;
+        this.target = null;
+        this.buffer = new byte[Math.max(MIN_BUFFER_SIZE, bufferSize)];
+    }
+
+    /**
+     * 写入ByteBuffer, 从其position开始
+     *
+     * @param target 输出缓冲区
+     */
+    public EightCharactersJsonWriter(ByteBuffer target) {
+        this.out = null;
+        this.target = target;
+        this.buffer = new byte[Math.max(MIN_BUFFER_SIZE, Math.min(DEFAULT_BUFFER_SIZE, target.remaining()))];
+    }
+
+    /**
+     * 开始数组
+     *
+     * @return this
+     */
+    public EightCharactersJsonWriter beginArray() {
+        writeByte('[');
+        comma = false;
+        return this;
+    }
+
+    /**
+     * 结束数组
+     *
+     * @return this
+     */
+    public EightCharactersJsonWriter endArray() {
+        writeByte(']');
+        comma = false;
+        return this;
+    }
+
+    /**
+     * 写出一条结果, 以公历时间作为"date"字段
+     *
+     * @param code      八字编码
+     * @param epochHour 公历时间的epoch-hour
+     * @param lunarDate 打包后的农历日期, 见DateUtils.LunarDate.solarToLunar(int)
+     * @return this
+     */
+    public EightCharactersJsonWriter writeResult(long code, long epochHour, int lunarDate) {
+        return writeResult(null, code, epochHour, lunarDate);
+    }
+
+    /**
+     * 写出一条结果
+     *
+     * @param birth     原始输入, 为null时以公历时间作为"date"字段
+     * @param code      八字编码, 为INVALID时写出错误对象
+     * @param epochHour 公历时间的epoch-hour
+     * @param lunarDate 打包后的农历日期
+     * @return this
+     */
+    public EightCharactersJsonWriter writeResult(CharSequence birth, long code, long epochHour, int lunarDate) {
+        if (code == EightCharactersCode.INVALID) {
+            return writeError(birth, "calculation failed");
+        }
+        long start = Instrumentation.start();
+        beginElement();
+        if (null != birth) {
+            writeBytes(BIRTH_KEY);
+            writeString(birth);
+        } else {
+            writeBytes(DATE_KEY);
+            writeDate(epochHour);
+        }
+        for (int i = 0; i < POSITIONS.length; i++) {
+            writeBytes(PILLAR_KEYS[i]);
+            writeBytes(EightCharactersRenderer.PILLAR_NAME_BYTES[EightCharactersCode.getPillar(code, POSITIONS[i])]);
+        }
+        writeBytes(LUNAR_DATE_KEY);
+        writeBytes(EightCharactersRenderer.LUNAR_YEAR_BYTES[EightCharactersRenderer.lunarYearIndex(DateUtils.LunarDate.getLunarYear(lunarDate))]);
+        writeBytes(EightCharactersRenderer.LUNAR_MONTH_BYTES[DateUtils.LunarDate.getLunarMonth(lunarDate)]);
+        writeBytes(EightCharactersRenderer.LUNAR_DAY_BYTES[DateUtils.LunarDate.getLunarDay(lunarDate)]);
+        writeBytes(EightCharactersRenderer.HOUR_BYTES[SexagenaryCycle.hourEarthly((int) Math.floorMod(epochHour, 24L))]);
+        writeBytes(FIVE_ELEMENTS_KEY);
+        for (int i = 0; i < FIVE_ELEMENTS.length; i++) {
+            if (i > 0) {
+                writeByte(',');
+            }
+            writeBytes(FIVE_ELEMENTS_KEYS[i]);
+            writeInt(EightCharactersCode.getFiveElementsCount(code, FIVE_ELEMENTS[i]));
+        }
+        writeBytes(OBJECT_END);
+        Instrumentation.record(Stage.RENDER, start);
+        return this;
+    }
+
+    /**
+     * 写出一条结果
+     *
+     * @param dto 八字对象
+     * @return this
+     */
+    public EightCharactersJsonWriter write(EightCharactersDto dto) {
+        return writeResult(dto.getCode(), dto.getEpochHour(), dto.getLunarDateCode());
+    }
+
+    /**
+     * 写出错误对象
+     *
+     * @param birth   原始输入, 为null时不写
+     * @param message 错误信息
+     * @return this
+     */
+    public EightCharactersJsonWriter writeError(CharSequence birth, CharSequence message) {
+        beginElement();
+        if (null != birth) {
+            writeBytes(BIRTH_KEY);
+            writeString(birth);
+            writeByte(',');
+        } else {
+            writeByte('{');
+        }
+        writeBytes(ERROR_KEY);
+        writeString(message);
+        writeByte('}');
+        return this;
+    }
+
+    /**
+     * 已写出但还在内部缓冲区的字节数
+     *
+     * @return 字节数
+     */
+    public int buffered() {
+        return position;
+    }
+
+    /**
+     * 把内部缓冲区写入目标, 目标是输出流时同时flush输出流
+     */
+    @Override
+    public void flush() {
+        drain();
+        if (null != out) {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void beginElement() {
+        if (comma) {
+            writeByte(',');
+        }
+        comma = true;
+    }
+
+    /**
+     * 写入yyyy-MM-dd HH格式的字符串
+     */
+    private void writeDate(long epochHour) {
+        int solarDate = DateUtils.ofEpochDay((int) Math.floorDiv(epochHour, 24L));
+        ensure(16);
+        buffer[position++] = '"';
+        writePadded(DateUtils.getSolarYear(solarDate), 4);
+        buffer[position++] = '-';
+        writePadded(DateUtils.getSolarMonth(solarDate), 2);
+        buffer[position++] = '-';
+        writePadded(DateUtils.getSolarDay(solarDate), 2);
+        buffer[position++] = ' ';
+        writePadded((int) Math.floorMod(epochHour, 24L), 2);
+        buffer[position++] = '"';
+    }
+
+    /**
+     * 非负数按固定位数补0写入, 调用前已保证空间
+     */
+    private void writePadded(int value, int digits) {
+        for (int i = digits - 1; i >= 0; i--) {
+            buffer[position + i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position += digits;
+    }
+
+    private void writeInt(int value) {
+        ensure(11);
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (int rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        writePadded(value, digits);
+    }
+
+    /**
+     * 写入JSON字符串, 转义引号、反斜杠和控制字符, 其余字符按UTF-8编码
+     */
+    private void writeString(CharSequence value) {
+        writeByte('"');
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            ensure(6);
+            if (c == '"' || c == '\\') {
+                buffer[position++] = '\\';
+                buffer[position++] = (byte) c;
+            } else if (c < 0x20) {
+                buffer[position++] = '\\';
+                buffer[position++] = 'u';
+                buffer[position++] = '0';
+                buffer[position++] = '0';
+                buffer[position++] = HEX[c >> 4];
+                buffer[position++] = HEX[c & 0xF];
+            } else if (c < 0x80) {
+                buffer[position++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | c >> 6);
+                buffer[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | codePoint >> 18);
+                buffer[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                buffer[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                buffer[position++] = (byte) (0x80 | codePoint & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                buffer[position++] = '?';
+            } else {
+                buffer[position++] = (byte) (0xE0 | c >> 12);
+                buffer[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                buffer[position++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        writeByte('"');
+    }
+
+    private void writeByte(int b) {
+        ensure(1);
+        buffer[position++] = (byte) b;
+    }
+
+    private void writeBytes(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void ensure(int size) {
+        if (position + size > buffer.length) {
+            drain();
+        }
+    }
+
+    private void drain() {
+        if (position == 0) {
+            return;
+        }
+        if (null != out) {
+            try {
+                out.write(buffer, 0, position);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        } else {
+            target.put(buffer, 0, position);
+        }
+        position = 0;
+    }
+
+    private static byte[] utf8(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
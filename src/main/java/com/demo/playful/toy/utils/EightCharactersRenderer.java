@@ -0,0 +1,331 @@
+package com.demo.playful.toy.utils;
+
+import com.demo.playful.toy.domain.EightCharactersCode;
+import com.demo.playful.toy.enums.DateEnum;
+import com.demo.playful.toy.enums.Earthly;
+import com.demo.playful.toy.enums.FiveElements;
+import com.demo.playful.toy.enums.HeavenlyStem;
+import com.demo.playful.toy.enums.SexagenaryCycle;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * EightCharactersRenderer
+ * 农历日期、四柱、五行数量的文本输出, 写入调用方提供的Appendable(StringBuilder、CharBuffer等)或UTF-8的ByteBuffer
+ * <p>
+ * 所有名称片段在类加载时准备好(字符串与UTF-8字节各一份), 输出时按下标取片段追加, 不查Map、不装箱、不拼接字符串
+ * 输入直接使用已经算好的打包农历日期和八字编码, 不再重复推算干支
+ * <p>
+ * 输出格式:
+ * 农历日期 庚午年冬月初十 辰时
+ * 四柱名称 庚午 戊子 乙丑 壬辰
+ * 四柱编码 天干code|地支code, 空格分隔
+ * 五行数量 金1 木1 水2 火1 土3 (数量为0的不输出, 每项后跟一个空格)
+ *
+ * @author 张涵林
+ * @date 2020/6/30
+ */
+public class EightCharactersRenderer {
+    private static final DateEnum[] POSITIONS = {DateEnum.YEAR, DateEnum.MONTH, DateEnum.DAY, DateEnum.HOUR};
+    private static final FiveElements[] FIVE_ELEMENTS = FiveElements.values();
+    private static final String[] LUNAR_MONTHS = {"正", "二", "三", "四", "五", "六", "七", "八", "九", "十", "冬", "腊"};
+    private static final String[] DAY_NUMBERS = {"十", "一", "二", "三", "四", "五", "六", "七", "八", "九"};
+
+    /**
+     * 下标为天干ordinal
+     */
+    private static final String[] HEAVENLY_STEM_NAMES = new String[HeavenlyStem.values().length];
+    /**
+     * 下标为地支ordinal
+     */
+    private static final String[] EARTHLY_NAMES = new String[Earthly.values().length];
+    /**
+     * 下标为一柱的编码(地支ordinal << 4 | 天干ordinal), 形如"庚午"、"7|7"
+     */
+    private static final String[] PILLAR_NAMES = new String[256];
+    static final byte[][] PILLAR_NAME_BYTES = new byte[256][];
+    private static final String[] PILLAR_CODES = new String[256];
+    private static final byte[][] PILLAR_CODE_BYTES = new byte[256][];
+    /**
+     * 下标为六十甲子序号, 形如"庚午年"
+     */
+    private static final String[] LUNAR_YEAR_NAMES = new String[SexagenaryCycle.SIZE];
+    static final byte[][] LUNAR_YEAR_BYTES = new byte[SexagenaryCycle.SIZE][];
+    /**
+     * 下标为农历月(0表示正月), 形如"冬月"
+     */
+    private static final String[] LUNAR_MONTH_NAMES = new String[LUNAR_MONTHS.length];
+    static final byte[][] LUNAR_MONTH_BYTES = new byte[LUNAR_MONTHS.length][];
+    /**
+     * 下标为农历日, 形如"初十"
+     */
+    private static final String[] LUNAR_DAY_NAMES = new String[31];
+    static final byte[][] LUNAR_DAY_BYTES = new byte[31][];
+    /**
+     * 下标为地支ordinal, 形如" 辰时"
+     */
+    private static final String[] HOUR_NAMES = new String[EARTHLY_NAMES.length];
+    static final byte[][] HOUR_BYTES = new byte[EARTHLY_NAMES.length][];
+    /**
+     * 下标为五行ordinal * 9 + 数量, 形如"金1 "
+     */
+    private static final String[] FIVE_ELEMENTS_COUNTS = new String[FIVE_ELEMENTS.length * 9];
+    private static final byte[][] FIVE_ELEMENTS_COUNT_BYTES = new byte[FIVE_ELEMENTS_COUNTS.length][];
+    private static final byte SPACE = ' ';
+
+    static {
+        for (HeavenlyStem heavenlyStem : HeavenlyStem.values()) {
+            HEAVENLY_STEM_NAMES[heavenlyStem.ordinal()] = heavenlyStem.getName();
+        }
+        for (Earthly earthly : Earthly.values()) {
+            EARTHLY_NAMES[earthly.ordinal()] = earthly.getName();
+            HOUR_NAMES[earthly.ordinal()] = " " + earthly.getName() + "时";
+        }
+        for (HeavenlyStem heavenlyStem : HeavenlyStem.values()) {
+            for (Earthly earthly : Earthly.values()) {
+                int pillar = EightCharactersCode.pillar(heavenlyStem, earthly);
+                PILLAR_NAMES[pillar] = heavenlyStem.getName() + earthly.getName();
+                PILLAR_CODES[pillar] = heavenlyStem.getCode() + "|" + earthly.getCode();
+            }
+        }
+        for (int index = 0; index < SexagenaryCycle.SIZE; index++) {
+            LUNAR_YEAR_NAMES[index] = HEAVENLY_STEM_NAMES[index % 10] + EARTHLY_NAMES[index % 12] + "年";
+        }
+        for (int month = 0; month < LUNAR_MONTHS.length; month++) {
+            LUNAR_MONTH_NAMES[month] = LUNAR_MONTHS[month] + "月";
+        }
+        for (int day = 1; day < LUNAR_DAY_NAMES.length; day++) {
+            String tenBit = day > 10 ? (day >= 20 ? (day >= 30 ? "三" : "廿") : "十") : "初";
+            LUNAR_DAY_NAMES[day] = tenBit + DAY_NUMBERS[day % 10];
+        }
+        for (FiveElements fiveElements : FIVE_ELEMENTS) {
+            for (int count = 1; count <= 8; count++) {
+                FIVE_ELEMENTS_COUNTS[fiveElements.ordinal() * 9 + count] = fiveElements.getName() + count + " ";
+            }
+        }
+        encode(PILLAR_NAMES, PILLAR_NAME_BYTES);
+        encode(PILLAR_CODES, PILLAR_CODE_BYTES);
+        encode(LUNAR_YEAR_NAMES, LUNAR_YEAR_BYTES);
+        encode(LUNAR_MONTH_NAMES, LUNAR_MONTH_BYTES);
+        encode(LUNAR_DAY_NAMES, LUNAR_DAY_BYTES);
+        encode(HOUR_NAMES, HOUR_BYTES);
+        encode(FIVE_ELEMENTS_COUNTS, FIVE_ELEMENTS_COUNT_BYTES);
+    }
+
+    private EightCharactersRenderer() {
+    }
+
+    /**
+     * 农历日期, 年干支由农历年推出
+     *
+     * @param out       输出
+     * @param lunarDate 打包后的农历日期, 见DateUtils.LunarDate.solarToLunar(int)
+     * @param hour      小时
+     * @return out
+     */
+    public static <A extends Appendable> A appendLunarDate(A out, int lunarDate, int hour) {
+        return appendLunarDate(out, lunarYearIndex(DateUtils.LunarDate.getLunarYear(lunarDate)), DateUtils.LunarDate.getLunarMonth(lunarDate),
+                DateUtils.LunarDate.getLunarDay(lunarDate), SexagenaryCycle.hourEarthly(hour));
+    }
+
+    /**
+     * 农历日期, 年干支和时辰直接取八字编码中的年柱和时柱地支, 按农历模式计算的编码与农历年一致
+     *
+     * @param out       输出
+     * @param code      八字编码
+     * @param lunarDate 打包后的农历日期
+     * @return out
+     */
+    public static <A extends Appendable> A appendLunarDate(A out, long code, int lunarDate) {
+        return appendLunarDate(out, EightCharactersCode.getSexagenaryIndex(code, DateEnum.YEAR), DateUtils.LunarDate.getLunarMonth(lunarDate),
+                DateUtils.LunarDate.getLunarDay(lunarDate), EightCharactersCode.getPillar(code, DateEnum.HOUR) >>> 4);
+    }
+
+    /**
+     * 农历日期
+     *
+     * @param out            输出
+     * @param yearIndex      农历年的六十甲子序号
+     * @param lunarMonth     农历月(0表示正月)
+     * @param lunarDay       农历日
+     * @param earthlyOrdinal 时辰地支ordinal
+     * @return out
+     */
+    public static <A extends Appendable> A appendLunarDate(A out, int yearIndex, int lunarMonth, int lunarDay, int earthlyOrdinal) {
+        try {
+            out.append(LUNAR_YEAR_NAMES[yearIndex]).append(LUNAR_MONTH_NAMES[lunarMonth]).append(LUNAR_DAY_NAMES[lunarDay])
+                    .append(HOUR_NAMES[earthlyOrdinal]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out;
+    }
+
+    /**
+     * 四柱名称, 空格分隔
+     *
+     * @param out  输出
+     * @param code 八字编码
+     * @return out
+     */
+    public static <A extends Appendable> A appendPillarNames(A out, long code) {
+        return appendPillars(out, code, PILLAR_NAMES);
+    }
+
+    /**
+     * 四柱的天干地支code, 天干与地支以|分隔, 各柱以空格分隔
+     *
+     * @param out  输出
+     * @param code 八字编码
+     * @return out
+     */
+    public static <A extends Appendable> A appendPillarCodes(A out, long code) {
+        return appendPillars(out, code, PILLAR_CODES);
+    }
+
+    /**
+     * 五行数量, 按五行顺序, 数量为0的不输出
+     *
+     * @param out  输出
+     * @param code 八字编码
+     * @return out
+     */
+    public static <A extends Appendable> A appendFiveElementsCount(A out, long code) {
+        try {
+            for (FiveElements fiveElements : FIVE_ELEMENTS) {
+                int count = EightCharactersCode.getFiveElementsCount(code, fiveElements);
+                if (count > 0) {
+                    out.append(FIVE_ELEMENTS_COUNTS[fiveElements.ordinal() * 9 + count]);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out;
+    }
+
+    /**
+     * 农历日期的UTF-8字节, 从position开始写入
+     *
+     * @param out       输出
+     * @param lunarDate 打包后的农历日期
+     * @param hour      小时
+     * @return out
+     */
+    public static ByteBuffer putLunarDate(ByteBuffer out, int lunarDate, int hour) {
+        return putLunarDate(out, lunarYearIndex(DateUtils.LunarDate.getLunarYear(lunarDate)), DateUtils.LunarDate.getLunarMonth(lunarDate),
+                DateUtils.LunarDate.getLunarDay(lunarDate), SexagenaryCycle.hourEarthly(hour));
+    }
+
+    /**
+     * 农历日期的UTF-8字节, 年干支和时辰取自八字编码
+     *
+     * @param out       输出
+     * @param code      八字编码
+     * @param lunarDate 打包后的农历日期
+     * @return out
+     */
+    public static ByteBuffer putLunarDate(ByteBuffer out, long code, int lunarDate) {
+        return putLunarDate(out, EightCharactersCode.getSexagenaryIndex(code, DateEnum.YEAR), DateUtils.LunarDate.getLunarMonth(lunarDate),
+                DateUtils.LunarDate.getLunarDay(lunarDate), EightCharactersCode.getPillar(code, DateEnum.HOUR) >>> 4);
+    }
+
+    /**
+     * 农历日期的UTF-8字节
+     *
+     * @param out            输出
+     * @param yearIndex      农历年的六十甲子序号
+     * @param lunarMonth     农历月(0表示正月)
+     * @param lunarDay       农历日
+     * @param earthlyOrdinal 时辰地支ordinal
+     * @return out
+     */
+    public static ByteBuffer putLunarDate(ByteBuffer out, int yearIndex, int lunarMonth, int lunarDay, int earthlyOrdinal) {
+        return out.put(LUNAR_YEAR_BYTES[yearIndex]).put(LUNAR_MONTH_BYTES[lunarMonth]).put(LUNAR_DAY_BYTES[lunarDay])
+                .put(HOUR_BYTES[earthlyOrdinal]);
+    }
+
+    /**
+     * 四柱名称的UTF-8字节
+     *
+     * @param out  输出
+     * @param code 八字编码
+     * @return out
+     */
+    public static ByteBuffer putPillarNames(ByteBuffer out, long code) {
+        return putPillars(out, code, PILLAR_NAME_BYTES);
+    }
+
+    /**
+     * 四柱天干地支code的UTF-8字节
+     *
+     * @param out  输出
+     * @param code 八字编码
+     * @return out
+     */
+    public static ByteBuffer putPillarCodes(ByteBuffer out, long code) {
+        return putPillars(out, code, PILLAR_CODE_BYTES);
+    }
+
+    /**
+     * 五行数量的UTF-8字节
+     *
+     * @param out  输出
+     * @param code 八字编码
+     * @return out
+     */
+    public static ByteBuffer putFiveElementsCount(ByteBuffer out, long code) {
+        for (FiveElements fiveElements : FIVE_ELEMENTS) {
+            int count = EightCharactersCode.getFiveElementsCount(code, fiveElements);
+            if (count > 0) {
+                out.put(FIVE_ELEMENTS_COUNT_BYTES[fiveElements.ordinal() * 9 + count]);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * 农历年的六十甲子序号, 甲子年(如1984)为0
+     *
+     * @param lunarYear 农历年
+     * @return 0-59
+     */
+    public static int lunarYearIndex(int lunarYear) {
+        return Math.floorMod(lunarYear - 4, SexagenaryCycle.SIZE);
+    }
+
+    private static <A extends Appendable> A appendPillars(A out, long code, String[] fragments) {
+        try {
+            for (int i = 0; i < POSITIONS.length; i++) {
+                if (i > 0) {
+                    out.append(' ');
+                }
+                out.append(fragments[EightCharactersCode.getPillar(code, POSITIONS[i])]);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out;
+    }
+
+    private static ByteBuffer putPillars(ByteBuffer out, long code, byte[][] fragments) {
+        for (int i = 0; i < POSITIONS.length; i++) {
+            if (i > 0) {
+                out.put(SPACE);
+            }
+            out.put(fragments[EightCharactersCode.getPillar(code, POSITIONS[i])]);
+        }
+        return out;
+    }
+
+    private static void encode(String[] texts, byte[][] bytes) {
+        for (int i = 0; i < texts.length; i++) {
+            if (null != texts[i]) {
+                bytes[i] = texts[i].getBytes(StandardCharsets.UTF_8);
+            }
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.demo.playful.toy.utils;
+
+import com.demo.playful.toy.enums.Stage;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Instrumentation
+ * 计算各阶段的耗时统计, 通过JMX发布
+ * <p>
+ * 用法: long start = Instrumentation.start(); ... start = Instrumentation.record(Stage.XXX, start);
+ * record返回当前时间, 可以直接作为下一阶段的起点
+ * 关闭时start返回0, record看到0直接返回, 只多一次volatile读, 不调用System.nanoTime
+ * <p>
+ * 每个阶段: 次数、总耗时, 以及按2的幂划分的固定桶直方图, 第i个桶为[2^(i-1), 2^i)纳秒, 最后一个桶不设上限
+ * 计数都是LongAdder, 多线程写入不争用
+ * <p>
+ * MBean:
+ * com.demo.playful.toy:type=Instrumentation,name=Control 开关(Enabled)与重置
+ * com.demo.playful.toy:type=Instrumentation,stage=阶段编码 各阶段统计
+ * 启动参数-Deight-characters.instrumentation=true可以默认打开
+ *
+ * @author 张涵林
+ * @date 2020/6/26
+ */
+@Slf4j
+public class Instrumentation {
+    /**
+     * 直方图桶数, 最后一个桶约从1秒开始
+     */
+    public static final int BUCKETS = 32;
+    private static final String DOMAIN = "com.demo.playful.toy";
+    private static final Stage[] STAGES = Stage.values();
+    private static final StageMetrics[] METRICS = new StageMetrics[STAGES.length];
+
+    private static volatile boolean enabled = Boolean.getBoolean("eight-characters.instrumentation");
+
+    static {
+        for (Stage stage : STAGES) {
+            METRICS[stage.ordinal()] = new StageMetrics(stage);
+        }
+        register();
+    }
+
+    private Instrumentation() {
+    }
+
+    /**
+     * 阶段开始
+     *
+     * @return 开始时间, 关闭时为0
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * 记录阶段耗时
+     *
+     * @param stage 阶段
+     * @param start 开始时间, 为0时不记录
+     * @return 当前时间, 作为下一阶段的开始时间; 未记录时为0
+     */
+    public static long record(Stage stage, long start) {
+        if (start == 0L) {
+            return 0L;
+        }
+        long now = System.nanoTime();
+        METRICS[stage.ordinal()].record(now - start);
+        return now;
+    }
+
+    /**
+     * 是否开启
+     *
+     * @return 是否开启
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 开启或关闭, 运行中随时生效
+     *
+     * @param value 是否开启
+     */
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    /**
+     * 清空所有阶段的统计
+     */
+    public static void reset() {
+        for (StageMetrics metrics : METRICS) {
+            metrics.reset();
+        }
+    }
+
+    /**
+     * 某个阶段的统计
+     *
+     * @param stage 阶段
+     * @return 统计
+     */
+    public static StageMXBean getMetrics(Stage stage) {
+        return METRICS[stage.ordinal()];
+    }
+
+    /**
+     * 耗时对应的桶
+     *
+     * @param nanos 耗时(纳秒)
+     * @return 桶下标
+     */
+    public static int bucketOf(long nanos) {
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(Math.max(0L, nanos)));
+    }
+
+    private static void register() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName control = new ObjectName(DOMAIN + ":type=Instrumentation,name=Control");
+            if (!server.isRegistered(control)) {
+                server.registerMBean(new Control(), control);
+            }
+            for (StageMetrics metrics : METRICS) {
+                ObjectName name = new ObjectName(DOMAIN + ":type=Instrumentation,stage=" + metrics.stage.getCode());
+                if (!server.isRegistered(name)) {
+                    server.registerMBean(metrics, name);
+                }
+            }
+        } catch (JMException e) {
+            log.warn("instrumentation mbean register failed", e);
+        }
+    }
+
+    /**
+     * 开关
+     */
+    public interface ControlMXBean {
+        /**
+         * 是否开启
+         *
+         * @return 是否开启
+         */
+        boolean isEnabled();
+
+        /**
+         * 开启或关闭
+         *
+         * @param enabled 是否开启
+         */
+        void setEnabled(boolean enabled);
+
+        /**
+         * 清空所有阶段的统计
+         */
+        void reset();
+    }
+
+    /**
+     * 单个阶段的统计
+     */
+    public interface StageMXBean {
+        /**
+         * 次数
+         *
+         * @return 次数
+         */
+        long getCount();
+
+        /**
+         * 总耗时
+         *
+         * @return 纳秒
+         */
+        long getTotalNanos();
+
+        /**
+         * 平均耗时
+         *
+         * @return 纳秒
+         */
+        double getMeanNanos();
+
+        /**
+         * 耗时分位数的估计值, 取所在桶的上界
+         *
+         * @param quantile 分位, 0-1
+         * @return 纳秒
+         */
+        long getQuantileNanos(double quantile);
+
+        /**
+         * 中位数
+         *
+         * @return 纳秒
+         */
+        long getP50Nanos();
+
+        /**
+         * 99分位
+         *
+         * @return 纳秒
+         */
+        long getP99Nanos();
+
+        /**
+         * 直方图, 下标为桶, 值为次数
+         *
+         * @return 直方图
+         */
+        long[] getHistogram();
+
+        /**
+         * 清空统计
+         */
+        void reset();
+    }
+
+    private static final class Control implements ControlMXBean {
+        @Override
+        public boolean isEnabled() {
+            return Instrumentation.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean enabled) {
+            Instrumentation.setEnabled(enabled);
+        }
+
+        @Override
+        public void reset() {
+            Instrumentation.reset();
+        }
+    }
+
+    private static final class StageMetrics implements StageMXBean {
+        private final Stage stage;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder[] histogram = new LongAdder[BUCKETS];
+
+        private StageMetrics(Stage stage) {
+            this.stage = stage;
+            for (int i = 0; i < BUCKETS; i++) {
+                histogram[i] = new LongAdder();
+            }
+        }
+
+        private void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            histogram[bucketOf(nanos)].increment();
+        }
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+
+        @Override
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        @Override
+        public double getMeanNanos() {
+            long n = count.sum();
+            return n == 0 ? 0D : (double) totalNanos.sum() / n;
+        }
+
+        @Override
+        public long getQuantileNanos(double quantile) {
+            long[] buckets = getHistogram();
+            long total = 0;
+            for (long bucket : buckets) {
+                total += bucket;
+            }
+            if (total == 0) {
+                return 0L;
+            }
+            long rank = (long) Math.ceil(Math.max(0D, Math.min(1D, quantile)) * total);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets[i];
+                if (seen >= rank && buckets[i] > 0) {
+                    return i == BUCKETS - 1 ? Long.MAX_VALUE : 1L << i;
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public long getP50Nanos() {
+            return getQuantileNanos(0.5D);
+        }
+
+        @Override
+        public long getP99Nanos() {
+            return getQuantileNanos(0.99D);
+        }
+
+        @Override
+        public long[] getHistogram() {
+            long[] snapshot = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = histogram[i].sum();
+            }
+            return snapshot;
+        }
+
+        @Override
+        public void reset() {
+            count.reset();
+            totalNanos.reset();
+            for (LongAdder bucket : histogram) {
+                bucket.reset();
+            }
+        }
+    }
+}
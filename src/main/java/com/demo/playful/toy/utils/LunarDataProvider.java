@@ -0,0 +1,19 @@
+package com.demo.playful.toy.utils;
+
+/**
+ * LunarDataProvider
+ * 内置范围(1900-2099)之外的农历数据来源, 按需加载
+ *
+ * @author 张涵林
+ * @date 2020/6/28
+ */
+public interface LunarDataProvider {
+
+    /**
+     * 加载包含指定年份的分段
+     *
+     * @param year 农历年
+     * @return 分段, 没有数据时返回null
+     */
+    LunarDataSegment load(int year);
+}
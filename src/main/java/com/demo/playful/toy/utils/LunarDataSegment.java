@@ -0,0 +1,146 @@
+package com.demo.playful.toy.utils;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * LunarDataSegment
+ * 一段连续年份的农历数据, 每年一个24位的打包值, 格式与DateUtils.LunarDate的LUNAR_INFO相同:
+ * 20-23位闰哪个月(0表示无闰月), 7-19位按出现顺序13个月的大小(1为30天), 5-6位正月初一的公历月, 0-4位正月初一的公历日
+ * <p>
+ * 二进制格式(大端): 魔数 "LNR1", 起始年份(int), 年数(int), 之后每年3字节
+ *
+ * @author 张涵林
+ * @date 2020/6/28
+ */
+public final class LunarDataSegment {
+    /**
+     * 魔数 "LNR1"
+     */
+    private static final int MAGIC = 0x4C4E5231;
+    /**
+     * 单个分段最多的年数
+     */
+    private static final int MAX_YEARS = 1000;
+
+    /**
+     * 起始年份
+     */
+    private final int firstYear;
+    /**
+     * 每年的打包值
+     */
+    private final int[] infos;
+
+    /**
+     * @param firstYear 起始年份
+     * @param infos     每年的打包值, 不复制
+     */
+    public LunarDataSegment(int firstYear, int[] infos) {
+        if (infos.length == 0 || infos.length > MAX_YEARS) {
+            throw new RuntimeException("lunar segment size invalid , size:" + infos.length);
+        }
+        this.firstYear = firstYear;
+        this.infos = infos;
+    }
+
+    /**
+     * 读取二进制分段
+     *
+     * @param in 输入流, 不关闭
+     * @return 分段
+     * @throws IOException 读取失败或格式不符
+     */
+    public static LunarDataSegment read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("lunar segment magic mismatch");
+        }
+        int firstYear = data.readInt();
+        int years = data.readInt();
+        if (years <= 0 || years > MAX_YEARS) {
+            throw new IOException("lunar segment size invalid , size:" + years);
+        }
+        int[] infos = new int[years];
+        for (int i = 0; i < years; i++) {
+            infos[i] = data.readUnsignedByte() << 16 | data.readUnsignedByte() << 8 | data.readUnsignedByte();
+        }
+        return new LunarDataSegment(firstYear, infos);
+    }
+
+    /**
+     * 写出二进制分段
+     *
+     * @param out 输出流, 不关闭
+     * @throws IOException 写入失败
+     */
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(firstYear);
+        data.writeInt(infos.length);
+        for (int info : infos) {
+            data.writeByte(info >>> 16);
+            data.writeByte(info >>> 8);
+            data.writeByte(info);
+        }
+        data.flush();
+    }
+
+    /**
+     * 由各月天数打包一年的数据
+     *
+     * @param leapMonth    闰哪个月, 0表示无闰月
+     * @param monthDays    按出现顺序各月的天数(29或30), 有闰月时13个, 否则12个
+     * @param newYearMonth 正月初一的公历月(1或2)
+     * @param newYearDay   正月初一的公历日
+     * @return 打包值
+     */
+    public static int pack(int leapMonth, int[] monthDays, int newYearMonth, int newYearDay) {
+        if (leapMonth < 0 || leapMonth > 12 || monthDays.length != (leapMonth == 0 ? 12 : 13)
+                || newYearMonth < 1 || newYearMonth > 2 || newYearDay < 1 || newYearDay > 31) {
+            throw new RuntimeException("lunar year data invalid , leapMonth:" + leapMonth + ",months:" + monthDays.length
+                    + ",newYear:" + newYearMonth + "-" + newYearDay);
+        }
+        int info = leapMonth << 20 | newYearMonth << 5 | newYearDay;
+        for (int slot = 0; slot < monthDays.length; slot++) {
+            if (monthDays[slot] == 30) {
+                info |= 0x80000 >> slot;
+            } else if (monthDays[slot] != 29) {
+                throw new RuntimeException("lunar month days invalid , slot:" + slot + ",days:" + monthDays[slot]);
+            }
+        }
+        return info;
+    }
+
+    /**
+     * 起始年份
+     *
+     * @return 年份
+     */
+    public int getFirstYear() {
+        return firstYear;
+    }
+
+    /**
+     * 结束年份(包含)
+     *
+     * @return 年份
+     */
+    public int getLastYear() {
+        return firstYear + infos.length - 1;
+    }
+
+    /**
+     * 某年的打包值
+     *
+     * @param year 年份
+     * @return 打包值
+     */
+    public int getInfo(int year) {
+        return infos[year - firstYear];
+    }
+}
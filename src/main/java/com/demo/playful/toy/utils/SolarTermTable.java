@@ -0,0 +1,373 @@
+package com.demo.playful.toy.utils;
+
+import com.demo.playful.toy.enums.SolarTerm;
+
+import java.util.Arrays;
+
+/**
+ * SolarTermTable
+ * 24节气时刻表(北京时间, 精确到分钟), 覆盖1900-2100年, 用于按节气划分年柱(立春)和月柱(各节)
+ * <p>
+ * 时刻以epoch-minute表示: 把北京时间的年月日时分当作本地时间, 自1970-01-01 00:00起的分钟数,
+ * 与DateUtils.toEpochDay的约定一致
+ *
+ * @author 张涵林
+ * @date 2020/6/23
+ */
+public class SolarTermTable {
+    /**
+     * 支持的最小公历年份
+     */
+    public static final int MIN_YEAR = 1900;
+    /**
+     * 支持的最大公历年份
+     */
+    public static final int MAX_YEAR = 2100;
+    /**
+     * 每年的节气数
+     */
+    private static final int TERMS_PER_YEAR = 24;
+    private static final SolarTerm[] SOLAR_TERMS = SolarTerm.values();
+
+    /**
+     * 各节气在公历年内的平均时刻, 自1月1日0点起的分钟数
+     */
+    private static final int[] SOLAR_TERM_BASE = {
+            7189, 28392, 49649, 71002, 92491, 114144,
+            135980, 158008, 180220, 202598, 225110, 247715,
+            270365, 293008, 315592, 338072, 360407, 382570,
+            404545, 426330, 447935, 469383, 490706, 511943
+    };
+
+    /**
+     * 用来表示1900年到2100年间每年24节气的时刻, 每个int存放相邻两个节气, 共32位bit的16进制表示, 其中：
+     * 高16位表示前一个节气(小寒、立春...大雪)相对SOLAR_TERM_BASE的分钟偏移, 有符号；
+     * 低16位表示后一个节气(大寒、雨水...冬至)相对SOLAR_TERM_BASE的分钟偏移, 有符号。
+     * 每年12个int, 数据按寿星天文历算法离线计算, 向上取整到分钟, 即节气时刻之后(含)的第一个整分钟,
+     * 这样精确到分钟的时刻与它比较时, 先后关系与精确时刻一致。
+     */
+    private static final int[] SOLAR_TERM_INFO = {
+            /*1900*/ 0x0087008D, 0x008F00A0, 0x00AB00C4, 0x00D500F0, 0x01000117, 0x01210131, 0x01320135, 0x012B0120, 0x010E00FB, 0x00E500CE, 0x00B900A5, 0x0096008B,
+            /*1901*/ 0x01E501E5, 0x01EB01F7, 0x0208021C, 0x0235024A, 0x02630273, 0x0287028D, 0x02970290, 0x028F027C, 0x02700257, 0x0246022D, 0x021C0207, 0x01FB01EE,
+            /*1902*/ 0x034B0348, 0x0352035A, 0x036D037D, 0x039603A9, 0x03BF03D0, 0x03DE03E9, 0x03EA03EA, 0x03DF03D6, 0x03C003B2, 0x0399038A, 0x03730369, 0x03580355,
+            /*1903*/ 0x04AB04B2, 0x04B304C3, 0x04CC04E3, 0x04F2050B, 0x051A0530, 0x053A0546, 0x05480547, 0x05400532, 0x0524050E, 0x04FD04E6, 0x04D704C3, 0x04BA04AE,
+            /*1904*/ 0x060D060A, 0x0614061B, 0x062D063B, 0x06530663, 0x067B0687, 0x069B06A1, 0x06AB06A6, 0x06A40695, 0x06870673, 0x065F064A, 0x06360625, 0x0618060F,
+            /*1905*/ 0x01CB01CC, 0x01D301DF, 0x01EF0202, 0x0217022C, 0x023F0252, 0x025C0269, 0x0267026A, 0x025D0255, 0x023F0230, 0x02170206, 0x01EF01E2, 0x01D101CD,
+            /*1906*/ 0x0325032C, 0x032F0341, 0x034E0365, 0x03780390, 0x03A103B3, 0x03BF03C7, 0x03CB03C5, 0x03C003AE, 0x03A20389, 0x037A0361, 0x0354033F, 0x0338032B,
+            /*1907*/ 0x048B0487, 0x04920499, 0x04AD04B9, 0x04D304E2, 0x04FA0506, 0x0517051C, 0x0523051E, 0x0518050C, 0x04FC04EB, 0x04D604C6, 0x04B204A6, 0x04960491,
+            /*1908*/ 0x05E905ED, 0x05EF05FC, 0x0607061C, 0x062C0644, 0x06530669, 0x06720681, 0x067F0683, 0x0677066D, 0x065A0649, 0x0632061F, 0x060C05FC, 0x05EE05E7,
+            /*1909*/ 0x01A101A3, 0x01A801B5, 0x01C201D5, 0x01EA01FE, 0x02130223, 0x0234023B, 0x0243023D, 0x023B0228, 0x021C0203, 0x01F301D9, 0x01CB01B6, 0x01AD01A1,
+            /*1910*/ 0x030102FF, 0x030B0313, 0x03260333, 0x034B035A, 0x0370037D, 0x038B0392, 0x03950393, 0x038A0380, 0x036C035D, 0x03450336, 0x031F0314, 0x03030301,
+            /*1911*/ 0x04580460, 0x04620473, 0x047C0493, 0x04A104B8, 0x04C504D9, 0x04E004ED, 0x04EC04ED, 0x04E504D9, 0x04CB04B8, 0x04A60491, 0x0480046D, 0x04620457,
+            /*1912*/ 0x05B305B2, 0x05B905C2, 0x05D205E2, 0x05F90609, 0x0620062C, 0x063E0642, 0x064C0646, 0x06460636, 0x062B0616, 0x060605F0, 0x05E005CE, 0x05C105B6,
+            /*1913*/ 0x01710170, 0x0176017F, 0x018E019E, 0x01B401C7, 0x01DB01EC, 0x01F80203, 0x02020204, 0x01F801F1, 0x01DC01CF, 0x01B701A9, 0x01930189, 0x01780174,
+            /*1914*/ 0x02CA02D0, 0x02D102E0, 0x02E902FF, 0x030E0326, 0x03350348, 0x0352035C, 0x035F035B, 0x03560346, 0x033A0324, 0x03160300, 0x02F502E2, 0x02DC02D0,
+            /*1915*/ 0x0430042C, 0x0435043A, 0x044A0454, 0x046A0475, 0x048B0495, 0x04A704AB, 0x04B304AF, 0x04AC049F, 0x04930482, 0x04700460, 0x044F0443, 0x04360431,
+            /*1916*/ 0x058B058E, 0x0591059C, 0x05A705B7, 0x05C605D9, 0x05E605F8, 0x0600060E, 0x060D0612, 0x06070601, 0x05EE05E1, 0x05CB05BC, 0x05A8059B, 0x058D0588,
+            /*1917*/ 0x01410146, 0x01490157, 0x01620176, 0x0186019A, 0x01AA01B9, 0x01C601CC, 0x01D201CC, 0x01CB01BA, 0x01B1019B, 0x018E0176, 0x016A0156, 0x014F0143,
+            /*1918*/ 0x02A402A1, 0x02AD02B3, 0x02C602D2, 0x02EA02F6, 0x030B0314, 0x03210325, 0x03280324, 0x031C0312, 0x030102F4, 0x02E002D3, 0x02C002B8, 0x02A902A7,
+            /*1919*/ 0x03FF0405, 0x04070416, 0x041F0434, 0x04410457, 0x04620476, 0x047B0487, 0x04840485, 0x047B0471, 0x04610452, 0x04410430, 0x04210413, 0x04080401,
+            /*1920*/ 0x055C055D, 0x0562056B, 0x05790588, 0x059B05AC, 0x05C005CC, 0x05DD05E1, 0x05EA05E3, 0x05E305D2, 0x05C805B3, 0x05A5058F, 0x05820571, 0x0569055E,
+            /*1921*/ 0x011D011B, 0x0124012A, 0x013B0147, 0x015D016D, 0x0181018F, 0x019C01A5, 0x01A601A7, 0x019C0194, 0x017F0172, 0x015A014D, 0x0137012E, 0x011E011D,
+            /*1922*/ 0x0274027C, 0x027E028F, 0x029702AD, 0x02BA02D1, 0x02DD02F1, 0x02F90304, 0x03050304, 0x02FE02F1, 0x02E402D0, 0x02C102AB, 0x029F028D, 0x0285027A,
+            /*1923*/ 0x03D903D7, 0x03E003E6, 0x03F60401, 0x04160422, 0x04370440, 0x04510454, 0x045E0459, 0x0459044C, 0x04430432, 0x04230411, 0x040203F3, 0x03E703DF,
+            /*1924*/ 0x05390539, 0x053D0546, 0x05520561, 0x05720583, 0x059205A3, 0x05AC05B9, 0x05B905BE, 0x05B505B0, 0x059F0595, 0x05800573, 0x055F0554, 0x0543053F,
+            /*1925*/ 0x00F500F9, 0x00F80105, 0x010D0121, 0x012F0144, 0x01520163, 0x016F0177, 0x017C0179, 0x0178016A, 0x0162014E, 0x0143012E, 0x01240111, 0x010B00FE,
+            /*1926*/ 0x025E0259, 0x02620265, 0x0275027E, 0x0293029D, 0x02B102B9, 0x02C802CB, 0x02D102CD, 0x02C902BE, 0x02B102A5, 0x02940289, 0x02790271, 0x02650263,
+            /*1927*/ 0x03BC03C0, 0x03C203CD, 0x03D403E4, 0x03EF0400, 0x040A041A, 0x041F042C, 0x0429042D, 0x0424041E, 0x040F0403, 0x03F303E5, 0x03D603CB, 0x03C103BC,
+            /*1928*/ 0x05170519, 0x051C0526, 0x052F053D, 0x054B0559, 0x05680573, 0x05800584, 0x058C0587, 0x0588057A, 0x05730560, 0x05550541, 0x05370526, 0x05200515,
+            /*1929*/ 0x00D600D3, 0x00DC00E1, 0x00F100FB, 0x0110011B, 0x012D0136, 0x01410146, 0x01470146, 0x013D0136, 0x0125011B, 0x010700FC, 0x00E900E2, 0x00D300D2,
+            /*1930*/ 0x022A0231, 0x02330242, 0x024A025E, 0x026A027E, 0x02870298, 0x029D02A6, 0x02A302A2, 0x0299028F, 0x02820272, 0x02650254, 0x024A023C, 0x0235022D,
+            /*1931*/ 0x038B038A, 0x03900397, 0x03A403AF, 0x03C103CC, 0x03DE03E6, 0x03F403F5, 0x03FD03F6, 0x03F503E7, 0x03DF03CE, 0x03C203B2, 0x03A7039A, 0x0393038B,
+            /*1932*/ 0x04E904E7, 0x04ED04F3, 0x04FF050A, 0x051B0529, 0x05380545, 0x054E0558, 0x0558055A, 0x0550054B, 0x0538052E, 0x0519050E, 0x04FB04F4, 0x04E504E4,
+            /*1933*/ 0x009B00A1, 0x00A100AF, 0x00B500C8, 0x00D300E7, 0x00F20103, 0x010C0115, 0x01180116, 0x01120105, 0x00FB00E8, 0x00DB00C7, 0x00BC00AB, 0x00A6009B,
+            /*1934*/ 0x01FC01F9, 0x02030208, 0x02180220, 0x0234023D, 0x024F0255, 0x02640265, 0x026C0267, 0x02640258, 0x024E0240, 0x02300223, 0x0214020A, 0x01FF01FB,
+            /*1935*/ 0x03560359, 0x035C0366, 0x0370037E, 0x038B039B, 0x03A503B3, 0x03B803C3, 0x03C103C5, 0x03BC03B8, 0x03AA03A1, 0x038F0384, 0x03730369, 0x035B0357,
+            /*1936*/ 0x04AE04B1, 0x04B104BB, 0x04C304D2, 0x04DF04F0, 0x04FD050A, 0x0515051B, 0x0522051E, 0x05200513, 0x050E04FC, 0x04F404E1, 0x04D804C6, 0x04C104B4,
+            /*1937*/ 0x0073006D, 0x00750077, 0x0086008E, 0x00A200AC, 0x00BF00C8, 0x00D500D9, 0x00DD00DB, 0x00D600CE, 0x00C100B7, 0x00A6009D, 0x008D0086, 0x00790077,
+            /*1938*/ 0x01CF01D3, 0x01D201DE, 0x01E301F4, 0x01FD020F, 0x02180229, 0x022D0239, 0x0237023A, 0x0231022A, 0x021E0212, 0x020501F8, 0x01EE01E4, 0x01DC01D7,
+            /*1939*/ 0x03330333, 0x0336033C, 0x0344034D, 0x035A0364, 0x03720379, 0x03860389, 0x0392038D, 0x03900384, 0x03800370, 0x03680358, 0x03510344, 0x033F0337,
+            /*1940*/ 0x04970495, 0x049B049E, 0x04A904B0, 0x04BF04C7, 0x04D504DD, 0x04E704EE, 0x04F004F3, 0x04EC04E9, 0x04DB04D4, 0x04C204BA, 0x04A804A2, 0x04940494,
+            /*1941*/ 0x004B0052, 0x0051005F, 0x00640075, 0x007D008F, 0x009600A5, 0x00AA00B3, 0x00B300B3, 0x00AE00A5, 0x009D008F, 0x00860076, 0x006E005F, 0x005A0052,
+            /*1942*/ 0x01B201B0, 0x01B801BD, 0x01CB01D3, 0x01E401EC, 0x01FB01FF, 0x020B020A, 0x020F0208, 0x020701FB, 0x01F401E7, 0x01DD01D2, 0x01C901C0, 0x01B901B5,
+            /*1943*/ 0x03120313, 0x0318031F, 0x03280333, 0x0340034C, 0x03560361, 0x0365036E, 0x036A036D, 0x0363035F, 0x0351034A, 0x033A0333, 0x0324031F, 0x03130313,
+            /*1944*/ 0x046B0470, 0x046E047A, 0x047E048D, 0x049604A6, 0x04B004BD, 0x04C504CC, 0x04D004CC, 0x04CB04BF, 0x04B904A8, 0x04A0048E, 0x04880479, 0x0476046C,
+            /*1945*/ 0x002E002A, 0x00330035, 0x0043004A, 0x005C0063, 0x0075007B, 0x00880089, 0x008E008A, 0x0086007C, 0x00700064, 0x0055004A, 0x003C0035, 0x002A0029,
+            /*1946*/ 0x01840189, 0x018B0197, 0x019E01AD, 0x01B701C7, 0x01CE01DC, 0x01DF01EA, 0x01E601E9, 0x01E001DB, 0x01CD01C3, 0x01B401A9, 0x019D0194, 0x018B0187,
+            /*1947*/ 0x02E202E4, 0x02E602EE, 0x02F50301, 0x030D0318, 0x0323032B, 0x03360338, 0x033F033B, 0x033D0331, 0x032F031F, 0x03190308, 0x030202F3, 0x02EF02E4,
+            /*1948*/ 0x0444043F, 0x04450447, 0x04530459, 0x046A0471, 0x04810488, 0x04930498, 0x049B049C, 0x04970493, 0x04860480, 0x04700468, 0x04580452, 0x04440443,
+            /*1949*/ 0xFFF9FFFD, 0xFFFA0006, 0x00090019, 0x00200032, 0x00390049, 0x004D0058, 0x00570059, 0x0053004D, 0x00440038, 0x002F0021, 0x0019000E, 0x00080000,
+            /*1950*/ 0x015E015C, 0x01600164, 0x016D0174, 0x01810188, 0x0195019A, 0x01A501A5, 0x01AD01A6, 0x01A8019C, 0x0197018A, 0x01830177, 0x01710168, 0x0164015F,
+            /*1951*/ 0x02BE02BD, 0x02C102C4, 0x02CC02D2, 0x02DD02E5, 0x02EE02F6, 0x02FB0302, 0x03010305, 0x02FE02FD, 0x02F002EB, 0x02DC02D6, 0x02C802C5, 0x02B902BA,
+            /*1952*/ 0x04110417, 0x0414041F, 0x0421042E, 0x04340441, 0x04470452, 0x0457045E, 0x04600460, 0x045F0457, 0x04530446, 0x04400431, 0x042B041D, 0x041A0411,
+            /*1953*/ 0xFFD2FFCE, 0xFFD5FFD8, 0xFFE4FFE9, 0xFFF9FFFE, 0x000D000F, 0x001B0019, 0x001E0019, 0x0017000E, 0x0006FFFC, 0xFFF2FFE9, 0xFFDEFFD8, 0xFFCFFFCD,
+            /*1954*/ 0x0129012C, 0x012E0137, 0x013E014A, 0x01540160, 0x01670172, 0x0173017B, 0x01770179, 0x0170016C, 0x015F015A, 0x014D0147, 0x013C0138, 0x012F012E,
+            /*1955*/ 0x0287028A, 0x02890291, 0x029402A0, 0x02A702B2, 0x02BA02C3, 0x02CA02CD, 0x02D102CD, 0x02CF02C3, 0x02C102B3, 0x02B002A2, 0x029F0292, 0x02910288,
+            /*1956*/ 0x03EA03E5, 0x03EB03EB, 0x03F603F9, 0x0408040C, 0x041A041F, 0x042A042D, 0x04310430, 0x042D0427, 0x041C0416, 0x04070401, 0x03F303EF, 0x03E503E5,
+            /*1957*/ 0xFF9EFFA3, 0xFFA2FFAC, 0xFFB0FFBD, 0xFFC3FFD2, 0xFFD7FFE5, 0xFFE7FFF2, 0xFFF0FFF3, 0xFFEDFFE8, 0xFFDEFFD5, 0xFFC9FFBF, 0xFFB6FFAC, 0xFFA6FFA2,
+            /*1958*/ 0x01000101, 0x0105010B, 0x0112011A, 0x0125012B, 0x01360139, 0x01430142, 0x01490143, 0x0146013A, 0x0138012B, 0x0127011A, 0x0115010B, 0x01080101,
+            /*1959*/ 0x0262025F, 0x02660268, 0x02720277, 0x02840289, 0x02930299, 0x029F02A3, 0x02A302A6, 0x02A102A0, 0x02950293, 0x02850281, 0x02740270, 0x02640264,
+            /*1960*/ 0x03BA03BF, 0x03BB03C5, 0x03C603D3, 0x03D803E6, 0x03EB03F8, 0x03FB0404, 0x04040406, 0x040403FF, 0x03FB03F1, 0x03EC03E0, 0x03DC03D0, 0x03CC03C3,
+            /*1961*/ 0xFF82FF7E, 0xFF82FF83, 0xFF8CFF91, 0xFF9FFFA4, 0xFFB2FFB5, 0xFFC0FFC0, 0xFFC6FFC0, 0xFFC1FFB7, 0xFFB3FFA9, 0xFFA2FF9A, 0xFF94FF8D, 0xFF88FF85,
+            /*1962*/ 0x00E200E2, 0x00E500E9, 0x00EF00F6, 0x00FF0107, 0x010E0117, 0x011A0122, 0x011F0122, 0x011A0119, 0x010D010A, 0x00FD00FA, 0x00F000EF, 0x00E700E9,
+            /*1963*/ 0x02420246, 0x0243024B, 0x024B0254, 0x02570261, 0x0264026D, 0x02710275, 0x02790278, 0x027A0272, 0x02710266, 0x02640257, 0x0256024B, 0x024B0243,
+            /*1964*/ 0x03A603A2, 0x03A803A8, 0x03B103B2, 0x03BF03C0, 0x03CC03CC, 0x03D603D6, 0x03DC03D9, 0x03D903D4, 0x03CD03C7, 0x03BD03B7, 0x03AD03A8, 0x03A0039F,
+            /*1965*/ 0xFF59FF5D, 0xFF5EFF66, 0xFF6AFF75, 0xFF7BFF87, 0xFF8AFF95, 0xFF95FF9D, 0xFF99FF9D, 0xFF95FF93, 0xFF89FF84, 0xFF7BFF74, 0xFF6CFF67, 0xFF60FF5E,
+            /*1966*/ 0x00BA00BC, 0x00BD00C4, 0x00C900D1, 0x00D900E0, 0x00E700EB, 0x00F000EF, 0x00F200EC, 0x00ED00E2, 0x00E200D6, 0x00D400C9, 0x00C900C0, 0x00C000BA,
+            /*1967*/ 0x021C0218, 0x021E021E, 0x02270229, 0x02350238, 0x02420244, 0x024B024C, 0x024D024C, 0x02470245, 0x023B0239, 0x022D022A, 0x021F021E, 0x02140216,
+            /*1968*/ 0x036E0373, 0x036F0378, 0x03770383, 0x03850392, 0x039403A0, 0x03A203AB, 0x03A903AC, 0x03A803A3, 0x039D0395, 0x038E0384, 0x037F0376, 0x0373036D,
+            /*1969*/ 0xFF2CFF2B, 0xFF2EFF31, 0xFF38FF3D, 0xFF47FF4B, 0xFF56FF58, 0xFF62FF61, 0xFF67FF61, 0xFF63FF58, 0xFF55FF49, 0xFF44FF3A, 0xFF35FF2D, 0xFF2AFF25,
+            /*1970*/ 0x00850084, 0x0089008C, 0x00940099, 0x00A200A7, 0x00AE00B4, 0x00B700BC, 0x00BA00BD, 0x00B700B6, 0x00AB00A9, 0x009D009B, 0x008F008E, 0x00840085,
+            /*1971*/ 0x01DD01E1, 0x01DD01E5, 0x01E401EF, 0x01F001FB, 0x01FD0205, 0x0207020D, 0x020F020F, 0x0211020C, 0x020C0203, 0x020201F8, 0x01F601EB, 0x01EA01E1,
+            /*1972*/ 0x0341033B, 0x0340033E, 0x03460346, 0x03510352, 0x035E035E, 0x03680368, 0x036E036B, 0x036D0368, 0x0365035F, 0x03590354, 0x034D0348, 0x0341033E,
+            /*1973*/ 0xFEF9FEF9, 0xFEF8FEFC, 0xFEFEFF05, 0xFF0AFF13, 0xFF17FF20, 0xFF21FF2A, 0xFF27FF2C, 0xFF25FF26, 0xFF1DFF1C, 0xFF13FF11, 0xFF09FF07, 0xFF01FF01,
+            /*1974*/ 0x005B005E, 0x005C0061, 0x00610067, 0x0069006F, 0x00720077, 0x007A007B, 0x007F007B, 0x007E0075, 0x0077006D, 0x006E0065, 0x00670060, 0x0063005D,
+            /*1975*/ 0x01C101BD, 0x01C301C0, 0x01C701C5, 0x01CE01CC, 0x01D401D2, 0x01D901D8, 0x01DB01DA, 0x01D901D8, 0x01D301D2, 0x01CA01C9, 0x01C001C0, 0x01B901BB,
+            /*1976*/ 0x0315031A, 0x0317031E, 0x031E0326, 0x0327032F, 0x032F0338, 0x0336033E, 0x033A033F, 0x033B033B, 0x03360333, 0x032E0329, 0x0324031F, 0x031B0319,
+            /*1977*/ 0xFED7FED7, 0xFED9FEDD, 0xFEE2FEE7, 0xFEEEFEF2, 0xFEF8FEF9, 0xFEFFFEFB, 0xFEFFFEF8, 0xFEFBFEF1, 0xFEF1FEE8, 0xFEE7FEDF, 0xFEDFFED8, 0xFED9FED5,
+            /*1978*/ 0x00370034, 0x003A003B, 0x00440046, 0x00500052, 0x0059005B, 0x005E005F, 0x005C005D, 0x00560055, 0x004C004C, 0x00420044, 0x003C003E, 0x0037003A,
+            /*1979*/ 0x01930198, 0x0194019C, 0x019901A2, 0x01A201AC, 0x01AC01B4, 0x01B401BA, 0x01B801B9, 0x01B701B3, 0x01B101AB, 0x01AA01A2, 0x01A2019C, 0x019C0197,
+            /*1980*/ 0x02F802F5, 0x02F902F8, 0x02FE02FE, 0x03070307, 0x03110311, 0x031A0318, 0x031F031A, 0x031D0315, 0x0313030B, 0x03070300, 0x02FC02F7, 0x02F402F2,
+            /*1981*/ 0xFEB0FEB0, 0xFEB3FEB6, 0xFEBBFEBF, 0xFEC6FECB, 0xFECFFED6, 0xFED7FEDE, 0xFEDBFEE0, 0xFEDAFEDB, 0xFED1FED0, 0xFEC5FEC3, 0xFEBAFEB9, 0xFEB2FEB4,
+            /*1982*/ 0x000E0013, 0x00110019, 0x00180020, 0x00210028, 0x0028002D, 0x002E0030, 0x00320030, 0x0032002C, 0x002D0025, 0x0026001C, 0x001E0015, 0x00170010,
+            /*1983*/ 0x0172016D, 0x01730171, 0x01790177, 0x0181017F, 0x01870185, 0x018C018A, 0x018F018D, 0x018E018C, 0x018A0188, 0x01830181, 0x017A0178, 0x0170016F,
+            /*1984*/ 0x02C802CA, 0x02C602CB, 0x02CA02D1, 0x02D302DB, 0x02DB02E4, 0x02E302EC, 0x02E902EF, 0x02EA02ED, 0x02E702E7, 0x02E202E0, 0x02DB02D8, 0x02D302D0,
+            /*1985*/ 0xFE8BFE8A, 0xFE87FE8A, 0xFE8AFE8E, 0xFE92FE96, 0xFE9BFE9D, 0xFEA2FEA2, 0xFEA6FEA1, 0xFEA5FE9C, 0xFE9FFE96, 0xFE98FE90, 0xFE93FE8C, 0xFE8FFE89,
+            /*1986*/ 0xFFECFFE7, 0xFFEBFFE8, 0xFFEEFFEB, 0xFFF3FFF1, 0xFFF7FFF6, 0xFFFBFFFB, 0xFFFCFFFD, 0xFFFAFFFA, 0xFFF4FFF5, 0xFFEEFFF1, 0xFFEAFFEE, 0xFFE7FFEC,
+            /*1987*/ 0x01440149, 0x01430148, 0x01430148, 0x0145014A, 0x0146014D, 0x01490150, 0x014E0153, 0x01520152, 0x01520150, 0x014F014B, 0x014B0147, 0x01470143,
+            /*1988*/ 0x02A302A1, 0x02A202A2, 0x02A402A3, 0x02A802A5, 0x02AA02A7, 0x02AD02AA, 0x02B002AC, 0x02B102AA, 0x02AD02A7, 0x02A802A3, 0x02A2029D, 0x029D0299,
+            /*1989*/ 0xFE59FE57, 0xFE5BFE5B, 0xFE60FE61, 0xFE66FE67, 0xFE6AFE6C, 0xFE6CFE6E, 0xFE6BFE6E, 0xFE68FE6B, 0xFE63FE66, 0xFE5FFE62, 0xFE5BFE5E, 0xFE57FE5B,
+            /*1990*/ 0xFFB5FFBA, 0xFFB5FFBD, 0xFFB9FFC0, 0xFFBDFFC3, 0xFFC0FFC4, 0xFFC1FFC2, 0xFFC0FFBE, 0xFFBEFFB9, 0xFFBBFFB6, 0xFFB9FFB4, 0xFFB9FFB4, 0xFFB9FFB4,
+            /*1991*/ 0x01180114, 0x01180115, 0x011A0116, 0x011D0119, 0x011F011B, 0x0121011C, 0x0120011C, 0x011E0119, 0x01190117, 0x01150114, 0x01110111, 0x010E010F,
+            /*1992*/ 0x026C026D, 0x026C026E, 0x026E0271, 0x02720275, 0x0275027B, 0x02790280, 0x027C0281, 0x027C027F, 0x02780279, 0x02730274, 0x026F026F, 0x026B026D,
+            /*1993*/ 0xFE28FE2B, 0xFE29FE2E, 0xFE2CFE31, 0xFE32FE36, 0xFE36FE38, 0xFE3AFE39, 0xFE3CFE37, 0xFE3AFE33, 0xFE35FE2D, 0xFE30FE28, 0xFE2BFE24, 0xFE28FE23,
+            /*1994*/ 0xFF88FF84, 0xFF8AFF88, 0xFF8FFF8D, 0xFF94FF90, 0xFF97FF93, 0xFF97FF95, 0xFF97FF95, 0xFF95FF94, 0xFF91FF92, 0xFF8DFF8F, 0xFF89FF8B, 0xFF85FF88,
+            /*1995*/ 0x00E200E5, 0x00E000E5, 0x00E200E7, 0x00E500EA, 0x00E700ED, 0x00E900F0, 0x00EC00F2, 0x00F000F3, 0x00F200F3, 0x00F300F2, 0x00F100EF, 0x00ED00EA,
+            /*1996*/ 0x02470245, 0x02430243, 0x02430244, 0x02470246, 0x024B024A, 0x024F024D, 0x0253024F, 0x0255024F, 0x0254024F, 0x0252024D, 0x0250024B, 0x024C0247,
+            /*1997*/ 0xFE08FE03, 0xFE05FE02, 0xFE06FE03, 0xFE09FE07, 0xFE0CFE0C, 0xFE0FFE11, 0xFE11FE14, 0xFE11FE14, 0xFE0EFE12, 0xFE0DFE11, 0xFE0CFE11, 0xFE0BFE11,
+            /*1998*/ 0xFF6AFF6F, 0xFF68FF6D, 0xFF67FF6B, 0xFF65FF69, 0xFF64FF68, 0xFF64FF68, 0xFF66FF68, 0xFF68FF67, 0xFF69FF68, 0xFF6BFF69, 0xFF6EFF6C, 0xFF70FF6E,
+            /*1999*/ 0x00D100CE, 0x00D100CD, 0x00CF00CA, 0x00CD00C6, 0x00C900C3, 0x00C800C3, 0x00C800C5, 0x00CB00C8, 0x00CB00CA, 0x00CC00CB, 0x00CB00CA, 0x00CA00C9,
+            /*2000*/ 0x02280228, 0x02280228, 0x02280228, 0x02280228, 0x02270228, 0x02250229, 0x0225022B, 0x0227022D, 0x0229022E, 0x022A022E, 0x022A022D, 0x0228022B,
+            /*2001*/ 0xFDE5FDE9, 0xFDE4FDEA, 0xFDE6FDEB, 0xFDE9FDEC, 0xFDE9FDEB, 0xFDE8FDE7, 0xFDE6FDE3, 0xFDE5FDE0, 0xFDE4FDDF, 0xFDE5FDE0, 0xFDE6FDE2, 0xFDE7FDE3,
+            /*2002*/ 0xFF47FF43, 0xFF48FF44, 0xFF49FF45, 0xFF4BFF45, 0xFF4AFF44, 0xFF47FF42, 0xFF44FF3F, 0xFF40FF3D, 0xFF3DFF3E, 0xFF3DFF40, 0xFF3FFF43, 0xFF41FF44,
+            /*2003*/ 0x009F00A1, 0x009D009F, 0x009A009C, 0x0099009B, 0x0097009B, 0x0096009C, 0x0097009D, 0x0099009D, 0x009A009D, 0x009C009F, 0x009F00A1, 0x00A000A1,
+            /*2004*/ 0x01FE01FF, 0x01FC01FC, 0x01F901F9, 0x01F801F7, 0x01F701F6, 0x01F801F6, 0x01FB01F7, 0x01FC01F6, 0x01FA01F4, 0x01F901F3, 0x01F801F3, 0x01F701F3,
+            /*2005*/ 0xFDB6FDB2, 0xFDB7FDB2, 0xFDB7FDB2, 0xFDB7FDB2, 0xFDB5FDB2, 0xFDB4FDB4, 0xFDB4FDB5, 0xFDB4FDB6, 0xFDB2FDB6, 0xFDB1FDB5, 0xFDB0FDB4, 0xFDAFFDB4,
+            /*2006*/ 0xFF0EFF14, 0xFF0FFF14, 0xFF0EFF12, 0xFF0CFF0F, 0xFF07FF0A, 0xFF03FF07, 0xFF03FF06, 0xFF05FF07, 0xFF09FF0A, 0xFF0DFF0D, 0xFF10FF0F, 0xFF11FF10,
+            /*2007*/ 0x0070006D, 0x006E006B, 0x006B0068, 0x00690064, 0x0065005E, 0x0062005C, 0x0061005D, 0x00640060, 0x00670066, 0x006B006A, 0x006E006B, 0x006D0069,
+            /*2008*/ 0x01C801C4, 0x01C401C0, 0x01C001BD, 0x01BE01BC, 0x01BC01BB, 0x01BA01BD, 0x01BA01BF, 0x01BD01C3, 0x01C001C7, 0x01C401CB, 0x01C801CE, 0x01C901CD,
+            /*2009*/ 0xFD86FD89, 0xFD81FD85, 0xFD7DFD80, 0xFD7AFD7D, 0xFD77FD7A, 0xFD76FD77, 0xFD75FD74, 0xFD76FD73, 0xFD77FD75, 0xFD7CFD7A, 0xFD82FD80, 0xFD87FD84,
+            /*2010*/ 0xFEE8FEE4, 0xFEE7FEE2, 0xFEE4FEDD, 0xFEDFFED6, 0xFED9FED0, 0xFED4FECE, 0xFED2FECE, 0xFED2FECF, 0xFED2FED4, 0xFED6FEDA, 0xFEDCFEE0, 0xFEE1FEE4,
+            /*2011*/ 0x00420043, 0x00400040, 0x003B0039, 0x00340032, 0x002C002C, 0x0026002A, 0x0025002C, 0x002A0031, 0x00300037, 0x0037003D, 0x003C0041, 0x003F0044,
+            /*2012*/ 0x019F01A2, 0x019E01A0, 0x019B019B, 0x01960195, 0x0190018E, 0x018C018A, 0x018C0189, 0x018F018B, 0x0193018F, 0x01970194, 0x019B0198, 0x019D0199,
+            /*2013*/ 0xFD5DFD58, 0xFD5DFD58, 0xFD5CFD56, 0xFD5BFD54, 0xFD57FD50, 0xFD52FD4D, 0xFD4EFD4C, 0xFD4DFD4E, 0xFD4EFD53, 0xFD52FD58, 0xFD57FD5E, 0xFD5BFD60,
+            /*2014*/ 0xFEBCFEC0, 0xFEBBFEBE, 0xFEB8FEBA, 0xFEB3FEB4, 0xFEACFEAE, 0xFEA6FEA9, 0xFEA2FEA6, 0xFEA3FEA6, 0xFEA7FEAC, 0xFEAFFEB4, 0xFEB8FEBC, 0xFEBFFEC1,
+            /*2015*/ 0x00200020, 0x001E001C, 0x00190016, 0x0014000E, 0x000D0007, 0x00090003, 0x00080003, 0x000A0006, 0x000D000B, 0x00120011, 0x00180017, 0x001C0019,
+            /*2016*/ 0x017C0178, 0x017A0174, 0x0175016F, 0x0170016A, 0x016A0167, 0x01670168, 0x0167016B, 0x016A016F, 0x016D0174, 0x01710178, 0x0175017C, 0x0178017E,
+            /*2017*/ 0xFD37FD3C, 0xFD36FD3A, 0xFD32FD35, 0xFD2EFD30, 0xFD28FD29, 0xFD23FD26, 0xFD22FD24, 0xFD25FD25, 0xFD28FD28, 0xFD2EFD2D, 0xFD33FD32, 0xFD37FD35,
+            /*2018*/ 0xFE98FE96, 0xFE98FE95, 0xFE96FE90, 0xFE91FE89, 0xFE8AFE81, 0xFE84FE7D, 0xFE81FE7D, 0xFE83FE81, 0xFE87FE89, 0xFE8EFE91, 0xFE95FE97, 0xFE98FE98,
+            /*2019*/ 0xFFF6FFF4, 0xFFF2FFEE, 0xFFEBFFE7, 0xFFE4FFE0, 0xFFDBFFDA, 0xFFD5FFD8, 0xFFD4FFDB, 0xFFDAFFE2, 0xFFE2FFED, 0xFFEDFFF6, 0xFFF6FFFC, 0xFFF9FFFD,
+            /*2020*/ 0x01560157, 0x014F014F, 0x01460146, 0x013F013E, 0x01380138, 0x01350135, 0x01360135, 0x013B0139, 0x01420141, 0x014B014A, 0x01530151, 0x01580154,
+            /*2021*/ 0xFD17FD10, 0xFD12FD0A, 0xFD0BFD02, 0xFD04FCFA, 0xFCFCFCF4, 0xFCF7FCF2, 0xFCF5FCF3, 0xFCF6FCF7, 0xFCFAFD00, 0xFD03FD0A, 0xFD0CFD13, 0xFD14FD19,
+            /*2022*/ 0xFE76FE78, 0xFE72FE71, 0xFE69FE66, 0xFE5DFE59, 0xFE4EFE4D, 0xFE44FE47, 0xFE41FE47, 0xFE46FE4D, 0xFE4EFE56, 0xFE5AFE62, 0xFE67FE6E, 0xFE71FE76,
+            /*2023*/ 0xFFD4FFD6, 0xFFD2FFD1, 0xFFCAFFC5, 0xFFBEFFB6, 0xFFAFFFA8, 0xFFA5FF9F, 0xFFA2FF9F, 0xFFA7FFA6, 0xFFB0FFB0, 0xFFBBFFBB, 0xFFC5FFC4, 0xFFCBFFC9,
+            /*2024*/ 0x012D0128, 0x012B0124, 0x0124011B, 0x011B0110, 0x010F0106, 0x01040100, 0x01000101, 0x01020108, 0x01090112, 0x0113011D, 0x011E0126, 0x0123012A,
+            /*2025*/ 0xFCE4FCE9, 0xFCE2FCE5, 0xFCDDFCDE, 0xFCD5FCD4, 0xFCCAFCC9, 0xFCBFFCC0, 0xFCB8FCBA, 0xFCB8FCBA, 0xFCBDFCC2, 0xFCC9FCCD, 0xFCD6FCD9, 0xFCDFFCE1,
+            /*2026*/ 0xFE43FE41, 0xFE42FE3E, 0xFE3CFE36, 0xFE34FE2C, 0xFE29FE1F, 0xFE1FFE16, 0xFE18FE12, 0xFE17FE13, 0xFE1BFE1C, 0xFE25FE28, 0xFE32FE35, 0xFE3BFE3C,
+            /*2027*/ 0xFF9DFF9A, 0xFF9AFF94, 0xFF91FF89, 0xFF86FF7E, 0xFF7AFF75, 0xFF70FF70, 0xFF6CFF71, 0xFF6FFF77, 0xFF76FF80, 0xFF81FF8B, 0xFF8CFF96, 0xFF94FF9C,
+            /*2028*/ 0x00F600FA, 0x00F300F4, 0x00EA00EA, 0x00E000DE, 0x00D500D4, 0x00CE00CF, 0x00CE00CE, 0x00D200D1, 0x00D800D8, 0x00E000E0, 0x00E900E8, 0x00EF00ED,
+            /*2029*/ 0xFCB1FCAD, 0xFCB0FCAA, 0xFCABFCA2, 0xFCA3FC98, 0xFC98FC8E, 0xFC90FC8A, 0xFC8EFC8A, 0xFC90FC90, 0xFC95FC99, 0xFC9EFCA3, 0xFCA6FCAB, 0xFCACFCB0,
+            /*2030*/ 0xFE0EFE0F, 0xFE0CFE0A, 0xFE05FE00, 0xFDF9FDF4, 0xFDEBFDE7, 0xFDDFFDE1, 0xFDDBFDE1, 0xFDE0FDE9, 0xFDEAFDF5, 0xFDF9FE03, 0xFE06FE0E, 0xFE0EFE13,
+            /*2031*/ 0xFF6EFF70, 0xFF6AFF69, 0xFF60FF5D, 0xFF55FF50, 0xFF48FF42, 0xFF3EFF3A, 0xFF3CFF3B, 0xFF43FF44, 0xFF50FF52, 0xFF5EFF60, 0xFF6BFF6A, 0xFF71FF6D,
+            /*2032*/ 0x00CF00C8, 0x00C800BF, 0x00BE00B2, 0x00B200A6, 0x00A6009D, 0x009E009A, 0x009C009D, 0x00A100A7, 0x00AB00B5, 0x00BA00C5, 0x00C800D0, 0x00D000D5,
+            /*2033*/ 0xFC8FFC91, 0xFC89FC88, 0xFC7EFC7B, 0xFC70FC6D, 0xFC62FC61, 0xFC58FC5A, 0xFC54FC59, 0xFC58FC5E, 0xFC62FC6A, 0xFC71FC7A, 0xFC82FC89, 0xFC8FFC93,
+            /*2034*/ 0xFDF4FDF4, 0xFDF0FDEC, 0xFDE6FDDE, 0xFDD6FDCC, 0xFDC5FDBB, 0xFDB9FDB1, 0xFDB5FDB1, 0xFDB9FDB8, 0xFDC3FDC6, 0xFDD2FDD7, 0xFDE3FDE6, 0xFDEFFDEF,
+            /*2035*/ 0xFF53FF4F, 0xFF4FFF46, 0xFF43FF37, 0xFF32FF25, 0xFF1FFF16, 0xFF11FF0E, 0xFF0CFF11, 0xFF13FF1C, 0xFF20FF2D, 0xFF31FF3E, 0xFF41FF4C, 0xFF4CFF54,
+            /*2036*/ 0x00AF00B3, 0x00AB00AD, 0x00A1009F, 0x0092008F, 0x0082007F, 0x00750075, 0x00710073, 0x00750079, 0x00800086, 0x00900095, 0x00A000A2, 0x00AA00AA,
+            /*2037*/ 0xFC6DFC6A, 0xFC6BFC65, 0xFC63FC5A, 0xFC58FC4D, 0xFC4AFC3E, 0xFC3DFC34, 0xFC36FC31, 0xFC37FC36, 0xFC3FFC43, 0xFC4DFC54, 0xFC5DFC64, 0xFC69FC6D,
+            /*2038*/ 0xFDCEFDCD, 0xFDCBFDC6, 0xFDC1FDB9, 0xFDB2FDA9, 0xFD9FFD99, 0xFD90FD8F, 0xFD88FD8C, 0xFD89FD92, 0xFD93FDA0, 0xFDA5FDB3, 0xFDB8FDC4, 0xFDC7FDCF,
+            /*2039*/ 0xFF2CFF30, 0xFF28FF28, 0xFF1CFF18, 0xFF0CFF06, 0xFEFAFEF5, 0xFEEEFEEB, 0xFEE9FEE8, 0xFEEEFEEF, 0xFEF9FEFC, 0xFF08FF0B, 0xFF18FF19, 0xFF23FF22,
+            /*2040*/ 0x00870081, 0x0083007A, 0x0078006C, 0x006A005C, 0x0059004E, 0x004E0047, 0x004A0049, 0x004E0051, 0x0057005F, 0x0065006E, 0x0072007B, 0x007C0082,
+            /*2041*/ 0xFC3FFC41, 0xFC3CFC3B, 0xFC33FC2F, 0xFC25FC1F, 0xFC13FC0F, 0xFC04FC05, 0xFBFEFC03, 0xFC01FC08, 0xFC0BFC15, 0xFC1AFC24, 0xFC2AFC32, 0xFC36FC3B,
+            /*2042*/ 0xFD9AFD9C, 0xFD98FD97, 0xFD8FFD89, 0xFD81FD78, 0xFD6FFD65, 0xFD60FD59, 0xFD5AFD56, 0xFD5FFD5E, 0xFD6BFD6E, 0xFD7CFD80, 0xFD8DFD8E, 0xFD97FD95,
+            /*2043*/ 0xFEF8FEF2, 0xFEF2FEE8, 0xFEE5FED8, 0xFED4FEC7, 0xFEC2FEB7, 0xFEB4FEAF, 0xFEAFFEB2, 0xFEB5FEBE, 0xFEC3FED1, 0xFED7FEE5, 0xFEE9FEF4, 0xFEF3FEFA,
+            /*2044*/ 0x00540055, 0x004B004A, 0x003D0039, 0x002B0027, 0x001A0018, 0x000E0010, 0x000B000F, 0x00110017, 0x001E0026, 0x00300038, 0x00430048, 0x004F0051,
+            /*2045*/ 0xFC12FC0E, 0xFC0BFC04, 0xFBFEFBF4, 0xFBEDFBE1, 0xFBDCFBD0, 0xFBCFFBC7, 0xFBCBFBC7, 0xFBD0FBCF, 0xFBDAFBDF, 0xFBECFBF3, 0xFBFFFC05, 0xFC0EFC10,
+            /*2046*/ 0xFD73FD70, 0xFD6EFD66, 0xFD5FFD52, 0xFD49FD3B, 0xFD31FD27, 0xFD1EFD1C, 0xFD17FD1D, 0xFD1DFD29, 0xFD2CFD3C, 0xFD41FD52, 0xFD57FD65, 0xFD67FD71,
+            /*2047*/ 0xFECDFED2, 0xFEC9FEC8, 0xFEBAFEB5, 0xFEA5FE9D, 0xFE8DFE86, 0xFE7BFE78, 0xFE75FE77, 0xFE7EFE83, 0xFE8FFE96, 0xFEA5FEAB, 0xFEB8FEBB, 0xFEC5FEC4,
+            /*2048*/ 0x00280023, 0x0024001A, 0x0017000A, 0x0005FFF5, 0xFFF0FFE2, 0xFFE0FFD7, 0xFFDAFFD7, 0xFFDFFFE2, 0xFFEDFFF7, 0x0002000D, 0x0016001E, 0x00230027,
+            /*2049*/ 0xFBE6FBE5, 0xFBE0FBDC, 0xFBD4FBCD, 0xFBC2FBB9, 0xFBADFBA6, 0xFB9AFB98, 0xFB90FB94, 0xFB92FB9B, 0xFB9EFBAD, 0xFBB4FBC3, 0xFBCBFBD8, 0xFBDDFBE5,
+            /*2050*/ 0xFD43FD46, 0xFD3FFD3D, 0xFD32FD2C, 0xFD1FFD16, 0xFD0AFD01, 0xFCF9FCF2, 0xFCF1FCED, 0xFCF4FCF5, 0xFD02FD06, 0xFD17FD1E, 0xFD2FFD33, 0xFD40FD40,
+            /*2051*/ 0xFEA5FE9F, 0xFE9FFE93, 0xFE8FFE7F, 0xFE7AFE69, 0xFE63FE55, 0xFE53FE4C, 0xFE4CFE4D, 0xFE52FE59, 0xFE60FE6D, 0xFE75FE84, 0xFE8BFE98, 0xFE9BFEA3,
+            /*2052*/ 0xFFFF0002, 0xFFFAFFF8, 0xFFEAFFE4, 0xFFD5FFCE, 0xFFBFFFBB, 0xFFAFFFB1, 0xFFABFFB1, 0xFFB1FFB9, 0xFFBFFFCA, 0xFFD3FFDD, 0xFFE7FFEF, 0xFFF5FFFA,
+            /*2053*/ 0xFBBBFBBB, 0xFBB8FBB4, 0xFBACFBA3, 0xFB9AFB8E, 0xFB86FB7A, 0xFB76FB6D, 0xFB70FB6C, 0xFB76FB76, 0xFB84FB88, 0xFB97FB9D, 0xFBABFBB0, 0xFBBAFBBB,
+            /*2054*/ 0xFD1FFD1B, 0xFD1BFD12, 0xFD0CFCFE, 0xFCF7FCE7, 0xFCDEFCD1, 0xFCC9FCC4, 0xFCC1FCC5, 0xFCC7FCD2, 0xFCD9FCE9, 0xFCF1FD03, 0xFD09FD18, 0xFD19FD23,
+            /*2055*/ 0xFE7EFE81, 0xFE77FE75, 0xFE66FE61, 0xFE50FE48, 0xFE38FE32, 0xFE26FE25, 0xFE20FE24, 0xFE29FE31, 0xFE3CFE47, 0xFE56FE5F, 0xFE6EFE73, 0xFE7CFE7D,
+            /*2056*/ 0xFFDFFFD9, 0xFFD6FFCC, 0xFFC5FFB7, 0xFFB0FFA0, 0xFF9AFF8C, 0xFF8AFF81, 0xFF85FF82, 0xFF8CFF8F, 0xFF9CFFA5, 0xFFB4FFBF, 0xFFCCFFD5, 0xFFDDFFE1,
+            /*2057*/ 0xFBA1FB9E, 0xFB99FB91, 0xFB88FB7C, 0xFB71FB63, 0xFB57FB4D, 0xFB42FB40, 0xFB39FB3F, 0xFB3EFB49, 0xFB4DFB5D, 0xFB65FB77, 0xFB80FB90, 0xFB95FBA0,
+            /*2058*/ 0xFCFDFD02, 0xFCF9FCF8, 0xFCE9FCE1, 0xFCD0FCC5, 0xFCB4FCAA, 0xFC9FFC99, 0xFC96FC96, 0xFC9DFCA1, 0xFCAFFCB6, 0xFCC8FCD0, 0xFCE2FCE8, 0xFCF5FCF6,
+            /*2059*/ 0xFE5CFE56, 0xFE57FE4B, 0xFE46FE34, 0xFE2CFE18, 0xFE10FDFF, 0xFDFAFDF0, 0xFDF2FDF1, 0xFDF9FE00, 0xFE0BFE19, 0xFE26FE35, 0xFE3FFE4B, 0xFE50FE57,
+            /*2060*/ 0xFFB5FFB6, 0xFFAFFFAB, 0xFF9FFF96, 0xFF88FF7D, 0xFF6DFF65, 0xFF57FF57, 0xFF4EFF54, 0xFF53FF5D, 0xFF64FF72, 0xFF7CFF8B, 0xFF96FFA2, 0xFFA7FFAE,
+            /*2061*/ 0xFB6DFB6F, 0xFB69FB65, 0xFB5BFB52, 0xFB46FB3A, 0xFB2EFB22, 0xFB1BFB11, 0xFB11FB0C, 0xFB15FB15, 0xFB23FB29, 0xFB3BFB43, 0xFB55FB5B, 0xFB68FB6A,
+            /*2062*/ 0xFCD0FCCA, 0xFCCAFCBE, 0xFCB8FCA7, 0xFC9FFC8D, 0xFC83FC74, 0xFC6DFC64, 0xFC61FC62, 0xFC65FC6E, 0xFC75FC86, 0xFC8FFCA2, 0xFCABFCBC, 0xFCC0FCCC,
+            /*2063*/ 0xFE28FE2C, 0xFE22FE1F, 0xFE0FFE07, 0xFDF5FDEB, 0xFDD8FDD2, 0xFDC4FDC3, 0xFDBCFDC1, 0xFDC4FDCD, 0xFDD6FDE2, 0xFDF0FDFB, 0xFE09FE11, 0xFE1BFE1E,
+            /*2064*/ 0xFF80FF7D, 0xFF7AFF71, 0xFF68FF5B, 0xFF50FF40, 0xFF36FF28, 0xFF24FF1B, 0xFF1FFF1B, 0xFF26FF29, 0xFF37FF3F, 0xFF4FFF58, 0xFF67FF6E, 0xFF77FF7A,
+            /*2065*/ 0xFB3CFB39, 0xFB37FB2E, 0xFB26FB18, 0xFB0EFAFE, 0xFAF1FAE5, 0xFADAFAD5, 0xFAD0FAD4, 0xFAD5FAE1, 0xFAE7FAF9, 0xFB01FB14, 0xFB1CFB2C, 0xFB2FFB3A,
+            /*2066*/ 0xFC96FC9A, 0xFC90FC8F, 0xFC7FFC78, 0xFC66FC5B, 0xFC49FC3F, 0xFC32FC2D, 0xFC29FC2A, 0xFC31FC37, 0xFC46FC51, 0xFC64FC6E, 0xFC80FC87, 0xFC92FC92,
+            /*2067*/ 0xFDF6FDEF, 0xFDECFDDF, 0xFDD7FDC6, 0xFDBDFDA9, 0xFDA0FD8F, 0xFD8BFD81, 0xFD84FD83, 0xFD8DFD94, 0xFDA3FDB2, 0xFDC2FDD2, 0xFDDFFDEC, 0xFDF3FDF8,
+            /*2068*/ 0xFF56FF54, 0xFF4CFF43, 0xFF36FF29, 0xFF1AFF0C, 0xFEFDFEF4, 0xFEE7FEE7, 0xFEE0FEE7, 0xFEE7FEF4, 0xFEFBFF0D, 0xFF18FF2B, 0xFF36FF46, 0xFF4CFF56,
+            /*2069*/ 0xFB13FB15, 0xFB0CFB07, 0xFAF7FAED, 0xFADCFACF, 0xFABFFAB3, 0xFAA9FAA2, 0xFAA2FAA0, 0xFAAAFAAD, 0xFABEFAC6, 0xFADAFAE4, 0xFAF8FB01, 0xFB10FB13,
+            /*2070*/ 0xFC7AFC75, 0xFC75FC67, 0xFC5FFC4B, 0xFC40FC28, 0xFC1DFC09, 0xFC02FBF8, 0xFBF7FBF8, 0xFBFFFC09, 0xFC15FC27, 0xFC34FC48, 0xFC54FC66, 0xFC6DFC78,
+            /*2071*/ 0xFDD7FDDA, 0xFDD2FDCE, 0xFDBEFDB3, 0xFD9FFD91, 0xFD7BFD71, 0xFD60FD5E, 0xFD56FD5C, 0xFD5FFD6C, 0xFD77FD88, 0xFD97FDA7, 0xFDB6FDC2, 0xFDCBFDD1,
+            /*2072*/ 0xFF32FF31, 0xFF2CFF25, 0xFF1AFF0D, 0xFF00FEEF, 0xFEE2FED2, 0xFECAFEBF, 0xFEC0FEBC, 0xFEC7FECA, 0xFEDCFEE6, 0xFEFAFF06, 0xFF19FF21, 0xFF2EFF31,
+            /*2073*/ 0xFAF6FAF1, 0xFAF0FAE5, 0xFADEFACD, 0xFAC3FAB0, 0xFAA4FA93, 0xFA89FA80, 0xFA7AFA7B, 0xFA7CFA87, 0xFA8EFAA1, 0xFAACFAC2, 0xFACDFAE0, 0xFAE6FAF4,
+            /*2074*/ 0xFC51FC56, 0xFC4CFC4A, 0xFC39FC31, 0xFC1DFC12, 0xFBFDFBF4, 0xFBE4FBDF, 0xFBD8FBDA, 0xFBDDFBE4, 0xFBF1FBFE, 0xFC10FC1E, 0xFC31FC3B, 0xFC48FC4C,
+            /*2075*/ 0xFDB1FDAC, 0xFDAAFD9E, 0xFD94FD83, 0xFD77FD62, 0xFD58FD46, 0xFD41FD35, 0xFD38FD35, 0xFD40FD45, 0xFD55FD61, 0xFD72FD81, 0xFD91FD9C, 0xFDA6FDAC,
+            /*2076*/ 0xFF0EFF0C, 0xFF07FEFD, 0xFEF2FEE3, 0xFED4FEC4, 0xFEB4FEA9, 0xFE9CFE9A, 0xFE93FE9A, 0xFE9AFEA8, 0xFEAEFEC0, 0xFECAFEDD, 0xFEE6FEF7, 0xFEFBFF06,
+            /*2077*/ 0xFAC3FAC7, 0xFABEFABB, 0xFAACFAA3, 0xFA91FA84, 0xFA72FA67, 0xFA5BFA54, 0xFA52FA52, 0xFA5AFA60, 0xFA70FA7A, 0xFA8EFA98, 0xFAABFAB2, 0xFAC0FAC2,
+            /*2078*/ 0xFC28FC21, 0xFC20FC13, 0xFC0BFBF7, 0xFBECFBD5, 0xFBCAFBB5, 0xFBAFFBA3, 0xFBA4FBA3, 0xFBACFBB6, 0xFBC5FBD6, 0xFBE7FBFA, 0xFC08FC18, 0xFC1FFC27,
+            /*2079*/ 0xFD84FD84, 0xFD7AFD72, 0xFD62FD55, 0xFD41FD33, 0xFD1EFD14, 0xFD04FD02, 0xFCFBFD02, 0xFD05FD14, 0xFD1FFD33, 0xFD42FD56, 0xFD64FD73, 0xFD7AFD81,
+            /*2080*/ 0xFEDFFEDD, 0xFED3FECA, 0xFEBAFEAC, 0xFE9BFE8A, 0xFE7BFE6C, 0xFE64FE5B, 0xFE5DFE5B, 0xFE67FE6C, 0xFE7FFE8A, 0xFEA1FEAE, 0xFEC4FECD, 0xFEDCFEDE,
+            /*2081*/ 0xFAA3FA9C, 0xFA99FA8A, 0xFA80FA6A, 0xFA5DFA46, 0xFA38FA25, 0xFA1BFA11, 0xFA0EFA10, 0xFA15FA21, 0xFA2CFA40, 0xFA4EFA65, 0xFA72FA86, 0xFA8EFA9B,
+            /*2082*/ 0xFBFAFBFE, 0xFBF3FBEE, 0xFBDBFBCF, 0xFBB7FBA7, 0xFB8FFB83, 0xFB70FB6C, 0xFB64FB69, 0xFB6DFB79, 0xFB88FB99, 0xFBADFBBE, 0xFBD1FBDE, 0xFBECFBF2,
+            /*2083*/ 0xFD55FD52, 0xFD4DFD42, 0xFD35FD23, 0xFD12FCFB, 0xFCECFCD7, 0xFCCEFCC1, 0xFCC3FCC0, 0xFCCDFCD3, 0xFCE7FCF6, 0xFD0CFD1C, 0xFD31FD3D, 0xFD4AFD4E,
+            /*2084*/ 0xFEB2FEAE, 0xFEAAFE9D, 0xFE92FE80, 0xFE70FE5C, 0xFE4BFE3A, 0xFE2DFE26, 0xFE1EFE23, 0xFE24FE32, 0xFE3BFE51, 0xFE5EFE76, 0xFE83FE97, 0xFE9DFEAA,
+            /*2085*/ 0xFA67FA6C, 0xFA61FA5E, 0xFA4CFA42, 0xFA2CFA1F, 0xFA09F9FD, 0xF9EDF9E6, 0xF9DFF9DF, 0xF9E5F9EC, 0xF9FCFA0A, 0xFA1FFA2E, 0xFA45FA50, 0xFA61FA66,
+            /*2086*/ 0xFBCDFBC8, 0xFBC5FBB7, 0xFBADFB97, 0xFB8AFB71, 0xFB63FB4D, 0xFB45FB37, 0xFB37FB34, 0xFB3DFB45, 0xFB55FB66, 0xFB7AFB8E, 0xFBA1FBB2, 0xFBBEFBC8,
+            /*2087*/ 0xFD2AFD29, 0xFD22FD19, 0xFD09FCF8, 0xFCE5FCD2, 0xFCBDFCAF, 0xFC9FFC9B, 0xFC93FC9A, 0xFC9CFCAC, 0xFCB5FCCA, 0xFCD9FCEE, 0xFCFCFD0E, 0xFD16FD22,
+            /*2088*/ 0xFE80FE83, 0xFE79FE73, 0xFE62FE55, 0xFE41FE30, 0xFE1DFE0E, 0xFE02FDFA, 0xFDF9FDF8, 0xFE04FE0A, 0xFE1DFE28, 0xFE3FFE4C, 0xFE62FE6B, 0xFE7BFE7D,
+            /*2089*/ 0xFA44FA3E, 0xFA3EFA30, 0xFA28FA13, 0xFA06F9EE, 0xF9E0F9CA, 0xF9C1F9B4, 0xF9B2F9B2, 0xF9B9F9C4, 0xF9D1F9E5, 0xF9F5FA0B, 0xFA1AFA2D, 0xFA35FA41,
+            /*2090*/ 0xFBA0FBA3, 0xFB99FB94, 0xFB83FB76, 0xFB60FB50, 0xFB39FB2C, 0xFB19FB15, 0xFB0CFB12, 0xFB15FB23, 0xFB31FB45, 0xFB59FB6D, 0xFB80FB8F, 0xFB9AFBA1,
+            /*2091*/ 0xFD01FCFE, 0xFCF6FCEB, 0xFCDBFCCA, 0xFCB8FCA4, 0xFC93FC81, 0xFC78FC6C, 0xFC6EFC6C, 0xFC7AFC80, 0xFC96FCA5, 0xFCBEFCCF, 0xFCE6FCF1, 0xFD01FD04,
+            /*2092*/ 0xFE68FE61, 0xFE5CFE4C, 0xFE40FE2A, 0xFE1BFE03, 0xFDF4FDE3, 0xFDD8FDD0, 0xFDCCFDD0, 0xFDD4FDE2, 0xFDEDFE04, 0xFE13FE2C, 0xFE3AFE50, 0xFE57FE65,
+            /*2093*/ 0xFA22FA26, 0xFA1AFA14, 0xF9FFF9F3, 0xF9DAF9CB, 0xF9B2F9A6, 0xF995F990, 0xF98AF98D, 0xF994F99F, 0xF9AFF9BF, 0xF9D5F9E6, 0xF9FDFA0B, 0xFA1BFA22,
+            /*2094*/ 0xFB88FB84, 0xFB80FB72, 0xFB64FB4E, 0xFB3CFB21, 0xFB10FAF8, 0xFAEEFADF, 0xFAE1FADE, 0xFAECFAF4, 0xFB09FB1B, 0xFB32FB46, 0xFB5CFB6C, 0xFB7AFB82,
+            /*2095*/ 0xFCE6FCE4, 0xFCDEFCD2, 0xFCC3FCAF, 0xFC9BFC84, 0xFC6EFC5C, 0xFC4AFC44, 0xFC3CFC43, 0xFC47FC58, 0xFC64FC7D, 0xFC8EFCA7, 0xFCB6FCCA, 0xFCD2FCDE,
+            /*2096*/ 0xFE3BFE3E, 0xFE32FE2C, 0xFE18FE0B, 0xFDF4FDE3, 0xFDCCFDBD, 0xFDACFDA4, 0xFDA0FDA0, 0xFDA9FDB2, 0xFDC6FDD5, 0xFDEEFDFE, 0xFE17FE23, 0xFE34FE37,
+            /*2097*/ 0xF9FEF9F7, 0xF9F5F9E6, 0xF9DBF9C5, 0xF9B6F99B, 0xF98CF974, 0xF96AF95A, 0xF958F955, 0xF95DF966, 0xF976F98A, 0xF99EF9B6, 0xF9C9F9DE, 0xF9EAF9F7,
+            /*2098*/ 0xFB58FB59, 0xFB50FB47, 0xFB35FB25, 0xFB0DFAFA, 0xFAE1FAD2, 0xFABDFAB8, 0xFAADFAB3, 0xFAB5FAC4, 0xFAD0FAE6, 0xFAF9FB11, 0xFB24FB37, 0xFB43FB4E,
+            /*2099*/ 0xFCAEFCAE, 0xFCA5FC9B, 0xFC88FC76, 0xFC60FC4A, 0xFC35FC22, 0xFC16FC0B, 0xFC0BFC09, 0xFC16FC1D, 0xFC33FC41, 0xFC5BFC6B, 0xFC84FC90, 0xFCA1FCA5,
+            /*2100*/ 0xFE0CFE06, 0xFE03FDF3, 0xFDE8FDD0, 0xFDC0FDA5, 0xFD95FD7F, 0xFD74FD69, 0xFD66FD68, 0xFD6EFD7C, 0xFD88FD9F, 0xFDAEFDC7, 0xFDD5FDEA, 0xFDF2FE00
+    };
+
+    /**
+     * 全部节气时刻(epoch-minute), 升序, 下标 = (公历年 - MIN_YEAR) * 24 + 节气ordinal
+     */
+    private static final int[] TERM_EPOCH_MINUTES = new int[(MAX_YEAR - MIN_YEAR + 1) * TERMS_PER_YEAR];
+    /**
+     * 最后一个节气区间(2100年冬至起)的结束时刻, 即2101年小寒 2101-01-05 21:06:26, 同样离线计算并向上取整到分钟
+     */
+    private static final int END_EPOCH_MINUTE = DateUtils.toEpochDay(MAX_YEAR + 1, 1, 5) * 1440 + 21 * 60 + 7;
+
+    static {
+        for (int year = MIN_YEAR; year <= MAX_YEAR; year++) {
+            int yearStart = DateUtils.toEpochDay(year, 1, 1) * 1440;
+            for (int term = 0; term < TERMS_PER_YEAR; term++) {
+                int info = SOLAR_TERM_INFO[(year - MIN_YEAR) * (TERMS_PER_YEAR / 2) + (term >> 1)];
+                int offset = (term & 1) == 0 ? info >> 16 : (short) info;
+                TERM_EPOCH_MINUTES[(year - MIN_YEAR) * TERMS_PER_YEAR + term] = yearStart + SOLAR_TERM_BASE[term] + offset;
+            }
+        }
+    }
+
+    private SolarTermTable() {
+    }
+
+    /**
+     * 公历日期时间转换为epoch-minute
+     *
+     * @param epochDay 公历日期的epoch-day
+     * @param hour     小时
+     * @param minute   分钟
+     * @return epoch-minute
+     */
+    public static long toEpochMinute(int epochDay, int hour, int minute) {
+        return epochDay * 1440L + hour * 60L + minute;
+    }
+
+    /**
+     * 节气时刻
+     *
+     * @param year 公历年
+     * @param term 节气
+     * @return epoch-minute
+     */
+    public static long getTermEpochMinute(int year, SolarTerm term) {
+        if (year < MIN_YEAR || year > MAX_YEAR) {
+            throw new RuntimeException("solarTerm out of range , year:" + year);
+        }
+        return TERM_EPOCH_MINUTES[(year - MIN_YEAR) * TERMS_PER_YEAR + term.ordinal()];
+    }
+
+    /**
+     * 按全局下标取节气时刻
+     *
+     * @param termIndex 全局下标 (公历年 - MIN_YEAR) * 24 + 节气ordinal, 见getTermIndex; 等于节气总数时为2101年小寒, 即表的结束时刻
+     * @return epoch-minute
+     */
+    public static long getTermEpochMinute(int termIndex) {
+        if (termIndex < 0 || termIndex > TERM_EPOCH_MINUTES.length) {
+            throw new RuntimeException("solarTerm out of range , termIndex:" + termIndex);
+        }
+        return termIndex == TERM_EPOCH_MINUTES.length ? END_EPOCH_MINUTE : TERM_EPOCH_MINUTES[termIndex];
+    }
+
+    /**
+     * 时刻是否在节气表范围内, 即1900年小寒(含)至2101年小寒(不含)
+     *
+     * @param epochMinute epoch-minute
+     * @return 是否在范围内
+     */
+    public static boolean contains(long epochMinute) {
+        return epochMinute >= TERM_EPOCH_MINUTES[0] && epochMinute < END_EPOCH_MINUTE;
+    }
+
+    /**
+     * 查找时刻所在的节气区间, 二分查找
+     *
+     * @param epochMinute epoch-minute
+     * @return 区间起点节气的全局下标 (公历年 - MIN_YEAR) * 24 + 节气ordinal
+     * @throws RuntimeException 时刻不在节气表范围内, 见contains
+     */
+    public static int getTermIndex(long epochMinute) {
+        if (!contains(epochMinute)) {
+            throw new RuntimeException("solarTerm out of range , epochMinute:" + epochMinute);
+        }
+        int index = Arrays.binarySearch(TERM_EPOCH_MINUTES, (int) epochMinute);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * 时刻所在的节气区间的起点节气
+     *
+     * @param epochMinute epoch-minute
+     * @return 节气
+     */
+    public static SolarTerm getSolarTerm(long epochMinute) {
+        return SOLAR_TERMS[getTermIndex(epochMinute) % TERMS_PER_YEAR];
+    }
+
+    /**
+     * 以立春为界的年份
+     *
+     * @param epochMinute epoch-minute
+     * @return 年份, 立春之前属于上一年
+     */
+    public static int getSolarTermYear(long epochMinute) {
+        int index = getTermIndex(epochMinute);
+        int year = MIN_YEAR + index / TERMS_PER_YEAR;
+        return index % TERMS_PER_YEAR < SolarTerm.LI_CHUN.ordinal() ? year - 1 : year;
+    }
+
+    /**
+     * 以节为界的月份, 0表示寅月(立春至惊蛰), 与农历月正月的下标一致, 11表示丑月(小寒至立春)
+     *
+     * @param epochMinute epoch-minute
+     * @return 月份下标
+     */
+    public static int getSolarTermMonth(long epochMinute) {
+        int term = getTermIndex(epochMinute) % TERMS_PER_YEAR;
+        // 节的下标为偶数, 小寒(0)为丑月, 立春(2)为寅月
+        return (term / 2 + 11) % 12;
+    }
+}
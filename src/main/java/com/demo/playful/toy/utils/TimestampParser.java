@@ -0,0 +1,360 @@
+package com.demo.playful.toy.utils;
+
+import com.demo.playful.toy.enums.Stage;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * TimestampParser
+ * 固定格式的公历时间解析, 直接读取CharSequence、byte[]或ByteBuffer的片段, 不创建对象, 不抛异常
+ * 每种输入各自一个循环, 逐字符归类后打包到两个long中, 之后的格式校验与取值只做位运算
+ * <p>
+ * 支持的格式(首尾空格忽略):
+ * yyyy-MM-dd HH
+ * yyyyMMddHH
+ * yyyy-MM-ddTHH[:mm[:ss[.S...]]] , 其中T也可以是空格, 分秒只校验不参与计算
+ * <p>
+ * 解析成功返回非负的打包结果: 14位以上公历年, 10-13位公历月(1-12), 5-9位公历日, 0-4位小时;
+ * 解析失败返回负数的状态码
+ *
+ * @author 张涵林
+ * @date 2020/6/18
+ */
+public class TimestampParser {
+    /**
+     * 长度不符合任何格式
+     */
+    public static final long ERROR_LENGTH = -1L;
+    /**
+     * 分隔符或数字位置不符
+     */
+    public static final long ERROR_FORMAT = -2L;
+    /**
+     * 字段超出范围, 例如13月、2月30日、24时
+     */
+    public static final long ERROR_RANGE = -3L;
+
+    /**
+     * 前HEAD_LENGTH个字符的归类存放在一个long中, 之后到FRACTION_START的存放在另一个long中, 再之后只可能是小数位
+     */
+    private static final int HEAD_LENGTH = 16;
+    private static final int FRACTION_START = 20;
+    /**
+     * 分隔符的归类, 数字归类为其数值
+     */
+    private static final int DASH = 10;
+    private static final int SPACE = 11;
+    private static final int T = 12;
+    private static final int COLON = 13;
+    private static final int DOT = 14;
+    private static final int OTHER = 15;
+    /**
+     * ASCII字符的归类
+     */
+    private static final byte[] SYMBOLS = new byte[128];
+
+    static {
+        Arrays.fill(SYMBOLS, (byte) OTHER);
+        for (int digit = 0; digit <= 9; digit++) {
+            SYMBOLS['0' + digit] = (byte) digit;
+        }
+        SYMBOLS['-'] = DASH;
+        SYMBOLS[' '] = SPACE;
+        SYMBOLS['T'] = T;
+        SYMBOLS[':'] = COLON;
+        SYMBOLS['.'] = DOT;
+    }
+
+    private TimestampParser() {
+    }
+
+    /**
+     * 解析CharSequence的片段
+     *
+     * @param text 文本
+     * @param from 起始下标(包含)
+     * @param to   结束下标(不包含)
+     * @return 打包结果或状态码
+     */
+    public static long parse(CharSequence text, int from, int to) {
+        long start = Instrumentation.start();
+        while (from < to && text.charAt(from) == ' ') {
+            from++;
+        }
+        while (to > from && text.charAt(to - 1) == ' ') {
+            to--;
+        }
+        long head = 0L;
+        long tail = 0L;
+        boolean fraction = true;
+        for (int i = from; i < to; i++) {
+            int symbol = symbol(text.charAt(i));
+            int n = i - from;
+            if (n < HEAD_LENGTH) {
+                head |= (long) symbol << (n << 2);
+            } else if (n < FRACTION_START) {
+                tail |= (long) symbol << ((n - HEAD_LENGTH) << 2);
+            } else if (symbol > 9) {
+                fraction = false;
+            }
+        }
+        long parsed = parse(to - from, head, tail, fraction);
+        Instrumentation.record(Stage.PARSE, start);
+        return parsed;
+    }
+
+    /**
+     * 解析整个CharSequence
+     *
+     * @param text 文本
+     * @return 打包结果或状态码
+     */
+    public static long parse(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    /**
+     * 解析字节数组的片段(ASCII/UTF-8)
+     *
+     * @param bytes 字节数组
+     * @param from  起始下标(包含)
+     * @param to    结束下标(不包含)
+     * @return 打包结果或状态码
+     */
+    public static long parse(byte[] bytes, int from, int to) {
+        long start = Instrumentation.start();
+        while (from < to && bytes[from] == ' ') {
+            from++;
+        }
+        while (to > from && bytes[to - 1] == ' ') {
+            to--;
+        }
+        long head = 0L;
+        long tail = 0L;
+        boolean fraction = true;
+        for (int i = from; i < to; i++) {
+            int symbol = symbol(bytes[i]);
+            int n = i - from;
+            if (n < HEAD_LENGTH) {
+                head |= (long) symbol << (n << 2);
+            } else if (n < FRACTION_START) {
+                tail |= (long) symbol << ((n - HEAD_LENGTH) << 2);
+            } else if (symbol > 9) {
+                fraction = false;
+            }
+        }
+        long parsed = parse(to - from, head, tail, fraction);
+        Instrumentation.record(Stage.PARSE, start);
+        return parsed;
+    }
+
+    /**
+     * 解析ByteBuffer的片段(ASCII/UTF-8), 使用绝对下标, 不改变position
+     *
+     * @param buffer 缓冲区
+     * @param from   起始下标(包含)
+     * @param to     结束下标(不包含)
+     * @return 打包结果或状态码
+     */
+    public static long parse(ByteBuffer buffer, int from, int to) {
+        long start = Instrumentation.start();
+        while (from < to && buffer.get(from) == ' ') {
+            from++;
+        }
+        while (to > from && buffer.get(to - 1) == ' ') {
+            to--;
+        }
+        long head = 0L;
+        long tail = 0L;
+        boolean fraction = true;
+        for (int i = from; i < to; i++) {
+            int symbol = symbol(buffer.get(i));
+            int n = i - from;
+            if (n < HEAD_LENGTH) {
+                head |= (long) symbol << (n << 2);
+            } else if (n < FRACTION_START) {
+                tail |= (long) symbol << ((n - HEAD_LENGTH) << 2);
+            } else if (symbol > 9) {
+                fraction = false;
+            }
+        }
+        long parsed = parse(to - from, head, tail, fraction);
+        Instrumentation.record(Stage.PARSE, start);
+        return parsed;
+    }
+
+    /**
+     * 是否解析成功
+     *
+     * @param parsed 解析结果
+     * @return 是否成功
+     */
+    public static boolean isValid(long parsed) {
+        return parsed >= 0;
+    }
+
+    /**
+     * 解析结果中的公历年
+     *
+     * @param parsed 解析成功的结果
+     * @return 公历年
+     */
+    public static int getYear(long parsed) {
+        return (int) (parsed >>> 14);
+    }
+
+    /**
+     * 解析结果中的公历月
+     *
+     * @param parsed 解析成功的结果
+     * @return 公历月(1-12)
+     */
+    public static int getMonth(long parsed) {
+        return (int) (parsed >>> 10) & 0xF;
+    }
+
+    /**
+     * 解析结果中的公历日
+     *
+     * @param parsed 解析成功的结果
+     * @return 公历日
+     */
+    public static int getDay(long parsed) {
+        return (int) (parsed >>> 5) & 0x1F;
+    }
+
+    /**
+     * 解析结果中的小时
+     *
+     * @param parsed 解析成功的结果
+     * @return 小时
+     */
+    public static int getHour(long parsed) {
+        return (int) parsed & 0x1F;
+    }
+
+    /**
+     * 解析结果转换为epoch-hour
+     *
+     * @param parsed 解析成功的结果
+     * @return epoch-hour
+     */
+    public static long toEpochHour(long parsed) {
+        return DateUtils.toEpochDay(getYear(parsed), getMonth(parsed), getDay(parsed)) * 24L + getHour(parsed);
+    }
+
+    /**
+     * 字符归类, 数字为0-9, 之后是各分隔符, 其余字符为OTHER
+     */
+    private static int symbol(int c) {
+        return c >= 0 && c < SYMBOLS.length ? SYMBOLS[c] : OTHER;
+    }
+
+    /**
+     * 按归类后的字符校验格式并取出各字段
+     *
+     * @param length   去掉首尾空格后的长度
+     * @param head     第0-15个字符的归类, 每个4位
+     * @param tail     第16-19个字符的归类, 每个4位
+     * @param fraction 第20个字符起是否全是数字
+     */
+    private static long parse(int length, long head, long tail, boolean fraction) {
+        int year;
+        int month;
+        int day;
+        int hour;
+        if (length == 10) {
+            // yyyyMMddHH
+            year = digits(head, tail, 0, 4);
+            month = digits(head, tail, 4, 2);
+            day = digits(head, tail, 6, 2);
+            hour = digits(head, tail, 8, 2);
+        } else if (length >= 13) {
+            // yyyy-MM-dd HH 及 ISO-8601
+            int separator = symbolAt(head, tail, 10);
+            if (symbolAt(head, tail, 4) != DASH || symbolAt(head, tail, 7) != DASH || (separator != SPACE && separator != T)) {
+                return ERROR_FORMAT;
+            }
+            year = digits(head, tail, 0, 4);
+            month = digits(head, tail, 5, 2);
+            day = digits(head, tail, 8, 2);
+            hour = digits(head, tail, 11, 2);
+            if (length > 13) {
+                long status = checkMinuteSecond(length, head, tail, fraction);
+                if (status < 0) {
+                    return status;
+                }
+            }
+        } else {
+            return ERROR_LENGTH;
+        }
+        if (year < 0 || month < 0 || day < 0 || hour < 0) {
+            return ERROR_FORMAT;
+        }
+        if (month < 1 || month > 12 || day < 1 || day > DateUtils.lengthOfMonth(year, month) || hour > 23) {
+            return ERROR_RANGE;
+        }
+        return (long) year << 14 | month << 10 | day << 5 | hour;
+    }
+
+    /**
+     * 校验第13个字符起的":mm[:ss[.S...]]"
+     */
+    private static long checkMinuteSecond(int length, long head, long tail, boolean fraction) {
+        if (length < 16 || symbolAt(head, tail, 13) != COLON) {
+            return ERROR_FORMAT;
+        }
+        int minute = digits(head, tail, 14, 2);
+        if (minute < 0) {
+            return ERROR_FORMAT;
+        }
+        if (minute > 59) {
+            return ERROR_RANGE;
+        }
+        if (length == 16) {
+            return 0;
+        }
+        if (length < 19 || symbolAt(head, tail, 16) != COLON) {
+            return ERROR_FORMAT;
+        }
+        int second = digits(head, tail, 17, 2);
+        if (second < 0) {
+            return ERROR_FORMAT;
+        }
+        if (second > 59) {
+            return ERROR_RANGE;
+        }
+        if (length == 19) {
+            return 0;
+        }
+        // 小数位只校验
+        if (symbolAt(head, tail, 19) != DOT || length == FRACTION_START || !fraction) {
+            return ERROR_FORMAT;
+        }
+        return 0;
+    }
+
+    /**
+     * 第index个字符的归类
+     */
+    private static int symbolAt(long head, long tail, int index) {
+        long bits = index < HEAD_LENGTH ? head >>> (index << 2) : tail >>> ((index - HEAD_LENGTH) << 2);
+        return (int) bits & 0xF;
+    }
+
+    /**
+     * 读取定长数字, 含非数字时返回-1
+     */
+    private static int digits(long head, long tail, int from, int length) {
+        int value = 0;
+        for (int i = from; i < from + length; i++) {
+            int digit = symbolAt(head, tail, i);
+            if (digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,181 @@
+package com.demo.playful.toy;
+
+import com.demo.playful.toy.domain.EightCharactersCode;
+import com.demo.playful.toy.enums.DateEnum;
+import com.demo.playful.toy.enums.Earthly;
+import com.demo.playful.toy.enums.FiveElements;
+import com.demo.playful.toy.enums.HeavenlyStem;
+import com.demo.playful.toy.enums.PillarMode;
+import com.demo.playful.toy.enums.SexagenaryCycle;
+import com.demo.playful.toy.enums.ZiHourMode;
+import com.demo.playful.toy.utils.DateUtils;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * AuspiciousDateSearchTest
+ *
+ * @author 张涵林
+ * @date 2020/7/6
+ */
+public class AuspiciousDateSearchTest {
+    /**
+     * 约一年半, 以及跨过2101年节气表终点的一段
+     */
+    private static final int[][] RANGES = {
+            {DateUtils.toEpochDay(2023, 11, 1), DateUtils.toEpochDay(2025, 3, 1)},
+            {DateUtils.toEpochDay(2100, 10, 1), DateUtils.toEpochDay(2101, 3, 1)},
+    };
+    private static final int[] LIMITS = {AuspiciousDateSearch.NO_LIMIT, 1, 7, 50};
+
+    private static final ChartPredicate[] DAY_PREDICATES = {
+            // 对时柱取反, 日期搜索的编码没有时柱, 每天都满足
+            ChartPredicates.not(ChartPredicates.pillar(DateEnum.HOUR, SexagenaryCycle.JIA_ZI)),
+            // 按日柱跳过
+            ChartPredicates.pillar(DateEnum.DAY, SexagenaryCycle.JIA_ZI, SexagenaryCycle.JI_MOU)
+                    .and(ChartPredicates.fiveElementsAtLeast(FiveElements.SHUI, 1)),
+            // 按年月柱跳过
+            ChartPredicates.earthly(DateEnum.MONTH, Earthly.YIN, Earthly.MOU).and(ChartPredicates.heavenlyStem(DateEnum.DAY, HeavenlyStem.JIA)),
+            // 或组合里的普通lambda不限制各柱
+            ChartPredicates.pillar(DateEnum.DAY, SexagenaryCycle.JIA_ZI)
+                    .or(code -> EightCharactersCode.getFiveElementsCount(code, FiveElements.MU) >= 3),
+            code -> EightCharactersCode.getSexagenaryIndex(code, DateEnum.HOUR) < 0
+                    && EightCharactersCode.getFiveElementsCount(code, FiveElements.TU) == 0,
+    };
+
+    private static final ChartPredicate[] HOUR_PREDICATES = {
+            // 按时辰地支跳过, 子时覆盖晚子时和子时换日
+            ChartPredicates.earthly(DateEnum.HOUR, Earthly.ZI, Earthly.WU).and(ChartPredicates.heavenlyStem(DateEnum.DAY, HeavenlyStem.JIA,
+                    HeavenlyStem.JI)),
+            ChartPredicates.pillar(DateEnum.DAY, SexagenaryCycle.JIA_ZI).and(ChartPredicates.pillar(DateEnum.HOUR, SexagenaryCycle.BING_ZI,
+                    SexagenaryCycle.JIA_ZI)),
+            ChartPredicates.earthly(DateEnum.MONTH, Earthly.YIN).and(ChartPredicates.fiveElementsAtMost(FiveElements.HUO, 1)),
+            ChartPredicates.not(ChartPredicates.pillar(DateEnum.HOUR, SexagenaryCycle.JIA_ZI))
+                    .and(ChartPredicates.fiveElementsAtLeast(FiveElements.JIN, 3)),
+    };
+
+    @Test
+    public void searchDaysAgainstBruteForce() {
+        try (AuspiciousDateSearch chunked = new AuspiciousDateSearch(4, 3);
+             AuspiciousDateSearch single = new AuspiciousDateSearch(1, AuspiciousDateSearch.DEFAULT_CHUNK_DAYS)) {
+            for (PillarMode mode : PillarMode.values()) {
+                for (int[] range : RANGES) {
+                    for (int p = 0; p < DAY_PREDICATES.length; p++) {
+                        int[] all = bruteForceDays(range[0], range[1], DAY_PREDICATES[p], mode);
+                        // 节气表结束后没有可计算的日期, 只要求第一段有结果
+                        assertTrue(range != RANGES[0] || all.length > 0);
+                        for (int limit : LIMITS) {
+                            int[] expected = Arrays.copyOf(all, Math.min(limit, all.length));
+                            String message = mode + " " + LocalDate.ofEpochDay(range[0]) + " predicate:" + p + " limit:" + limit;
+                            assertArrayEquals(message, expected, chunked.searchDays(range[0], range[1], DAY_PREDICATES[p], mode, limit));
+                            assertArrayEquals(message, expected, single.searchDays(range[0], range[1], DAY_PREDICATES[p], mode, limit));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void phantomHourPillar() {
+        // 2024年的每一天都不应被当作甲子时
+        int from = DateUtils.toEpochDay(2024, 1, 1);
+        int to = DateUtils.toEpochDay(2025, 1, 1);
+        try (AuspiciousDateSearch search = new AuspiciousDateSearch(2, 16)) {
+            assertEquals(to - from, search.searchDays(from, to,
+                    ChartPredicates.not(ChartPredicates.pillar(DateEnum.HOUR, SexagenaryCycle.JIA_ZI)), PillarMode.LUNAR,
+                    AuspiciousDateSearch.NO_LIMIT).length);
+            assertEquals(0, search.searchDays(from, to,
+                    ChartPredicates.pillar(DateEnum.DAY, SexagenaryCycle.JIA_ZI).or(ChartPredicates.pillar(DateEnum.HOUR, SexagenaryCycle.JIA_ZI))
+                            .and(code -> EightCharactersCode.getSexagenaryIndex(code, DateEnum.DAY) != SexagenaryCycle.JIA_ZI.ordinal()),
+                    PillarMode.LUNAR, AuspiciousDateSearch.NO_LIMIT).length);
+            try {
+                search.searchDays(from, to, ChartPredicates.earthly(DateEnum.HOUR, Earthly.ZI), PillarMode.LUNAR, AuspiciousDateSearch.NO_LIMIT);
+                fail();
+            } catch (IllegalArgumentException expected) {
+                // 日期搜索不能限制时柱
+            }
+        }
+    }
+
+    @Test
+    public void searchHoursAgainstBruteForce() {
+        try (AuspiciousDateSearch chunked = new AuspiciousDateSearch(4, 5);
+             AuspiciousDateSearch single = new AuspiciousDateSearch(1, AuspiciousDateSearch.DEFAULT_CHUNK_DAYS)) {
+            for (PillarMode mode : PillarMode.values()) {
+                for (ZiHourMode ziHourMode : ZiHourMode.values()) {
+                    for (int[] range : RANGES) {
+                        // 起止不在整天上
+                        long from = range[0] * 24L + 5;
+                        long to = range[1] * 24L - 2;
+                        for (int p = 0; p < HOUR_PREDICATES.length; p++) {
+                            long[] all = bruteForceHours(from, to, HOUR_PREDICATES[p], mode, ziHourMode);
+                            assertTrue(range != RANGES[0] || all.length > 0);
+                            for (int limit : LIMITS) {
+                                long[] expected = Arrays.copyOf(all, Math.min(limit, all.length));
+                                String message = mode + " " + ziHourMode + " " + LocalDate.ofEpochDay(range[0]) + " predicate:" + p + " limit:" + limit;
+                                assertArrayEquals(message, expected, chunked.searchHours(from, to, HOUR_PREDICATES[p], mode, ziHourMode, limit));
+                                assertArrayEquals(message, expected, single.searchHours(from, to, HOUR_PREDICATES[p], mode, ziHourMode, limit));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 逐日计算当天0时的年月日三柱, 五行只统计三柱
+     */
+    private static int[] bruteForceDays(int from, int to, ChartPredicate predicate, PillarMode mode) {
+        int[] found = new int[to - from];
+        int count = 0;
+        for (int epochDay = from; epochDay < to; epochDay++) {
+            long code = direct(epochDay * 24L, mode, ZiHourMode.LATE_ZI);
+            if (code == EightCharactersCode.INVALID) {
+                continue;
+            }
+            long dayCode = EightCharactersCode.withPillar(EightCharactersCode.of(EightCharactersCode.getPillars(code), 0), DateEnum.HOUR,
+                    EightCharactersCode.NO_PILLAR);
+            for (DateEnum position : new DateEnum[]{DateEnum.YEAR, DateEnum.MONTH, DateEnum.DAY}) {
+                dayCode = EightCharactersCode.incrementFiveElements(dayCode,
+                        FiveElements.getFiveElementsByHeavenlyStem(EightCharactersCode.getHeavenlyStem(code, position)));
+                dayCode = EightCharactersCode.incrementFiveElements(dayCode,
+                        FiveElements.getFiveElementsByEarthly(EightCharactersCode.getEarthly(code, position)));
+            }
+            if (predicate.test(dayCode)) {
+                found[count++] = epochDay;
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    private static long[] bruteForceHours(long from, long to, ChartPredicate predicate, PillarMode mode, ZiHourMode ziHourMode) {
+        long[] found = new long[(int) (to - from)];
+        int count = 0;
+        for (long epochHour = from; epochHour < to; epochHour++) {
+            long code = direct(epochHour, mode, ziHourMode);
+            if (code != EightCharactersCode.INVALID && predicate.test(code)) {
+                found[count++] = epochHour;
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    private static long direct(long epochHour, PillarMode mode, ZiHourMode ziHourMode) {
+        LocalDate date = LocalDate.ofEpochDay(Math.floorDiv(epochHour, 24L));
+        try {
+            return CalculationEightCharacters.calculationEightCharactersCode(date.getYear(), date.getMonthValue(), date.getDayOfMonth(),
+                    (int) Math.floorMod(epochHour, 24L), 0, mode, ziHourMode);
+        } catch (RuntimeException e) {
+            return EightCharactersCode.INVALID;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.demo.playful.toy;
+
+import com.demo.playful.toy.domain.EightCharactersCode;
+import com.demo.playful.toy.enums.DateEnum;
+import com.demo.playful.toy.enums.FiveElements;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * BatchCalculationEightCharactersTest
+ *
+ * @author 张涵林
+ * @date 2020/7/6
+ */
+public class BatchCalculationEightCharactersTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void csvWithHeader() throws IOException {
+        // CRLF换行、空行、无法解析的行、缺列的行, 最后一行没有换行符
+        String input = "id,birth,name\r\n1,1990-12-26 07,a\r\n\r\n2,bad,b\r\n3\r\n4,2020-02-29 23,c";
+        List<String> output = process(new BatchCalculationEightCharacters(1, ',', true), input, 4);
+        assertEquals(Arrays.asList(
+                "id,birth,name,八字,金,木,水,火,土",
+                "1,1990-12-26 07,a,庚午 戊子 乙丑 庚辰,2,1,1,1,3",
+                "",
+                "2,bad,b,ERROR",
+                "3,ERROR",
+                "4,2020-02-29 23,c," + suffix(CalculationEightCharacters.calculationEightCharactersCode(2020, 2, 29, 23))), output);
+    }
+
+    @Test
+    public void wholeLine() throws IOException {
+        String input = "1990-12-26 07\n\n1990122607\nbad\n";
+        List<String> output = process(new BatchCalculationEightCharacters(-1, ',', false), input, 3);
+        assertEquals(Arrays.asList(
+                "1990-12-26 07,庚午 戊子 乙丑 庚辰,2,1,1,1,3",
+                "",
+                "1990122607,庚午 戊子 乙丑 庚辰,2,1,1,1,3",
+                "bad,ERROR"), output);
+    }
+
+    @Test
+    public void maxLengthLinesAcrossFlush() throws IOException {
+        // 先用一行错位, 使输出缓冲区的剩余空间恰好落在能放下整行、放不下结果列的位置
+        StringBuilder input = new StringBuilder();
+        char[] shift = new char[2433];
+        Arrays.fill(shift, 'x');
+        input.append(shift).append('\n');
+        char[] padding = new char[4096 - "1990-12-26 07,".length()];
+        Arrays.fill(padding, 'p');
+        String line = "1990-12-26 07," + new String(padding);
+        int lines = 300;
+        for (int i = 0; i < lines; i++) {
+            input.append(line).append('\n');
+        }
+        List<String> output = process(new BatchCalculationEightCharacters(0, ',', false), input.toString(), lines + 1);
+        assertEquals(lines + 1, output.size());
+        assertEquals(new String(shift) + ",ERROR", output.get(0));
+        for (int i = 1; i <= lines; i++) {
+            assertEquals(line + ",庚午 戊子 乙丑 庚辰,2,1,1,1,3", output.get(i));
+        }
+    }
+
+    private List<String> process(BatchCalculationEightCharacters batch, String input, long records) throws IOException {
+        Path in = folder.newFile().toPath();
+        Path out = folder.newFile().toPath();
+        Files.write(in, input.getBytes(StandardCharsets.UTF_8));
+        assertEquals(records, batch.process(in, out));
+        return Files.readAllLines(out, StandardCharsets.UTF_8);
+    }
+
+    private static String suffix(long code) {
+        StringBuilder text = new StringBuilder();
+        for (DateEnum position : new DateEnum[]{DateEnum.YEAR, DateEnum.MONTH, DateEnum.DAY, DateEnum.HOUR}) {
+            if (text.length() > 0) {
+                text.append(' ');
+            }
+            text.append(EightCharactersCode.getHeavenlyStem(code, position).getName())
+                    .append(EightCharactersCode.getEarthly(code, position).getName());
+        }
+        for (FiveElements fiveElements : FiveElements.values()) {
+            text.append(',').append(EightCharactersCode.getFiveElementsCount(code, fiveElements));
+        }
+        return text.toString();
+    }
+}
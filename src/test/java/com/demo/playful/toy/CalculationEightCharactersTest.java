@@ -0,0 +1,108 @@
+package com.demo.playful.toy;
+
+import com.demo.playful.toy.domain.EightCharactersCode;
+import com.demo.playful.toy.domain.EightCharactersDto;
+import com.demo.playful.toy.enums.DateEnum;
+import com.demo.playful.toy.enums.FiveElements;
+import com.demo.playful.toy.enums.PillarMode;
+import com.demo.playful.toy.enums.SexagenaryCycle;
+import com.demo.playful.toy.enums.ZiHourMode;
+import com.demo.playful.toy.utils.DateUtils;
+import org.junit.Test;
+
+import java.util.Calendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * CalculationEightCharactersTest
+ *
+ * @author 张涵林
+ * @date 2020/7/6
+ */
+public class CalculationEightCharactersTest {
+
+    @Test
+    public void primitiveOverloadsAgree() {
+        long code = CalculationEightCharacters.calculationEightCharactersCode(2020, 2, 29, 23);
+        int epochDay = DateUtils.toEpochDay(2020, 2, 29);
+        assertEquals(code, CalculationEightCharacters.calculationEightCharactersCode(epochDay, 23));
+        assertEquals(code, CalculationEightCharacters.calculationEightCharactersCode(epochDay * 24L + 23));
+        assertEquals(code, CalculationEightCharacters.calculationEightCharactersCode(2020, 2, 29, 23, 59, PillarMode.LUNAR));
+        assertEquals(code, CalculationEightCharacters.calculationEightCharacters(2020, 2, 29, 23).getCode());
+    }
+
+    @Test
+    public void rejectInvalidFields() {
+        int[][] invalid = {{2021, 2, 29, 0}, {2021, 2, 30, 12}, {2020, 4, 31, 12}, {2020, 13, 1, 12}, {2020, 0, 1, 12},
+                {2020, 1, 0, 12}, {2020, 1, 32, 12}, {2020, 1, 1, 24}, {2020, 1, 1, -1}};
+        for (int[] fields : invalid) {
+            assertRejected(() -> CalculationEightCharacters.calculationEightCharactersCode(fields[0], fields[1], fields[2], fields[3]));
+            assertRejected(() -> CalculationEightCharacters.calculationEightCharactersCode(fields[0], fields[1], fields[2], fields[3], 0,
+                    PillarMode.SOLAR_TERM, ZiHourMode.ROLLOVER));
+            assertRejected(() -> CalculationEightCharacters.calculationEightCharacters(fields[0], fields[1], fields[2], fields[3]));
+        }
+        assertRejected(() -> CalculationEightCharacters.calculationEightCharactersCode(2020, 1, 1, 12, 60, PillarMode.SOLAR_TERM));
+        assertRejected(() -> CalculationEightCharacters.calculationEightCharactersCode(2020, 1, 1, 12, -1, PillarMode.LUNAR));
+        assertRejected(() -> CalculationEightCharacters.calculationEightCharactersCode(DateUtils.toEpochDay(2020, 1, 1), 24));
+    }
+
+    @Test
+    public void dtoIsImmutable() {
+        EightCharactersDto dto = CalculationEightCharacters.calculationEightCharacters(1990, 12, 26, 7);
+        Calendar date = dto.getDate();
+        date.add(Calendar.YEAR, 1);
+        assertEquals(1990, dto.getDate().get(Calendar.YEAR));
+        dto.getLunarDate().set(Calendar.MONTH, 0);
+        assertEquals(10, dto.getLunarDate().get(Calendar.MONTH));
+        assertSame(dto.getYearHeavenlyStemEarthly(), dto.getYearHeavenlyStemEarthly());
+        assertEquals(Integer.valueOf(3), dto.getFiveElementsCountMap().get(FiveElements.TU));
+        try {
+            dto.getFiveElementsCountMap().put(FiveElements.TU, 0);
+            fail("five elements map is modifiable");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        assertEquals(dto, new EightCharactersDto(dto.getCode(), dto.getEpochHour(), dto.getLunarDateCode()));
+    }
+
+    @Test
+    public void lateZiHour() {
+        // 1990-12-26 乙丑日, 23点为次日丙寅日的子时, 丙辛从戊起, 时柱戊子
+        long lateZi = CalculationEightCharacters.calculationEightCharactersCode(1990, 12, 26, 23, 0, PillarMode.LUNAR, ZiHourMode.LATE_ZI);
+        assertSame(SexagenaryCycle.YI_CHOU, pillar(lateZi, DateEnum.DAY));
+        assertSame(SexagenaryCycle.WU_ZI, pillar(lateZi, DateEnum.HOUR));
+        assertEquals(lateZi, CalculationEightCharacters.calculationEightCharactersCode(1990, 12, 26, 23, 0, PillarMode.LUNAR));
+        assertEquals(lateZi, CalculationEightCharacters.calculationEightCharactersCode(1990, 12, 26, 23));
+
+        long rollover = CalculationEightCharacters.calculationEightCharactersCode(1990, 12, 26, 23, 0, PillarMode.LUNAR, ZiHourMode.ROLLOVER);
+        assertSame(SexagenaryCycle.BING_YIN, pillar(rollover, DateEnum.DAY));
+        assertSame(SexagenaryCycle.WU_ZI, pillar(rollover, DateEnum.HOUR));
+        assertEquals(pillar(lateZi, DateEnum.YEAR), pillar(rollover, DateEnum.YEAR));
+        assertEquals(pillar(lateZi, DateEnum.MONTH), pillar(rollover, DateEnum.MONTH));
+
+        // 次日0点的早子时与ROLLOVER下的23点日柱、时柱相同
+        long earlyZi = CalculationEightCharacters.calculationEightCharactersCode(1990, 12, 27, 0, 0, PillarMode.LUNAR, ZiHourMode.LATE_ZI);
+        assertSame(SexagenaryCycle.BING_YIN, pillar(earlyZi, DateEnum.DAY));
+        assertSame(SexagenaryCycle.WU_ZI, pillar(earlyZi, DateEnum.HOUR));
+        // 22点仍是当天的亥时
+        long hai = CalculationEightCharacters.calculationEightCharactersCode(1990, 12, 26, 22, 0, PillarMode.LUNAR, ZiHourMode.ROLLOVER);
+        assertSame(SexagenaryCycle.YI_CHOU, pillar(hai, DateEnum.DAY));
+        assertSame(SexagenaryCycle.DING_HAI, pillar(hai, DateEnum.HOUR));
+    }
+
+    private static SexagenaryCycle pillar(long code, DateEnum position) {
+        return SexagenaryCycle.getByIndex(EightCharactersCode.getSexagenaryIndex(code, position));
+    }
+
+    private static void assertRejected(Runnable calculation) {
+        try {
+            calculation.run();
+            fail("invalid fields accepted");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.demo.playful.toy;
+
+import com.demo.playful.toy.domain.EightCharactersCode;
+import com.demo.playful.toy.utils.DateUtils;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * CompatibilityMatcherTest
+ *
+ * @author 张涵林
+ * @date 2020/7/6
+ */
+public class CompatibilityMatcherTest {
+
+    @Test
+    public void topKAgainstBruteForce() {
+        long[] codes = population(new Random(20200706L), 1500);
+        try (CompatibilityMatcher matcher = new CompatibilityMatcher(codes, 4)) {
+            assertEquals(codes.length - 3, matcher.size());
+            Random random = new Random(7L);
+            for (int q = 0; q < 40; q++) {
+                long query = CalculationEightCharacters.calculationEightCharactersCode(randomEpochHour(random));
+                for (int k : new int[]{1, 10, 200, codes.length + 10}) {
+                    long[] expected = bruteForce(codes, query, -1, k, CompatibilityMatcher.NO_THRESHOLD);
+                    assertResults(expected, matcher.topK(query, k, CompatibilityMatcher.NO_THRESHOLD));
+                    // 门槛落在第k/2个结果的得分上, 同分的都保留, 更低的都去掉
+                    int minScore = CompatibilityMatcher.scoreOf(expected[(expected.length - 1) / 2]);
+                    assertResults(bruteForce(codes, query, -1, k, minScore), matcher.topK(query, k, minScore));
+                }
+                assertEquals(0, matcher.topK(query, 0, CompatibilityMatcher.NO_THRESHOLD).length);
+                assertEquals(0, matcher.topK(query, 10, Integer.MAX_VALUE).length);
+            }
+        }
+    }
+
+    @Test
+    public void topKAllExcludesSelf() {
+        long[] codes = population(new Random(42L), 600);
+        try (CompatibilityMatcher matcher = new CompatibilityMatcher(codes, 3)) {
+            for (int minScore : new int[]{CompatibilityMatcher.NO_THRESHOLD, 10}) {
+                long[][] results = matcher.topKAll(codes, 8, minScore);
+                assertEquals(codes.length, results.length);
+                for (int i = 0; i < codes.length; i++) {
+                    if (codes[i] == EightCharactersCode.INVALID) {
+                        assertEquals(0, results[i].length);
+                        continue;
+                    }
+                    assertResults(bruteForce(codes, codes[i], i, 8, minScore), results[i]);
+                    for (long result : results[i]) {
+                        assertTrue(CompatibilityMatcher.indexOf(result) != i);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void tiesOrderedByIndex() {
+        // 同一个八字重复多次, 得分全部相同
+        long code = CalculationEightCharacters.calculationEightCharactersCode(1990, 12, 26, 7);
+        long[] codes = new long[50];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = i % 7 == 3 ? EightCharactersCode.INVALID : code;
+        }
+        try (CompatibilityMatcher matcher = new CompatibilityMatcher(codes, 2)) {
+            long[] results = matcher.topK(code, 5, CompatibilityMatcher.NO_THRESHOLD);
+            assertArrayEquals(new int[]{0, 1, 2, 4, 5}, indexes(results));
+            for (long result : results) {
+                assertEquals(CompatibilityMatcher.score(code, code), CompatibilityMatcher.scoreOf(result));
+            }
+            assertArrayEquals(new int[]{1, 2, 4, 5, 6}, indexes(matcher.topKAll(codes, 5, CompatibilityMatcher.NO_THRESHOLD)[0]));
+        }
+        try {
+            CompatibilityMatcher.score(code, EightCharactersCode.INVALID);
+            fail();
+        } catch (RuntimeException expected) {
+            // 无效编码
+        }
+    }
+
+    /**
+     * 随机出生时间, 混入重复的八字和无效编码
+     */
+    private static long[] population(Random random, int size) {
+        long[] codes = new long[size];
+        for (int i = 0; i < size; i++) {
+            codes[i] = i > 0 && random.nextInt(10) == 0
+                    ? codes[random.nextInt(i)]
+                    : CalculationEightCharacters.calculationEightCharactersCode(randomEpochHour(random));
+        }
+        for (int i = 0; i < 3; i++) {
+            int index;
+            do {
+                index = random.nextInt(size);
+            } while (codes[index] == EightCharactersCode.INVALID);
+            codes[index] = EightCharactersCode.INVALID;
+        }
+        return codes;
+    }
+
+    private static long randomEpochHour(Random random) {
+        int from = DateUtils.toEpochDay(1950, 1, 1);
+        int to = DateUtils.toEpochDay(2010, 1, 1);
+        return (from + random.nextInt(to - from)) * 24L + random.nextInt(24);
+    }
+
+    /**
+     * 逐个打分后排序: 得分从高到低, 同分时下标小的在前
+     */
+    private static long[] bruteForce(long[] codes, long query, int exclude, int k, int minScore) {
+        List<long[]> scored = new ArrayList<>();
+        for (int i = 0; i < codes.length; i++) {
+            if (i == exclude || codes[i] == EightCharactersCode.INVALID) {
+                continue;
+            }
+            int score = CompatibilityMatcher.score(query, codes[i]);
+            if (score >= minScore) {
+                scored.add(new long[]{score, i});
+            }
+        }
+        scored.sort((a, b) -> a[0] != b[0] ? Long.compare(b[0], a[0]) : Long.compare(a[1], b[1]));
+        long[] expected = new long[Math.min(k, scored.size())];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = scored.get(i)[0] << 32 | scored.get(i)[1];
+        }
+        return expected;
+    }
+
+    private static void assertResults(long[] expected, long[] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals("score at " + i, (int) (expected[i] >> 32), CompatibilityMatcher.scoreOf(actual[i]));
+            assertEquals("index at " + i, (int) expected[i], CompatibilityMatcher.indexOf(actual[i]));
+        }
+    }
+
+    private static int[] indexes(long[] results) {
+        int[] indexes = new int[results.length];
+        for (int i = 0; i < results.length; i++) {
+            indexes[i] = CompatibilityMatcher.indexOf(results[i]);
+        }
+        return indexes;
+    }
+}
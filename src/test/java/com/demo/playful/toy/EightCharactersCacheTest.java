@@ -0,0 +1,77 @@
+package com.demo.playful.toy;
+
+import com.demo.playful.toy.enums.EvictionPolicy;
+import com.demo.playful.toy.utils.DateUtils;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * EightCharactersCacheTest
+ *
+ * @author 张涵林
+ * @date 2020/7/6
+ */
+public class EightCharactersCacheTest {
+    private static final long FROM = DateUtils.toEpochDay(2000, 1, 1) * 24L;
+
+    @Test
+    public void hotKeysSurviveScan() {
+        EightCharactersCache cache = new EightCharactersCache(64, EvictionPolicy.TINY_LFU, 1);
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 16; i++) {
+                cache.getCode(FROM + i);
+            }
+        }
+        long hits = cache.stats().hitCount();
+        for (int i = 0; i < 2000; i++) {
+            cache.getCode(FROM + 1000 + i);
+            if (i % 50 == 0) {
+                for (int j = 0; j < 16; j++) {
+                    cache.getCode(FROM + j);
+                }
+            }
+        }
+        // 热点键一直命中, 扫描的冷键不会把它们挤出去
+        assertEquals(2000 / 50 * 16, cache.stats().hitCount() - hits);
+        assertTrue(cache.size() <= 64);
+    }
+
+    @Test
+    public void concurrentAccess() throws Exception {
+        EightCharactersCache cache = new EightCharactersCache(256, EvictionPolicy.TINY_LFU, 4);
+        long[] expected = new long[4096];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = CalculationEightCharacters.calculationEightCharactersCode(FROM + i);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int n = 0; n < 200_000; n++) {
+                        // 一半访问落在少量热点键上
+                        int i = random.nextBoolean() ? random.nextInt(64) : random.nextInt(expected.length);
+                        assertEquals(expected[i], cache.getCode(FROM + i));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(cache.size() <= 256);
+        assertEquals(8 * 200_000L, cache.stats().requestCount());
+    }
+}
@@ -0,0 +1,120 @@
+package com.demo.playful.toy;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * EightCharactersHttpServerTest
+ *
+ * @author 张涵林
+ * @date 2020/7/6
+ */
+public class EightCharactersHttpServerTest {
+
+    @Test
+    public void single() throws IOException {
+        try (EightCharactersHttpServer server = new EightCharactersHttpServer(0, 2, 0)) {
+            server.start();
+            HttpURLConnection connection = get(server, "birth=1990-12-26%2007");
+            assertEquals(200, connection.getResponseCode());
+            JSONObject result = JSON.parseObject(read(connection.getInputStream()));
+            assertEquals("1990-12-26 07", result.getString("birth"));
+
+            // 内置HttpServer解析请求行时已经拒绝非法转义
+            assertEquals(400, get(server, "birth=1990-12-26%zz07").getResponseCode());
+
+            connection = get(server, "other=1");
+            assertEquals(400, connection.getResponseCode());
+            assertEquals("birth is required", JSON.parseObject(read(connection.getErrorStream())).getString("error"));
+        }
+    }
+
+    @Test
+    public void batch() throws IOException {
+        try (EightCharactersHttpServer server = new EightCharactersHttpServer(0, 2, 16)) {
+            server.start();
+            // 空行跳过, 无法解析的行写错误对象, 顺序与请求体一致
+            HttpURLConnection connection = post(server, EightCharactersHttpServer.BATCH_PATH,
+                    "1990-12-26 07\n\n   \nbad\r\n 2020-02-29 23 \n1990122607");
+            assertEquals(200, connection.getResponseCode());
+            JSONArray results = JSON.parseArray(read(connection.getInputStream()));
+            assertEquals(4, results.size());
+            assertEquals("1990-12-26 07", results.getJSONObject(0).getString("birth"));
+            assertNull(results.getJSONObject(0).getString("error"));
+            assertEquals("庚午", results.getJSONObject(0).getJSONObject("pillars").getString("year"));
+            assertEquals("bad", results.getJSONObject(1).getString("birth"));
+            assertEquals("bad format", results.getJSONObject(1).getString("error"));
+            assertEquals("2020-02-29 23", results.getJSONObject(2).getString("birth"));
+            assertNull(results.getJSONObject(2).getString("error"));
+            assertEquals("1990122607", results.getJSONObject(3).getString("birth"));
+            assertEquals(results.getJSONObject(0).getJSONObject("pillars"), results.getJSONObject(3).getJSONObject("pillars"));
+
+            connection = post(server, EightCharactersHttpServer.BATCH_PATH, "");
+            assertEquals(200, connection.getResponseCode());
+            assertEquals(0, JSON.parseArray(read(connection.getInputStream())).size());
+
+            // 只处理精确路径
+            connection = post(server, EightCharactersHttpServer.BATCH_PATH + "/x", "1990-12-26 07");
+            assertEquals(404, connection.getResponseCode());
+            assertEquals("not found", JSON.parseObject(read(connection.getErrorStream())).getString("error"));
+            connection = (HttpURLConnection) new URL("http://127.0.0.1:" + server.getPort() + EightCharactersHttpServer.BATCH_PATH).openConnection();
+            assertEquals(405, connection.getResponseCode());
+        }
+    }
+
+    @Test
+    public void queryParameter() throws IOException {
+        assertEquals("1990-12-26 07", EightCharactersHttpServer.queryParameter("a=1&birth=1990-12-26%2007", "birth"));
+        assertNull(EightCharactersHttpServer.queryParameter("a=1", "birth"));
+        assertNull(EightCharactersHttpServer.queryParameter(null, "birth"));
+        for (String rawQuery : new String[]{"birth=%zz", "birth=1990%", "birth=%2"}) {
+            try {
+                EightCharactersHttpServer.queryParameter(rawQuery, "birth");
+                fail(rawQuery);
+            } catch (IllegalArgumentException expected) {
+                // handleSingle返回400 bad format
+            }
+        }
+    }
+
+    private static HttpURLConnection get(EightCharactersHttpServer server, String query) throws IOException {
+        URL url = new URL("http://127.0.0.1:" + server.getPort() + EightCharactersHttpServer.SINGLE_PATH + "?" + query);
+        return (HttpURLConnection) url.openConnection();
+    }
+
+    private static HttpURLConnection post(EightCharactersHttpServer server, String path, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + server.getPort() + path).openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return connection;
+    }
+
+    private static String read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[256];
+        int n;
+        try (InputStream input = in) {
+            while ((n = input.read(buffer)) > 0) {
+                out.write(buffer, 0, n);
+            }
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,128 @@
+package com.demo.playful.toy;
+
+import com.demo.playful.toy.domain.EightCharactersCode;
+import com.demo.playful.toy.enums.PillarMode;
+import com.demo.playful.toy.enums.ZiHourMode;
+import com.demo.playful.toy.utils.DateUtils;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.Spliterator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * EightCharactersSpliteratorTest
+ *
+ * @author 张涵林
+ * @date 2020/7/6
+ */
+public class EightCharactersSpliteratorTest {
+    /**
+     * 跨过1900年内置农历表的起点, 以及2100年节气表的终点
+     */
+    private static final long[][] RANGES = {
+            {DateUtils.toEpochDay(1899, 11, 1) * 24L, DateUtils.toEpochDay(1903, 3, 1) * 24L},
+            {DateUtils.toEpochDay(2098, 6, 1) * 24L, DateUtils.toEpochDay(2101, 3, 1) * 24L},
+    };
+
+    @Test
+    public void streamsAgainstDirectCalculation() {
+        for (PillarMode mode : PillarMode.values()) {
+            for (ZiHourMode ziHourMode : ZiHourMode.values()) {
+                for (long[] range : RANGES) {
+                    long[] expected = direct(range[0], range[1], mode, ziHourMode);
+                    String message = mode + " " + ziHourMode + " " + LocalDate.ofEpochDay(range[0] / 24);
+                    assertArrayEquals(message, expected,
+                            EightCharactersSpliterator.stream(range[0], range[1], mode, ziHourMode, false).toArray());
+                    assertArrayEquals(message, expected,
+                            EightCharactersSpliterator.stream(range[0], range[1], mode, ziHourMode, true).toArray());
+
+                    // 从任意小时开始, 分块写入
+                    long from = range[0] + 13;
+                    EightCharactersSpliterator spliterator = new EightCharactersSpliterator(from, range[1], mode, ziHourMode);
+                    long[] codes = new long[(int) (range[1] - from)];
+                    int offset = 0;
+                    int n;
+                    while ((n = spliterator.fill(codes, offset, 1000)) > 0) {
+                        offset += n;
+                        assertEquals(from + offset, spliterator.getNextEpochHour());
+                    }
+                    assertEquals(codes.length, offset);
+                    for (int i = 0; i < codes.length; i++) {
+                        assertEquals(message, expected[i + 13], codes[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void tableBoundaries() {
+        // 节气表在2101-01-05 21:07结束, 21点仍可计算, 22点起无法计算
+        long end = DateUtils.toEpochDay(2101, 1, 5) * 24L;
+        long[] codes = EightCharactersSpliterator.stream(end + 20, end + 24, PillarMode.SOLAR_TERM, false).toArray();
+        assertNotEquals(EightCharactersCode.INVALID, codes[1]);
+        assertEquals(EightCharactersCode.INVALID, codes[2]);
+        assertEquals(EightCharactersCode.INVALID, codes[3]);
+        // 农历在1800-2199年都有数据
+        for (long[] range : RANGES) {
+            assertTrue(EightCharactersSpliterator.stream(range[0], range[1], PillarMode.LUNAR, false)
+                    .noneMatch(code -> code == EightCharactersCode.INVALID));
+        }
+    }
+
+    @Test
+    public void cursorRandomAccess() {
+        // 前后跳跃访问, 缓存的年月柱、日柱必须按需失效
+        Random random = new Random(20200706L);
+        for (PillarMode mode : PillarMode.values()) {
+            for (ZiHourMode ziHourMode : ZiHourMode.values()) {
+                PillarCursor cursor = new PillarCursor(mode, ziHourMode);
+                for (int i = 0; i < 3000; i++) {
+                    long[] range = RANGES[random.nextInt(RANGES.length)];
+                    long epochHour = range[0] + random.nextInt((int) (range[1] - range[0]));
+                    if (random.nextBoolean()) {
+                        // 邻近的小时, 覆盖相邻一天直接前进一位的路径
+                        epochHour = Math.min(range[1] - 1, epochHour + random.nextInt(48));
+                    }
+                    assertEquals(mode + " " + ziHourMode + " " + epochHour, direct(epochHour, mode, ziHourMode), cursor.code(epochHour));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void splitAlignedToDays() {
+        long from = RANGES[0][0] + 5;
+        EightCharactersSpliterator spliterator = new EightCharactersSpliterator(from, RANGES[0][1], PillarMode.LUNAR);
+        Spliterator.OfLong prefix = spliterator.trySplit();
+        assertEquals(0, spliterator.getNextEpochHour() % 24);
+        assertEquals(RANGES[0][1] - from, prefix.estimateSize() + spliterator.estimateSize());
+        EightCharactersSpliterator small = new EightCharactersSpliterator(from, from + 30, PillarMode.LUNAR);
+        assertNull(small.trySplit());
+    }
+
+    private static long[] direct(long from, long to, PillarMode mode, ZiHourMode ziHourMode) {
+        long[] codes = new long[(int) (to - from)];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = direct(from + i, mode, ziHourMode);
+        }
+        return codes;
+    }
+
+    private static long direct(long epochHour, PillarMode mode, ZiHourMode ziHourMode) {
+        LocalDate date = LocalDate.ofEpochDay(Math.floorDiv(epochHour, 24L));
+        try {
+            return CalculationEightCharacters.calculationEightCharactersCode(date.getYear(), date.getMonthValue(), date.getDayOfMonth(),
+                    (int) Math.floorMod(epochHour, 24L), 0, mode, ziHourMode);
+        } catch (RuntimeException e) {
+            return EightCharactersCode.INVALID;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.demo.playful.toy;
+
+import com.demo.playful.toy.domain.EightCharactersCode;
+import com.demo.playful.toy.enums.DateEnum;
+import com.demo.playful.toy.enums.FiveElements;
+import com.demo.playful.toy.enums.SexagenaryCycle;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * FiveElementsAggregatorTest
+ *
+ * @author 张涵林
+ * @date 2020/7/6
+ */
+public class FiveElementsAggregatorTest {
+    private static final PillarTable TABLE = PillarTable.generate(2020, 2021);
+    private static final FiveElementsAggregator AGGREGATOR = new FiveElementsAggregator(TABLE, new PillarIndex(TABLE));
+
+    @Test
+    public void rangesAgainstHourlyTally() {
+        long first = TABLE.getFirstEpochDay() * 24L;
+        long end = TABLE.getEndEpochDay() * 24L;
+        long[][] ranges = {
+                // 整个表, 以及超出表范围
+                {first, end},
+                {first - 100, end + 100},
+                // 首尾都不满一天
+                {first + 5, end - 7},
+                {first + 30, first + 300 * 24 + 11},
+                // 同一天之内, 以及跨越一个日界
+                {first + 24 * 40 + 3, first + 24 * 40 + 20},
+                {first + 24 * 40 + 23, first + 24 * 41 + 1},
+                // 整天对齐
+                {first + 24 * 10, first + 24 * 400},
+                // 空区间
+                {first + 50, first + 50},
+                {end, end + 24},
+        };
+        for (long[] range : ranges) {
+            long from = range[0];
+            long to = range[1];
+            long valid = 0;
+            long[] totals = new long[FiveElements.values().length];
+            long[][] histograms = new long[FiveElements.values().length][FiveElementsAggregator.MAX_COUNT + 1];
+            int[][] pillarCounts = new int[DateEnum.values().length][SexagenaryCycle.SIZE];
+            for (long epochHour = Math.max(from, first); epochHour < Math.min(to, end); epochHour++) {
+                long code = CalculationEightCharacters.calculationEightCharactersCode(epochHour);
+                if (code == EightCharactersCode.INVALID) {
+                    continue;
+                }
+                valid++;
+                for (FiveElements fiveElements : FiveElements.values()) {
+                    int count = EightCharactersCode.getFiveElementsCount(code, fiveElements);
+                    totals[fiveElements.ordinal()] += count;
+                    histograms[fiveElements.ordinal()][count]++;
+                }
+                for (DateEnum position : DateEnum.values()) {
+                    pillarCounts[position.ordinal()][EightCharactersCode.getSexagenaryIndex(code, position)]++;
+                }
+            }
+            String message = (from - first) + ".." + (to - first);
+            assertEquals(message, valid, AGGREGATOR.validHours(from, to));
+            for (FiveElements fiveElements : FiveElements.values()) {
+                long[] histogram = histograms[fiveElements.ordinal()];
+                assertEquals(message, totals[fiveElements.ordinal()], AGGREGATOR.total(fiveElements, from, to));
+                assertArrayEquals(message, histogram, AGGREGATOR.histogram(fiveElements, from, to));
+                assertEquals(message, histogram[0], AGGREGATOR.countHours(fiveElements, 0, 0, from, to));
+                assertEquals(message, histogram[2] + histogram[3] + histogram[4],
+                        AGGREGATOR.countHours(fiveElements, 2, 4, from, to));
+                assertEquals(message, valid, AGGREGATOR.countHours(fiveElements, -1, 100, from, to));
+            }
+            for (DateEnum position : DateEnum.values()) {
+                for (int pillar = 0; pillar < SexagenaryCycle.SIZE; pillar++) {
+                    assertEquals(message, pillarCounts[position.ordinal()][pillar], AGGREGATOR.countPillar(position, pillar, from, to));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.demo.playful.toy;
+
+import com.demo.playful.toy.enums.Gender;
+import com.demo.playful.toy.enums.SexagenaryCycle;
+import com.demo.playful.toy.utils.DateUtils;
+import com.demo.playful.toy.utils.SolarTermTable;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * LuckPillarGeneratorTest
+ *
+ * @author 张涵林
+ * @date 2020/7/6
+ */
+public class LuckPillarGeneratorTest {
+
+    @Test
+    public void generateSingle() {
+        // 1990-12-26 07:00 庚午年 戊子月
+        long birth = epochMinute(1990, 12, 26, 7);
+        LuckPillarTimeline timeline = new LuckPillarTimeline(3, 2);
+
+        LuckPillarGenerator.generate(birth, Gender.MALE, timeline);
+        assertTrue(timeline.isForward());
+        // 3年7个月
+        assertEquals(43, timeline.getStartAgeMonths());
+        assertEquals(SexagenaryCycle.JI_CHOU, timeline.getLuckPillar(0));
+        assertEquals(SexagenaryCycle.GENG_YIN, timeline.getLuckPillar(1));
+        assertEquals(SexagenaryCycle.XIN_MOU, timeline.getLuckPillar(2));
+        assertEquals(SexagenaryCycle.GENG_WU, timeline.getAnnualPillar(0));
+        assertEquals(SexagenaryCycle.XIN_WEI, timeline.getAnnualPillar(1));
+
+        LuckPillarGenerator.generate(birth, Gender.FEMALE, timeline);
+        assertFalse(timeline.isForward());
+        // 6年2个月
+        assertEquals(74, timeline.getStartAgeMonths());
+        assertEquals(SexagenaryCycle.DING_HAI, timeline.getLuckPillar(0));
+        assertEquals(SexagenaryCycle.BING_XU, timeline.getLuckPillar(1));
+        assertEquals(SexagenaryCycle.YI_YOU, timeline.getLuckPillar(2));
+    }
+
+    @Test
+    public void rejectBirthOutsideTable() {
+        LuckPillarTimeline timeline = new LuckPillarTimeline(3, 2);
+        for (long birth : new long[]{epochMinute(1899, 12, 31, 12), epochMinute(2101, 6, 1, 12), epochMinute(2500, 6, 1, 12)}) {
+            try {
+                LuckPillarGenerator.generate(birth, Gender.MALE, timeline);
+                fail("birth:" + birth);
+            } catch (RuntimeException expected) {
+                // 节气表之外
+            }
+        }
+        // 最后一个区间顺排数到表的结束时刻
+        LuckPillarGenerator.generate(epochMinute(2100, 12, 31, 12), Gender.MALE, timeline);
+        assertTrue(timeline.getStartAgeMonths() >= 0);
+    }
+
+    @Test
+    public void bulkMatchesSingle() {
+        int count = 1000;
+        long[] births = new long[count];
+        Gender[] genders = new Gender[count];
+        long from = epochMinute(1900, 3, 1, 0);
+        long step = (epochMinute(2100, 12, 1, 0) - from) / count;
+        for (int i = 0; i < count; i++) {
+            births[i] = from + i * step;
+            genders[i] = i % 2 == 0 ? Gender.MALE : Gender.FEMALE;
+        }
+        births[count - 1] = epochMinute(2101, 6, 1, 12);
+
+        int luckCount = 4;
+        int yearCount = 5;
+        int[] startAgeMonths = new int[count];
+        byte[] luckPillars = new byte[count * luckCount];
+        byte[] annualPillars = new byte[count * yearCount];
+        try (LuckPillarGenerator generator = new LuckPillarGenerator(4, 64, luckCount, yearCount)) {
+            generator.generate(births, genders, startAgeMonths, luckPillars, annualPillars);
+        }
+
+        LuckPillarTimeline timeline = new LuckPillarTimeline(luckCount, yearCount);
+        for (int i = 0; i < count - 1; i++) {
+            LuckPillarGenerator.generate(births[i], genders[i], timeline);
+            assertEquals(timeline.getStartAgeMonths(), startAgeMonths[i]);
+            for (int k = 0; k < luckCount; k++) {
+                assertEquals(timeline.getLuckPillarIndex(k), luckPillars[i * luckCount + k]);
+            }
+            for (int y = 0; y < yearCount; y++) {
+                assertEquals(timeline.getAnnualPillarIndex(y), annualPillars[i * yearCount + y]);
+            }
+        }
+        int last = count - 1;
+        assertEquals(LuckPillarGenerator.INVALID, startAgeMonths[last]);
+        assertArrayEquals(new byte[]{-1, -1, -1, -1}, Arrays.copyOfRange(luckPillars, last * luckCount, count * luckCount));
+        assertArrayEquals(new byte[]{-1, -1, -1, -1, -1}, Arrays.copyOfRange(annualPillars, last * yearCount, count * yearCount));
+    }
+
+    private static long epochMinute(int year, int month, int day, int hour) {
+        return SolarTermTable.toEpochMinute(DateUtils.toEpochDay(year, month, day), hour, 0);
+    }
+}
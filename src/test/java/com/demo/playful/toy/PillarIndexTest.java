@@ -0,0 +1,91 @@
+package com.demo.playful.toy;
+
+import com.demo.playful.toy.domain.EightCharactersCode;
+import com.demo.playful.toy.enums.DateEnum;
+import com.demo.playful.toy.enums.SexagenaryCycle;
+import com.demo.playful.toy.utils.DateUtils;
+import org.junit.Test;
+
+import java.util.stream.LongStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * PillarIndexTest
+ *
+ * @author 张涵林
+ * @date 2020/7/6
+ */
+public class PillarIndexTest {
+    private static final PillarTable TABLE = PillarTable.generate(2020, 2021);
+    private static final PillarIndex INDEX = new PillarIndex(TABLE);
+
+    @Test
+    public void range() {
+        assertEquals(TABLE.getFirstEpochDay() * 24L, INDEX.getFirstEpochHour());
+        assertEquals(TABLE.getEndEpochDay() * 24L, INDEX.getEndEpochHour());
+    }
+
+    @Test
+    public void fullPattern() {
+        long code = TABLE.getCode(DateUtils.toEpochDay(2020, 2, 29), 23);
+        long[] expected = scan(EightCharactersCode.getSexagenaryIndex(code, DateEnum.YEAR), EightCharactersCode.getSexagenaryIndex(code, DateEnum.MONTH),
+                EightCharactersCode.getSexagenaryIndex(code, DateEnum.DAY), EightCharactersCode.getSexagenaryIndex(code, DateEnum.HOUR),
+                INDEX.getFirstEpochHour(), INDEX.getEndEpochHour());
+        assertTrue(expected.length > 0);
+        assertArrayEquals(expected, INDEX.find(code).toArray());
+    }
+
+    @Test
+    public void partialPattern() {
+        // 只限定日柱和时柱, 年柱月柱不限
+        int day = SexagenaryCycle.JIA_ZI.ordinal();
+        int hour = SexagenaryCycle.JIA_ZI.ordinal();
+        long first = INDEX.getFirstEpochHour();
+        long end = INDEX.getEndEpochHour();
+        long[] expected = scan(PillarIndex.ANY, PillarIndex.ANY, day, hour, first, end);
+        assertTrue(expected.length > 1);
+        assertArrayEquals(expected, INDEX.find(PillarIndex.ANY, PillarIndex.ANY, day, hour).toArray());
+
+        // 区间端点落在匹配的小时上, 以及超出表范围的区间
+        long from = expected[1];
+        long to = expected[expected.length - 1];
+        assertArrayEquals(scan(PillarIndex.ANY, PillarIndex.ANY, day, hour, from, to),
+                INDEX.find(PillarIndex.ANY, PillarIndex.ANY, day, hour, from, to).toArray());
+        assertArrayEquals(expected, INDEX.find(PillarIndex.ANY, PillarIndex.ANY, day, hour, first - 1000, end + 1000).toArray());
+        assertEquals(0, INDEX.find(PillarIndex.ANY, PillarIndex.ANY, day, hour, end, end + 1000).count());
+        assertEquals(0, INDEX.find(PillarIndex.ANY, PillarIndex.ANY, day, SexagenaryCycle.SIZE).count());
+
+        for (DateEnum position : DateEnum.values()) {
+            for (int pillar = 0; pillar < SexagenaryCycle.SIZE; pillar += 7) {
+                int[] pillars = {PillarIndex.ANY, PillarIndex.ANY, PillarIndex.ANY, PillarIndex.ANY};
+                pillars[position.ordinal()] = pillar;
+                assertEquals(scan(pillars[0], pillars[1], pillars[2], pillars[3], from, to).length,
+                        INDEX.count(position, pillar, from, to));
+            }
+        }
+        assertEquals(end - first, INDEX.find(PillarIndex.ANY, PillarIndex.ANY, PillarIndex.ANY, PillarIndex.ANY).count());
+    }
+
+    /**
+     * 逐小时扫描预计算表
+     */
+    private static long[] scan(int year, int month, int day, int hour, long from, long to) {
+        int[] pillars = {year, month, day, hour};
+        return LongStream.range(Math.max(from, INDEX.getFirstEpochHour()), Math.min(to, INDEX.getEndEpochHour())).filter(epochHour -> {
+            long code = TABLE.getCode(epochHour);
+            if (code == EightCharactersCode.INVALID) {
+                return false;
+            }
+            for (DateEnum position : DateEnum.values()) {
+                int pillar = pillars[position.ordinal()];
+                if (pillar != PillarIndex.ANY && pillar != EightCharactersCode.getSexagenaryIndex(code, position)) {
+                    return false;
+                }
+            }
+            return true;
+        }).toArray();
+    }
+}
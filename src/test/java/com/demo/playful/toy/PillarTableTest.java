@@ -0,0 +1,70 @@
+package com.demo.playful.toy;
+
+import com.demo.playful.toy.enums.Earthly;
+import com.demo.playful.toy.utils.DateUtils;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * PillarTableTest
+ *
+ * @author 张涵林
+ * @date 2020/7/6
+ */
+public class PillarTableTest {
+
+    @Test
+    public void hourSlots() {
+        assertEquals(0, PillarTable.hourToSlot(0));
+        assertEquals(PillarTable.LATE_ZI_SLOT, PillarTable.hourToSlot(23));
+        for (int hour = 1; hour < 23; hour++) {
+            assertEquals(Earthly.getHourEarthly(hour).ordinal(), PillarTable.hourToSlot(hour));
+            assertEquals((hour + 1) / 2, PillarTable.hourToSlot(hour));
+        }
+        assertEquals(0, PillarTable.slotToHour(0));
+        assertEquals(23, PillarTable.slotToHour(PillarTable.LATE_ZI_SLOT));
+        for (int slot = 0; slot < PillarTable.SLOTS_PER_DAY; slot++) {
+            assertEquals(slot, PillarTable.hourToSlot(PillarTable.slotToHour(slot)));
+        }
+    }
+
+    @Test
+    public void generatedSlots() {
+        // 已加载的农历分段不影响默认范围
+        DateUtils.LunarDate.ensureYear(1850);
+        PillarTable table = PillarTable.generate();
+        assertEquals(DateUtils.toEpochDay(1900, 1, 31), table.getFirstEpochDay());
+        assertEquals(DateUtils.LunarDate.lunarToSolar(2099, 12, false, 1, 0) / 24 + 30, table.getEndEpochDay());
+        int[] days = {table.getFirstEpochDay(), DateUtils.toEpochDay(1990, 12, 26), DateUtils.toEpochDay(2020, 2, 29),
+                table.getEndEpochDay() - 1};
+        for (int epochDay : days) {
+            assertEquals(DateUtils.LunarDate.solarToLunar(epochDay), table.getLunarDate(epochDay));
+            for (int hour = 0; hour < 24; hour++) {
+                assertEquals(CalculationEightCharacters.calculationEightCharactersCode(epochDay, hour), table.getCode(epochDay, hour));
+            }
+            // 晚子时单独一格, 与0点的子时时干不同
+            assertEquals(CalculationEightCharacters.calculationEightCharactersCode(epochDay, 23),
+                    table.getSlotCode(epochDay, PillarTable.LATE_ZI_SLOT));
+            assertEquals(table.getCode(epochDay, 23), table.getCode(epochDay * 24L + 23));
+        }
+    }
+
+    @Test
+    public void generateYearRange() {
+        PillarTable table = PillarTable.generate(2150, 2151);
+        assertEquals(DateUtils.LunarDate.lunarToSolar(2150, 1, false, 1, 0) / 24, table.getFirstEpochDay());
+        assertEquals(2150 << 16 | 1, table.getLunarDate(table.getFirstEpochDay()));
+        assertEquals(2151, DateUtils.LunarDate.getLunarYear(table.getLunarDate(table.getEndEpochDay() - 1)));
+        assertEquals(2152 << 16 | 1, DateUtils.LunarDate.solarToLunar(table.getEndEpochDay()));
+        int epochDay = table.getFirstEpochDay() + 100;
+        assertEquals(CalculationEightCharacters.calculationEightCharactersCode(epochDay, 23), table.getCode(epochDay, 23));
+        try {
+            PillarTable.generate(1700, 1701);
+            fail();
+        } catch (RuntimeException expected) {
+            // 没有1700年代的农历数据
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.demo.playful.toy.enums;
+
+import com.demo.playful.toy.utils.DateUtils;
+import org.junit.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * SexagenaryCycleTest
+ *
+ * @author 张涵林
+ * @date 2020/7/6
+ */
+public class SexagenaryCycleTest {
+
+    @Test
+    public void dayPillarAnchors() {
+        assertSame(SexagenaryCycle.JIA_ZI, SexagenaryCycle.getDayPillar(DateUtils.toEpochDay(1949, 10, 1)));
+        assertSame(SexagenaryCycle.WU_WU, SexagenaryCycle.getDayPillar(DateUtils.toEpochDay(2000, 1, 1)));
+        assertSame(SexagenaryCycle.XIN_SI, SexagenaryCycle.getDayPillar(0));
+    }
+
+    @Test
+    public void dayPillarEveryDay() {
+        // 以1949-10-01甲子为锚点, 逐日数到1800-2199年的每一天
+        int anchor = DateUtils.toEpochDay(1949, 10, 1);
+        for (LocalDate date = LocalDate.of(1800, 1, 1); date.getYear() < 2200; date = date.plusDays(1)) {
+            int year = date.getYear();
+            int month = date.getMonthValue();
+            int day = date.getDayOfMonth();
+            int epochDay = DateUtils.toEpochDay(year, month, day);
+            assertEquals(date.toEpochDay(), epochDay);
+
+            SexagenaryCycle expected = SexagenaryCycle.JIA_ZI.plus(Math.floorMod(epochDay - anchor, SexagenaryCycle.SIZE));
+            SexagenaryCycle dayPillar = SexagenaryCycle.getDayPillar(epochDay);
+            assertSame(date.toString(), expected, dayPillar);
+            assertEquals(dayPillar.ordinal(), SexagenaryCycle.dayIndexOfJulianDay(epochDay + SexagenaryCycle.EPOCH_JULIAN_DAY));
+            assertSame(date.toString(), dayPillar.getHeavenlyStem(), HeavenlyStem.getDayHeavenlyStem(year, month - 1, day));
+            assertSame(date.toString(), dayPillar.getEarthly(), Earthly.getDayEarthly(year, month - 1, day));
+        }
+    }
+
+    @Test
+    public void hourPillarTable() {
+        // 五鼠遁: 甲己还加甲, 乙庚丙作初, 丙辛从戊起, 丁壬庚子居, 戊癸何方发, 壬子是真途
+        HeavenlyStem[] ziStems = {HeavenlyStem.JIA, HeavenlyStem.BING, HeavenlyStem.WU, HeavenlyStem.GENG, HeavenlyStem.REN};
+        for (int stem = 0; stem < 10; stem++) {
+            HeavenlyStem dayStem = HeavenlyStem.values()[stem];
+            // 日干为stem的任一日柱
+            SexagenaryCycle dayPillar = SexagenaryCycle.getByIndex(stem);
+            assertSame(dayStem, dayPillar.getHeavenlyStem());
+            for (int earthly = 0; earthly < 12; earthly++) {
+                HeavenlyStem expected = HeavenlyStem.values()[(ziStems[stem % 5].ordinal() + earthly) % 10];
+                Earthly hourEarthly = Earthly.values()[earthly];
+                assertEquals(expected.ordinal(), SexagenaryCycle.hourHeavenlyStem(stem, earthly));
+                assertSame(expected, HeavenlyStem.getHourHeavenlyStem(dayStem, hourEarthly));
+                // 子时取0点, 其余时辰的两个小时
+                int[] hours = earthly == 0 ? new int[]{0} : new int[]{earthly * 2 - 1, earthly * 2};
+                for (int hour : hours) {
+                    assertEquals(earthly, SexagenaryCycle.hourEarthly(hour));
+                    SexagenaryCycle hourPillar = SexagenaryCycle.getHourPillar(dayPillar, hour);
+                    assertSame(expected, hourPillar.getHeavenlyStem());
+                    assertSame(hourEarthly, hourPillar.getEarthly());
+                    assertEquals(hourPillar.ordinal(), SexagenaryCycle.hourIndex(stem, hour));
+                }
+            }
+            // 23点是次日的子时, 时干按次日日干起
+            SexagenaryCycle lateZi = SexagenaryCycle.getHourPillar(dayPillar, 23);
+            assertSame(ziStems[(stem + 1) % 5], lateZi.getHeavenlyStem());
+            assertSame(Earthly.ZI, lateZi.getEarthly());
+            assertSame(SexagenaryCycle.getHourPillar(dayPillar.plus(1), 0), lateZi);
+        }
+    }
+}
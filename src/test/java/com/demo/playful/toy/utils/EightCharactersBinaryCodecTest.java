@@ -0,0 +1,162 @@
+package com.demo.playful.toy.utils;
+
+import com.demo.playful.toy.CalculationEightCharacters;
+import com.demo.playful.toy.domain.EightCharactersCode;
+import com.demo.playful.toy.domain.EightCharactersDto;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * EightCharactersBinaryCodecTest
+ *
+ * @author 张涵林
+ * @date 2020/7/6
+ */
+public class EightCharactersBinaryCodecTest {
+    /**
+     * 1990-12-26 07时
+     */
+    private static final long EPOCH_HOUR = DateUtils.toEpochDay(1990, 12, 26) * 24L + 7;
+    /**
+     * 2020-05-23 为闰四月初一
+     */
+    private static final int LEAP_EPOCH_DAY = DateUtils.toEpochDay(2020, 5, 23);
+    /**
+     * 1850-03-01 12时, epoch-hour为负数, 农历来自1800年分段
+     */
+    private static final long NEGATIVE_EPOCH_HOUR = DateUtils.toEpochDay(1850, 3, 1) * 24L + 12;
+
+    @Test
+    public void absoluteRoundTrip() {
+        for (ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+            ByteBuffer buffer = ByteBuffer.allocate(EightCharactersBinaryCodec.RECORD_SIZE * 3).order(order);
+            long[] epochHours = {EPOCH_HOUR, LEAP_EPOCH_DAY * 24L + 23, NEGATIVE_EPOCH_HOUR};
+            for (int i = epochHours.length - 1; i >= 0; i--) {
+                EightCharactersBinaryCodec.encode(buffer, i * EightCharactersBinaryCodec.RECORD_SIZE, code(epochHours[i]), epochHours[i],
+                        lunarDate(epochHours[i]));
+            }
+            assertEquals(0, buffer.position());
+            for (int i = 0; i < epochHours.length; i++) {
+                int offset = i * EightCharactersBinaryCodec.RECORD_SIZE;
+                assertEquals(code(epochHours[i]), EightCharactersBinaryCodec.decodeCode(buffer, offset));
+                assertEquals(epochHours[i], EightCharactersBinaryCodec.decodeEpochHour(buffer, offset));
+                assertEquals(lunarDate(epochHours[i]), EightCharactersBinaryCodec.decodeLunarDate(buffer, offset));
+            }
+        }
+    }
+
+    @Test
+    public void leapMonthLunarDate() {
+        int lunarDate = DateUtils.LunarDate.solarToLunar(LEAP_EPOCH_DAY);
+        assertTrue(DateUtils.LunarDate.isLeapMonth(lunarDate));
+        assertEquals(3, DateUtils.LunarDate.getLunarMonth(lunarDate));
+        assertEquals(1, DateUtils.LunarDate.getLunarDay(lunarDate));
+
+        ByteBuffer buffer = ByteBuffer.allocate(EightCharactersBinaryCodec.RECORD_SIZE);
+        EightCharactersBinaryCodec.encode(buffer, 0, code(LEAP_EPOCH_DAY * 24L), LEAP_EPOCH_DAY * 24L, lunarDate);
+        int decoded = EightCharactersBinaryCodec.decodeLunarDate(buffer, 0);
+        assertEquals(lunarDate, decoded);
+        assertTrue(DateUtils.LunarDate.isLeapMonth(decoded));
+    }
+
+    @Test
+    public void negativeEpochHour() {
+        assertTrue(NEGATIVE_EPOCH_HOUR < 0);
+        ByteBuffer buffer = ByteBuffer.allocate(EightCharactersBinaryCodec.RECORD_SIZE);
+        long code = code(NEGATIVE_EPOCH_HOUR);
+        int lunarDate = lunarDate(NEGATIVE_EPOCH_HOUR);
+        assertEquals(1850, DateUtils.LunarDate.getLunarYear(lunarDate));
+        EightCharactersBinaryCodec.encode(buffer, code, NEGATIVE_EPOCH_HOUR, lunarDate);
+        buffer.flip();
+        EightCharactersDto dto = EightCharactersBinaryCodec.decode(buffer);
+        assertEquals(code, dto.getCode());
+        assertEquals(NEGATIVE_EPOCH_HOUR, dto.getEpochHour());
+        assertEquals(lunarDate, dto.getLunarDateCode());
+        assertEquals(1850, dto.getLocalDateTime().getYear());
+        assertEquals(12, dto.getLocalDateTime().getHour());
+    }
+
+    @Test
+    public void invalidCode() {
+        ByteBuffer buffer = ByteBuffer.allocate(EightCharactersBinaryCodec.RECORD_SIZE);
+        EightCharactersBinaryCodec.encode(buffer, 0, EightCharactersCode.INVALID, EPOCH_HOUR, lunarDate(EPOCH_HOUR));
+        assertEquals(EightCharactersCode.INVALID, EightCharactersBinaryCodec.decodeCode(buffer, 0));
+        assertEquals(EPOCH_HOUR, EightCharactersBinaryCodec.decodeEpochHour(buffer, 0));
+        assertEquals(lunarDate(EPOCH_HOUR), EightCharactersBinaryCodec.decodeLunarDate(buffer, 0));
+    }
+
+    @Test
+    public void positionalRoundTrip() {
+        ByteBuffer buffer = ByteBuffer.allocate(EightCharactersBinaryCodec.RECORD_SIZE * 3 + 5);
+        buffer.position(5);
+        EightCharactersBinaryCodec.encode(buffer, code(EPOCH_HOUR), EPOCH_HOUR, lunarDate(EPOCH_HOUR));
+        EightCharactersBinaryCodec.encode(buffer, new EightCharactersDto(EightCharactersCode.INVALID, NEGATIVE_EPOCH_HOUR,
+                lunarDate(NEGATIVE_EPOCH_HOUR)));
+        EightCharactersBinaryCodec.encode(buffer, code(LEAP_EPOCH_DAY * 24L), LEAP_EPOCH_DAY * 24L, lunarDate(LEAP_EPOCH_DAY * 24L));
+        assertFalse(buffer.hasRemaining());
+
+        buffer.position(5);
+        EightCharactersDto first = EightCharactersBinaryCodec.decode(buffer);
+        assertEquals(code(EPOCH_HOUR), first.getCode());
+        assertEquals(EPOCH_HOUR, first.getEpochHour());
+        assertEquals(lunarDate(EPOCH_HOUR), first.getLunarDateCode());
+        EightCharactersDto second = EightCharactersBinaryCodec.decode(buffer);
+        assertEquals(EightCharactersCode.INVALID, second.getCode());
+        assertEquals(NEGATIVE_EPOCH_HOUR, second.getEpochHour());
+        EightCharactersDto third = EightCharactersBinaryCodec.decode(buffer);
+        assertTrue(DateUtils.LunarDate.isLeapMonth(third.getLunarDateCode()));
+        assertEquals(5 + EightCharactersBinaryCodec.RECORD_SIZE * 3, buffer.position());
+    }
+
+    @Test
+    public void bulkRoundTrip() {
+        int length = 24 * 400;
+        long[] codes = new long[length];
+        long[] epochHours = new long[length];
+        int[] lunarDates = new int[length];
+        // 跨过1900年前后和2020年闰四月
+        for (int i = 0; i < length; i++) {
+            long epochHour = (i % 2 == 0 ? NEGATIVE_EPOCH_HOUR : LEAP_EPOCH_DAY * 24L) + i;
+            epochHours[i] = epochHour;
+            codes[i] = i % 97 == 0 ? EightCharactersCode.INVALID : code(epochHour);
+            lunarDates[i] = lunarDate(epochHour);
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(EightCharactersBinaryCodec.RECORD_SIZE * length + 1);
+        buffer.put((byte) 0x7F);
+        EightCharactersBinaryCodec.encode(buffer, codes, epochHours, lunarDates, length);
+        assertEquals(1 + EightCharactersBinaryCodec.RECORD_SIZE * length, buffer.position());
+
+        long[] decodedCodes = new long[length];
+        long[] decodedEpochHours = new long[length];
+        int[] decodedLunarDates = new int[length];
+        buffer.position(1);
+        EightCharactersBinaryCodec.decode(buffer, decodedCodes, decodedEpochHours, decodedLunarDates, length);
+        assertEquals(1 + EightCharactersBinaryCodec.RECORD_SIZE * length, buffer.position());
+        for (int i = 0; i < length; i++) {
+            assertEquals(codes[i], decodedCodes[i]);
+            assertEquals(epochHours[i], decodedEpochHours[i]);
+            assertEquals(lunarDates[i], decodedLunarDates[i]);
+        }
+        assertEquals((byte) 0x7F, buffer.get(0));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void epochHourOutOfRange() {
+        EightCharactersBinaryCodec.encode(ByteBuffer.allocate(EightCharactersBinaryCodec.RECORD_SIZE), 0, EightCharactersCode.INVALID,
+                Integer.MAX_VALUE + 1L, lunarDate(EPOCH_HOUR));
+    }
+
+    private static long code(long epochHour) {
+        return CalculationEightCharacters.calculationEightCharactersCode(epochHour);
+    }
+
+    private static int lunarDate(long epochHour) {
+        return DateUtils.LunarDate.solarToLunar((int) Math.floorDiv(epochHour, 24L));
+    }
+}
@@ -0,0 +1,182 @@
+package com.demo.playful.toy.utils;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import com.demo.playful.toy.CalculationEightCharacters;
+import com.demo.playful.toy.domain.EightCharactersCode;
+import com.demo.playful.toy.domain.EightCharactersDto;
+import com.demo.playful.toy.enums.DateEnum;
+import com.demo.playful.toy.enums.FiveElements;
+import com.demo.playful.toy.enums.SexagenaryCycle;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+/**
+ * EightCharactersJsonWriterTest
+ *
+ * @author 张涵林
+ * @date 2020/7/6
+ */
+public class EightCharactersJsonWriterTest {
+    /**
+     * 1990-12-26 07时
+     */
+    private static final long EPOCH_HOUR = DateUtils.toEpochDay(1990, 12, 26) * 24L + 7;
+
+    @Test
+    public void writeResult() {
+        JSONObject object = JSON.parseArray(write(writer -> writer.writeResult(code(EPOCH_HOUR), EPOCH_HOUR, lunarDate(EPOCH_HOUR)))).getJSONObject(0);
+        assertEquals("1990-12-26 07", object.getString("date"));
+        assertNull(object.get("birth"));
+        JSONObject pillars = object.getJSONObject("pillars");
+        assertEquals("庚午", pillars.getString("year"));
+        assertEquals("戊子", pillars.getString("month"));
+        assertEquals("乙丑", pillars.getString("day"));
+        assertEquals("庚辰", pillars.getString("hour"));
+        assertEquals("庚午年冬月初十 辰时", object.getString("lunarDate"));
+        JSONObject fiveElements = object.getJSONObject("fiveElements");
+        assertEquals(2, fiveElements.getIntValue("金"));
+        assertEquals(1, fiveElements.getIntValue("木"));
+        assertEquals(1, fiveElements.getIntValue("水"));
+        assertEquals(1, fiveElements.getIntValue("火"));
+        assertEquals(3, fiveElements.getIntValue("土"));
+    }
+
+    @Test
+    public void manyResultsAcrossBufferDrains() {
+        final int count = 24 * 60;
+        final long from = DateUtils.toEpochDay(1850, 1, 1) * 24L;
+        JSONArray array = JSON.parseArray(write(writer -> {
+            for (int i = 0; i < count; i++) {
+                long epochHour = from + i * 97L;
+                writer.write(new EightCharactersDto(code(epochHour), epochHour, lunarDate(epochHour)));
+            }
+        }));
+        assertEquals(count, array.size());
+        for (int i = 0; i < count; i++) {
+            long epochHour = from + i * 97L;
+            assertResult(array.getJSONObject(i), code(epochHour), epochHour);
+        }
+    }
+
+    @Test
+    public void writeError() {
+        JSONArray array = JSON.parseArray(write(writer -> {
+            writer.writeResult("1990-12-26 07", EightCharactersCode.INVALID, EPOCH_HOUR, lunarDate(EPOCH_HOUR));
+            writer.writeError(null, "bad format");
+        }));
+        assertEquals(2, array.size());
+        assertEquals("1990-12-26 07", array.getJSONObject(0).getString("birth"));
+        assertEquals("calculation failed", array.getJSONObject(0).getString("error"));
+        assertNull(array.getJSONObject(0).get("pillars"));
+        assertEquals("bad format", array.getJSONObject(1).getString("error"));
+        assertEquals(1, array.getJSONObject(1).size());
+    }
+
+    @Test
+    public void escape() {
+        final String quoted = "a\"b\\c/d";
+        final String control = "\u0000\u0001\b\t\n\f\r\u001f end";
+        final String surrogates = "𠀀😀生辰é";
+        JSONArray array = JSON.parseArray(write(writer -> {
+            writer.writeResult(quoted, code(EPOCH_HOUR), EPOCH_HOUR, lunarDate(EPOCH_HOUR));
+            writer.writeError(control, surrogates);
+            writer.writeError("\uD800x\uDC00", "\uD83D");
+        }));
+        assertEquals(quoted, array.getJSONObject(0).getString("birth"));
+        assertEquals("庚午", array.getJSONObject(0).getJSONObject("pillars").getString("year"));
+        assertEquals(control, array.getJSONObject(1).getString("birth"));
+        assertEquals(surrogates, array.getJSONObject(1).getString("error"));
+        // 不成对的代理字符写为?
+        assertEquals("?x?", array.getJSONObject(2).getString("birth"));
+        assertEquals("?", array.getJSONObject(2).getString("error"));
+    }
+
+    @Test
+    public void escapeBytes() {
+        String text = write(writer -> writer.writeError("\n\u0001", "𠀀"));
+        assertEquals("[{\"birth\":\"\\u000a\\u0001\",\"error\":\"𠀀\"}]", text);
+    }
+
+    @Test
+    public void byteBufferTarget() {
+        ByteBuffer target = ByteBuffer.allocate(64 * 1024);
+        target.put((byte) ' ');
+        EightCharactersJsonWriter writer = new EightCharactersJsonWriter(target);
+        writer.beginArray();
+        for (int i = 0; i < 100; i++) {
+            long epochHour = EPOCH_HOUR + i;
+            writer.writeResult(code(epochHour), epochHour, lunarDate(epochHour));
+        }
+        writer.writeError("\"", "𠀀");
+        writer.endArray();
+        writer.flush();
+        assertEquals(0, writer.buffered());
+
+        target.flip();
+        JSONArray array = JSON.parseArray(StandardCharsets.UTF_8.decode(target).toString().trim());
+        assertEquals(101, array.size());
+        for (int i = 0; i < 100; i++) {
+            assertResult(array.getJSONObject(i), code(EPOCH_HOUR + i), EPOCH_HOUR + i);
+        }
+        assertEquals("\"", array.getJSONObject(100).getString("birth"));
+        assertEquals("𠀀", array.getJSONObject(100).getString("error"));
+    }
+
+    @Test(expected = BufferOverflowException.class)
+    public void byteBufferTargetOverflow() {
+        EightCharactersJsonWriter writer = new EightCharactersJsonWriter(ByteBuffer.allocate(100));
+        writer.beginArray();
+        for (int i = 0; i < 10; i++) {
+            writer.writeResult(code(EPOCH_HOUR), EPOCH_HOUR, lunarDate(EPOCH_HOUR));
+        }
+        writer.endArray();
+        writer.flush();
+    }
+
+    private static void assertResult(JSONObject object, long code, long epochHour) {
+        JSONObject pillars = object.getJSONObject("pillars");
+        String[] keys = {"year", "month", "day", "hour"};
+        DateEnum[] positions = {DateEnum.YEAR, DateEnum.MONTH, DateEnum.DAY, DateEnum.HOUR};
+        for (int i = 0; i < keys.length; i++) {
+            String expected = SexagenaryCycle.getByIndex(EightCharactersCode.getSexagenaryIndex(code, positions[i])).getName();
+            assertEquals(expected, pillars.getString(keys[i]));
+        }
+        assertEquals(DateUtils.LunarDate.lunarDateToString(lunarDate(epochHour), (int) Math.floorMod(epochHour, 24L)),
+                object.getString("lunarDate"));
+        JSONObject fiveElements = object.getJSONObject("fiveElements");
+        for (FiveElements element : FiveElements.values()) {
+            assertEquals(EightCharactersCode.getFiveElementsCount(code, element), fiveElements.getIntValue(element.getName()));
+        }
+        assertFalse(object.containsKey("error"));
+    }
+
+    private static String write(Consumer<EightCharactersJsonWriter> writes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // 最小缓冲区, 让片段跨越多次写出
+        EightCharactersJsonWriter writer = new EightCharactersJsonWriter(out, 0);
+        writer.beginArray();
+        writes.accept(writer);
+        writer.endArray();
+        writer.flush();
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static long code(long epochHour) {
+        return CalculationEightCharacters.calculationEightCharactersCode(epochHour);
+    }
+
+    private static int lunarDate(long epochHour) {
+        return DateUtils.LunarDate.solarToLunar((int) Math.floorDiv(epochHour, 24L));
+    }
+}
@@ -0,0 +1,68 @@
+package com.demo.playful.toy.utils;
+
+import com.demo.playful.toy.CalculationEightCharacters;
+import com.demo.playful.toy.domain.EightCharactersDto;
+import com.demo.playful.toy.enums.Stage;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * InstrumentationTest
+ *
+ * @author 张涵林
+ * @date 2020/7/6
+ */
+public class InstrumentationTest {
+
+    @After
+    public void disable() {
+        Instrumentation.setEnabled(false);
+        Instrumentation.reset();
+    }
+
+    @Test
+    public void everyStageRecorded() {
+        Instrumentation.setEnabled(true);
+        Instrumentation.reset();
+        assertEquals("庚午 戊子 乙丑 庚辰", calculate("1990-12-26 07"));
+        for (Stage stage : Stage.values()) {
+            Instrumentation.StageMXBean metrics = Instrumentation.getMetrics(stage);
+            assertEquals(stage.getCode(), 1, metrics.getCount());
+            long buckets = 0;
+            for (long bucket : metrics.getHistogram()) {
+                buckets += bucket;
+            }
+            assertEquals(stage.getCode(), 1, buckets);
+            assertTrue(stage.getCode(), metrics.getP99Nanos() > 0);
+        }
+
+        // 关闭后不再记录
+        Instrumentation.setEnabled(false);
+        Instrumentation.reset();
+        assertEquals("庚午 戊子 乙丑 庚辰", calculate("1990-12-26 07"));
+        for (Stage stage : Stage.values()) {
+            assertEquals(stage.getCode(), 0, Instrumentation.getMetrics(stage).getCount());
+            assertEquals(stage.getCode(), 0, Instrumentation.getMetrics(stage).getTotalNanos());
+        }
+    }
+
+    @Test
+    public void buckets() {
+        assertEquals(0, Instrumentation.bucketOf(0));
+        assertEquals(1, Instrumentation.bucketOf(1));
+        assertEquals(2, Instrumentation.bucketOf(2));
+        assertEquals(2, Instrumentation.bucketOf(3));
+        assertEquals(11, Instrumentation.bucketOf(1024));
+        assertEquals(Instrumentation.BUCKETS - 1, Instrumentation.bucketOf(Long.MAX_VALUE));
+    }
+
+    private static String calculate(String birth) {
+        long parsed = TimestampParser.parse(birth);
+        EightCharactersDto eightCharacters = CalculationEightCharacters.calculationEightCharacters(TimestampParser.getYear(parsed),
+                TimestampParser.getMonth(parsed), TimestampParser.getDay(parsed), TimestampParser.getHour(parsed));
+        return eightCharacters.heavenlyStemEarthlyNameToString();
+    }
+}
@@ -0,0 +1,108 @@
+package com.demo.playful.toy.utils;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * LunarDataSegmentTest
+ *
+ * @author 张涵林
+ * @date 2020/7/6
+ */
+public class LunarDataSegmentTest {
+
+    @Test
+    public void writeRead() throws IOException {
+        LunarDataSegment segment = new ClasspathLunarDataProvider().load(1850);
+        assertEquals(1800, segment.getFirstYear());
+        assertEquals(1899, segment.getLastYear());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        segment.write(out);
+        byte[] bytes = out.toByteArray();
+        // 魔数、起始年份、年数, 之后每年3字节
+        assertEquals(12 + 100 * 3, bytes.length);
+        assertArrayEquals(new byte[]{'L', 'N', 'R', '1'}, new byte[]{bytes[0], bytes[1], bytes[2], bytes[3]});
+
+        LunarDataSegment read = LunarDataSegment.read(new ByteArrayInputStream(bytes));
+        assertEquals(segment.getFirstYear(), read.getFirstYear());
+        assertEquals(segment.getLastYear(), read.getLastYear());
+        for (int year = read.getFirstYear(); year <= read.getLastYear(); year++) {
+            assertEquals(segment.getInfo(year), read.getInfo(year));
+        }
+
+        bytes[0] = 'X';
+        try {
+            LunarDataSegment.read(new ByteArrayInputStream(bytes));
+            fail();
+        } catch (IOException expected) {
+            // 魔数不符
+        }
+        bytes[0] = 'L';
+        bytes[11] = 0;
+        try {
+            LunarDataSegment.read(new ByteArrayInputStream(bytes));
+            fail();
+        } catch (IOException expected) {
+            // 年数为0
+        }
+    }
+
+    @Test
+    public void pack() {
+        // 2020年闰四月, 正月初一为1月25日, 各月天数由内置表换算
+        long[] starts = new long[14];
+        for (int slot = 0; slot < 13; slot++) {
+            // 按出现顺序: 正月至四月、闰四月、五月至十二月
+            starts[slot] = DateUtils.LunarDate.lunarToSolar(2020, slot <= 4 ? Math.min(slot + 1, 4) : slot, slot == 4, 1, 0);
+        }
+        starts[13] = DateUtils.LunarDate.lunarToSolar(2021, 1, false, 1, 0);
+        int[] monthDays = new int[13];
+        for (int slot = 0; slot < monthDays.length; slot++) {
+            monthDays[slot] = (int) ((starts[slot + 1] - starts[slot]) / 24);
+        }
+        assertArrayEquals(new int[]{29, 30, 30, 30, 29, 30, 29, 29, 30, 29, 30, 29, 30}, monthDays);
+
+        int info = LunarDataSegment.pack(4, monthDays, 1, 25);
+        assertEquals(4, info >>> 20);
+        assertEquals(1, (info >> 5) & 0x3);
+        assertEquals(25, info & 0x1F);
+        for (int slot = 0; slot < monthDays.length; slot++) {
+            assertEquals(monthDays[slot] == 30, (info & (0x80000 >> slot)) != 0);
+        }
+
+        assertPackInvalid(4, new int[12], 1, 25);
+        assertPackInvalid(0, new int[13], 1, 25);
+        assertPackInvalid(13, new int[13], 1, 25);
+        assertPackInvalid(4, monthDays, 3, 25);
+        int[] wrongDays = monthDays.clone();
+        wrongDays[5] = 31;
+        assertPackInvalid(4, wrongDays, 1, 25);
+    }
+
+    @Test
+    public void segmentSize() {
+        try {
+            new LunarDataSegment(1800, new int[0]);
+            fail();
+        } catch (RuntimeException expected) {
+            // 空分段
+        }
+    }
+
+    private static void assertPackInvalid(int leapMonth, int[] monthDays, int newYearMonth, int newYearDay) {
+        try {
+            LunarDataSegment.pack(leapMonth, monthDays, newYearMonth, newYearDay);
+            fail();
+        } catch (RuntimeException expected) {
+            // 参数不合法
+        }
+    }
+}
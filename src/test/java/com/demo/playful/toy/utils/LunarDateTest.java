@@ -0,0 +1,174 @@
+package com.demo.playful.toy.utils;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * LunarDateTest
+ *
+ * @author 张涵林
+ * @date 2020/7/6
+ */
+public class LunarDateTest {
+
+    @After
+    public void restoreProvider() {
+        DateUtils.LunarDate.setProvider(new ClasspathLunarDataProvider());
+    }
+
+    @Test
+    public void roundTripBuiltInTable() {
+        int from = DateUtils.toEpochDay(1900, 1, 31);
+        long to = DateUtils.LunarDate.lunarToSolar(2099, 12, false, 1, 0) / 24;
+        assertEquals(from * 24L, DateUtils.LunarDate.lunarToSolar(1900, 1, false, 1, 0));
+        int previous = 0;
+        for (int epochDay = from; epochDay <= to; epochDay++) {
+            int lunarDate = DateUtils.LunarDate.solarToLunar(epochDay);
+            assertEquals(epochDay * 24L + 5, DateUtils.LunarDate.lunarToSolar(lunarDate, 5));
+            assertTrue(lunarDate > previous);
+            previous = lunarDate;
+        }
+    }
+
+    @Test
+    public void leapMonth2020() {
+        // 2020年闰四月: 四月初一为4月23日, 闰四月初一为5月23日, 五月初一为6月21日
+        int leapFirst = DateUtils.toEpochDay(2020, 5, 23);
+        int lunarDate = DateUtils.LunarDate.solarToLunar(leapFirst);
+        assertEquals(2020 << 16 | 3 << 8 | 0x20 | 1, lunarDate);
+        assertEquals(2020, DateUtils.LunarDate.getLunarYear(lunarDate));
+        assertEquals(3, DateUtils.LunarDate.getLunarMonth(lunarDate));
+        assertTrue(DateUtils.LunarDate.isLeapMonth(lunarDate));
+        assertEquals(1, DateUtils.LunarDate.getLunarDay(lunarDate));
+        assertEquals(leapFirst * 24L + 12, DateUtils.LunarDate.lunarToSolar(2020, 4, true, 1, 12));
+
+        int aprilFirst = DateUtils.LunarDate.solarToLunar(DateUtils.toEpochDay(2020, 4, 23));
+        assertEquals(2020 << 16 | 3 << 8 | 1, aprilFirst);
+        assertFalse(DateUtils.LunarDate.isLeapMonth(aprilFirst));
+        assertEquals(DateUtils.toEpochDay(2020, 4, 23) * 24L, DateUtils.LunarDate.lunarToSolar(2020, 4, false, 1, 0));
+
+        assertEquals(2020 << 16 | 3 << 8 | 0x20 | 29, DateUtils.LunarDate.solarToLunar(DateUtils.toEpochDay(2020, 6, 20)));
+        assertEquals(2020 << 16 | 4 << 8 | 1, DateUtils.LunarDate.solarToLunar(DateUtils.toEpochDay(2020, 6, 21)));
+        assertEquals(DateUtils.toEpochDay(2020, 6, 21) * 24L, DateUtils.LunarDate.lunarToSolar(2020, 5, false, 1, 0));
+    }
+
+    @Test
+    public void errorCodes() {
+        assertEquals(DateUtils.LunarDate.ERROR_RANGE, DateUtils.LunarDate.lunarToSolar(2020, 0, false, 1, 0));
+        assertEquals(DateUtils.LunarDate.ERROR_RANGE, DateUtils.LunarDate.lunarToSolar(2020, 13, false, 1, 0));
+        assertEquals(DateUtils.LunarDate.ERROR_RANGE, DateUtils.LunarDate.lunarToSolar(2020, 1, false, 1, -1));
+        assertEquals(DateUtils.LunarDate.ERROR_RANGE, DateUtils.LunarDate.lunarToSolar(2020, 1, false, 1, 24));
+        assertEquals(DateUtils.LunarDate.ERROR_RANGE, DateUtils.LunarDate.lunarToSolar(9999, 1, false, 1, 0));
+        // 2020年只闰四月, 2021年没有闰月
+        assertEquals(DateUtils.LunarDate.ERROR_LEAP_MONTH, DateUtils.LunarDate.lunarToSolar(2020, 5, true, 1, 0));
+        assertEquals(DateUtils.LunarDate.ERROR_LEAP_MONTH, DateUtils.LunarDate.lunarToSolar(2021, 4, true, 1, 0));
+        // 2020年闰四月是小月, 四月是大月
+        assertEquals(DateUtils.LunarDate.ERROR_DAY, DateUtils.LunarDate.lunarToSolar(2020, 4, true, 30, 0));
+        assertTrue(DateUtils.LunarDate.isValidEpochHour(DateUtils.LunarDate.lunarToSolar(2020, 4, false, 30, 0)));
+        assertEquals(DateUtils.LunarDate.ERROR_DAY, DateUtils.LunarDate.lunarToSolar(2020, 1, false, 0, 0));
+        assertEquals(DateUtils.LunarDate.ERROR_DAY, DateUtils.LunarDate.lunarToSolar(2020, 1, false, 31, 0));
+
+        int[] lunarDates = {2020 << 16 | 3 << 8 | 0x20 | 1, 2020 << 16 | 4 << 8 | 0x20 | 1, 2020 << 16 | 3 << 8 | 0x20 | 30};
+        long[] epochHours = new long[lunarDates.length];
+        assertEquals(2, DateUtils.LunarDate.lunarToSolar(lunarDates, new int[]{0, 0, 0}, epochHours));
+        assertEquals(DateUtils.toEpochDay(2020, 5, 23) * 24L, epochHours[0]);
+        assertEquals(DateUtils.LunarDate.ERROR_LEAP_MONTH, epochHours[1]);
+        assertEquals(DateUtils.LunarDate.ERROR_DAY, epochHours[2]);
+        for (long code : new long[]{DateUtils.LunarDate.ERROR_RANGE, DateUtils.LunarDate.ERROR_LEAP_MONTH, DateUtils.LunarDate.ERROR_DAY}) {
+            assertFalse(DateUtils.LunarDate.isValidEpochHour(code));
+        }
+    }
+
+    @Test
+    public void roundTripAllSegments() {
+        // 1800年正月初一至公历2199年末
+        int from = (int) (DateUtils.LunarDate.lunarToSolar(1800, 1, false, 1, 0) / 24);
+        int to = DateUtils.toEpochDay(2199, 12, 31);
+        int previous = 0;
+        for (int epochDay = from; epochDay <= to; epochDay++) {
+            int lunarDate = DateUtils.LunarDate.solarToLunar(epochDay);
+            assertEquals(epochDay * 24L, DateUtils.LunarDate.lunarToSolar(lunarDate, 0));
+            assertTrue(lunarDate > previous);
+            previous = lunarDate;
+        }
+        assertEquals(1800, DateUtils.LunarDate.getMinYear());
+        assertEquals(2199, DateUtils.LunarDate.getMaxYear());
+    }
+
+    @Test
+    public void stitchSegments() {
+        ClasspathLunarDataProvider classpath = new ClasspathLunarDataProvider();
+        AtomicInteger loads = new AtomicInteger();
+        DateUtils.LunarDate.setProvider(year -> {
+            loads.incrementAndGet();
+            return classpath.load(year);
+        });
+        assertEquals(1900, DateUtils.LunarDate.getMinYear());
+        assertEquals(2099, DateUtils.LunarDate.getMaxYear());
+
+        // 1850年在1800-1899的分段里, 接在内置表之前
+        assertEquals(DateUtils.toEpochDay(1850, 2, 12) * 24L, DateUtils.LunarDate.lunarToSolar(1850, 1, false, 1, 0));
+        assertEquals(1800, DateUtils.LunarDate.getMinYear());
+        assertEquals(1, loads.get());
+        // 1899与1900交界处连续
+        assertEquals(1899 << 16 | 11 << 8 | 30, DateUtils.LunarDate.solarToLunar(DateUtils.toEpochDay(1900, 1, 30)));
+        assertEquals(1900 << 16 | 1, DateUtils.LunarDate.solarToLunar(DateUtils.toEpochDay(1900, 1, 31)));
+
+        assertTrue(DateUtils.LunarDate.ensureYear(2150));
+        assertEquals(2199, DateUtils.LunarDate.getMaxYear());
+        assertEquals(2, loads.get());
+        assertEquals(2099 << 16 | 11 << 8 | 30, DateUtils.LunarDate.solarToLunar(DateUtils.toEpochDay(2100, 2, 8)));
+        assertEquals(2100 << 16 | 1, DateUtils.LunarDate.solarToLunar(DateUtils.toEpochDay(2100, 2, 9)));
+
+        // 没有1700年代的资源, 向前标记为耗尽, 之后不再加载
+        assertFalse(DateUtils.LunarDate.ensureYear(1750));
+        assertEquals(3, loads.get());
+        assertFalse(DateUtils.LunarDate.ensureYear(1700));
+        assertEquals(DateUtils.LunarDate.ERROR_RANGE, DateUtils.LunarDate.lunarToSolar(1600, 1, false, 1, 0));
+        assertEquals(3, loads.get());
+        assertTrue(DateUtils.LunarDate.ensureYear(1800));
+    }
+
+    @Test
+    public void rejectSegmentNotAdjacent() {
+        LunarDataSegment segment = new ClasspathLunarDataProvider().load(1850);
+        // 缺少1899年, 与内置表之间有空隙
+        int[] infos = new int[99];
+        for (int i = 0; i < infos.length; i++) {
+            infos[i] = segment.getInfo(1800 + i);
+        }
+        DateUtils.LunarDate.setProvider(year -> new LunarDataSegment(1800, infos));
+        assertSegmentRejected(1850);
+        assertEquals(1900, DateUtils.LunarDate.getMinYear());
+    }
+
+    @Test
+    public void rejectSegmentInconsistent() {
+        LunarDataSegment segment = new ClasspathLunarDataProvider().load(1850);
+        int[] infos = new int[100];
+        for (int i = 0; i < infos.length; i++) {
+            infos[i] = segment.getInfo(1800 + i);
+        }
+        // 1899年少一个大月, 年末接不上1900年正月初一
+        infos[99] &= ~0x80000;
+        DateUtils.LunarDate.setProvider(year -> new LunarDataSegment(1800, infos));
+        assertSegmentRejected(1850);
+        assertEquals(1900, DateUtils.LunarDate.getMinYear());
+    }
+
+    private static void assertSegmentRejected(int year) {
+        try {
+            DateUtils.LunarDate.ensureYear(year);
+            fail("year:" + year);
+        } catch (RuntimeException expected) {
+            // 分段与已加载的数据接不上
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.demo.playful.toy.utils;
+
+import com.demo.playful.toy.CalculationEightCharacters;
+import com.demo.playful.toy.EightCharactersSpliterator;
+import com.demo.playful.toy.domain.EightCharactersCode;
+import com.demo.playful.toy.enums.PillarMode;
+import com.demo.playful.toy.enums.SolarTerm;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * SolarTermTableTest
+ *
+ * @author 张涵林
+ * @date 2020/7/6
+ */
+public class SolarTermTableTest {
+    private static final int TERM_COUNT = (SolarTermTable.MAX_YEAR - SolarTermTable.MIN_YEAR + 1) * 24;
+
+    @Test
+    public void tableBounds() {
+        long first = SolarTermTable.getTermEpochMinute(SolarTermTable.MIN_YEAR, SolarTerm.XIAO_HAN);
+        long end = SolarTermTable.getTermEpochMinute(TERM_COUNT);
+        // 2101-01-05 21:06:26 向上取整到分钟
+        assertEquals(SolarTermTable.toEpochMinute(DateUtils.toEpochDay(2101, 1, 5), 21, 7), end);
+        assertTrue(end > SolarTermTable.getTermEpochMinute(TERM_COUNT - 1));
+
+        assertFalse(SolarTermTable.contains(first - 1));
+        assertTrue(SolarTermTable.contains(first));
+        assertTrue(SolarTermTable.contains(end - 1));
+        assertFalse(SolarTermTable.contains(end));
+
+        assertEquals(0, SolarTermTable.getTermIndex(first));
+        assertEquals(TERM_COUNT - 1, SolarTermTable.getTermIndex(end - 1));
+        assertOutOfRange(first - 1);
+        assertOutOfRange(end);
+        assertOutOfRange(Integer.MAX_VALUE);
+        try {
+            SolarTermTable.getTermEpochMinute(TERM_COUNT + 1);
+            fail();
+        } catch (RuntimeException expected) {
+            // 超出结束时刻
+        }
+    }
+
+    @Test
+    public void rejectYearsAfterTable() {
+        for (int year : new int[]{2101, 2150, 2500}) {
+            try {
+                CalculationEightCharacters.calculationEightCharactersCode(year, 6, 1, 12, 0, PillarMode.SOLAR_TERM);
+                fail("year:" + year);
+            } catch (RuntimeException expected) {
+                // 节气表之外
+            }
+        }
+        // 最后一个区间仍可计算
+        assertTrue(CalculationEightCharacters.calculationEightCharactersCode(2100, 12, 31, 23, 0, PillarMode.SOLAR_TERM)
+                != EightCharactersCode.INVALID);
+        assertTrue(CalculationEightCharacters.calculationEightCharactersCode(2101, 1, 5, 20, 0, PillarMode.SOLAR_TERM)
+                != EightCharactersCode.INVALID);
+    }
+
+    @Test
+    public void spliteratorStopsAtTableEnd() {
+        long from = DateUtils.toEpochDay(2100, 12, 1) * 24L;
+        long to = DateUtils.toEpochDay(2101, 1, 5) * 24L + 21;
+        long[] codes = EightCharactersSpliterator.stream(from, to, PillarMode.SOLAR_TERM, false).toArray();
+        assertEquals(to - from, codes.length);
+        for (int i = 0; i < codes.length; i++) {
+            LocalDateTime t = LocalDateTime.ofEpochSecond((from + i) * 3600, 0, ZoneOffset.UTC);
+            assertEquals(CalculationEightCharacters.calculationEightCharactersCode(t.getYear(), t.getMonthValue(),
+                    t.getDayOfMonth(), t.getHour(), 0, PillarMode.SOLAR_TERM), codes[i]);
+        }
+        // 2101年小寒之后的小时无法计算
+        long[] tail = EightCharactersSpliterator.stream(to, to + 2, PillarMode.SOLAR_TERM, false).toArray();
+        assertTrue(tail[0] != EightCharactersCode.INVALID);
+        assertEquals(EightCharactersCode.INVALID, tail[1]);
+    }
+
+    private static void assertOutOfRange(long epochMinute) {
+        try {
+            SolarTermTable.getTermIndex(epochMinute);
+            fail("epochMinute:" + epochMinute);
+        } catch (RuntimeException expected) {
+            // 超出范围
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.demo.playful.toy.utils;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Calendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * TimestampParserTest
+ *
+ * @author 张涵林
+ * @date 2020/7/6
+ */
+public class TimestampParserTest {
+
+    @Test
+    public void parseFormats() {
+        assertParsed("1990-12-26 07", 1990, 12, 26, 7);
+        assertParsed("1990122607", 1990, 12, 26, 7);
+        assertParsed("  2020-02-29T23 ", 2020, 2, 29, 23);
+        assertParsed("2020-02-29T23:59", 2020, 2, 29, 23);
+        assertParsed("2020-02-29 23:59:58", 2020, 2, 29, 23);
+        assertParsed("2020-02-29T23:59:58.123456789012", 2020, 2, 29, 23);
+    }
+
+    @Test
+    public void errors() {
+        assertStatus(TimestampParser.ERROR_LENGTH, "");
+        assertStatus(TimestampParser.ERROR_LENGTH, "2020-02-29 2");
+        assertStatus(TimestampParser.ERROR_FORMAT, "2020/02/29 23");
+        assertStatus(TimestampParser.ERROR_FORMAT, "2020-02-2x 23");
+        assertStatus(TimestampParser.ERROR_FORMAT, "202002292x");
+        assertStatus(TimestampParser.ERROR_FORMAT, "2020-02-29 23:5");
+        assertStatus(TimestampParser.ERROR_FORMAT, "2020-02-29 23:59:58.");
+        assertStatus(TimestampParser.ERROR_FORMAT, "2020-02-29 23:59:58.12a");
+        assertStatus(TimestampParser.ERROR_FORMAT, "2020年02-29 23");
+        assertStatus(TimestampParser.ERROR_RANGE, "2021-02-29 23");
+        assertStatus(TimestampParser.ERROR_RANGE, "2020-13-01 00");
+        assertStatus(TimestampParser.ERROR_RANGE, "2020-01-01 24");
+        assertStatus(TimestampParser.ERROR_RANGE, "2020-01-01 10:60");
+    }
+
+    @Test
+    public void slices() {
+        String text = "x,1990-12-26 07,y";
+        long parsed = TimestampParser.parse(text, 2, 15);
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        assertEquals(parsed, TimestampParser.parse(bytes, 2, 15));
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.position(7);
+        assertEquals(parsed, TimestampParser.parse(buffer, 2, 15));
+        assertEquals(7, buffer.position());
+        assertEquals(DateUtils.toEpochDay(1990, 12, 26) * 24L + 7, TimestampParser.toEpochHour(parsed));
+    }
+
+    @Test
+    public void parseCalendarLayout() {
+        Calendar calendar = DateUtils.parseCalendar("1990122607", "yyyyMMddHH");
+        assertEquals(1990, calendar.get(Calendar.YEAR));
+        assertEquals(Calendar.DECEMBER, calendar.get(Calendar.MONTH));
+        assertEquals(26, calendar.get(Calendar.DAY_OF_MONTH));
+        assertEquals(7, calendar.get(Calendar.HOUR_OF_DAY));
+        assertEquals(calendar, DateUtils.parseCalendar(" 1990-12-26 07 ", "yyyy-MM-dd HH"));
+
+        assertRejected("1990-12-26 07", "yyyyMMddHH");
+        assertRejected("1990122607", "yyyy-MM-dd HH");
+        assertRejected("1990-12-26T07", "yyyy-MM-dd HH");
+        assertRejected("1990-12-26 07:00", "yyyy-MM-dd HH");
+        assertRejected("1990-02-30 07", "yyyy-MM-dd HH");
+    }
+
+    private static void assertParsed(String text, int year, int month, int day, int hour) {
+        long parsed = TimestampParser.parse(text);
+        assertEquals(text, true, TimestampParser.isValid(parsed));
+        assertEquals(year, TimestampParser.getYear(parsed));
+        assertEquals(month, TimestampParser.getMonth(parsed));
+        assertEquals(day, TimestampParser.getDay(parsed));
+        assertEquals(hour, TimestampParser.getHour(parsed));
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        assertEquals(parsed, TimestampParser.parse(bytes, 0, bytes.length));
+        assertEquals(parsed, TimestampParser.parse(ByteBuffer.wrap(bytes), 0, bytes.length));
+    }
+
+    private static void assertStatus(long status, String text) {
+        assertEquals(text, status, TimestampParser.parse(text));
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        assertEquals(text, status, TimestampParser.parse(bytes, 0, bytes.length));
+        assertEquals(text, status, TimestampParser.parse(ByteBuffer.wrap(bytes), 0, bytes.length));
+    }
+
+    private static void assertRejected(String text, String format) {
+        try {
+            DateUtils.parseCalendar(text, format);
+            fail(text + " accepted as " + format);
+        } catch (RuntimeException e) {
+            // expected
+        }
+    }
+}